@@ -3,6 +3,7 @@
 -- ============================================
 
 -- Drop tables if they exist (for clean setup)
+DROP TABLE IF EXISTS Change_Log;
 DROP TABLE IF EXISTS Employee_Project;
 DROP TABLE IF EXISTS Project_Client;
 DROP TABLE IF EXISTS Project_Department;
@@ -83,6 +84,22 @@ CREATE TABLE Project_Department (
     FOREIGN KEY (department_id) REFERENCES Department(department_id) ON DELETE CASCADE
 );
 
+-- Change Log: one row per write from any node, filled by the triggers below
+-- and tailed by every node's ChangeLogPoller. node_id is the writer's
+-- @eems_node session variable (NULL for writes from outside the application).
+-- Every node in jdbc or cached mode runs a ChangeLogPruner that deletes rows
+-- older than eems.changelog.retentionHours.
+CREATE TABLE Change_Log (
+    seq BIGINT PRIMARY KEY AUTO_INCREMENT,
+    table_name VARCHAR(32) NOT NULL,
+    operation CHAR(1) NOT NULL,
+    key1 INT NOT NULL,
+    key2 INT NULL,
+    node_id VARCHAR(64) NULL,
+    changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_change_log_changed_at (changed_at)
+);
+
 -- ============================================
 -- Sample Data Inserts
 -- ============================================
@@ -166,4 +183,56 @@ INSERT INTO Project_Department (project_id, department_id) VALUES
 (5, 5),
 (5, 1),
 (2, 1),
-(3, 2);
\ No newline at end of file
+(3, 2);
+
+-- ============================================
+-- Change Log Triggers
+-- Created after the sample data, so only later writes are logged. Rows removed
+-- by ON DELETE CASCADE fire no triggers; their parent's entry implies them.
+-- ============================================
+
+
+CREATE TRIGGER trg_department_insert AFTER INSERT ON Department FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Department', 'I', NEW.department_id, NULL, @eems_node);
+CREATE TRIGGER trg_department_update AFTER UPDATE ON Department FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Department', 'U', NEW.department_id, NULL, @eems_node);
+CREATE TRIGGER trg_department_delete AFTER DELETE ON Department FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Department', 'D', OLD.department_id, NULL, @eems_node);
+
+CREATE TRIGGER trg_employee_insert AFTER INSERT ON Employee FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Employee', 'I', NEW.employee_id, NULL, @eems_node);
+CREATE TRIGGER trg_employee_update AFTER UPDATE ON Employee FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Employee', 'U', NEW.employee_id, NULL, @eems_node);
+CREATE TRIGGER trg_employee_delete AFTER DELETE ON Employee FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Employee', 'D', OLD.employee_id, NULL, @eems_node);
+
+CREATE TRIGGER trg_project_insert AFTER INSERT ON Project FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project', 'I', NEW.project_id, NULL, @eems_node);
+CREATE TRIGGER trg_project_update AFTER UPDATE ON Project FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project', 'U', NEW.project_id, NULL, @eems_node);
+CREATE TRIGGER trg_project_delete AFTER DELETE ON Project FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project', 'D', OLD.project_id, NULL, @eems_node);
+
+CREATE TRIGGER trg_client_insert AFTER INSERT ON Client FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Client', 'I', NEW.client_id, NULL, @eems_node);
+CREATE TRIGGER trg_client_update AFTER UPDATE ON Client FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Client', 'U', NEW.client_id, NULL, @eems_node);
+CREATE TRIGGER trg_client_delete AFTER DELETE ON Client FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Client', 'D', OLD.client_id, NULL, @eems_node);
+
+CREATE TRIGGER trg_employee_project_insert AFTER INSERT ON Employee_Project FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Employee_Project', 'I', NEW.employee_id, NEW.project_id, @eems_node);
+CREATE TRIGGER trg_employee_project_update AFTER UPDATE ON Employee_Project FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Employee_Project', 'U', NEW.employee_id, NEW.project_id, @eems_node);
+CREATE TRIGGER trg_employee_project_delete AFTER DELETE ON Employee_Project FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Employee_Project', 'D', OLD.employee_id, OLD.project_id, @eems_node);
+
+CREATE TRIGGER trg_project_client_insert AFTER INSERT ON Project_Client FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project_Client', 'I', NEW.project_id, NEW.client_id, @eems_node);
+CREATE TRIGGER trg_project_client_delete AFTER DELETE ON Project_Client FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project_Client', 'D', OLD.project_id, OLD.client_id, @eems_node);
+
+CREATE TRIGGER trg_project_department_insert AFTER INSERT ON Project_Department FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project_Department', 'I', NEW.project_id, NEW.department_id, @eems_node);
+CREATE TRIGGER trg_project_department_delete AFTER DELETE ON Project_Department FOR EACH ROW
+    INSERT INTO Change_Log (table_name, operation, key1, key2, node_id) VALUES ('Project_Department', 'D', OLD.project_id, OLD.department_id, @eems_node);
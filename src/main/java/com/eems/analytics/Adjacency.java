@@ -0,0 +1,62 @@
+package com.eems.analytics;
+
+import java.util.Arrays;
+
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Analytics: Adjacency
+ * One direction of a many-to-many link: the ids linked to each id, ascending,
+ * in one array each, so walking the links touches one object per id.
+ *
+ * Not thread-safe; the indexes using it guard it with their own locks.
+ */
+final class Adjacency {
+
+    private static final int[] NONE = new int[0];
+
+    private final IntObjectHashMap<int[]> lists = new IntObjectHashMap<>();
+
+    int[] get(int id) {
+        int[] list = lists.get(id);
+        return list == null ? NONE : list;
+    }
+
+    void add(int id, int linkedId) {
+        int[] list = get(id);
+        int at = Arrays.binarySearch(list, linkedId);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        int[] grown = new int[list.length + 1];
+        System.arraycopy(list, 0, grown, 0, at);
+        grown[at] = linkedId;
+        System.arraycopy(list, at, grown, at + 1, list.length - at);
+        lists.put(id, grown);
+    }
+
+    void remove(int id, int linkedId) {
+        int[] list = get(id);
+        int at = Arrays.binarySearch(list, linkedId);
+        if (at < 0) {
+            return;
+        }
+        if (list.length == 1) {
+            lists.remove(id);
+            return;
+        }
+        int[] shrunk = new int[list.length - 1];
+        System.arraycopy(list, 0, shrunk, 0, at);
+        System.arraycopy(list, at + 1, shrunk, at, list.length - at - 1);
+        lists.put(id, shrunk);
+    }
+
+    /**
+     * Drop every link of the id, returning the ids it was linked to.
+     */
+    int[] removeAll(int id) {
+        int[] list = lists.remove(id);
+        return list == null ? NONE : list;
+    }
+}
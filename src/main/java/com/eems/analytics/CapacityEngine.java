@@ -0,0 +1,209 @@
+package com.eems.analytics;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * Analytics: Capacity Engine
+ * Who has free capacity, and when: each employee's allocation percentages are
+ * spread over the date ranges of the projects they are assigned to, giving a
+ * per-employee timeline in a {@link CapacityIndex}. An employee is assumed to
+ * have 100% to give on every day.
+ *
+ * The index is loaded on first use and then follows the change events of
+ * every write, like {@link FacetEngine}; an assignment change re-sweeps one
+ * employee's timeline.
+ */
+public class CapacityEngine implements AutoCloseable {
+
+    private static final int FULL_TIME_PERCENT = 100;
+
+    private final DataStore store;
+    private final ChangeEventBus bus;
+    private volatile CapacityIndex index;
+    private ChangeEventBus.Subscription subscription;
+
+    /**
+     * An engine following the shared change-event bus, which every built-in store publishes to.
+     */
+    public CapacityEngine(DataStore store) {
+        this(store, ChangeEventBus.shared());
+    }
+
+    /**
+     * One engine per store, shared through {@link DataStores#engine}.
+     */
+    public static CapacityEngine shared(DataStore store) {
+        return DataStores.engine(store, CapacityEngine.class, CapacityEngine::new);
+    }
+
+    /**
+     * @param bus bus the store announces its writes on, or null to refresh only through {@link #rebuild}
+     */
+    public CapacityEngine(DataStore store, ChangeEventBus bus) {
+        this.store = store;
+        this.bus = bus;
+    }
+
+    /**
+     * Ids of the employees with at least {@code minFreePercent} free on every day
+     * from {@code from} through {@code to}, ascending.
+     *
+     * @param departmentId department to search, or 0 for every department
+     */
+    public int[] findAvailableEmployeeIds(int departmentId, int minFreePercent, LocalDate from, LocalDate to)
+            throws SQLException {
+        return index().withinAllocation(departmentId, FULL_TIME_PERCENT - minFreePercent, from, to);
+    }
+
+    /**
+     * @param departmentId department to search, or 0 for every department
+     */
+    public List<Employee> findAvailableEmployees(int departmentId, int minFreePercent, LocalDate from, LocalDate to)
+            throws SQLException {
+        return store.employees().findByIds(findAvailableEmployeeIds(departmentId, minFreePercent, from, to));
+    }
+
+    /**
+     * The employee's allocation from {@code from} through {@code to} as consecutive
+     * segments covering the whole range, or null if there is no such employee.
+     */
+    public List<CapacitySegment> getCapacity(int employeeId, LocalDate from, LocalDate to) throws SQLException {
+        return index().segments(employeeId, from, to);
+    }
+
+    /**
+     * Every run of days on which an employee's concurrent allocations exceed 100%,
+     * by employee and then by date.
+     */
+    public List<OverAllocation> findOverAllocations() throws SQLException {
+        return index().aboveAllocation(FULL_TIME_PERCENT);
+    }
+
+    /**
+     * The over-allocated runs the employee would have within the project's dates
+     * if allocated {@code percent} to it in place of any current allocation; empty
+     * if none. Only the employee's own timeline is swept, so no assignments are read.
+     */
+    public List<OverAllocation> checkAllocation(int employeeId, Project project, int percent) throws SQLException {
+        return index().aboveAllocationWith(employeeId, project, percent, FULL_TIME_PERCENT);
+    }
+
+    /**
+     * The same check swept from rows the caller has read, such as the
+     * employee's assignments locked inside a write transaction, rather than from
+     * the index, which trails committed writes.
+     *
+     * @param assignments the employee's current assignments
+     * @param projects    the projects those assignments refer to
+     */
+    public static List<OverAllocation> checkAllocation(int employeeId, List<EmployeeProject> assignments,
+                                                       List<Project> projects, Project project, int percent) {
+        return CapacityIndex.aboveAllocationWith(employeeId, assignments, projects, project, percent,
+                FULL_TIME_PERCENT);
+    }
+
+    /**
+     * Reload the index from scans of the store; queries keep using
+     * the previous index until the new one is complete.
+     */
+    public synchronized void rebuild() throws SQLException {
+        CapacityIndex rebuilt = new CapacityIndex();
+        store.employees().forEach(rebuilt::putEmployee);
+        for (Project project : store.projects().findAll()) {
+            rebuilt.putProject(project);
+        }
+        store.employeeProjects().forEach(assignment -> rebuilt.putAssignment(
+                assignment.getEmployeeId(), assignment.getProjectId(), assignment.getTimeAllocationPercent()));
+        index = rebuilt;
+    }
+
+    /**
+     * Stop following the bus.
+     */
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    // Serialized with rebuild(), so a change is never applied to an index that a rebuild then replaces
+    private synchronized void apply(List<ChangeEvent> batch) {
+        CapacityIndex current = index;
+        if (current == null) return;
+
+        for (ChangeEvent event : batch) {
+            switch (event) {
+                case ChangeEvent.EmployeeChanged e -> {
+                    if (e.change() == ChangeEvent.Change.DELETED) {
+                        current.removeEmployee(e.employeeId());
+                    } else {
+                        current.putEmployee(e.employee());
+                    }
+                }
+                case ChangeEvent.ProjectChanged p -> {
+                    if (p.change() == ChangeEvent.Change.DELETED) {
+                        current.removeProject(p.projectId());
+                    } else {
+                        current.putProject(p.project());
+                    }
+                }
+                case ChangeEvent.AssignmentChanged a -> {
+                    if (a.change() == ChangeEvent.Change.DELETED) {
+                        current.removeAssignment(a.employeeId(), a.projectId());
+                    } else {
+                        current.putAssignment(a.employeeId(), a.projectId(),
+                                a.assignment().getTimeAllocationPercent());
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private CapacityIndex index() throws SQLException {
+        CapacityIndex current = index;
+        if (current == null) {
+            loadOnce();
+            current = index;
+        }
+        return current;
+    }
+
+    // Subscribe before the scans, so no write committed during them is missed
+    private synchronized void loadOnce() throws SQLException {
+        if (index != null) return;
+
+        if (bus != null && subscription == null) {
+            subscription = bus.subscribe("eems-capacity-index", new ChangeListener() {
+                @Override
+                public void onChanges(List<ChangeEvent> batch) {
+                    apply(batch);
+                }
+
+                @Override
+                public void onOverflow() {
+                    if (index == null) return;
+                    try {
+                        rebuild();
+                    } catch (SQLException e) {
+                        System.err.println("Capacity index rebuild failed: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        rebuild();
+    }
+}
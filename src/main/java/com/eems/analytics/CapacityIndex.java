@@ -0,0 +1,486 @@
+package com.eems.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.util.IntBitmap;
+import com.eems.util.IntIntHashMap;
+import com.eems.util.IntList;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Analytics: Capacity Index
+ * Each employee's allocation over time as a step function of epoch days: one
+ * sweep over the start and day-after-end of the employee's assigned projects
+ * yields the days on which the summed percentage changes and its value from
+ * each of them on. The peak of the whole function is kept beside it, so most
+ * range checks are settled without searching the steps.
+ *
+ * A change to an assignment re-sweeps that employee only; a change to a
+ * project's dates re-sweeps the employees assigned to it. A project without
+ * both dates, or ending before it starts, takes no capacity. Checking an
+ * assignment before it is made sweeps a copy of one employee's timeline.
+ *
+ * Queries run concurrently under a read lock; updates take the write lock.
+ */
+final class CapacityIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private record Span(int start, int end) {}
+
+    // Allocations sorted by project id, and the step function swept from them
+    private static final class Timeline {
+        int[] projectIds = NONE;
+        int[] percents = NONE;
+        int[] days = NONE;
+        int[] loads = NONE;
+        int peak;
+
+        boolean isEmpty() {
+            return projectIds.length == 0;
+        }
+
+        void put(int projectId, int percent) {
+            int at = Arrays.binarySearch(projectIds, projectId);
+            if (at >= 0) {
+                percents[at] = percent;
+                return;
+            }
+            at = -at - 1;
+            projectIds = insert(projectIds, at, projectId);
+            percents = insert(percents, at, percent);
+        }
+
+        void remove(int projectId) {
+            int at = Arrays.binarySearch(projectIds, projectId);
+            if (at >= 0) {
+                projectIds = delete(projectIds, at);
+                percents = delete(percents, at);
+            }
+        }
+
+        /**
+         * Highest allocation on any day from {@code from} through {@code to}.
+         */
+        int maxLoad(int from, int to) {
+            if (days.length == 0 || to < days[0] || from >= days[days.length - 1]) {
+                return 0;
+            }
+            int at = stepAt(from);
+            int max = at < 0 ? 0 : loads[at];
+            for (int i = at + 1; i < days.length && days[i] <= to && max < peak; i++) {
+                max = Math.max(max, loads[i]);
+            }
+            return max;
+        }
+
+        // Index of the last step on or before the day, or -1
+        int stepAt(int day) {
+            int at = Arrays.binarySearch(days, day);
+            return at >= 0 ? at : -at - 2;
+        }
+
+        Timeline copy() {
+            Timeline copy = new Timeline();
+            copy.projectIds = projectIds;
+            copy.percents = percents.clone();
+            return copy;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntBitmap employees = new IntBitmap();
+    private final IntIntHashMap departmentByEmployee = new IntIntHashMap();
+    private final IntObjectHashMap<IntBitmap> employeesByDepartment = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Span> projectSpans = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Timeline> timelines = new IntObjectHashMap<>();
+    private final Adjacency employeesByProject = new Adjacency();
+
+    // ============================================
+    // Updates
+    // ============================================
+
+    void putEmployee(Employee employee) {
+        int employeeId = employee.getEmployeeId();
+        lock.writeLock().lock();
+        try {
+            if (departmentByEmployee.containsKey(employeeId)) {
+                removeFrom(departmentByEmployee.getOrDefault(employeeId, 0), employeeId);
+            }
+            employees.add(employeeId);
+            departmentByEmployee.put(employeeId, employee.getDepartmentId());
+            employeesByDepartment.computeIfAbsent(employee.getDepartmentId(), d -> new IntBitmap()).add(employeeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the employee with their assignments, as ON DELETE CASCADE does.
+     */
+    void removeEmployee(int employeeId) {
+        lock.writeLock().lock();
+        try {
+            if (departmentByEmployee.containsKey(employeeId)) {
+                removeFrom(departmentByEmployee.getOrDefault(employeeId, 0), employeeId);
+                departmentByEmployee.remove(employeeId);
+            }
+            employees.remove(employeeId);
+            Timeline timeline = timelines.remove(employeeId);
+            if (timeline != null) {
+                for (int projectId : timeline.projectIds) {
+                    employeesByProject.remove(projectId, employeeId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putProject(Project project) {
+        int projectId = project.getProjectId();
+        Span span = span(project);
+        lock.writeLock().lock();
+        try {
+            Span previous = span == null ? projectSpans.remove(projectId) : projectSpans.put(projectId, span);
+            if (span == null ? previous == null : span.equals(previous)) {
+                return;
+            }
+            for (int employeeId : employeesByProject.get(projectId)) {
+                sweep(timelines.get(employeeId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the project with its assignments, as ON DELETE CASCADE does.
+     */
+    void removeProject(int projectId) {
+        lock.writeLock().lock();
+        try {
+            projectSpans.remove(projectId);
+            for (int employeeId : employeesByProject.removeAll(projectId)) {
+                Timeline timeline = timelines.get(employeeId);
+                timeline.remove(projectId);
+                update(employeeId, timeline);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putAssignment(int employeeId, int projectId, int percent) {
+        lock.writeLock().lock();
+        try {
+            Timeline timeline = timelines.computeIfAbsent(employeeId, e -> new Timeline());
+            timeline.put(projectId, percent);
+            employeesByProject.add(projectId, employeeId);
+            update(employeeId, timeline);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeAssignment(int employeeId, int projectId) {
+        lock.writeLock().lock();
+        try {
+            Timeline timeline = timelines.get(employeeId);
+            if (timeline != null) {
+                timeline.remove(projectId);
+                update(employeeId, timeline);
+            }
+            employeesByProject.remove(projectId, employeeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============================================
+    // Queries
+    // ============================================
+
+    /**
+     * Ids of the employees, all of them or one department's, whose allocation
+     * stays at or below the limit on every day from {@code from} through {@code to}, ascending.
+     */
+    int[] withinAllocation(int departmentId, int maxAllocatedPercent, LocalDate from, LocalDate to) {
+        int fromDay = day(from);
+        int toDay = day(to);
+        lock.readLock().lock();
+        try {
+            IntBitmap candidates = departmentId == 0 ? employees : employeesByDepartment.get(departmentId);
+            if (candidates == null) {
+                return NONE;
+            }
+            IntList matches = new IntList();
+            candidates.forEach(employeeId -> {
+                Timeline timeline = timelines.get(employeeId);
+                if (timeline == null || timeline.peak <= maxAllocatedPercent
+                        || timeline.maxLoad(fromDay, toDay) <= maxAllocatedPercent) {
+                    matches.add(employeeId);
+                }
+            });
+            return matches.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The employee's allocation from {@code from} through {@code to} as consecutive
+     * segments covering the whole range, or null if the employee is unknown.
+     */
+    List<CapacitySegment> segments(int employeeId, LocalDate from, LocalDate to) {
+        int fromDay = day(from);
+        int toDay = day(to);
+        lock.readLock().lock();
+        try {
+            if (!departmentByEmployee.containsKey(employeeId)) {
+                return null;
+            }
+            Timeline timeline = timelines.get(employeeId);
+            int[] days = timeline == null ? NONE : timeline.days;
+            int[] loads = timeline == null ? NONE : timeline.loads;
+
+            List<CapacitySegment> segments = new ArrayList<>();
+            int at = timeline == null ? -1 : timeline.stepAt(fromDay);
+            int segmentStart = fromDay;
+            int load = at < 0 ? 0 : loads[at];
+            for (int i = at + 1; i < days.length && days[i] <= toDay; i++) {
+                segments.add(segment(segmentStart, days[i] - 1, load));
+                segmentStart = days[i];
+                load = loads[i];
+            }
+            segments.add(segment(segmentStart, toDay, load));
+            return segments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every run of days on which an employee's allocation exceeds the limit,
+     * by employee and then by date.
+     */
+    List<OverAllocation> aboveAllocation(int maxAllocatedPercent) {
+        lock.readLock().lock();
+        try {
+            int[] employeeIds = timelines.keys();
+            Arrays.sort(employeeIds);
+            List<OverAllocation> runs = new ArrayList<>();
+            for (int employeeId : employeeIds) {
+                Timeline timeline = timelines.get(employeeId);
+                if (timeline.peak > maxAllocatedPercent) {
+                    collectRuns(employeeId, timeline, maxAllocatedPercent, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                            projectSpans, runs);
+                }
+            }
+            return runs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The runs of days within the project's dates on which the employee's
+     * allocation would exceed the limit if their allocation to the project were
+     * {@code percent}, replacing any they have. The project's dates are taken as
+     * given rather than from the index, which may not have seen it yet.
+     */
+    List<OverAllocation> aboveAllocationWith(int employeeId, Project project, int percent, int maxAllocatedPercent) {
+        Span span = span(project);
+        if (span == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Timeline current = timelines.get(employeeId);
+            Timeline proposed = current == null ? new Timeline() : current.copy();
+            proposed.put(project.getProjectId(), percent);
+
+            IntObjectHashMap<Span> spans = new IntObjectHashMap<>(proposed.projectIds.length);
+            for (int projectId : proposed.projectIds) {
+                Span known = projectId == project.getProjectId() ? span : projectSpans.get(projectId);
+                if (known != null) {
+                    spans.put(projectId, known);
+                }
+            }
+            return runsWithin(employeeId, proposed, spans, span, maxAllocatedPercent);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * As {@link #aboveAllocationWith(int, Project, int, int)}, but swept from the
+     * given rows instead of the index: the employee's current assignments and
+     * the projects they refer to. Assignments to a project not in the list take
+     * no capacity.
+     */
+    static List<OverAllocation> aboveAllocationWith(int employeeId, List<EmployeeProject> assignments,
+                                                    List<Project> projects, Project project, int percent,
+                                                    int maxAllocatedPercent) {
+        Span span = span(project);
+        if (span == null) {
+            return List.of();
+        }
+        Timeline proposed = new Timeline();
+        for (EmployeeProject assignment : assignments) {
+            proposed.put(assignment.getProjectId(), assignment.getTimeAllocationPercent());
+        }
+        proposed.put(project.getProjectId(), percent);
+
+        IntObjectHashMap<Span> spans = new IntObjectHashMap<>(proposed.projectIds.length);
+        for (Project assigned : projects) {
+            Span known = span(assigned);
+            if (known != null) {
+                spans.put(assigned.getProjectId(), known);
+            }
+        }
+        spans.put(project.getProjectId(), span);
+        return runsWithin(employeeId, proposed, spans, span, maxAllocatedPercent);
+    }
+
+    // Sweep a proposed timeline and collect its runs above the limit within the span
+    private static List<OverAllocation> runsWithin(int employeeId, Timeline proposed, IntObjectHashMap<Span> spans,
+                                                   Span span, int maxAllocatedPercent) {
+        sweep(proposed, spans);
+
+        List<OverAllocation> runs = new ArrayList<>();
+        if (proposed.peak > maxAllocatedPercent) {
+            collectRuns(employeeId, proposed, maxAllocatedPercent, span.start(), span.end(), spans, runs);
+        }
+        return runs;
+    }
+
+    // Re-sweep the employee's steps, dropping the timeline once no assignment is left
+    private void update(int employeeId, Timeline timeline) {
+        if (timeline.isEmpty()) {
+            timelines.remove(employeeId);
+        } else {
+            sweep(timeline);
+        }
+    }
+
+    private void sweep(Timeline timeline) {
+        sweep(timeline, projectSpans);
+    }
+
+    private static void sweep(Timeline timeline, IntObjectHashMap<Span> projectSpans) {
+        // Changes packed as (day << 32 | delta), so sorting orders them by day
+        long[] changes = new long[timeline.projectIds.length * 2];
+        int count = 0;
+        for (int i = 0; i < timeline.projectIds.length; i++) {
+            Span span = projectSpans.get(timeline.projectIds[i]);
+            int percent = timeline.percents[i];
+            if (span == null || percent == 0) {
+                continue;
+            }
+            changes[count++] = ((long) span.start() << 32) | (percent & 0xFFFFFFFFL);
+            changes[count++] = ((long) (span.end() + 1) << 32) | (-percent & 0xFFFFFFFFL);
+        }
+        Arrays.sort(changes, 0, count);
+
+        IntList days = new IntList(count);
+        IntList loads = new IntList(count);
+        int load = 0;
+        int peak = 0;
+        for (int i = 0; i < count; ) {
+            int day = (int) (changes[i] >> 32);
+            while (i < count && (int) (changes[i] >> 32) == day) {
+                load += (int) changes[i++];
+            }
+            if (loads.isEmpty() ? load != 0 : load != loads.get(loads.size() - 1)) {
+                days.add(day);
+                loads.add(load);
+                peak = Math.max(peak, load);
+            }
+        }
+        timeline.days = days.toArray();
+        timeline.loads = loads.toArray();
+        timeline.peak = peak;
+    }
+
+    // Maximal runs of steps above the limit, clipped to [from, to], with the projects active in each
+    private static void collectRuns(int employeeId, Timeline timeline, int limit, int from, int to,
+                                    IntObjectHashMap<Span> spans, List<OverAllocation> runs) {
+        int[] days = timeline.days;
+        int[] loads = timeline.loads;
+        int i = Math.max(timeline.stepAt(from), 0);
+        while (i < days.length && days[i] <= to) {
+            if (loads[i] <= limit) {
+                i++;
+                continue;
+            }
+            int runStart = Math.max(days[i], from);
+            int peak = 0;
+            while (i < days.length && loads[i] > limit) {
+                peak = Math.max(peak, loads[i]);
+                i++;
+            }
+            // Loads return to zero after the last step, so a run always ends before one
+            int runEnd = Math.min(days[i] - 1, to);
+
+            List<Integer> projectIds = new ArrayList<>();
+            for (int p = 0; p < timeline.projectIds.length; p++) {
+                Span span = spans.get(timeline.projectIds[p]);
+                if (span != null && timeline.percents[p] > 0 && span.start() <= runEnd && span.end() >= runStart) {
+                    projectIds.add(timeline.projectIds[p]);
+                }
+            }
+            runs.add(new OverAllocation(employeeId, LocalDate.ofEpochDay(runStart), LocalDate.ofEpochDay(runEnd),
+                    peak, projectIds));
+        }
+    }
+
+    private void removeFrom(int departmentId, int employeeId) {
+        IntBitmap members = employeesByDepartment.get(departmentId);
+        if (members != null && members.remove(employeeId) && members.isEmpty()) {
+            employeesByDepartment.remove(departmentId);
+        }
+    }
+
+    private static CapacitySegment segment(int from, int to, int load) {
+        return new CapacitySegment(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), load);
+    }
+
+    private static Span span(Project project) {
+        LocalDate start = project.getStartDate();
+        LocalDate end = project.getEndDate();
+        if (start == null || end == null || end.isBefore(start)) {
+            return null;
+        }
+        return new Span(day(start), day(end));
+    }
+
+    // Epoch day, clamped so the day after any end still fits in an int
+    private static int day(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE - 1, epochDay));
+    }
+
+    private static int[] insert(int[] values, int at, int value) {
+        int[] grown = new int[values.length + 1];
+        System.arraycopy(values, 0, grown, 0, at);
+        grown[at] = value;
+        System.arraycopy(values, at, grown, at + 1, values.length - at);
+        return grown;
+    }
+
+    private static int[] delete(int[] values, int at) {
+        int[] shrunk = new int[values.length - 1];
+        System.arraycopy(values, 0, shrunk, 0, at);
+        System.arraycopy(values, at + 1, shrunk, at, values.length - at - 1);
+        return shrunk;
+    }
+}
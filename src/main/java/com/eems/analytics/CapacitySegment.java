@@ -0,0 +1,16 @@
+package com.eems.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Analytics: Capacity Segment
+ * A run of days, both ends inclusive, over which an employee's summed project
+ * allocation stays the same. Free capacity is what is left of 100%, and is
+ * negative while the employee is over-allocated.
+ */
+public record CapacitySegment(LocalDate from, LocalDate to, int allocatedPercent) {
+
+    public int freePercent() {
+        return 100 - allocatedPercent;
+    }
+}
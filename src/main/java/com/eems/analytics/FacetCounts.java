@@ -0,0 +1,14 @@
+package com.eems.analytics;
+
+import java.util.Map;
+
+/**
+ * Analytics: Facet Counts
+ * Sizes of a facet query's result: the matching clients and projects, and how
+ * many of them carry each facet value. Value maps are sorted and omit zeros.
+ */
+public record FacetCounts(int clients, int projects,
+                          Map<String, Integer> clientsByIndustry,
+                          Map<String, Integer> projectsByStatus,
+                          Map<Integer, Integer> projectsByDepartment) {
+}
@@ -0,0 +1,178 @@
+package com.eems.analytics;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+import com.eems.domain.Client;
+import com.eems.domain.Project;
+
+/**
+ * Analytics: Facet Engine
+ * Multi-facet filtering of clients and projects, such as "clients in industry X
+ * with an Active project in department Y ending within 90 days", answered from
+ * a {@link FacetIndex} of compressed bitmaps instead of joins in SQL.
+ *
+ * The index is loaded on first use with one scan of each table. From then
+ * on every committed write is applied from its change event on the bus, so the
+ * index follows the same write paths that publish the events; a lost batch
+ * forces a reload.
+ */
+public class FacetEngine implements AutoCloseable {
+
+    private final DataStore store;
+    private final ChangeEventBus bus;
+    private volatile FacetIndex index;
+    private ChangeEventBus.Subscription subscription;
+
+    /**
+     * An engine following the shared change-event bus, which every built-in store publishes to.
+     */
+    public FacetEngine(DataStore store) {
+        this(store, ChangeEventBus.shared());
+    }
+
+    /**
+     * The engine every service over the store shares, so its index is loaded
+     * once per store; see {@link DataStores#engine}.
+     */
+    public static FacetEngine shared(DataStore store) {
+        return DataStores.engine(store, FacetEngine.class, FacetEngine::new);
+    }
+
+    /**
+     * @param bus bus the store announces its writes on, or null to refresh only through {@link #rebuild}
+     */
+    public FacetEngine(DataStore store, ChangeEventBus bus) {
+        this.store = store;
+        this.bus = bus;
+    }
+
+    /**
+     * Ids of the clients matching the filter, ascending.
+     */
+    public int[] findClientIds(FacetFilter filter) throws SQLException {
+        return index().clientIds(filter);
+    }
+
+    /**
+     * Ids of the projects matching the filter, ascending.
+     */
+    public int[] findProjectIds(FacetFilter filter) throws SQLException {
+        return index().projectIds(filter);
+    }
+
+    public List<Client> findClients(FacetFilter filter) throws SQLException {
+        return store.clients().findByIds(findClientIds(filter));
+    }
+
+    public List<Project> findProjects(FacetFilter filter) throws SQLException {
+        return store.projects().findByIds(findProjectIds(filter));
+    }
+
+    /**
+     * How many clients and projects match, in total and per facet value.
+     */
+    public FacetCounts count(FacetFilter filter) throws SQLException {
+        return index().counts(filter);
+    }
+
+    /**
+     * Reload the index from scans of the store; queries keep using
+     * the previous index until the new one is complete.
+     */
+    public synchronized void rebuild() throws SQLException {
+        FacetIndex rebuilt = new FacetIndex();
+        for (Project project : store.projects().findAll()) {
+            rebuilt.putProject(project);
+        }
+        store.clients().forEach(rebuilt::putClient);
+        store.projectDepartments().forEach(rebuilt::linkDepartment);
+        store.projectClients().forEach(rebuilt::linkClient);
+        index = rebuilt;
+    }
+
+    /**
+     * Stop following the bus.
+     */
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    // Serialized with rebuild(), so a change is never applied to an index that a rebuild then replaces
+    private synchronized void apply(List<ChangeEvent> batch) {
+        FacetIndex current = index;
+        if (current == null) return;
+
+        for (ChangeEvent event : batch) {
+            switch (event) {
+                case ChangeEvent.ProjectChanged p -> {
+                    if (p.change() == ChangeEvent.Change.DELETED) {
+                        current.removeProject(p.projectId());
+                    } else {
+                        current.putProject(p.project());
+                    }
+                }
+                case ChangeEvent.ClientChanged c -> {
+                    if (c.change() == ChangeEvent.Change.DELETED) {
+                        current.removeClient(c.clientId());
+                    } else {
+                        current.putClient(c.client());
+                    }
+                }
+                case ChangeEvent.DepartmentChanged d -> {
+                    if (d.change() == ChangeEvent.Change.DELETED) {
+                        current.removeDepartment(d.departmentId());
+                    }
+                }
+                case ChangeEvent.ProjectDepartmentLinked l -> current.linkDepartment(l.projectId(), l.departmentId());
+                case ChangeEvent.ProjectDepartmentUnlinked u -> current.unlinkDepartment(u.projectId(), u.departmentId());
+                case ChangeEvent.ProjectClientLinked l -> current.linkClient(l.projectId(), l.clientId());
+                case ChangeEvent.ProjectClientUnlinked u -> current.unlinkClient(u.projectId(), u.clientId());
+                default -> { }
+            }
+        }
+    }
+
+    private FacetIndex index() throws SQLException {
+        FacetIndex current = index;
+        if (current == null) {
+            loadOnce();
+            current = index;
+        }
+        return current;
+    }
+
+    // Subscribe before the scans, so no write committed during them is missed
+    private synchronized void loadOnce() throws SQLException {
+        if (index != null) return;
+
+        if (bus != null && subscription == null) {
+            subscription = bus.subscribe("eems-facet-index", new ChangeListener() {
+                @Override
+                public void onChanges(List<ChangeEvent> batch) {
+                    apply(batch);
+                }
+
+                @Override
+                public void onOverflow() {
+                    if (index == null) return;
+                    try {
+                        rebuild();
+                    } catch (SQLException e) {
+                        System.err.println("Facet index rebuild failed: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        rebuild();
+    }
+}
@@ -0,0 +1,135 @@
+package com.eems.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Analytics: Facet Filter
+ * An immutable combination of facet values. Facets are ANDed together and the
+ * values given for one facet are ORed; a facet left empty does not filter.
+ *
+ * Client facets: industry. Project facets: status, department and end date.
+ * A client matches when it passes the client facets and, if any project facet
+ * is set, is linked to at least one project passing all of them.
+ */
+public final class FacetFilter {
+
+    private static final FacetFilter NONE = new FacetFilter(List.of(), List.of(), new int[0], null, null);
+
+    private final List<String> industries;
+    private final List<String> projectStatuses;
+    private final int[] departmentIds;
+    private final LocalDate endsOnOrAfter;
+    private final LocalDate endsOnOrBefore;
+
+    private FacetFilter(List<String> industries, List<String> projectStatuses, int[] departmentIds,
+                        LocalDate endsOnOrAfter, LocalDate endsOnOrBefore) {
+        this.industries = industries;
+        this.projectStatuses = projectStatuses;
+        this.departmentIds = departmentIds;
+        this.endsOnOrAfter = endsOnOrAfter;
+        this.endsOnOrBefore = endsOnOrBefore;
+    }
+
+    /**
+     * The filter that matches everything.
+     */
+    public static FacetFilter none() {
+        return NONE;
+    }
+
+    /**
+     * Clients in any of the industries (case-insensitive).
+     */
+    public FacetFilter withIndustries(String... industries) {
+        return new FacetFilter(values(industries, "Industry"), projectStatuses, departmentIds,
+                endsOnOrAfter, endsOnOrBefore);
+    }
+
+    /**
+     * Projects with any of the statuses (case-insensitive).
+     */
+    public FacetFilter withProjectStatuses(String... statuses) {
+        return new FacetFilter(industries, values(statuses, "Project status"), departmentIds,
+                endsOnOrAfter, endsOnOrBefore);
+    }
+
+    /**
+     * Projects linked to any of the departments.
+     */
+    public FacetFilter withDepartments(int... departmentIds) {
+        for (int departmentId : departmentIds) {
+            if (departmentId <= 0) {
+                throw new IllegalArgumentException("Department ID must be positive: " + departmentId);
+            }
+        }
+        return new FacetFilter(industries, projectStatuses, departmentIds.clone(), endsOnOrAfter, endsOnOrBefore);
+    }
+
+    /**
+     * Projects ending within the range, both ends inclusive; a null end is open.
+     */
+    public FacetFilter withProjectEndBetween(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("End date range is empty: " + from + " to " + to);
+        }
+        return new FacetFilter(industries, projectStatuses, departmentIds, from, to);
+    }
+
+    /**
+     * Narrow the end-date range so projects end on or before the deadline.
+     */
+    public FacetFilter withProjectEndOnOrBefore(LocalDate deadline) {
+        LocalDate to = endsOnOrBefore == null || deadline.isBefore(endsOnOrBefore) ? deadline : endsOnOrBefore;
+        return withProjectEndBetween(endsOnOrAfter, to);
+    }
+
+    public List<String> getIndustries() {
+        return industries;
+    }
+
+    public List<String> getProjectStatuses() {
+        return projectStatuses;
+    }
+
+    public int[] getDepartmentIds() {
+        return departmentIds.clone();
+    }
+
+    public LocalDate getEndsOnOrAfter() {
+        return endsOnOrAfter;
+    }
+
+    public LocalDate getEndsOnOrBefore() {
+        return endsOnOrBefore;
+    }
+
+    /**
+     * Whether any project facet is set, so matching clients need a matching project.
+     */
+    public boolean hasProjectFacets() {
+        return !projectStatuses.isEmpty() || departmentIds.length > 0
+                || endsOnOrAfter != null || endsOnOrBefore != null;
+    }
+
+    private static List<String> values(String[] values, String facet) {
+        for (String value : values) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException(facet + " filter values must not be empty");
+            }
+        }
+        return List.of(values);
+    }
+
+    @Override
+    public String toString() {
+        return "FacetFilter{" +
+                "industries=" + industries +
+                ", projectStatuses=" + projectStatuses +
+                ", departmentIds=" + Arrays.toString(departmentIds) +
+                ", endsOnOrAfter=" + endsOnOrAfter +
+                ", endsOnOrBefore=" + endsOnOrBefore +
+                '}';
+    }
+}
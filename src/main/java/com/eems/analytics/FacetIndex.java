@@ -0,0 +1,410 @@
+package com.eems.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.eems.domain.Client;
+import com.eems.domain.Project;
+import com.eems.util.IntBitmap;
+import com.eems.util.IntList;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Analytics: Facet Index
+ * Compressed bitmaps of client ids per industry and of project ids per status,
+ * department and end month and day, with the project-client links in both
+ * directions.
+ *
+ * A query ORs the bitmaps of the values chosen for each facet, ANDs the facets
+ * smallest first, and joins projects to clients through the links. End-date
+ * ranges take whole months from the month bitmaps and only the partial months
+ * at either edge from the day bitmaps.
+ *
+ * Queries run concurrently under a read lock; updates take the write lock.
+ */
+final class FacetIndex {
+
+    private record ProjectFacets(String status, int endMonth, int endDay) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntBitmap projects = new IntBitmap();
+    private final IntBitmap clients = new IntBitmap();
+    private final IntObjectHashMap<ProjectFacets> projectFacets = new IntObjectHashMap<>();
+    private final IntObjectHashMap<String> clientIndustries = new IntObjectHashMap<>();
+
+    private final TreeMap<String, IntBitmap> clientsByIndustry = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final TreeMap<String, IntBitmap> projectsByStatus = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final TreeMap<Integer, IntBitmap> projectsByEndMonth = new TreeMap<>();
+    private final TreeMap<Integer, IntBitmap> projectsByEndDay = new TreeMap<>();
+    private final IntObjectHashMap<IntBitmap> projectsByDepartment = new IntObjectHashMap<>();
+
+    private final Adjacency departmentsByProject = new Adjacency();
+    private final Adjacency clientsByProject = new Adjacency();
+    private final Adjacency projectsByClient = new Adjacency();
+
+    // ============================================
+    // Updates
+    // ============================================
+
+    void putProject(Project project) {
+        int projectId = project.getProjectId();
+        LocalDate endDate = project.getEndDate();
+        ProjectFacets facets = new ProjectFacets(project.getStatus(), month(endDate), (int) endDate.toEpochDay());
+        lock.writeLock().lock();
+        try {
+            ProjectFacets previous = projectFacets.put(projectId, facets);
+            if (previous != null) {
+                removeFrom(projectsByStatus, previous.status(), projectId);
+                removeFrom(projectsByEndMonth, previous.endMonth(), projectId);
+                removeFrom(projectsByEndDay, previous.endDay(), projectId);
+            }
+            projects.add(projectId);
+            projectsByStatus.computeIfAbsent(facets.status(), s -> new IntBitmap()).add(projectId);
+            projectsByEndMonth.computeIfAbsent(facets.endMonth(), m -> new IntBitmap()).add(projectId);
+            projectsByEndDay.computeIfAbsent(facets.endDay(), d -> new IntBitmap()).add(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the project with its department and client links, as ON DELETE CASCADE does.
+     */
+    void removeProject(int projectId) {
+        lock.writeLock().lock();
+        try {
+            ProjectFacets previous = projectFacets.remove(projectId);
+            if (previous != null) {
+                removeFrom(projectsByStatus, previous.status(), projectId);
+                removeFrom(projectsByEndMonth, previous.endMonth(), projectId);
+                removeFrom(projectsByEndDay, previous.endDay(), projectId);
+            }
+            projects.remove(projectId);
+            for (int departmentId : departmentsByProject.removeAll(projectId)) {
+                removeFrom(projectsByDepartment, departmentId, projectId);
+            }
+            for (int clientId : clientsByProject.removeAll(projectId)) {
+                projectsByClient.remove(clientId, projectId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putClient(Client client) {
+        int clientId = client.getClientId();
+        String industry = client.getIndustry();
+        lock.writeLock().lock();
+        try {
+            String previous = clientIndustries.put(clientId, industry);
+            if (previous != null) {
+                removeFrom(clientsByIndustry, previous, clientId);
+            }
+            clients.add(clientId);
+            clientsByIndustry.computeIfAbsent(industry, i -> new IntBitmap()).add(clientId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the client with its project links.
+     */
+    void removeClient(int clientId) {
+        lock.writeLock().lock();
+        try {
+            String previous = clientIndustries.remove(clientId);
+            if (previous != null) {
+                removeFrom(clientsByIndustry, previous, clientId);
+            }
+            clients.remove(clientId);
+            for (int projectId : projectsByClient.removeAll(clientId)) {
+                clientsByProject.remove(projectId, clientId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void linkDepartment(int projectId, int departmentId) {
+        lock.writeLock().lock();
+        try {
+            projectsByDepartment.computeIfAbsent(departmentId, d -> new IntBitmap()).add(projectId);
+            departmentsByProject.add(projectId, departmentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the department's project links, as ON DELETE CASCADE does.
+     */
+    void removeDepartment(int departmentId) {
+        lock.writeLock().lock();
+        try {
+            IntBitmap linkedProjects = projectsByDepartment.remove(departmentId);
+            if (linkedProjects != null) {
+                linkedProjects.forEach(projectId -> departmentsByProject.remove(projectId, departmentId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlinkDepartment(int projectId, int departmentId) {
+        lock.writeLock().lock();
+        try {
+            removeFrom(projectsByDepartment, departmentId, projectId);
+            departmentsByProject.remove(projectId, departmentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void linkClient(int projectId, int clientId) {
+        lock.writeLock().lock();
+        try {
+            clientsByProject.add(projectId, clientId);
+            projectsByClient.add(clientId, projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlinkClient(int projectId, int clientId) {
+        lock.writeLock().lock();
+        try {
+            clientsByProject.remove(projectId, clientId);
+            projectsByClient.remove(clientId, projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============================================
+    // Queries
+    // ============================================
+
+    /**
+     * Ids of the matching clients, ascending.
+     */
+    int[] clientIds(FacetFilter filter) {
+        lock.readLock().lock();
+        try {
+            return select(filter, true, false).clients().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the matching projects, ascending. With a client facet set, only
+     * projects linked to a matching client qualify.
+     */
+    int[] projectIds(FacetFilter filter) {
+        lock.readLock().lock();
+        try {
+            return select(filter, false, true).projects().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    FacetCounts counts(FacetFilter filter) {
+        lock.readLock().lock();
+        try {
+            Selection selection = select(filter, true, true);
+            Map<Integer, Integer> byDepartment = new LinkedHashMap<>();
+            int[] departmentIds = projectsByDepartment.keys();
+            Arrays.sort(departmentIds);
+            for (int departmentId : departmentIds) {
+                int count = IntBitmap.andCardinality(selection.projects(), projectsByDepartment.get(departmentId));
+                if (count > 0) {
+                    byDepartment.put(departmentId, count);
+                }
+            }
+            return new FacetCounts(selection.clients().cardinality(), selection.projects().cardinality(),
+                    countBy(clientsByIndustry, selection.clients()),
+                    countBy(projectsByStatus, selection.projects()),
+                    Collections.unmodifiableMap(byDepartment));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Selection(IntBitmap clients, IntBitmap projects) {}
+
+    // Caller holds the read lock; the result may share bitmaps with the index.
+    // A side that is not needed may be left unnarrowed by the other side's facets.
+    private Selection select(FacetFilter filter, boolean needClients, boolean needProjects) {
+        List<IntBitmap> facets = new ArrayList<>(2);
+        if (!filter.getProjectStatuses().isEmpty()) {
+            facets.add(union(projectsByStatus, filter.getProjectStatuses()));
+        }
+        int[] departmentIds = filter.getDepartmentIds();
+        if (departmentIds.length > 0) {
+            List<IntBitmap> chosen = new ArrayList<>(departmentIds.length);
+            for (int departmentId : departmentIds) {
+                IntBitmap bitmap = projectsByDepartment.get(departmentId);
+                if (bitmap != null) {
+                    chosen.add(bitmap);
+                }
+            }
+            facets.add(chosen.size() == 1 ? chosen.get(0) : IntBitmap.orAll(chosen));
+        }
+
+        // Smallest first keeps every intermediate result small
+        facets.sort(Comparator.comparingInt(IntBitmap::cardinality));
+        IntBitmap matchedProjects = facets.isEmpty() ? null : facets.get(0);
+        for (int i = 1; i < facets.size() && !matchedProjects.isEmpty(); i++) {
+            matchedProjects = IntBitmap.and(matchedProjects, facets.get(i));
+        }
+        if (filter.getEndsOnOrAfter() != null || filter.getEndsOnOrBefore() != null) {
+            matchedProjects = endingBetween(matchedProjects, filter.getEndsOnOrAfter(), filter.getEndsOnOrBefore());
+        }
+        if (matchedProjects == null) {
+            matchedProjects = projects;
+        }
+
+        boolean byIndustry = !filter.getIndustries().isEmpty();
+        IntBitmap matchedClients = byIndustry ? union(clientsByIndustry, filter.getIndustries()) : clients;
+        if (filter.hasProjectFacets() && (needClients || byIndustry)) {
+            matchedClients = linkedTo(matchedClients, matchedProjects, projectsByClient, clientsByProject);
+        }
+        if (byIndustry && needProjects) {
+            matchedProjects = linkedTo(matchedProjects, matchedClients, clientsByProject, projectsByClient);
+        }
+        return new Selection(matchedClients, matchedProjects);
+    }
+
+    /**
+     * Members of {@code candidates} linked to at least one member of {@code targets},
+     * walking the links from whichever side is smaller.
+     */
+    private static IntBitmap linkedTo(IntBitmap candidates, IntBitmap targets,
+                                      Adjacency candidateLinks, Adjacency targetLinks) {
+        if (candidates.isEmpty() || targets.isEmpty()) {
+            return new IntBitmap();
+        }
+        if (candidates.cardinality() <= targets.cardinality()) {
+            IntList linked = new IntList();
+            candidates.forEach(id -> {
+                for (int target : candidateLinks.get(id)) {
+                    if (targets.contains(target)) {
+                        linked.add(id);
+                        break;
+                    }
+                }
+            });
+            return IntBitmap.ofSorted(linked.toArray());
+        }
+        IntList reached = new IntList();
+        targets.forEach(id -> {
+            for (int candidate : targetLinks.get(id)) {
+                reached.add(candidate);
+            }
+        });
+        return IntBitmap.and(candidates, IntBitmap.of(reached.toArray()));
+    }
+
+    /**
+     * The projects of {@code within} (all projects if null) ending in the range. A
+     * small {@code within} is checked project by project against its end day;
+     * otherwise the range is read from the bucket bitmaps.
+     */
+    private IntBitmap endingBetween(IntBitmap within, LocalDate from, LocalDate to) {
+        int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        NavigableMap<Integer, IntBitmap> months = projectsByEndMonth;
+        if (from != null) {
+            months = months.tailMap(month(from), true);
+        }
+        if (to != null) {
+            months = months.headMap(month(to), true);
+        }
+        if (within != null) {
+            int inMonths = 0;
+            for (IntBitmap bitmap : months.values()) {
+                inMonths += bitmap.cardinality();
+            }
+            if (within.cardinality() < inMonths / 4) {
+                IntList inRange = new IntList();
+                within.forEach(projectId -> {
+                    ProjectFacets facets = projectFacets.get(projectId);
+                    if (facets != null && facets.endDay() >= fromDay && facets.endDay() <= toDay) {
+                        inRange.add(projectId);
+                    }
+                });
+                return IntBitmap.ofSorted(inRange.toArray());
+            }
+        }
+
+        // Whole months from the month buckets, the partial months at either edge from the day buckets
+        List<IntBitmap> chosen = new ArrayList<>();
+        for (Map.Entry<Integer, IntBitmap> entry : months.entrySet()) {
+            int month = entry.getKey();
+            boolean partialStart = from != null && month == month(from) && from.getDayOfMonth() > 1;
+            boolean partialEnd = to != null && month == month(to) && to.getDayOfMonth() < to.lengthOfMonth();
+            if (!partialStart && !partialEnd) {
+                chosen.add(entry.getValue());
+                continue;
+            }
+            LocalDate first = LocalDate.of(month / 12, month % 12 + 1, 1);
+            int firstDay = partialStart ? fromDay : (int) first.toEpochDay();
+            int lastDay = partialEnd ? toDay : (int) first.plusMonths(1).toEpochDay() - 1;
+            chosen.addAll(projectsByEndDay.subMap(firstDay, true, lastDay, true).values());
+        }
+        IntBitmap inRange = IntBitmap.orAll(chosen);
+        return within == null ? inRange : IntBitmap.and(within, inRange);
+    }
+
+    private static IntBitmap union(TreeMap<String, IntBitmap> index, List<String> values) {
+        List<IntBitmap> chosen = new ArrayList<>(values.size());
+        for (String value : values) {
+            IntBitmap bitmap = index.get(value);
+            if (bitmap != null) {
+                chosen.add(bitmap);
+            }
+        }
+        return chosen.size() == 1 ? chosen.get(0) : IntBitmap.orAll(chosen);
+    }
+
+    private static Map<String, Integer> countBy(TreeMap<String, IntBitmap> index, IntBitmap selected) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, IntBitmap> entry : index.entrySet()) {
+            int count = IntBitmap.andCardinality(selected, entry.getValue());
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static <K> void removeFrom(Map<K, IntBitmap> index, K key, int id) {
+        IntBitmap bitmap = index.get(key);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static void removeFrom(IntObjectHashMap<IntBitmap> index, int key, int id) {
+        IntBitmap bitmap = index.get(key);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static int month(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
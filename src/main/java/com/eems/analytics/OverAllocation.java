@@ -0,0 +1,18 @@
+package com.eems.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Analytics: Over-Allocation
+ * A run of days, both ends inclusive, on which an employee's concurrent
+ * project allocations add up to more than 100%, with the highest total in the
+ * run and the projects assigned to the employee during it, ascending by id.
+ */
+public record OverAllocation(int employeeId, LocalDate from, LocalDate to, int peakPercent,
+                             List<Integer> projectIds) {
+
+    public OverAllocation {
+        projectIds = List.copyOf(projectIds);
+    }
+}
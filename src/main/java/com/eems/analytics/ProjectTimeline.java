@@ -0,0 +1,164 @@
+package com.eems.analytics;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+import com.eems.domain.Project;
+import com.eems.util.IntList;
+
+/**
+ * Analytics: Project Timeline
+ * Which projects are active during a date range, or on one date, optionally
+ * within one department, answered from a {@link TimelineIndex} of interval
+ * trees in logarithmic time instead of scanning every project's dates.
+ *
+ * A project is active from its start date through its end date, both
+ * inclusive. The index is loaded on first use and then follows the change
+ * events of every write, like {@link FacetEngine}.
+ */
+public class ProjectTimeline implements AutoCloseable {
+
+    private final DataStore store;
+    private final ChangeEventBus bus;
+    private volatile TimelineIndex index;
+    private ChangeEventBus.Subscription subscription;
+
+    /**
+     * A timeline following the shared change-event bus, which every built-in store publishes to.
+     */
+    public ProjectTimeline(DataStore store) {
+        this(store, ChangeEventBus.shared());
+    }
+
+    /**
+     * The store's shared timeline, created on first request by
+     * {@link DataStores#engine}.
+     */
+    public static ProjectTimeline shared(DataStore store) {
+        return DataStores.engine(store, ProjectTimeline.class, ProjectTimeline::new);
+    }
+
+    /**
+     * @param bus bus the store announces its writes on, or null to refresh only through {@link #rebuild}
+     */
+    public ProjectTimeline(DataStore store, ChangeEventBus bus) {
+        this.store = store;
+        this.bus = bus;
+    }
+
+    /**
+     * Ids of the projects active on at least one day from {@code from} through {@code to}, ascending.
+     */
+    public int[] findProjectIdsActiveBetween(LocalDate from, LocalDate to) throws SQLException {
+        return index().activeBetween(from, to);
+    }
+
+    /**
+     * Ids of the department's projects active on at least one day from {@code from} through {@code to},
+     * ascending.
+     */
+    public int[] findProjectIdsActiveBetween(LocalDate from, LocalDate to, int departmentId) throws SQLException {
+        return index().activeBetween(from, to, departmentId);
+    }
+
+    public List<Project> findProjectsActiveBetween(LocalDate from, LocalDate to) throws SQLException {
+        return store.projects().findByIds(findProjectIdsActiveBetween(from, to));
+    }
+
+    public List<Project> findProjectsActiveBetween(LocalDate from, LocalDate to, int departmentId)
+            throws SQLException {
+        return store.projects().findByIds(findProjectIdsActiveBetween(from, to, departmentId));
+    }
+
+    /**
+     * Reload the index from scans of the store; queries keep using
+     * the previous index until the new one is complete.
+     */
+    public synchronized void rebuild() throws SQLException {
+        List<Project> projects = store.projects().findAll();
+        IntList linkedProjectIds = new IntList();
+        IntList linkedDepartmentIds = new IntList();
+        store.projectDepartments().forEach((projectId, departmentId) -> {
+            linkedProjectIds.add(projectId);
+            linkedDepartmentIds.add(departmentId);
+        });
+        index = TimelineIndex.of(projects, linkedProjectIds, linkedDepartmentIds);
+    }
+
+    /**
+     * Stop following the bus.
+     */
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    // Serialized with rebuild(), so a change is never applied to an index that a rebuild then replaces
+    private synchronized void apply(List<ChangeEvent> batch) {
+        TimelineIndex current = index;
+        if (current == null) return;
+
+        for (ChangeEvent event : batch) {
+            switch (event) {
+                case ChangeEvent.ProjectChanged p -> {
+                    if (p.change() == ChangeEvent.Change.DELETED) {
+                        current.removeProject(p.projectId());
+                    } else {
+                        current.putProject(p.project());
+                    }
+                }
+                case ChangeEvent.DepartmentChanged d -> {
+                    if (d.change() == ChangeEvent.Change.DELETED) {
+                        current.removeDepartment(d.departmentId());
+                    }
+                }
+                case ChangeEvent.ProjectDepartmentLinked l -> current.linkDepartment(l.projectId(), l.departmentId());
+                case ChangeEvent.ProjectDepartmentUnlinked u -> current.unlinkDepartment(u.projectId(), u.departmentId());
+                default -> { }
+            }
+        }
+    }
+
+    private TimelineIndex index() throws SQLException {
+        TimelineIndex current = index;
+        if (current == null) {
+            loadOnce();
+            current = index;
+        }
+        return current;
+    }
+
+    // Subscribe before the scans, so no write committed during them is missed
+    private synchronized void loadOnce() throws SQLException {
+        if (index != null) return;
+
+        if (bus != null && subscription == null) {
+            subscription = bus.subscribe("eems-project-timeline", new ChangeListener() {
+                @Override
+                public void onChanges(List<ChangeEvent> batch) {
+                    apply(batch);
+                }
+
+                @Override
+                public void onOverflow() {
+                    if (index == null) return;
+                    try {
+                        rebuild();
+                    } catch (SQLException e) {
+                        System.err.println("Project timeline rebuild failed: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        rebuild();
+    }
+}
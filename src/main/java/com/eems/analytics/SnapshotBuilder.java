@@ -0,0 +1,200 @@
+package com.eems.analytics;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.service.HrCostKernel;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntIntHashMap;
+import com.eems.util.IntList;
+
+/**
+ * Analytics: Snapshot Builder
+ * Collects rows on-heap in primitive arrays, then lays them out as sorted
+ * off-heap columns with assignments in compressed sparse row (CSR) form:
+ * the assignments of project row p occupy [offsets[p], offsets[p + 1]).
+ * Assignments whose employee or project is absent are dropped. An employee
+ * whose salary is not a whole number of cents is skipped and counted.
+ */
+final class SnapshotBuilder {
+
+    private final IntList employeeIds = new IntList();
+    private long[] salaryCents = new long[16];
+    private final IntList departmentIds = new IntList();
+    private final IntList hireEpochDays = new IntList();
+
+    private final IntList projectIds = new IntList();
+    private final IntList projectMonths = new IntList();
+
+    private final IntList assignmentEmployees = new IntList();
+    private final IntList assignmentProjects = new IntList();
+    private final IntList assignmentAllocations = new IntList();
+
+    private final IntHashSet skippedEmployeeIds = new IntHashSet();
+
+    void addEmployee(Employee employee) {
+        long cents = HrCostKernel.toCents(employee.getSalary());
+        if (cents == HrCostKernel.NOT_REPRESENTABLE) {
+            skippedEmployeeIds.add(employee.getEmployeeId());
+            return;
+        }
+        addEmployee(employee.getEmployeeId(), cents, employee.getDepartmentId(),
+                Math.toIntExact(employee.getHireDate().toEpochDay()));
+    }
+
+    void addEmployee(int employeeId, long cents, int departmentId, int hireEpochDay) {
+        int row = employeeIds.size();
+        if (row == salaryCents.length) {
+            salaryCents = Arrays.copyOf(salaryCents, row + (row >> 1));
+        }
+        employeeIds.add(employeeId);
+        salaryCents[row] = cents;
+        departmentIds.add(departmentId);
+        hireEpochDays.add(hireEpochDay);
+    }
+
+    /**
+     * Record an employee left out of the snapshot, carried over from a previous one.
+     */
+    void skipEmployee(int employeeId) {
+        skippedEmployeeIds.add(employeeId);
+    }
+
+    void addProject(Project project) {
+        addProject(project.getProjectId(), Math.toIntExact(project.getDurationInMonths()));
+    }
+
+    void addProject(int projectId, int durationMonths) {
+        projectIds.add(projectId);
+        projectMonths.add(durationMonths);
+    }
+
+    void addAssignment(EmployeeProject assignment) {
+        addAssignment(assignment.getEmployeeId(), assignment.getProjectId(), assignment.getTimeAllocationPercent());
+    }
+
+    void addAssignment(int employeeId, int projectId, int allocationPercent) {
+        assignmentEmployees.add(employeeId);
+        assignmentProjects.add(projectId);
+        assignmentAllocations.add(allocationPercent);
+    }
+
+    WorkforceSnapshot build() {
+        Arena arena = Arena.ofAuto();
+
+        // Employees, ordered by id
+        int[] employeeOrder = orderById(employeeIds);
+        int employeeCount = employeeOrder.length;
+        int[] sortedEmployeeIds = new int[employeeCount];
+        long[] sortedSalaries = new long[employeeCount];
+        int[] departmentOrdinals = new int[employeeCount];
+        int[] sortedHireDays = new int[employeeCount];
+        IntIntHashMap employeeRowById = new IntIntHashMap(employeeCount);
+        IntIntHashMap departmentOrdinalById = new IntIntHashMap();
+        IntList departmentIdByOrdinal = new IntList();
+        for (int row = 0; row < employeeCount; row++) {
+            int source = employeeOrder[row];
+            sortedEmployeeIds[row] = employeeIds.get(source);
+            sortedSalaries[row] = salaryCents[source];
+            sortedHireDays[row] = hireEpochDays.get(source);
+            employeeRowById.put(sortedEmployeeIds[row], row);
+
+            int departmentId = departmentIds.get(source);
+            int ordinal = departmentOrdinalById.getOrDefault(departmentId, -1);
+            if (ordinal < 0) {
+                ordinal = departmentIdByOrdinal.size();
+                departmentOrdinalById.put(departmentId, ordinal);
+                departmentIdByOrdinal.add(departmentId);
+            }
+            departmentOrdinals[row] = ordinal;
+        }
+
+        // Projects, ordered by id
+        int[] projectOrder = orderById(projectIds);
+        int projectCount = projectOrder.length;
+        int[] sortedProjectIds = new int[projectCount];
+        int[] sortedMonths = new int[projectCount];
+        IntIntHashMap projectRowById = new IntIntHashMap(projectCount);
+        for (int row = 0; row < projectCount; row++) {
+            sortedProjectIds[row] = projectIds.get(projectOrder[row]);
+            sortedMonths[row] = projectMonths.get(projectOrder[row]);
+            projectRowById.put(sortedProjectIds[row], row);
+        }
+
+        // Assignments grouped by project row (CSR)
+        int candidates = assignmentProjects.size();
+        int[] offsets = new int[projectCount + 1];
+        for (int i = 0; i < candidates; i++) {
+            int projectRow = projectRowById.getOrDefault(assignmentProjects.get(i), -1);
+            if (projectRow >= 0 && employeeRowById.containsKey(assignmentEmployees.get(i))) {
+                offsets[projectRow + 1]++;
+            }
+        }
+        for (int row = 0; row < projectCount; row++) {
+            offsets[row + 1] += offsets[row];
+        }
+        int assignmentCount = offsets[projectCount];
+        int[] employeeRows = new int[assignmentCount];
+        int[] allocations = new int[assignmentCount];
+        int[] cursor = Arrays.copyOf(offsets, projectCount);
+        for (int i = 0; i < candidates; i++) {
+            int projectRow = projectRowById.getOrDefault(assignmentProjects.get(i), -1);
+            int employeeRow = employeeRowById.getOrDefault(assignmentEmployees.get(i), -1);
+            if (projectRow >= 0 && employeeRow >= 0) {
+                int slot = cursor[projectRow]++;
+                employeeRows[slot] = employeeRow;
+                allocations[slot] = assignmentAllocations.get(i);
+            }
+        }
+
+        return new WorkforceSnapshot(
+                employeeCount, departmentIdByOrdinal.size(), projectCount, assignmentCount,
+                ints(arena, sortedEmployeeIds), longs(arena, sortedSalaries),
+                ints(arena, departmentOrdinals), ints(arena, sortedHireDays),
+                ints(arena, departmentIdByOrdinal.toArray()),
+                ints(arena, sortedProjectIds), ints(arena, sortedMonths),
+                ints(arena, offsets), ints(arena, employeeRows), ints(arena, allocations),
+                employeeRowById, projectRowById, skippedEmployeeIds);
+    }
+
+    /**
+     * Source positions ordered by id. Ids are packed above their position so
+     * a single primitive sort orders them; a repeated id keeps its last row.
+     */
+    private static int[] orderById(IntList ids) {
+        int size = ids.size();
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = ((long) ids.get(i) << 32) | i;
+        }
+        Arrays.sort(packed);
+        IntList order = new IntList(size);
+        for (int i = 0; i < size; i++) {
+            int id = (int) (packed[i] >> 32);
+            if (i + 1 < size && (int) (packed[i + 1] >> 32) == id) {
+                continue;
+            }
+            order.add((int) packed[i]);
+        }
+        return order.toArray();
+    }
+
+    private static MemorySegment ints(Arena arena, int[] values) {
+        MemorySegment segment = arena.allocate(ValueLayout.JAVA_INT.byteSize() * Math.max(values.length, 1),
+                ValueLayout.JAVA_INT.byteAlignment());
+        MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_INT, 0, values.length);
+        return segment;
+    }
+
+    private static MemorySegment longs(Arena arena, long[] values) {
+        MemorySegment segment = arena.allocate(ValueLayout.JAVA_LONG.byteSize() * Math.max(values.length, 1),
+                ValueLayout.JAVA_LONG.byteAlignment());
+        MemorySegment.copy(values, 0, segment, ValueLayout.JAVA_LONG, 0, values.length);
+        return segment;
+    }
+}
@@ -0,0 +1,225 @@
+package com.eems.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.eems.domain.Project;
+import com.eems.util.IntList;
+import com.eems.util.IntObjectHashMap;
+import com.eems.util.IntervalTree;
+
+/**
+ * Analytics: Timeline Index
+ * Project date ranges as closed intervals of epoch days, in one interval tree
+ * over every project and one per department over the projects linked to it, so
+ * a department-filtered query walks only that department's projects.
+ *
+ * A project without both dates, or ending before it starts, is never active.
+ * Queries run concurrently under a read lock; updates take the write lock.
+ */
+final class TimelineIndex {
+
+    private record Span(int start, int end) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntObjectHashMap<Span> spans;
+    private final IntervalTree projects;
+    private final IntObjectHashMap<IntervalTree> projectsByDepartment;
+    private final Adjacency departmentsByProject = new Adjacency();
+    private final Adjacency linkedProjectsByDepartment = new Adjacency();
+
+    private TimelineIndex(IntObjectHashMap<Span> spans, IntervalTree projects,
+                          IntObjectHashMap<IntervalTree> projectsByDepartment) {
+        this.spans = spans;
+        this.projects = projects;
+        this.projectsByDepartment = projectsByDepartment;
+    }
+
+    /**
+     * An index of the projects and of the department links given as parallel
+     * project and department id lists, with each tree built in one pass.
+     */
+    static TimelineIndex of(List<Project> projects, IntList linkedProjectIds, IntList linkedDepartmentIds) {
+        IntObjectHashMap<Span> spans = new IntObjectHashMap<>(projects.size());
+        IntList ids = new IntList(projects.size());
+        for (Project project : projects) {
+            Span span = span(project);
+            if (span != null && spans.put(project.getProjectId(), span) == null) {
+                ids.add(project.getProjectId());
+            }
+        }
+
+        IntObjectHashMap<IntList> idsByDepartment = new IntObjectHashMap<>();
+        for (int i = 0; i < linkedProjectIds.size(); i++) {
+            int projectId = linkedProjectIds.get(i);
+            if (spans.containsKey(projectId)) {
+                idsByDepartment.computeIfAbsent(linkedDepartmentIds.get(i), d -> new IntList()).add(projectId);
+            }
+        }
+        IntObjectHashMap<IntervalTree> trees = new IntObjectHashMap<>(idsByDepartment.size());
+        idsByDepartment.forEach((departmentId, departmentProjects) ->
+                trees.put(departmentId, tree(departmentProjects.toArray(), spans)));
+
+        TimelineIndex index = new TimelineIndex(spans, tree(ids.toArray(), spans), trees);
+        for (int i = 0; i < linkedProjectIds.size(); i++) {
+            index.departmentsByProject.add(linkedProjectIds.get(i), linkedDepartmentIds.get(i));
+            index.linkedProjectsByDepartment.add(linkedDepartmentIds.get(i), linkedProjectIds.get(i));
+        }
+        return index;
+    }
+
+    // ============================================
+    // Updates
+    // ============================================
+
+    void putProject(Project project) {
+        int projectId = project.getProjectId();
+        Span span = span(project);
+        if (span == null) {
+            removeProject(projectId, false);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            spans.put(projectId, span);
+            projects.put(projectId, span.start(), span.end());
+            for (int departmentId : departmentsByProject.get(projectId)) {
+                projectsByDepartment.computeIfAbsent(departmentId, d -> new IntervalTree())
+                        .put(projectId, span.start(), span.end());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the project with its department links, as ON DELETE CASCADE does.
+     */
+    void removeProject(int projectId) {
+        removeProject(projectId, true);
+    }
+
+    void linkDepartment(int projectId, int departmentId) {
+        lock.writeLock().lock();
+        try {
+            departmentsByProject.add(projectId, departmentId);
+            linkedProjectsByDepartment.add(departmentId, projectId);
+            Span span = spans.get(projectId);
+            if (span != null) {
+                projectsByDepartment.computeIfAbsent(departmentId, d -> new IntervalTree())
+                        .put(projectId, span.start(), span.end());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlinkDepartment(int projectId, int departmentId) {
+        lock.writeLock().lock();
+        try {
+            departmentsByProject.remove(projectId, departmentId);
+            linkedProjectsByDepartment.remove(departmentId, projectId);
+            removeFrom(departmentId, projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the department's project links, as ON DELETE CASCADE does.
+     */
+    void removeDepartment(int departmentId) {
+        lock.writeLock().lock();
+        try {
+            projectsByDepartment.remove(departmentId);
+            for (int projectId : linkedProjectsByDepartment.removeAll(departmentId)) {
+                departmentsByProject.remove(projectId, departmentId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============================================
+    // Queries
+    // ============================================
+
+    /**
+     * Ids of the projects active on at least one day of [from, to], ascending.
+     */
+    int[] activeBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return projects.overlapping(day(from), day(to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the department's projects active on at least one day of [from, to], ascending.
+     */
+    int[] activeBetween(LocalDate from, LocalDate to, int departmentId) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = projectsByDepartment.get(departmentId);
+            return tree == null ? new int[0] : tree.overlapping(day(from), day(to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeProject(int projectId, boolean unlink) {
+        lock.writeLock().lock();
+        try {
+            spans.remove(projectId);
+            projects.remove(projectId);
+            int[] departmentIds = unlink
+                    ? departmentsByProject.removeAll(projectId)
+                    : departmentsByProject.get(projectId);
+            for (int departmentId : departmentIds) {
+                if (unlink) {
+                    linkedProjectsByDepartment.remove(departmentId, projectId);
+                }
+                removeFrom(departmentId, projectId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFrom(int departmentId, int projectId) {
+        IntervalTree tree = projectsByDepartment.get(departmentId);
+        if (tree != null && tree.remove(projectId) && tree.isEmpty()) {
+            projectsByDepartment.remove(departmentId);
+        }
+    }
+
+    private static IntervalTree tree(int[] projectIds, IntObjectHashMap<Span> spans) {
+        int[] starts = new int[projectIds.length];
+        int[] ends = new int[projectIds.length];
+        for (int i = 0; i < projectIds.length; i++) {
+            Span span = spans.get(projectIds[i]);
+            starts[i] = span.start();
+            ends[i] = span.end();
+        }
+        return IntervalTree.of(projectIds, starts, ends);
+    }
+
+    private static Span span(Project project) {
+        LocalDate start = project.getStartDate();
+        LocalDate end = project.getEndDate();
+        if (start == null || end == null || end.isBefore(start)) {
+            return null;
+        }
+        return new Span(day(start), day(end));
+    }
+
+    // Epoch day, clamped to the int range the trees hold
+    private static int day(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+    }
+}
@@ -0,0 +1,154 @@
+package com.eems.analytics;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+import com.eems.util.IntHashSet;
+
+/**
+ * Analytics: Workforce Analytics
+ * Reporting aggregations served from the current {@link WorkforceSnapshot}
+ * instead of SQL. The snapshot is built on first use and replaced atomically;
+ * readers keep using the snapshot they hold.
+ *
+ * From then on each batch of committed changes on the bus reloads the
+ * employees and projects it touched ({@link WorkforceSnapshot#withReloaded}),
+ * and a lost batch forces a full rebuild.
+ */
+public class WorkforceAnalytics implements AutoCloseable {
+
+    private final DataStore store;
+    private final ChangeEventBus bus;
+    private volatile WorkforceSnapshot snapshot;
+    private ChangeEventBus.Subscription subscription;
+
+    /**
+     * Analytics following the shared change-event bus, which every built-in store publishes to.
+     */
+    public WorkforceAnalytics(DataStore store) {
+        this(store, ChangeEventBus.shared());
+    }
+
+    /**
+     * The store's shared analytics: the snapshot is built once, however
+     * many services report from it.
+     */
+    public static WorkforceAnalytics shared(DataStore store) {
+        return DataStores.engine(store, WorkforceAnalytics.class, WorkforceAnalytics::new);
+    }
+
+    /**
+     * @param bus bus the store announces its writes on, or null to refresh only through {@link #refresh}
+     */
+    public WorkforceAnalytics(DataStore store, ChangeEventBus bus) {
+        this.store = store;
+        this.bus = bus;
+    }
+
+    public WorkforceSnapshot getSnapshot() throws SQLException {
+        WorkforceSnapshot current = snapshot;
+        if (current == null) {
+            loadOnce();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Rebuild the snapshot from a full scan of the store.
+     */
+    public synchronized WorkforceSnapshot refresh() throws SQLException {
+        WorkforceSnapshot rebuilt = WorkforceSnapshot.build(store);
+        if (rebuilt.getSkippedEmployeeCount() > 0) {
+            System.err.println("Analytics snapshot skipped " + rebuilt.getSkippedEmployeeCount()
+                    + " employees whose salary is not a whole number of cents");
+        }
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Reload only the given employees and projects (with their assignments).
+     */
+    public synchronized WorkforceSnapshot refresh(int[] changedEmployeeIds, int[] changedProjectIds)
+            throws SQLException {
+        WorkforceSnapshot current = snapshot;
+        if (current == null) return refresh();
+
+        WorkforceSnapshot refreshed = current.withReloaded(store, changedEmployeeIds, changedProjectIds);
+        snapshot = refreshed;
+        return refreshed;
+    }
+
+    public Map<Integer, BigDecimal> getPayrollByDepartment() throws SQLException {
+        return getSnapshot().payrollByDepartment();
+    }
+
+    public Map<Integer, BigDecimal> getHRCostByProject() throws SQLException {
+        return getSnapshot().hrCostByProject();
+    }
+
+    /**
+     * Stop following the bus.
+     */
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    private void apply(List<ChangeEvent> batch) {
+        if (snapshot == null) return;
+
+        IntHashSet employeeIds = new IntHashSet();
+        IntHashSet projectIds = new IntHashSet();
+        for (ChangeEvent event : batch) {
+            switch (event) {
+                case ChangeEvent.EmployeeChanged e -> employeeIds.add(e.employeeId());
+                case ChangeEvent.ProjectChanged p -> projectIds.add(p.projectId());
+                case ChangeEvent.AssignmentChanged a -> projectIds.add(a.projectId());
+                default -> { }
+            }
+        }
+        if (employeeIds.isEmpty() && projectIds.isEmpty()) return;
+        try {
+            refresh(employeeIds.toSortedArray(), projectIds.toSortedArray());
+        } catch (SQLException e) {
+            System.err.println("Analytics refresh failed: " + e.getMessage());
+        }
+    }
+
+    // Subscribe before the scans, so no write committed during them is missed
+    private synchronized void loadOnce() throws SQLException {
+        if (snapshot != null) return;
+
+        if (bus != null && subscription == null) {
+            subscription = bus.subscribe("eems-analytics-refresh", new ChangeListener() {
+                @Override
+                public void onChanges(List<ChangeEvent> batch) {
+                    apply(batch);
+                }
+
+                @Override
+                public void onOverflow() {
+                    if (snapshot == null) return;
+                    try {
+                        refresh();
+                    } catch (SQLException e) {
+                        System.err.println("Analytics rebuild failed: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        refresh();
+    }
+}
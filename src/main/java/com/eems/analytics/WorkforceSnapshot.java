@@ -0,0 +1,355 @@
+package com.eems.analytics;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import com.eems.dal.DataStore;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.service.HrCostKernel;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntIntHashMap;
+
+/**
+ * Analytics: Workforce Snapshot
+ * Immutable columnar copy of employees, projects and assignments kept in
+ * off-heap memory segments:
+ *
+ *   employees   id, salary in cents, department ordinal, hire date as epoch day
+ *   projects    id, duration in months
+ *   assignments CSR rows per project: employee row and allocation percent
+ *
+ * Aggregations scan the columns in parallel without touching the database or
+ * creating domain objects. The memory is released by the garbage collector once
+ * the snapshot is unreachable, so a replaced snapshot stays valid for readers
+ * still holding it. Snapshots derived with {@link #withReloaded} share the
+ * columns that did not change.
+ */
+public final class WorkforceSnapshot {
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+    private static final int MIN_ROWS_PER_CHUNK = 4096;
+
+    private final int employeeCount;
+    private final int departmentCount;
+    private final int projectCount;
+    private final int assignmentCount;
+
+    private final MemorySegment employeeIds;
+    private final MemorySegment salaryCents;
+    private final MemorySegment departmentOrdinals;
+    private final MemorySegment hireEpochDays;
+    private final MemorySegment departmentIds;
+
+    private final MemorySegment projectIds;
+    private final MemorySegment projectMonths;
+
+    private final MemorySegment assignmentOffsets;
+    private final MemorySegment assignmentEmployeeRows;
+    private final MemorySegment assignmentAllocations;
+
+    private final IntIntHashMap employeeRowById;
+    private final IntIntHashMap projectRowById;
+    private final IntHashSet skippedEmployeeIds;
+
+    WorkforceSnapshot(int employeeCount, int departmentCount, int projectCount, int assignmentCount,
+                      MemorySegment employeeIds, MemorySegment salaryCents,
+                      MemorySegment departmentOrdinals, MemorySegment hireEpochDays,
+                      MemorySegment departmentIds, MemorySegment projectIds, MemorySegment projectMonths,
+                      MemorySegment assignmentOffsets, MemorySegment assignmentEmployeeRows,
+                      MemorySegment assignmentAllocations,
+                      IntIntHashMap employeeRowById, IntIntHashMap projectRowById,
+                      IntHashSet skippedEmployeeIds) {
+        this.employeeCount = employeeCount;
+        this.departmentCount = departmentCount;
+        this.projectCount = projectCount;
+        this.assignmentCount = assignmentCount;
+        this.employeeIds = employeeIds;
+        this.salaryCents = salaryCents;
+        this.departmentOrdinals = departmentOrdinals;
+        this.hireEpochDays = hireEpochDays;
+        this.departmentIds = departmentIds;
+        this.projectIds = projectIds;
+        this.projectMonths = projectMonths;
+        this.assignmentOffsets = assignmentOffsets;
+        this.assignmentEmployeeRows = assignmentEmployeeRows;
+        this.assignmentAllocations = assignmentAllocations;
+        this.employeeRowById = employeeRowById;
+        this.projectRowById = projectRowById;
+        this.skippedEmployeeIds = skippedEmployeeIds;
+    }
+
+    /**
+     * Build a snapshot with one streaming pass over employees and assignments.
+     */
+    public static WorkforceSnapshot build(DataStore store) throws SQLException {
+        SnapshotBuilder builder = new SnapshotBuilder();
+        store.employees().forEach(builder::addEmployee);
+        for (Project project : store.projects().findAll()) {
+            builder.addProject(project);
+        }
+        store.employeeProjects().forEach(builder::addAssignment);
+        return builder.build();
+    }
+
+    /**
+     * A new snapshot with the given employees and projects reloaded from the
+     * store; ids no longer found are removed, and assignment changes are picked
+     * up through the project they belong to. Only the changed rows are queried.
+     *
+     * When every changed id is an existing employee staying in a known
+     * department, the three employee columns that can change are copied and
+     * patched in place and all other columns are shared with this snapshot.
+     * Any other change (a new, deleted or skipped employee, a new department,
+     * or a changed project) rebuilds the columns from this snapshot's rows, which
+     * costs a pass over every row but no scan of the store.
+     */
+    public WorkforceSnapshot withReloaded(DataStore store, int[] changedEmployeeIds, int[] changedProjectIds)
+            throws SQLException {
+        IntHashSet changedEmployees = new IntHashSet(changedEmployeeIds.length);
+        for (int id : changedEmployeeIds) changedEmployees.add(id);
+        IntHashSet changedProjects = new IntHashSet(changedProjectIds.length);
+        for (int id : changedProjectIds) changedProjects.add(id);
+
+        List<Employee> reloaded = store.employees().findByIds(changedEmployees.toSortedArray());
+        if (changedProjects.isEmpty()) {
+            WorkforceSnapshot patched = patchEmployees(changedEmployees, reloaded);
+            if (patched != null) return patched;
+        }
+        return rebuild(store, changedEmployees, reloaded, changedProjects);
+    }
+
+    /**
+     * This snapshot with the reloaded employees written over their rows, or null
+     * if a change needs the rows rebuilt.
+     */
+    private WorkforceSnapshot patchEmployees(IntHashSet changedEmployees, List<Employee> reloaded) {
+        if (reloaded.size() != changedEmployees.size()) return null;
+
+        IntIntHashMap departmentOrdinalById = new IntIntHashMap(departmentCount);
+        for (int ordinal = 0; ordinal < departmentCount; ordinal++) {
+            departmentOrdinalById.put(departmentIds.getAtIndex(INT, ordinal), ordinal);
+        }
+        int count = reloaded.size();
+        int[] rows = new int[count];
+        long[] cents = new long[count];
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            Employee employee = reloaded.get(i);
+            rows[i] = employeeRowById.getOrDefault(employee.getEmployeeId(), -1);
+            cents[i] = HrCostKernel.toCents(employee.getSalary());
+            ordinals[i] = departmentOrdinalById.getOrDefault(employee.getDepartmentId(), -1);
+            if (rows[i] < 0 || cents[i] == HrCostKernel.NOT_REPRESENTABLE || ordinals[i] < 0) return null;
+        }
+
+        Arena arena = Arena.ofAuto();
+        MemorySegment patchedSalaries = arena.allocate(salaryCents.byteSize(), LONG.byteAlignment())
+                .copyFrom(salaryCents);
+        MemorySegment patchedOrdinals = arena.allocate(departmentOrdinals.byteSize(), INT.byteAlignment())
+                .copyFrom(departmentOrdinals);
+        MemorySegment patchedHireDays = arena.allocate(hireEpochDays.byteSize(), INT.byteAlignment())
+                .copyFrom(hireEpochDays);
+        for (int i = 0; i < count; i++) {
+            patchedSalaries.setAtIndex(LONG, rows[i], cents[i]);
+            patchedOrdinals.setAtIndex(INT, rows[i], ordinals[i]);
+            patchedHireDays.setAtIndex(INT, rows[i], Math.toIntExact(reloaded.get(i).getHireDate().toEpochDay()));
+        }
+        return new WorkforceSnapshot(employeeCount, departmentCount, projectCount, assignmentCount,
+                employeeIds, patchedSalaries, patchedOrdinals, patchedHireDays, departmentIds,
+                projectIds, projectMonths, assignmentOffsets, assignmentEmployeeRows, assignmentAllocations,
+                employeeRowById, projectRowById, skippedEmployeeIds);
+    }
+
+    private WorkforceSnapshot rebuild(DataStore store, IntHashSet changedEmployees, List<Employee> reloaded,
+                                      IntHashSet changedProjects) throws SQLException {
+        SnapshotBuilder builder = new SnapshotBuilder();
+        for (int row = 0; row < employeeCount; row++) {
+            int id = employeeIds.getAtIndex(INT, row);
+            if (!changedEmployees.contains(id)) {
+                builder.addEmployee(id, salaryCents.getAtIndex(LONG, row),
+                        departmentIds.getAtIndex(INT, departmentOrdinals.getAtIndex(INT, row)),
+                        hireEpochDays.getAtIndex(INT, row));
+            }
+        }
+        skippedEmployeeIds.forEach(id -> {
+            if (!changedEmployees.contains(id)) builder.skipEmployee(id);
+        });
+        for (Employee employee : reloaded) {
+            builder.addEmployee(employee);
+        }
+
+        for (int row = 0; row < projectCount; row++) {
+            int projectId = projectIds.getAtIndex(INT, row);
+            if (changedProjects.contains(projectId)) continue;
+
+            builder.addProject(projectId, projectMonths.getAtIndex(INT, row));
+            int end = assignmentOffsets.getAtIndex(INT, row + 1);
+            for (int i = assignmentOffsets.getAtIndex(INT, row); i < end; i++) {
+                int employeeRow = assignmentEmployeeRows.getAtIndex(INT, i);
+                builder.addAssignment(employeeIds.getAtIndex(INT, employeeRow), projectId,
+                        assignmentAllocations.getAtIndex(INT, i));
+            }
+        }
+        // A previously skipped employee brings back its assignments to unchanged projects
+        for (Employee employee : reloaded) {
+            int id = employee.getEmployeeId();
+            if (!skippedEmployeeIds.contains(id)
+                    || HrCostKernel.toCents(employee.getSalary()) == HrCostKernel.NOT_REPRESENTABLE) continue;
+            for (EmployeeProject assignment : store.employeeProjects().findByEmployeeId(id)) {
+                if (!changedProjects.contains(assignment.getProjectId())) builder.addAssignment(assignment);
+            }
+        }
+        for (int projectId : changedProjects.toSortedArray()) {
+            Project project = store.projects().findById(projectId);
+            if (project == null) continue;
+            builder.addProject(project);
+            for (EmployeeProject assignment : store.employeeProjects().findByProjectId(projectId)) {
+                builder.addAssignment(assignment);
+            }
+        }
+        return builder.build();
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    public int getAssignmentCount() {
+        return assignmentCount;
+    }
+
+    /**
+     * Employees left out because their salary is not a whole number of cents.
+     */
+    public int getSkippedEmployeeCount() {
+        return skippedEmployeeIds.size();
+    }
+
+    public long getOffHeapBytes() {
+        return employeeIds.byteSize() + salaryCents.byteSize() + departmentOrdinals.byteSize()
+                + hireEpochDays.byteSize() + departmentIds.byteSize() + projectIds.byteSize()
+                + projectMonths.byteSize() + assignmentOffsets.byteSize() + assignmentEmployeeRows.byteSize()
+                + assignmentAllocations.byteSize();
+    }
+
+    /**
+     * Annual payroll per department id, ascending by id, for the departments
+     * that have employees.
+     */
+    public Map<Integer, BigDecimal> payrollByDepartment() {
+        int chunkSize = chunkSize(employeeCount);
+        int chunks = (employeeCount + chunkSize - 1) / chunkSize;
+
+        // Salary total at 2 × ordinal, headcount at 2 × ordinal + 1
+        long[] totals = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    long[] partial = new long[2 * departmentCount];
+                    int end = Math.min(employeeCount, (chunk + 1) * chunkSize);
+                    for (int row = chunk * chunkSize; row < end; row++) {
+                        int slot = 2 * departmentOrdinals.getAtIndex(INT, row);
+                        partial[slot] = Math.addExact(partial[slot], salaryCents.getAtIndex(LONG, row));
+                        partial[slot + 1]++;
+                    }
+                    return partial;
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) a[i] = Math.addExact(a[i], b[i]);
+                    return a;
+                })
+                .orElseGet(() -> new long[2 * departmentCount]);
+
+        // A patched snapshot keeps the ordinal of a department its last employee left
+        Map<Integer, BigDecimal> payroll = new TreeMap<>();
+        for (int ordinal = 0; ordinal < departmentCount; ordinal++) {
+            if (totals[2 * ordinal + 1] == 0) continue;
+            payroll.put(departmentIds.getAtIndex(INT, ordinal), BigDecimal.valueOf(totals[2 * ordinal], 2));
+        }
+        return payroll;
+    }
+
+    /**
+     * HR cost of every project, ascending by id, equal to
+     * EEMSService.calculateProjectHRCost for each of them.
+     */
+    public Map<Integer, BigDecimal> hrCostByProject() {
+        BigDecimal[] costs = new BigDecimal[projectCount];
+        IntStream.range(0, projectCount).parallel().forEach(row -> costs[row] = projectCost(row));
+
+        Map<Integer, BigDecimal> result = new TreeMap<>();
+        for (int row = 0; row < projectCount; row++) {
+            result.put(projectIds.getAtIndex(INT, row), costs[row]);
+        }
+        return result;
+    }
+
+    /**
+     * HR cost of one project, or null if the snapshot does not contain it.
+     */
+    public BigDecimal hrCostOfProject(int projectId) {
+        int row = projectRowById.getOrDefault(projectId, -1);
+        return row < 0 ? null : projectCost(row);
+    }
+
+    /**
+     * Employees hired between the two dates, inclusive.
+     */
+    public long countHiredBetween(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        return IntStream.range(0, employeeCount).parallel()
+                .filter(row -> {
+                    int day = hireEpochDays.getAtIndex(INT, row);
+                    return day >= first && day <= last;
+                })
+                .count();
+    }
+
+    public boolean containsEmployee(int employeeId) {
+        return employeeRowById.containsKey(employeeId);
+    }
+
+    private BigDecimal projectCost(int row) {
+        int months = projectMonths.getAtIndex(INT, row);
+        int start = assignmentOffsets.getAtIndex(INT, row);
+        int end = assignmentOffsets.getAtIndex(INT, row + 1);
+        try {
+            long totalE8 = 0;
+            for (int i = start; i < end; i++) {
+                long cents = salaryCents.getAtIndex(LONG, assignmentEmployeeRows.getAtIndex(INT, i));
+                totalE8 = Math.addExact(totalE8,
+                        HrCostKernel.employeeCostE8(cents, months, assignmentAllocations.getAtIndex(INT, i)));
+            }
+            return BigDecimal.valueOf(HrCostKernel.roundToCents(totalE8), 2);
+        } catch (ArithmeticException overflow) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = start; i < end; i++) {
+                long cents = salaryCents.getAtIndex(LONG, assignmentEmployeeRows.getAtIndex(INT, i));
+                total = total.add(BigDecimal.valueOf(cents, 2)
+                        .multiply(BigDecimal.valueOf(months))
+                        .multiply(BigDecimal.valueOf(assignmentAllocations.getAtIndex(INT, i)))
+                        .divide(BigDecimal.valueOf(1200), 8, RoundingMode.HALF_EVEN));
+            }
+            return total.setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    private static int chunkSize(int rows) {
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        return Math.max(MIN_ROWS_PER_CHUNK, (rows + parallelism - 1) / Math.max(parallelism, 1));
+    }
+}
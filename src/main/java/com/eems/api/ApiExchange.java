@@ -0,0 +1,234 @@
+package com.eems.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Presentation Layer: API Exchange
+ * One HTTP request and its response: path and query parameters, the JSON body,
+ * and the ways a handler can answer.
+ *
+ * Single objects are encoded into a buffer and sent with a Content-Length.
+ * Lists are streamed with chunked transfer encoding while they are encoded, so
+ * the response never sits in memory as a whole. Either is gzip-compressed when
+ * the client accepts it; small buffered bodies are sent as they are, since
+ * compressing them costs more than it saves.
+ */
+public final class ApiExchange {
+
+    /**
+     * Writes a JSON response body.
+     */
+    @FunctionalInterface
+    public interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final HttpExchange exchange;
+    private final Map<String, String> pathParameters;
+    private Map<String, String> queryParameters;
+    private int status;
+
+    ApiExchange(HttpExchange exchange, Map<String, String> pathParameters) {
+        this.exchange = exchange;
+        this.pathParameters = pathParameters;
+    }
+
+    public String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    /**
+     * Status sent, or 0 while no response has started.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * A numeric path parameter, such as {id}.
+     */
+    public int pathInt(String name) {
+        String value = pathParameters.get(name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer: " + value);
+        }
+    }
+
+    /**
+     * A query parameter, or null if absent.
+     */
+    public String query(String name) {
+        if (queryParameters == null) {
+            queryParameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+        return queryParameters.get(name);
+    }
+
+    public int queryInt(String name, int defaultValue) {
+        String value = query(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer: " + value);
+        }
+    }
+
+    /**
+     * Decode the JSON request body, which must hold exactly one value.
+     */
+    public <T> T readBody(DomainJson.ElementReader<T> bodyReader) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body larger than " + MAX_BODY_BYTES + " bytes");
+        }
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+        JsonReader reader = new JsonReader(bytes);
+        T body = bodyReader.read(reader);
+        reader.endDocument();
+        return body;
+    }
+
+    /**
+     * Send one JSON value with a Content-Length.
+     */
+    public void sendJson(int status, JsonBody body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        JsonWriter json = new JsonWriter(buffer, 512);
+        body.write(json);
+        json.flush();
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON_CONTENT_TYPE);
+        headers.set("Vary", "Accept-Encoding");
+        byte[] bytes = buffer.toByteArray();
+        if (bytes.length >= GZIP_MIN_BYTES && acceptsGzip()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            headers.set("Content-Encoding", "gzip");
+        }
+        sendHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Stream a list as a JSON array, encoding each element as it is sent.
+     */
+    public <T> void streamJson(List<T> values, DomainJson.ElementWriter<? super T> writer) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON_CONTENT_TYPE);
+        headers.set("Vary", "Accept-Encoding");
+        boolean gzip = acceptsGzip();
+        if (gzip) {
+            headers.set("Content-Encoding", "gzip");
+        }
+        // Length 0 selects chunked transfer encoding
+        sendHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        GZIPOutputStream compressor = gzip ? new GZIPOutputStream(out, 8192) : null;
+        JsonWriter json = new JsonWriter(compressor != null ? compressor : out);
+        DomainJson.writeArray(json, values, writer);
+        json.flush();
+        if (compressor != null) {
+            compressor.finish();
+        }
+        out.close();
+    }
+
+    public void sendNoContent() throws IOException {
+        // Length -1 means no body at all
+        sendHeaders(204, -1);
+        exchange.getResponseBody().close();
+    }
+
+    public void sendError(int status, String message) throws IOException {
+        sendJson(status, json -> json.beginObject()
+                .name("status").value(status)
+                .name("error").value(message)
+                .endObject());
+    }
+
+    Headers responseHeaders() {
+        return exchange.getResponseHeaders();
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip, either by name or through "*", with a nonzero q.
+     */
+    boolean acceptsGzip() {
+        List<String> values = exchange.getRequestHeaders().get("Accept-Encoding");
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                        } catch (NumberFormatException e) {
+                            refused = true;
+                        }
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void sendHeaders(int status, long length) throws IOException {
+        this.status = status;
+        exchange.sendResponseHeaders(status, length);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
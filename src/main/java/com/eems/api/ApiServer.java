@@ -0,0 +1,601 @@
+package com.eems.api;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.eems.analytics.CapacitySegment;
+import com.eems.analytics.FacetCounts;
+import com.eems.analytics.FacetFilter;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.domain.ProjectDetails;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
+import com.eems.search.SearchHit;
+import com.eems.service.EEMSService;
+import com.eems.service.ServiceOverloadedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Presentation Layer: API Server
+ * Serves the EEMSService operations as JSON over HTTP under /api, using the
+ * JDK's built-in HttpServer.
+ *
+ * Every request runs on its own virtual thread, so a request blocked on the
+ * database holds no platform thread and the server needs no pool sizing; the
+ * service's bulkheads still bound how many reach the database. Connections are
+ * kept alive between requests, list responses are streamed, and responses are
+ * gzip-compressed for clients that ask for it.
+ *
+ * Errors map to status codes: invalid input 400, missing rows 404, a full
+ * bulkhead 503, a passed deadline 504 and any other SQL failure 500.
+ */
+public final class ApiServer {
+
+    /**
+     * Handles a request matched to a route.
+     */
+    @FunctionalInterface
+    interface Handler {
+        void handle(ApiExchange exchange) throws SQLException, IOException;
+    }
+
+    private record Route(String method, String pattern, String[] segments, Handler handler) {
+
+        /**
+         * Path parameters if the path matches, otherwise null. Parameters match digits only,
+         * so a literal such as "upcoming-deadlines" never reaches an {id} route.
+         */
+        Map<String, String> match(String[] path) {
+            if (path.length != segments.length) {
+                return null;
+            }
+            Map<String, String> parameters = null;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.startsWith("{")) {
+                    if (!isDigits(path[i])) {
+                        return null;
+                    }
+                    if (parameters == null) {
+                        parameters = new HashMap<>(4);
+                    }
+                    parameters.put(segment.substring(1, segment.length() - 1), path[i]);
+                } else if (!segment.equals(path[i])) {
+                    return null;
+                }
+            }
+            return parameters == null ? Map.of() : parameters;
+        }
+    }
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_DAYS_UNTIL_DEADLINE = 30;
+    // Any free time at all
+    private static final int DEFAULT_MIN_FREE_PERCENT = 1;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+
+    private final EEMSService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Route> routes = new ArrayList<>();
+
+    public ApiServer(EEMSService service, InetSocketAddress address) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::dispatch);
+        registerRoutes();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("eems.http.port", DEFAULT_PORT);
+        ApiServer api = new ApiServer(new EEMSService(), new InetSocketAddress(port));
+        api.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> api.stop(1), "eems-api-shutdown"));
+        System.out.println("EEMS API listening on http://localhost:" + api.getPort() + "/api");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting connections, give open exchanges up to {@code delaySeconds} to finish, and stop.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void registerRoutes() {
+        // Departments
+        route("GET", "/api/departments",
+                ex -> ex.streamJson(service.getAllDepartments(), DomainJson::writeDepartment));
+        route("POST", "/api/departments", this::createDepartment);
+        route("GET", "/api/departments/payroll", this::getPayrollByDepartment);
+        route("GET", "/api/departments/{id}",
+                ex -> sendFound(ex, "Department", service.getDepartmentById(ex.pathInt("id")), DomainJson::writeDepartment));
+        route("PUT", "/api/departments/{id}", this::updateDepartment);
+        route("DELETE", "/api/departments/{id}",
+                ex -> sendDeleted(ex, "Department", service.deleteDepartment(ex.pathInt("id"))));
+        route("GET", "/api/departments/{id}/projects", this::getProjectsByDepartment);
+
+        // Employees
+        route("GET", "/api/employees",
+                ex -> ex.streamJson(service.getAllEmployees(), DomainJson::writeEmployee));
+        route("POST", "/api/employees", this::createEmployee);
+        route("GET", "/api/employees/available", this::findAvailableEmployees);
+        route("GET", "/api/employees/search", this::searchEmployees);
+        route("GET", "/api/employees/complete", this::completeEmployees);
+        route("GET", "/api/employees/over-allocated",
+                ex -> ex.streamJson(service.getOverAllocationReport(), DomainJson::writeOverAllocation));
+        route("GET", "/api/employees/{id}",
+                ex -> sendFound(ex, "Employee", service.getEmployeeById(ex.pathInt("id")), DomainJson::writeEmployee));
+        route("PUT", "/api/employees/{id}", this::updateEmployee);
+        route("DELETE", "/api/employees/{id}",
+                ex -> sendDeleted(ex, "Employee", service.deleteEmployee(ex.pathInt("id"))));
+        route("POST", "/api/employees/{id}/transfer", this::transferEmployee);
+        route("GET", "/api/employees/{id}/capacity", this::getEmployeeCapacity);
+
+        // Projects
+        route("GET", "/api/projects",
+                ex -> ex.streamJson(service.getAllProjects(), DomainJson::writeProject));
+        route("POST", "/api/projects", this::createProject);
+        route("GET", "/api/projects/active", this::findActiveProjects);
+        route("GET", "/api/projects/hr-costs", this::getHRCostByProject);
+        route("GET", "/api/projects/{id}",
+                ex -> sendFound(ex, "Project", service.getProjectById(ex.pathInt("id")), DomainJson::writeProject));
+        route("PUT", "/api/projects/{id}", this::updateProject);
+        route("DELETE", "/api/projects/{id}",
+                ex -> sendDeleted(ex, "Project", service.deleteProject(ex.pathInt("id"))));
+        route("GET", "/api/projects/{id}/hr-cost", this::calculateProjectHRCost);
+        route("GET", "/api/projects/{id}/details", this::getProjectDetails);
+        route("GET", "/api/projects/{id}/assignments",
+                ex -> ex.streamJson(service.getProjectAssignments(ex.pathInt("id")), DomainJson::writeAssignment));
+        route("POST", "/api/projects/{id}/assignments", this::assignEmployee);
+        route("PUT", "/api/projects/{id}/assignments/{employeeId}", this::updateAllocation);
+        route("DELETE", "/api/projects/{id}/assignments/{employeeId}",
+                ex -> sendDeleted(ex, "Assignment",
+                        service.removeEmployeeFromProject(ex.pathInt("employeeId"), ex.pathInt("id"))));
+        route("PUT", "/api/projects/{id}/team", this::replaceProjectTeam);
+
+        // Clients
+        route("GET", "/api/clients",
+                ex -> ex.streamJson(service.getAllClients(), DomainJson::writeClient));
+        route("POST", "/api/clients", this::createClient);
+        route("GET", "/api/clients/upcoming-deadlines", this::findClientsByUpcomingProjectDeadline);
+        route("GET", "/api/clients/facets", this::countClientFacets);
+        route("GET", "/api/clients/search", this::searchClients);
+        route("GET", "/api/clients/{id}",
+                ex -> sendFound(ex, "Client", service.getClientById(ex.pathInt("id")), DomainJson::writeClient));
+        route("PUT", "/api/clients/{id}", this::updateClient);
+        route("DELETE", "/api/clients/{id}",
+                ex -> sendDeleted(ex, "Client", service.deleteClient(ex.pathInt("id"))));
+    }
+
+    private void route(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, split(pattern), handler));
+    }
+
+    // ============================================
+    // Dispatch
+    // ============================================
+    private void dispatch(HttpExchange httpExchange) {
+        try {
+            String[] path = split(httpExchange.getRequestURI().getPath());
+            String method = httpExchange.getRequestMethod();
+            Route matched = null;
+            Map<String, String> parameters = null;
+            StringJoiner allowed = new StringJoiner(", ");
+            for (Route route : routes) {
+                Map<String, String> match = route.match(path);
+                if (match == null) {
+                    continue;
+                }
+                if (route.method().equals(method)) {
+                    matched = route;
+                    parameters = match;
+                    break;
+                }
+                allowed.add(route.method());
+            }
+
+            if (matched == null) {
+                ApiExchange exchange = new ApiExchange(httpExchange, Map.of());
+                if (allowed.length() > 0) {
+                    exchange.responseHeaders().set("Allow", allowed.toString());
+                    exchange.sendError(405, "Method " + method + " not allowed");
+                } else {
+                    exchange.sendError(404, "No such resource: " + httpExchange.getRequestURI().getPath());
+                }
+                return;
+            }
+
+            ApiExchange exchange = new ApiExchange(httpExchange, parameters);
+            try (Span span = Tracer.startTrace("ApiServer." + method + " " + matched.pattern())) {
+                handle(matched, exchange);
+                span.setAttribute("http.status_code", exchange.getStatus());
+            }
+        } catch (IOException e) {
+            // The client went away; there is no one left to answer
+        } finally {
+            // Closing the exchange returns the connection for the next keep-alive request
+            httpExchange.close();
+        }
+    }
+
+    private void handle(Route route, ApiExchange exchange) throws IOException {
+        try {
+            route.handler().handle(exchange);
+        } catch (IllegalArgumentException e) {
+            // Validation failures and missing referenced rows both arrive as IllegalArgumentException
+            boolean missing = e.getMessage() != null && e.getMessage().contains("not found");
+            sendFailure(exchange, missing ? 404 : 400, e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            exchange.responseHeaders().set("Retry-After", "1");
+            sendFailure(exchange, 503, e.getMessage());
+        } catch (SQLTimeoutException e) {
+            sendFailure(exchange, 504, e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("Error handling " + route.method() + " " + route.pattern() + ": " + e.getMessage());
+            sendFailure(exchange, 500, "Database error");
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + route.method() + " " + route.pattern() + ": " + e);
+            sendFailure(exchange, 500, "Internal error");
+        }
+    }
+
+    private static void sendFailure(ApiExchange exchange, int status, String message) throws IOException {
+        // Once a streamed response has started, closing it short is the only signal left
+        if (exchange.getStatus() == 0) {
+            exchange.sendError(status, message);
+        }
+    }
+
+    // ============================================
+    // Responses
+    // ============================================
+    private static <T> void sendFound(ApiExchange exchange, String entity, T value,
+                                      DomainJson.ElementWriter<? super T> writer) throws IOException {
+        if (value == null) {
+            exchange.sendError(404, entity + " not found with ID: " + exchange.pathInt("id"));
+            return;
+        }
+        exchange.sendJson(200, json -> writer.write(json, value));
+    }
+
+    private static void sendDeleted(ApiExchange exchange, String entity, boolean deleted) throws IOException {
+        if (deleted) {
+            exchange.sendNoContent();
+        } else {
+            exchange.sendError(404, entity + " not found");
+        }
+    }
+
+    private static <T> void sendCreated(ApiExchange exchange, String location, T value,
+                                        DomainJson.ElementWriter<? super T> writer) throws IOException {
+        exchange.responseHeaders().set("Location", location);
+        exchange.sendJson(201, json -> writer.write(json, value));
+    }
+
+    private static <T> void sendUpdated(ApiExchange exchange, String entity, boolean updated, T value,
+                                        DomainJson.ElementWriter<? super T> writer) throws IOException {
+        if (updated) {
+            exchange.sendJson(200, json -> writer.write(json, value));
+        } else {
+            exchange.sendError(404, entity + " not found with ID: " + exchange.pathInt("id"));
+        }
+    }
+
+    // ============================================
+    // CRUD Handlers
+    // ============================================
+    private void createDepartment(ApiExchange exchange) throws SQLException, IOException {
+        Department created = service.createDepartment(exchange.readBody(DomainJson::readDepartment));
+        sendCreated(exchange, "/api/departments/" + created.getDepartmentId(), created, DomainJson::writeDepartment);
+    }
+
+    private void updateDepartment(ApiExchange exchange) throws SQLException, IOException {
+        Department department = exchange.readBody(DomainJson::readDepartment);
+        department.setDepartmentId(exchange.pathInt("id"));
+        sendUpdated(exchange, "Department", service.updateDepartment(department), department,
+                DomainJson::writeDepartment);
+    }
+
+    private void createEmployee(ApiExchange exchange) throws SQLException, IOException {
+        Employee created = service.createEmployee(exchange.readBody(DomainJson::readEmployee));
+        sendCreated(exchange, "/api/employees/" + created.getEmployeeId(), created, DomainJson::writeEmployee);
+    }
+
+    private void updateEmployee(ApiExchange exchange) throws SQLException, IOException {
+        Employee employee = exchange.readBody(DomainJson::readEmployee);
+        employee.setEmployeeId(exchange.pathInt("id"));
+        sendUpdated(exchange, "Employee", service.updateEmployee(employee), employee, DomainJson::writeEmployee);
+    }
+
+    private void createProject(ApiExchange exchange) throws SQLException, IOException {
+        Project created = service.createProject(exchange.readBody(DomainJson::readProject));
+        sendCreated(exchange, "/api/projects/" + created.getProjectId(), created, DomainJson::writeProject);
+    }
+
+    private void updateProject(ApiExchange exchange) throws SQLException, IOException {
+        Project project = exchange.readBody(DomainJson::readProject);
+        project.setProjectId(exchange.pathInt("id"));
+        sendUpdated(exchange, "Project", service.updateProject(project), project, DomainJson::writeProject);
+    }
+
+    private void createClient(ApiExchange exchange) throws SQLException, IOException {
+        Client created = service.createClient(exchange.readBody(DomainJson::readClient));
+        sendCreated(exchange, "/api/clients/" + created.getClientId(), created, DomainJson::writeClient);
+    }
+
+    private void updateClient(ApiExchange exchange) throws SQLException, IOException {
+        Client client = exchange.readBody(DomainJson::readClient);
+        client.setClientId(exchange.pathInt("id"));
+        sendUpdated(exchange, "Client", service.updateClient(client), client, DomainJson::writeClient);
+    }
+
+    // ============================================
+    // Business Logic Handlers
+    // ============================================
+    private void calculateProjectHRCost(ApiExchange exchange) throws SQLException, IOException {
+        int projectId = exchange.pathInt("id");
+        BigDecimal cost = service.calculateProjectHRCost(projectId);
+        exchange.sendJson(200, json -> json.beginObject()
+                .name("projectId").value(projectId)
+                .name("hrCost").value(cost)
+                .endObject());
+    }
+
+    private void getHRCostByProject(ApiExchange exchange) throws SQLException, IOException {
+        Map<Integer, BigDecimal> costs = service.getHRCostByProject();
+        exchange.sendJson(200, json -> DomainJson.writeAmounts(json, costs));
+    }
+
+    private void getPayrollByDepartment(ApiExchange exchange) throws SQLException, IOException {
+        Map<Integer, BigDecimal> payroll = service.getPayrollByDepartment();
+        exchange.sendJson(200, json -> DomainJson.writeAmounts(json, payroll));
+    }
+
+    private void getProjectsByDepartment(ApiExchange exchange) throws SQLException, IOException {
+        String sortBy = exchange.query("sortBy");
+        List<Project> projects = service.getProjectsByDepartment(exchange.pathInt("id"),
+                sortBy == null ? "name" : sortBy);
+        exchange.streamJson(projects, DomainJson::writeProject);
+    }
+
+    /**
+     * Projects active on the date in "on", or on any day from "from" through "to",
+     * within the department in "department" when given.
+     */
+    private void findActiveProjects(ApiExchange exchange) throws SQLException, IOException {
+        LocalDate on = queryDate(exchange, "on");
+        LocalDate from = queryDate(exchange, "from");
+        LocalDate to = queryDate(exchange, "to");
+        int departmentId = exchange.queryInt("department", 0);
+        if (on == null && (from == null || to == null)) {
+            throw new IllegalArgumentException("Either on or both from and to are required");
+        }
+
+        List<Project> projects;
+        if (on != null) {
+            projects = departmentId == 0
+                    ? service.findProjectsActiveOn(on)
+                    : service.findProjectsActiveOn(on, departmentId);
+        } else {
+            projects = departmentId == 0
+                    ? service.findProjectsActiveBetween(from, to)
+                    : service.findProjectsActiveBetween(from, to, departmentId);
+        }
+        exchange.streamJson(projects, DomainJson::writeProject);
+    }
+
+    /**
+     * Employees with at least "minFree" percent free on every day from "from" through "to",
+     * within the department in "department" when given.
+     */
+    private void findAvailableEmployees(ApiExchange exchange) throws SQLException, IOException {
+        LocalDate from = requiredDate(exchange, "from");
+        LocalDate to = requiredDate(exchange, "to");
+        int minFreePercent = exchange.queryInt("minFree", DEFAULT_MIN_FREE_PERCENT);
+        int departmentId = exchange.queryInt("department", 0);
+        List<Employee> employees = departmentId == 0
+                ? service.findAvailableEmployees(minFreePercent, from, to)
+                : service.findAvailableEmployees(departmentId, minFreePercent, from, to);
+        exchange.streamJson(employees, DomainJson::writeEmployee);
+    }
+
+    private void getEmployeeCapacity(ApiExchange exchange) throws SQLException, IOException {
+        List<CapacitySegment> segments = service.getEmployeeCapacity(exchange.pathInt("id"),
+                requiredDate(exchange, "from"), requiredDate(exchange, "to"));
+        exchange.streamJson(segments, DomainJson::writeCapacitySegment);
+    }
+
+    private void searchEmployees(ApiExchange exchange) throws SQLException, IOException {
+        List<SearchHit> hits = service.searchEmployees(exchange.query("q"),
+                exchange.queryInt("limit", DEFAULT_SEARCH_LIMIT));
+        exchange.streamJson(hits, DomainJson::writeSearchHit);
+    }
+
+    private void completeEmployees(ApiExchange exchange) throws SQLException, IOException {
+        List<SearchHit> hits = service.completeEmployees(exchange.query("prefix"),
+                exchange.queryInt("limit", DEFAULT_SEARCH_LIMIT));
+        exchange.streamJson(hits, DomainJson::writeSearchHit);
+    }
+
+    private void searchClients(ApiExchange exchange) throws SQLException, IOException {
+        List<SearchHit> hits = service.searchClients(exchange.query("q"),
+                exchange.queryInt("limit", DEFAULT_SEARCH_LIMIT));
+        exchange.streamJson(hits, DomainJson::writeSearchHit);
+    }
+
+    private void findClientsByUpcomingProjectDeadline(ApiExchange exchange) throws SQLException, IOException {
+        int days = exchange.queryInt("days", DEFAULT_DAYS_UNTIL_DEADLINE);
+        FacetFilter filter = facetFilter(exchange);
+        // Without facets the plain query answers from the store as before
+        List<Client> clients = filter == FacetFilter.none()
+                ? service.findClientsByUpcomingProjectDeadline(days)
+                : service.findClientsByUpcomingProjectDeadline(days, filter);
+        exchange.streamJson(clients, DomainJson::writeClient);
+    }
+
+    private void countClientFacets(ApiExchange exchange) throws SQLException, IOException {
+        FacetCounts counts = service.countClientFacets(facetFilter(exchange));
+        exchange.sendJson(200, json -> DomainJson.writeFacetCounts(json, counts));
+    }
+
+    /**
+     * Facets from the query string: industry, status and department take comma-separated
+     * values, endsAfter and endsBefore take inclusive yyyy-MM-dd dates.
+     */
+    private static FacetFilter facetFilter(ApiExchange exchange) {
+        FacetFilter filter = FacetFilter.none();
+        String industries = exchange.query("industry");
+        if (industries != null) {
+            filter = filter.withIndustries(industries.split(","));
+        }
+        String statuses = exchange.query("status");
+        if (statuses != null) {
+            filter = filter.withProjectStatuses(statuses.split(","));
+        }
+        String departments = exchange.query("department");
+        if (departments != null) {
+            String[] values = departments.split(",");
+            int[] departmentIds = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                try {
+                    departmentIds[i] = Integer.parseInt(values[i].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("department must be a list of integers: " + departments);
+                }
+            }
+            filter = filter.withDepartments(departmentIds);
+        }
+        LocalDate endsAfter = queryDate(exchange, "endsAfter");
+        LocalDate endsBefore = queryDate(exchange, "endsBefore");
+        if (endsAfter != null || endsBefore != null) {
+            filter = filter.withProjectEndBetween(endsAfter, endsBefore);
+        }
+        return filter;
+    }
+
+    private static LocalDate requiredDate(ApiExchange exchange, String name) {
+        LocalDate date = queryDate(exchange, name);
+        if (date == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return date;
+    }
+
+    private static LocalDate queryDate(ApiExchange exchange, String name) {
+        String value = exchange.query(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a yyyy-MM-dd date: " + value);
+        }
+    }
+
+    private void transferEmployee(ApiExchange exchange) throws SQLException, IOException {
+        int employeeId = exchange.pathInt("id");
+        int departmentId = exchange.readBody(DomainJson::readTransfer);
+        if (!service.transferEmployeeToDepartment(employeeId, departmentId)) {
+            exchange.sendError(409, "Transfer not applied: employee " + employeeId + " changed concurrently");
+            return;
+        }
+        exchange.sendJson(200, json -> json.beginObject()
+                .name("employeeId").value(employeeId)
+                .name("departmentId").value(departmentId)
+                .endObject());
+    }
+
+    private void getProjectDetails(ApiExchange exchange) throws SQLException, IOException {
+        ProjectDetails details = service.getProjectDetails(exchange.pathInt("id"));
+        exchange.sendJson(200, json -> DomainJson.writeProjectDetails(json, details));
+    }
+
+    private void assignEmployee(ApiExchange exchange) throws SQLException, IOException {
+        int projectId = exchange.pathInt("id");
+        EmployeeProject assignment = exchange.readBody(DomainJson::readAssignment);
+        assignment.setProjectId(projectId);
+        if (!service.assignEmployeeToProject(assignment.getEmployeeId(), projectId,
+                assignment.getTimeAllocationPercent())) {
+            exchange.sendError(409, "Employee " + assignment.getEmployeeId() + " not assigned to project " + projectId);
+            return;
+        }
+        sendCreated(exchange, "/api/projects/" + projectId + "/assignments/" + assignment.getEmployeeId(),
+                assignment, DomainJson::writeAssignment);
+    }
+
+    private void updateAllocation(ApiExchange exchange) throws SQLException, IOException {
+        EmployeeProject assignment = new EmployeeProject(exchange.pathInt("employeeId"), exchange.pathInt("id"),
+                exchange.readBody(DomainJson::readAllocation));
+        if (!service.updateEmployeeProjectAllocation(assignment.getEmployeeId(), assignment.getProjectId(),
+                assignment.getTimeAllocationPercent())) {
+            exchange.sendError(404, "Assignment not found");
+            return;
+        }
+        exchange.sendJson(200, json -> DomainJson.writeAssignment(json, assignment));
+    }
+
+    /**
+     * Body: {"members": [{"employeeId": 1, "timeAllocationPercent": 50}, ...]}
+     */
+    private void replaceProjectTeam(ApiExchange exchange) throws SQLException, IOException {
+        int projectId = exchange.pathInt("id");
+        Map<Integer, Integer> allocations = exchange.readBody(DomainJson::readTeam);
+        boolean changed = service.replaceProjectTeam(projectId, allocations);
+        exchange.sendJson(200, json -> json.beginObject()
+                .name("projectId").value(projectId)
+                .name("changed").value(changed)
+                .endObject());
+    }
+
+    private static String[] split(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static boolean isDigits(String segment) {
+        if (segment.isEmpty() || segment.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
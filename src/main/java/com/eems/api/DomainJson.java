@@ -0,0 +1,458 @@
+package com.eems.api;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eems.analytics.CapacitySegment;
+import com.eems.analytics.FacetCounts;
+import com.eems.analytics.OverAllocation;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.domain.ProjectDetails;
+import com.eems.search.SearchHit;
+
+/**
+ * Presentation Layer: Domain JSON Codec
+ * Writes and reads the domain objects with explicit field-by-field code: no
+ * reflection, no intermediate tree and no per-member String. Member names
+ * follow the getters and are encoded once; money is a JSON number with its
+ * exact scale and dates are ISO-8601 strings.
+ *
+ * Readers take members in any order, skip unknown ones and leave absent ones
+ * unset, so the service's validation reports what is missing.
+ */
+public final class DomainJson {
+
+    /**
+     * Writes one value; used for objects and for each element of a streamed array.
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        void write(JsonWriter json, T value) throws IOException;
+    }
+
+    /**
+     * Reads one value from the reader's current position.
+     */
+    @FunctionalInterface
+    public interface ElementReader<T> {
+        T read(JsonReader reader);
+    }
+
+    // Shared members
+    private static final JsonName NAME = JsonName.of("name");
+    private static final JsonName DEPARTMENT_ID = JsonName.of("departmentId");
+    private static final JsonName EMPLOYEE_ID = JsonName.of("employeeId");
+    private static final JsonName PROJECT_ID = JsonName.of("projectId");
+
+    // Department
+    private static final JsonName LOCATION = JsonName.of("location");
+    private static final JsonName ANNUAL_BUDGET = JsonName.of("annualBudget");
+
+    // Employee
+    private static final JsonName FULL_NAME = JsonName.of("fullName");
+    private static final JsonName TITLE = JsonName.of("title");
+    private static final JsonName HIRE_DATE = JsonName.of("hireDate");
+    private static final JsonName SALARY = JsonName.of("salary");
+
+    // Project
+    private static final JsonName DESCRIPTION = JsonName.of("description");
+    private static final JsonName START_DATE = JsonName.of("startDate");
+    private static final JsonName END_DATE = JsonName.of("endDate");
+    private static final JsonName BUDGET = JsonName.of("budget");
+    private static final JsonName STATUS = JsonName.of("status");
+
+    // Client
+    private static final JsonName CLIENT_ID = JsonName.of("clientId");
+    private static final JsonName INDUSTRY = JsonName.of("industry");
+    private static final JsonName CONTACT_PERSON = JsonName.of("contactPerson");
+    private static final JsonName CONTACT_PHONE = JsonName.of("contactPhone");
+    private static final JsonName CONTACT_EMAIL = JsonName.of("contactEmail");
+
+    // EmployeeProject and request bodies
+    private static final JsonName TIME_ALLOCATION_PERCENT = JsonName.of("timeAllocationPercent");
+    private static final JsonName MEMBERS = JsonName.of("members");
+
+    // ProjectDetails
+    private static final JsonName PROJECT = JsonName.of("project");
+    private static final JsonName CLIENTS = JsonName.of("clients");
+    private static final JsonName DEPARTMENTS = JsonName.of("departments");
+    private static final JsonName EMPLOYEES = JsonName.of("employees");
+    private static final JsonName ASSIGNMENTS = JsonName.of("assignments");
+
+    // FacetCounts
+    private static final JsonName PROJECTS = JsonName.of("projects");
+    private static final JsonName CLIENTS_BY_INDUSTRY = JsonName.of("clientsByIndustry");
+    private static final JsonName PROJECTS_BY_STATUS = JsonName.of("projectsByStatus");
+    private static final JsonName PROJECTS_BY_DEPARTMENT = JsonName.of("projectsByDepartment");
+
+    // CapacitySegment
+    private static final JsonName FROM = JsonName.of("from");
+    private static final JsonName TO = JsonName.of("to");
+    private static final JsonName ALLOCATED_PERCENT = JsonName.of("allocatedPercent");
+    private static final JsonName FREE_PERCENT = JsonName.of("freePercent");
+
+    // OverAllocation
+    private static final JsonName PEAK_PERCENT = JsonName.of("peakPercent");
+    private static final JsonName PROJECT_IDS = JsonName.of("projectIds");
+
+    // SearchHit
+    private static final JsonName ID = JsonName.of("id");
+    private static final JsonName TEXT = JsonName.of("text");
+    private static final JsonName MATCH = JsonName.of("match");
+
+    private DomainJson() {}
+
+    // ============================================
+    // Writers
+    // ============================================
+    public static void writeDepartment(JsonWriter json, Department department) throws IOException {
+        json.beginObject();
+        json.name(DEPARTMENT_ID).value(department.getDepartmentId());
+        json.name(NAME).value(department.getName());
+        json.name(LOCATION).value(department.getLocation());
+        json.name(ANNUAL_BUDGET).value(department.getAnnualBudget());
+        json.endObject();
+    }
+
+    public static void writeEmployee(JsonWriter json, Employee employee) throws IOException {
+        json.beginObject();
+        json.name(EMPLOYEE_ID).value(employee.getEmployeeId());
+        json.name(FULL_NAME).value(employee.getFullName());
+        json.name(TITLE).value(employee.getTitle());
+        json.name(HIRE_DATE).value(employee.getHireDate());
+        json.name(SALARY).value(employee.getSalary());
+        json.name(DEPARTMENT_ID).value(employee.getDepartmentId());
+        json.endObject();
+    }
+
+    public static void writeProject(JsonWriter json, Project project) throws IOException {
+        json.beginObject();
+        json.name(PROJECT_ID).value(project.getProjectId());
+        json.name(NAME).value(project.getName());
+        json.name(DESCRIPTION).value(project.getDescription());
+        json.name(START_DATE).value(project.getStartDate());
+        json.name(END_DATE).value(project.getEndDate());
+        json.name(BUDGET).value(project.getBudget());
+        json.name(STATUS).value(project.getStatus());
+        json.endObject();
+    }
+
+    public static void writeClient(JsonWriter json, Client client) throws IOException {
+        json.beginObject();
+        json.name(CLIENT_ID).value(client.getClientId());
+        json.name(NAME).value(client.getName());
+        json.name(INDUSTRY).value(client.getIndustry());
+        json.name(CONTACT_PERSON).value(client.getContactPerson());
+        json.name(CONTACT_PHONE).value(client.getContactPhone());
+        json.name(CONTACT_EMAIL).value(client.getContactEmail());
+        json.endObject();
+    }
+
+    public static void writeAssignment(JsonWriter json, EmployeeProject assignment) throws IOException {
+        json.beginObject();
+        json.name(EMPLOYEE_ID).value(assignment.getEmployeeId());
+        json.name(PROJECT_ID).value(assignment.getProjectId());
+        json.name(TIME_ALLOCATION_PERCENT).value(assignment.getTimeAllocationPercent());
+        json.endObject();
+    }
+
+    public static void writeProjectDetails(JsonWriter json, ProjectDetails details) throws IOException {
+        json.beginObject();
+        json.name(PROJECT);
+        writeProject(json, details.getProject());
+        json.name(CLIENTS);
+        writeArray(json, details.getClients(), DomainJson::writeClient);
+        json.name(DEPARTMENTS);
+        writeArray(json, details.getDepartments(), DomainJson::writeDepartment);
+        json.name(EMPLOYEES);
+        writeArray(json, details.getEmployees(), DomainJson::writeEmployee);
+        json.name(ASSIGNMENTS);
+        writeArray(json, details.getAssignments(), DomainJson::writeAssignment);
+        json.endObject();
+    }
+
+    public static void writeFacetCounts(JsonWriter json, FacetCounts counts) throws IOException {
+        json.beginObject();
+        json.name(CLIENTS).value(counts.clients());
+        json.name(PROJECTS).value(counts.projects());
+        json.name(CLIENTS_BY_INDUSTRY);
+        writeCounts(json, counts.clientsByIndustry());
+        json.name(PROJECTS_BY_STATUS);
+        writeCounts(json, counts.projectsByStatus());
+        json.name(PROJECTS_BY_DEPARTMENT);
+        writeCounts(json, counts.projectsByDepartment());
+        json.endObject();
+    }
+
+    public static void writeCapacitySegment(JsonWriter json, CapacitySegment segment) throws IOException {
+        json.beginObject();
+        json.name(FROM).value(segment.from());
+        json.name(TO).value(segment.to());
+        json.name(ALLOCATED_PERCENT).value(segment.allocatedPercent());
+        json.name(FREE_PERCENT).value(segment.freePercent());
+        json.endObject();
+    }
+
+    public static void writeOverAllocation(JsonWriter json, OverAllocation run) throws IOException {
+        json.beginObject();
+        json.name(EMPLOYEE_ID).value(run.employeeId());
+        json.name(FROM).value(run.from());
+        json.name(TO).value(run.to());
+        json.name(PEAK_PERCENT).value(run.peakPercent());
+        json.name(PROJECT_IDS);
+        writeArray(json, run.projectIds(), (writer, projectId) -> writer.value(projectId));
+        json.endObject();
+    }
+
+    public static void writeSearchHit(JsonWriter json, SearchHit hit) throws IOException {
+        json.beginObject();
+        json.name(ID).value(hit.id());
+        json.name(TEXT).value(hit.text());
+        json.name(MATCH).value(hit.match().name());
+        json.endObject();
+    }
+
+    /**
+     * Write amounts keyed by id as a JSON object.
+     */
+    public static void writeAmounts(JsonWriter json, Map<Integer, BigDecimal> amounts) throws IOException {
+        json.beginObject();
+        for (Map.Entry<Integer, BigDecimal> entry : amounts.entrySet()) {
+            json.name(String.valueOf(entry.getKey())).value(entry.getValue());
+        }
+        json.endObject();
+    }
+
+    /**
+     * Write a list as a JSON array.
+     */
+    public static <T> void writeArray(JsonWriter json, List<T> values, ElementWriter<? super T> writer)
+            throws IOException {
+        json.beginArray();
+        for (T value : values) {
+            writer.write(json, value);
+        }
+        json.endArray();
+    }
+
+    private static void writeCounts(JsonWriter json, Map<?, Integer> counts) throws IOException {
+        json.beginObject();
+        for (Map.Entry<?, Integer> entry : counts.entrySet()) {
+            json.name(String.valueOf(entry.getKey())).value(entry.getValue());
+        }
+        json.endObject();
+    }
+
+    // ============================================
+    // Readers
+    // ============================================
+    public static Department readDepartment(JsonReader reader) {
+        Department department = new Department();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(DEPARTMENT_ID)) {
+                department.setDepartmentId(reader.nextInt());
+            } else if (reader.nameIs(NAME)) {
+                department.setName(reader.nextString());
+            } else if (reader.nameIs(LOCATION)) {
+                department.setLocation(reader.nextString());
+            } else if (reader.nameIs(ANNUAL_BUDGET)) {
+                department.setAnnualBudget(reader.nextDecimal());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return department;
+    }
+
+    public static Employee readEmployee(JsonReader reader) {
+        Employee employee = new Employee();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(EMPLOYEE_ID)) {
+                employee.setEmployeeId(reader.nextInt());
+            } else if (reader.nameIs(FULL_NAME)) {
+                employee.setFullName(reader.nextString());
+            } else if (reader.nameIs(TITLE)) {
+                employee.setTitle(reader.nextString());
+            } else if (reader.nameIs(HIRE_DATE)) {
+                employee.setHireDate(reader.nextDate());
+            } else if (reader.nameIs(SALARY)) {
+                employee.setSalary(reader.nextDecimal());
+            } else if (reader.nameIs(DEPARTMENT_ID)) {
+                employee.setDepartmentId(reader.nextInt());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return employee;
+    }
+
+    public static Project readProject(JsonReader reader) {
+        Project project = new Project();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(PROJECT_ID)) {
+                project.setProjectId(reader.nextInt());
+            } else if (reader.nameIs(NAME)) {
+                project.setName(reader.nextString());
+            } else if (reader.nameIs(DESCRIPTION)) {
+                project.setDescription(reader.nextString());
+            } else if (reader.nameIs(START_DATE)) {
+                project.setStartDate(reader.nextDate());
+            } else if (reader.nameIs(END_DATE)) {
+                project.setEndDate(reader.nextDate());
+            } else if (reader.nameIs(BUDGET)) {
+                project.setBudget(reader.nextDecimal());
+            } else if (reader.nameIs(STATUS)) {
+                project.setStatus(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return project;
+    }
+
+    public static Client readClient(JsonReader reader) {
+        Client client = new Client();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(CLIENT_ID)) {
+                client.setClientId(reader.nextInt());
+            } else if (reader.nameIs(NAME)) {
+                client.setName(reader.nextString());
+            } else if (reader.nameIs(INDUSTRY)) {
+                client.setIndustry(reader.nextString());
+            } else if (reader.nameIs(CONTACT_PERSON)) {
+                client.setContactPerson(reader.nextString());
+            } else if (reader.nameIs(CONTACT_PHONE)) {
+                client.setContactPhone(reader.nextString());
+            } else if (reader.nameIs(CONTACT_EMAIL)) {
+                client.setContactEmail(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return client;
+    }
+
+    /**
+     * An assignment; employeeId and timeAllocationPercent are required, projectId is optional.
+     */
+    public static EmployeeProject readAssignment(JsonReader reader) {
+        EmployeeProject assignment = new EmployeeProject();
+        boolean hasEmployee = false;
+        boolean hasAllocation = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(EMPLOYEE_ID)) {
+                assignment.setEmployeeId(reader.nextInt());
+                hasEmployee = true;
+            } else if (reader.nameIs(PROJECT_ID)) {
+                assignment.setProjectId(reader.nextInt());
+            } else if (reader.nameIs(TIME_ALLOCATION_PERCENT)) {
+                assignment.setTimeAllocationPercent(reader.nextInt());
+                hasAllocation = true;
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (!hasEmployee) {
+            throw new IllegalArgumentException(EMPLOYEE_ID + " is required");
+        }
+        if (!hasAllocation) {
+            throw new IllegalArgumentException(TIME_ALLOCATION_PERCENT + " is required");
+        }
+        return assignment;
+    }
+
+    /**
+     * A project team, {"members": [{"employeeId": 1, "timeAllocationPercent": 50}, ...]},
+     * as allocation by employee id in the order given.
+     */
+    public static Map<Integer, Integer> readTeam(JsonReader reader) {
+        Map<Integer, Integer> allocations = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(MEMBERS)) {
+                allocations = new LinkedHashMap<>();
+                for (EmployeeProject member : readArray(reader, DomainJson::readAssignment)) {
+                    if (allocations.put(member.getEmployeeId(), member.getTimeAllocationPercent()) != null) {
+                        throw new IllegalArgumentException("Employee listed twice: " + member.getEmployeeId());
+                    }
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (allocations == null) {
+            throw new IllegalArgumentException(MEMBERS + " is required");
+        }
+        return allocations;
+    }
+
+    /**
+     * The department a transfer moves an employee to, from {"departmentId": 2}.
+     */
+    public static int readTransfer(JsonReader reader) {
+        return readRequiredInt(reader, DEPARTMENT_ID);
+    }
+
+    /**
+     * The new allocation of an assignment, from {"timeAllocationPercent": 60}.
+     */
+    public static int readAllocation(JsonReader reader) {
+        return readRequiredInt(reader, TIME_ALLOCATION_PERCENT);
+    }
+
+    /**
+     * A JSON array, each element read by {@code elementReader}.
+     */
+    public static <T> List<T> readArray(JsonReader reader, ElementReader<? extends T> elementReader) {
+        List<T> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(elementReader.read(reader));
+        }
+        reader.endArray();
+        return values;
+    }
+
+    private static int readRequiredInt(JsonReader reader, JsonName name) {
+        Integer value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(name)) {
+                value = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.eems.api;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Presentation Layer: JSON Name
+ * A member name encoded once, up front. The writer copies its quoted form with
+ * the colon in one step and the reader compares raw input bytes against it,
+ * so neither side builds a String per member.
+ */
+public final class JsonName {
+
+    private final String name;
+    private final byte[] raw;
+    private final byte[] member;
+
+    private JsonName(String name) {
+        this.name = name;
+        this.raw = name.getBytes(StandardCharsets.UTF_8);
+        for (byte b : raw) {
+            if (b == '"' || b == '\\' || (b >= 0 && b < 0x20)) {
+                throw new IllegalArgumentException("Member name needs escaping: " + name);
+            }
+        }
+        this.member = new byte[raw.length + 3];
+        member[0] = '"';
+        System.arraycopy(raw, 0, member, 1, raw.length);
+        member[raw.length + 1] = '"';
+        member[raw.length + 2] = ':';
+    }
+
+    public static JsonName of(String name) {
+        return new JsonName(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * UTF-8 bytes of the name, as they appear between the quotes.
+     */
+    byte[] raw() {
+        return raw;
+    }
+
+    /**
+     * The name quoted and followed by a colon, ready to copy into output.
+     */
+    byte[] member() {
+        return member;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,574 @@
+package com.eems.api;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Presentation Layer: JSON Reader
+ * Pull parser that reads UTF-8 JSON in place, token by token.
+ *
+ * Nothing is copied or allocated that the caller does not keep: member names
+ * are matched against {@link JsonName} bytes where they lie, integers, decimals
+ * and dates are decoded straight from their digits, and skipped values are only
+ * scanned. A String is built only when {@link #nextString()} asks for one.
+ *
+ * Decimals keep their exact digits and scale. Malformed input raises
+ * IllegalArgumentException naming the byte offset, which the API reports as 400.
+ */
+public final class JsonReader {
+
+    private static final int MAX_DEPTH = 64;
+    // Digits that always fit a long while a decimal's unscaled value is accumulated
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final byte[] input;
+    private final int end;
+    private int position;
+
+    // Per nesting level: has the current object or array produced an element yet
+    private final boolean[] started = new boolean[MAX_DEPTH];
+    private int depth;
+
+    // The member name last read by nextName(), as a range of the input
+    private int nameStart;
+    private int nameEnd;
+    private boolean nameEscaped;
+
+    public JsonReader(byte[] input) {
+        this(input, 0, input.length);
+    }
+
+    public JsonReader(byte[] input, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > input.length) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + length + " outside " + input.length);
+        }
+        this.input = input;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Read the buffer's remaining bytes. A heap buffer is read in place; a direct
+     * buffer has no array behind it and is copied once.
+     */
+    public JsonReader(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            this.input = buffer.array();
+            this.position = buffer.arrayOffset() + buffer.position();
+            this.end = position + buffer.remaining();
+        } else {
+            this.input = new byte[buffer.remaining()];
+            buffer.duplicate().get(input);
+            this.position = 0;
+            this.end = input.length;
+        }
+    }
+
+    public void beginObject() {
+        open('{');
+    }
+
+    public void endObject() {
+        close('}');
+    }
+
+    public void beginArray() {
+        open('[');
+    }
+
+    public void endArray() {
+        close(']');
+    }
+
+    /**
+     * Whether the current object or array has another member or element; consumes the comma before it.
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        byte b = peek();
+        if (b == '}' || b == ']') {
+            return false;
+        }
+        if (started[depth]) {
+            if (b != ',') {
+                throw error("Expected ',' between values");
+            }
+            position++;
+            skipWhitespace();
+        }
+        started[depth] = true;
+        return true;
+    }
+
+    /**
+     * Read the next member name and its colon; test it with {@link #nameIs}.
+     */
+    public void nextName() {
+        skipWhitespace();
+        if (peek() != '"') {
+            throw error("Expected member name");
+        }
+        nameStart = position + 1;
+        nameEscaped = scanString();
+        nameEnd = position - 1;
+        skipWhitespace();
+        if (next() != ':') {
+            position--;
+            throw error("Expected ':'");
+        }
+    }
+
+    /**
+     * Whether the member name last read is {@code name}, compared without decoding it.
+     */
+    public boolean nameIs(JsonName name) {
+        if (nameEscaped) {
+            return decode(nameStart, nameEnd).equals(name.getName());
+        }
+        byte[] raw = name.raw();
+        return Arrays.equals(input, nameStart, nameEnd, raw, 0, raw.length);
+    }
+
+    /**
+     * The member name last read, decoded; for error messages.
+     */
+    public String currentName() {
+        return nameEscaped ? decode(nameStart, nameEnd)
+                : new String(input, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consume a null literal if one is next.
+     */
+    public boolean nextNull() {
+        skipWhitespace();
+        if (position < end && input[position] == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A string, or null for a null literal.
+     */
+    public String nextString() {
+        if (nextNull()) {
+            return null;
+        }
+        skipWhitespace();
+        if (peek() != '"') {
+            throw error("Expected a string");
+        }
+        int start = position + 1;
+        boolean escaped = scanString();
+        int stop = position - 1;
+        return escaped ? decode(start, stop) : new String(input, start, stop - start, StandardCharsets.UTF_8);
+    }
+
+    public boolean nextBoolean() {
+        skipWhitespace();
+        byte b = peek();
+        if (b == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        if (b == 'f') {
+            expectLiteral("false");
+            return false;
+        }
+        throw error("Expected true or false");
+    }
+
+    /**
+     * An integer number; fractions, exponents and values beyond int are rejected.
+     */
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("Integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * An integer number; fractions, exponents and values beyond long are rejected.
+     */
+    public long nextLong() {
+        skipWhitespace();
+        int start = position;
+        boolean negative = position < end && input[position] == '-';
+        if (negative) {
+            position++;
+        }
+        int digitsStart = position;
+        long value = 0;
+        while (position < end && isDigit(input[position])) {
+            int digit = input[position] - '0';
+            // Accumulate negatively: the negative range is one larger
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                position = start;
+                throw error("Integer out of range");
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == digitsStart) {
+            position = start;
+            throw error("Expected an integer");
+        }
+        if (position < end && (input[position] == '.' || input[position] == 'e' || input[position] == 'E')) {
+            position = start;
+            throw error("Expected an integer");
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                position = start;
+                throw error("Integer out of range");
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    /**
+     * A decimal with the exact digits and scale written, or null for a null literal.
+     * Money sent as a string, such as "1200.00", is accepted as well.
+     */
+    public BigDecimal nextDecimal() {
+        if (nextNull()) {
+            return null;
+        }
+        skipWhitespace();
+        if (peek() == '"') {
+            int start = position + 1;
+            if (scanString()) {
+                throw error("Expected a decimal number");
+            }
+            int stop = position - 1;
+            int resume = position;
+            position = start;
+            BigDecimal value = parseDecimal();
+            if (position != stop) {
+                position = start;
+                throw error("Expected a decimal number");
+            }
+            position = resume;
+            return value;
+        }
+        return parseDecimal();
+    }
+
+    /**
+     * An ISO-8601 date such as "2024-03-01", or null for a null literal.
+     */
+    public LocalDate nextDate() {
+        if (nextNull()) {
+            return null;
+        }
+        skipWhitespace();
+        if (peek() != '"') {
+            throw error("Expected a date string");
+        }
+        int start = position;
+        // "yyyy-MM-dd" read straight from its digits
+        if (end - start >= 12 && input[start + 5] == '-' && input[start + 8] == '-' && input[start + 11] == '"') {
+            int year = digits(start + 1, 4);
+            int month = digits(start + 6, 2);
+            int day = digits(start + 9, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    LocalDate date = LocalDate.of(year, month, day);
+                    position = start + 12;
+                    return date;
+                } catch (DateTimeException e) {
+                    throw error("Invalid date: " + e.getMessage());
+                }
+            }
+        }
+        // Other forms, such as years past 9999, take the general route
+        String text = nextString();
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeException e) {
+            position = start;
+            throw error("Expected a date in yyyy-MM-dd form");
+        }
+    }
+
+    /**
+     * Skip the next value, however deeply nested, without decoding it.
+     */
+    public void skipValue() {
+        skipWhitespace();
+        byte b = peek();
+        switch (b) {
+            case '"' -> scanString();
+            case '{', '[' -> {
+                int nesting = 0;
+                do {
+                    byte c = next();
+                    if (c == '"') {
+                        position--;
+                        scanString();
+                    } else if (c == '{' || c == '[') {
+                        nesting++;
+                    } else if (c == '}' || c == ']') {
+                        nesting--;
+                    }
+                } while (nesting > 0);
+            }
+            case 't' -> expectLiteral("true");
+            case 'f' -> expectLiteral("false");
+            case 'n' -> expectLiteral("null");
+            default -> {
+                if (b != '-' && !isDigit(b)) {
+                    throw error("Unexpected character '" + (char) b + "'");
+                }
+                parseDecimal();
+            }
+        }
+    }
+
+    /**
+     * Check that nothing but whitespace follows the value just read.
+     */
+    public void endDocument() {
+        skipWhitespace();
+        if (position != end) {
+            throw error("Unexpected content after JSON value");
+        }
+    }
+
+    private void open(char bracket) {
+        skipWhitespace();
+        if (next() != bracket) {
+            position--;
+            throw error("Expected '" + bracket + "'");
+        }
+        if (++depth >= MAX_DEPTH) {
+            throw error("JSON nested deeper than " + MAX_DEPTH);
+        }
+        started[depth] = false;
+    }
+
+    private void close(char bracket) {
+        skipWhitespace();
+        if (next() != bracket) {
+            position--;
+            throw error("Expected '" + bracket + "'");
+        }
+        depth--;
+    }
+
+    /**
+     * Move past the string at the current quote; returns whether it contains escapes.
+     */
+    private boolean scanString() {
+        position++;
+        boolean escaped = false;
+        while (position < end) {
+            byte b = input[position++];
+            if (b == '"') {
+                return escaped;
+            }
+            if (b == '\\') {
+                escaped = true;
+                if (position >= end) {
+                    break;
+                }
+                position++;
+            } else if (b >= 0 && b < 0x20) {
+                position--;
+                throw error("Control character in string");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * Decode a string body that contains escapes.
+     */
+    private String decode(int start, int stop) {
+        StringBuilder value = new StringBuilder(stop - start);
+        int run = start;
+        int i = start;
+        while (i < stop) {
+            if (input[i] != '\\') {
+                i++;
+                continue;
+            }
+            value.append(new String(input, run, i - run, StandardCharsets.UTF_8));
+            byte escape = input[i + 1];
+            i += 2;
+            switch (escape) {
+                case '"' -> value.append('"');
+                case '\\' -> value.append('\\');
+                case '/' -> value.append('/');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    int code = stop - i >= 4 ? hex(i) : -1;
+                    if (code < 0) {
+                        position = i - 2;
+                        throw error("Invalid unicode escape");
+                    }
+                    value.append((char) code);
+                    i += 4;
+                }
+                default -> {
+                    position = i - 2;
+                    throw error("Invalid escape '\\" + (char) escape + "'");
+                }
+            }
+            run = i;
+        }
+        value.append(new String(input, run, stop - run, StandardCharsets.UTF_8));
+        return value.toString();
+    }
+
+    /**
+     * Parse a JSON number at the current position into an exact BigDecimal. Up to
+     * 18 significant digits are accumulated in a long; longer numbers fall back to
+     * BigDecimal's own parser.
+     */
+    private BigDecimal parseDecimal() {
+        int start = position;
+        boolean negative = position < end && input[position] == '-';
+        if (negative) {
+            position++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        int integerStart = position;
+        while (position < end && isDigit(input[position])) {
+            unscaled = unscaled * 10 + (input[position++] - '0');
+            digits++;
+        }
+        if (position == integerStart) {
+            position = start;
+            throw error("Expected a number");
+        }
+        if (position < end && input[position] == '.') {
+            position++;
+            int fractionStart = position;
+            while (position < end && isDigit(input[position])) {
+                unscaled = unscaled * 10 + (input[position++] - '0');
+                digits++;
+            }
+            scale = position - fractionStart;
+            if (scale == 0) {
+                position = start;
+                throw error("Expected digits after '.'");
+            }
+        }
+        long exponent = 0;
+        if (position < end && (input[position] == 'e' || input[position] == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (input[position] == '+' || input[position] == '-')) {
+                negativeExponent = input[position++] == '-';
+            }
+            int exponentStart = position;
+            while (position < end && isDigit(input[position])) {
+                exponent = Math.min(exponent * 10 + (input[position++] - '0'), Integer.MAX_VALUE);
+            }
+            if (position == exponentStart) {
+                position = start;
+                throw error("Expected digits in exponent");
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        long finalScale = scale - exponent;
+        if (finalScale < Integer.MIN_VALUE || finalScale > Integer.MAX_VALUE) {
+            position = start;
+            throw error("Number exponent out of range");
+        }
+        if (digits > MAX_LONG_DIGITS) {
+            char[] text = new char[position - start];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = (char) input[start + i];
+            }
+            return new BigDecimal(text);
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, (int) finalScale);
+    }
+
+    /**
+     * The value of {@code count} decimal digits at {@code from}, or -1 if any is not a digit.
+     */
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            if (!isDigit(input[i])) {
+                return -1;
+            }
+            value = value * 10 + (input[i] - '0');
+        }
+        return value;
+    }
+
+    private int hex(int from) {
+        int code = 0;
+        for (int i = from; i < from + 4; i++) {
+            int digit = Character.digit(input[i], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            code = (code << 4) | digit;
+        }
+        return code;
+    }
+
+    private void expectLiteral(String literal) {
+        int start = position;
+        for (int i = 0; i < literal.length(); i++) {
+            if (position >= end || input[position] != literal.charAt(i)) {
+                position = start;
+                throw error("Expected '" + literal + "'");
+            }
+            position++;
+        }
+    }
+
+    private byte peek() {
+        if (position >= end) {
+            throw error("Unexpected end of JSON");
+        }
+        return input[position];
+    }
+
+    private byte next() {
+        byte b = peek();
+        position++;
+        return b;
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            byte b = input[position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Malformed JSON at offset " + position + ": " + message);
+    }
+}
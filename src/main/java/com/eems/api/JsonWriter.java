@@ -0,0 +1,397 @@
+package com.eems.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Presentation Layer: JSON Writer
+ * Streaming JSON writer that encodes UTF-8 into its own buffer and hands full
+ * buffers to an output stream or a ByteBuffer, so a large response is never held
+ * in memory. Commas between members and elements are inserted automatically.
+ *
+ * Nothing is formatted through an intermediate String: characters are encoded
+ * as they are copied, numbers and dates are written digit by digit, and
+ * {@link JsonName} members are copied pre-encoded.
+ */
+public final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] TRUE = "true".getBytes();
+    private static final byte[] FALSE = "false".getBytes();
+    private static final byte[] NULL = "null".getBytes();
+    // Unscaled values of up to 18 digits always fit a long
+    private static final int MAX_LONG_PRECISION = 18;
+    private static final int MAX_DEPTH = 64;
+    // Room for the longest number written in place
+    private static final int MIN_BUFFER_SIZE = 32;
+
+    private final OutputStream out;
+    private final ByteBuffer target;
+    private final byte[] buffer;
+    private int position;
+
+    // Per nesting level: does the next member or element need a leading comma
+    private final boolean[] separate = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public JsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.target = null;
+        this.buffer = new byte[Math.max(bufferSize, MIN_BUFFER_SIZE)];
+    }
+
+    /**
+     * Write into a ByteBuffer from its position on; running out of room raises
+     * BufferOverflowException, at the latest on {@link #flush()}.
+     */
+    public JsonWriter(ByteBuffer target) {
+        this.out = null;
+        this.target = target;
+        this.buffer = new byte[Math.max(Math.min(target.remaining(), 8192), MIN_BUFFER_SIZE)];
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push();
+        writeByte('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        depth--;
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push();
+        writeByte('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        depth--;
+        writeByte(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        beforeName();
+        writeString(name);
+        writeByte(':');
+        return this;
+    }
+
+    public JsonWriter name(JsonName name) throws IOException {
+        beforeName();
+        writeBytes(name.member());
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * A JSON number with the decimal's exact digits and scale, so 1200.00 stays
+     * 1200.00 and 1E+3 stays 1E+3; reading it back with {@link JsonReader#nextDecimal()}
+     * gives an equal BigDecimal of the same scale.
+     */
+    public JsonWriter value(BigDecimal value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        if (value.precision() > MAX_LONG_PRECISION) {
+            // BigDecimal's own form is exact; only this rare case builds a String
+            writeAscii(value.toString());
+            return this;
+        }
+        long unscaled = value.unscaledValue().longValue();
+        int scale = value.scale();
+        if (scale <= 0) {
+            writeLong(unscaled);
+            if (scale < 0) {
+                writeByte('E');
+                writeByte('+');
+                writeLong(-(long) scale);
+            }
+            return this;
+        }
+        if (unscaled < 0) {
+            writeByte('-');
+            unscaled = -unscaled;
+        }
+        writeFraction(unscaled, scale);
+        return this;
+    }
+
+    /**
+     * An ISO-8601 date string, such as "2024-03-01".
+     */
+    public JsonWriter value(LocalDate value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeByte('"');
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            writeAscii(value.toString());
+        } else {
+            writeDigits(year, 4);
+            writeByte('-');
+            writeDigits(value.getMonthValue(), 2);
+            writeByte('-');
+            writeDigits(value.getDayOfMonth(), 2);
+        }
+        writeByte('"');
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        writeBytes(NULL);
+        return this;
+    }
+
+    /**
+     * End a complete top-level value with a newline, as in JSON Lines; the next
+     * value starts a new line instead of following a comma.
+     */
+    public JsonWriter endLine() throws IOException {
+        if (depth != 0 || afterName) {
+            throw new IllegalStateException("Line ended inside a JSON value");
+        }
+        separate[0] = false;
+        writeByte('\n');
+        return this;
+    }
+
+    /**
+     * Push everything written so far to the output stream.
+     */
+    public void flush() throws IOException {
+        drain();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    private void push() {
+        if (depth + 1 >= MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting deeper than " + MAX_DEPTH);
+        }
+        separate[++depth] = false;
+    }
+
+    private void beforeName() throws IOException {
+        if (separate[depth]) {
+            writeByte(',');
+        }
+        separate[depth] = true;
+        afterName = true;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (separate[depth]) {
+            writeByte(',');
+        }
+        separate[depth] = true;
+    }
+
+    private void writeString(String value) throws IOException {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    writeByte('\\');
+                    writeByte(c);
+                } else if (c < 0x20) {
+                    writeControl(c);
+                } else {
+                    writeByte(c);
+                }
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // A lone surrogate cannot be encoded; keep it visible as an escape
+                writeControl(c);
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) throws IOException {
+        switch (c) {
+            case '\n' -> { writeByte('\\'); writeByte('n'); }
+            case '\r' -> { writeByte('\\'); writeByte('r'); }
+            case '\t' -> { writeByte('\\'); writeByte('t'); }
+            default -> {
+                writeByte('\\');
+                writeByte('u');
+                writeByte(HEX[(c >> 12) & 0xF]);
+                writeByte(HEX[(c >> 8) & 0xF]);
+                writeByte(HEX[(c >> 4) & 0xF]);
+                writeByte(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        ensure(20);
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Digits came out least significant first
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    /**
+     * Digits of {@code unscaled} with a decimal point {@code scale} places from the
+     * right, padded with leading zeros as needed: (5, 2) is 0.05.
+     */
+    private void writeFraction(long unscaled, int scale) throws IOException {
+        int digits = 1;
+        for (long rest = unscaled / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int integerDigits = Math.max(digits - scale, 1);
+        int width = integerDigits + 1 + scale;
+        if (width > buffer.length) {
+            // A scale this large is not money; the exact String form will do
+            writeAscii(BigDecimal.valueOf(unscaled, scale).toString());
+            return;
+        }
+        ensure(width);
+        int end = position + width;
+        for (int i = end - 1, written = 0; i >= position; i--) {
+            if (written == scale) {
+                buffer[i] = '.';
+                written++;
+                continue;
+            }
+            buffer[i] = (byte) ('0' + (int) (unscaled % 10));
+            unscaled /= 10;
+            written++;
+        }
+        position = end;
+    }
+
+    private void writeDigits(int value, int width) throws IOException {
+        ensure(width);
+        for (int i = width - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void writeAscii(String text) throws IOException {
+        int length = text.length();
+        ensure(Math.min(length, buffer.length));
+        for (int i = 0; i < length; i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            drain();
+            if (bytes.length > buffer.length) {
+                sink(bytes, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            sink(buffer, position);
+            position = 0;
+        }
+    }
+
+    private void sink(byte[] bytes, int length) throws IOException {
+        if (target == null) {
+            out.write(bytes, 0, length);
+        } else if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        } else {
+            target.put(bytes, 0, length);
+        }
+    }
+}
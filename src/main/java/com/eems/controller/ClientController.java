@@ -4,12 +4,16 @@ import java.sql.SQLException;
 import java.util.List;
 
 import com.eems.domain.Client;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
 import com.eems.service.EEMSService;
 
 /**
  * Presentation Layer: Client Controller
  * Handles all client-related operations
  */
+// Each handler's trace span is scoped by try-with-resources and never touched in the body
+@SuppressWarnings("try")
 public class ClientController {
 
     private final EEMSService service;
@@ -20,7 +24,7 @@ public class ClientController {
 
     public void createClient(String name, String industry, String contactPerson,
                              String contactPhone, String contactEmail) {
-        try {
+        try (Span span = Tracer.startTrace("ClientController.createClient")) {
             Client client = new Client(name, industry, contactPerson, contactPhone, contactEmail);
             Client created = service.createClient(client);
             System.out.println("Client created successfully: " + created);
@@ -30,7 +34,7 @@ public class ClientController {
     }
 
     public void getClientById(int id) {
-        try {
+        try (Span span = Tracer.startTrace("ClientController.getClientById")) {
             Client client = service.getClientById(id);
             if (client != null) {
                 System.out.println("Client found: " + client);
@@ -43,7 +47,7 @@ public class ClientController {
     }
 
     public void getAllClients() {
-        try {
+        try (Span span = Tracer.startTrace("ClientController.getAllClients")) {
             List<Client> clients = service.getAllClients();
             System.out.println("\n=== All Clients ===");
             for (Client client : clients) {
@@ -57,7 +61,7 @@ public class ClientController {
 
     public void updateClient(int id, String name, String industry, String contactPerson,
                              String contactPhone, String contactEmail) {
-        try {
+        try (Span span = Tracer.startTrace("ClientController.updateClient")) {
             Client client = new Client(id, name, industry, contactPerson, contactPhone, contactEmail);
             boolean updated = service.updateClient(client);
             if (updated) {
@@ -71,7 +75,7 @@ public class ClientController {
     }
 
     public void deleteClient(int id) {
-        try {
+        try (Span span = Tracer.startTrace("ClientController.deleteClient")) {
             boolean deleted = service.deleteClient(id);
             if (deleted) {
                 System.out.println("Client deleted successfully");
@@ -84,7 +88,7 @@ public class ClientController {
     }
 
     public void findClientsByUpcomingProjectDeadline(int daysUntilDeadline) {
-        try {
+        try (Span span = Tracer.startTrace("ClientController.findClientsByUpcomingProjectDeadline")) {
             List<Client> clients = service.findClientsByUpcomingProjectDeadline(daysUntilDeadline);
             System.out.println("\n=== Clients with Projects Ending in " + daysUntilDeadline + " Days ===");
             for (Client client : clients) {
@@ -5,12 +5,16 @@ import java.sql.SQLException;
 import java.util.List;
 
 import com.eems.domain.Department;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
 import com.eems.service.EEMSService;
 
 /**
  * Presentation Layer: Department Controller
  * Handles all department-related operations
  */
+// Each handler's trace span is scoped by try-with-resources and never touched in the body
+@SuppressWarnings("try")
 public class DepartmentController {
 
     private final EEMSService service;
@@ -20,7 +24,7 @@ public class DepartmentController {
     }
 
     public void createDepartment(String name, String location, BigDecimal budget) {
-        try {
+        try (Span span = Tracer.startTrace("DepartmentController.createDepartment")) {
             Department dept = new Department(name, location, budget);
             Department created = service.createDepartment(dept);
             System.out.println("Department created successfully: " + created);
@@ -30,7 +34,7 @@ public class DepartmentController {
     }
 
     public void getDepartmentById(int id) {
-        try {
+        try (Span span = Tracer.startTrace("DepartmentController.getDepartmentById")) {
             Department dept = service.getDepartmentById(id);
             if (dept != null) {
                 System.out.println("Department found: " + dept);
@@ -43,7 +47,7 @@ public class DepartmentController {
     }
 
     public void getAllDepartments() {
-        try {
+        try (Span span = Tracer.startTrace("DepartmentController.getAllDepartments")) {
             List<Department> departments = service.getAllDepartments();
             System.out.println("\n=== All Departments ===");
             departments.forEach(System.out::println);
@@ -54,7 +58,7 @@ public class DepartmentController {
     }
 
     public void updateDepartment(int id, String name, String location, BigDecimal budget) {
-        try {
+        try (Span span = Tracer.startTrace("DepartmentController.updateDepartment")) {
             Department dept = new Department(id, name, location, budget);
             boolean updated = service.updateDepartment(dept);
             if (updated) {
@@ -68,7 +72,7 @@ public class DepartmentController {
     }
 
     public void deleteDepartment(int id) {
-        try {
+        try (Span span = Tracer.startTrace("DepartmentController.deleteDepartment")) {
             boolean deleted = service.deleteDepartment(id);
             if (deleted) {
                 System.out.println("Department deleted successfully");
@@ -6,12 +6,16 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.eems.domain.Employee;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
 import com.eems.service.EEMSService;
 
 /**
  * Presentation Layer: Employee Controller
  * Handles all employee-related operations
  */
+// Each handler's trace span is scoped by try-with-resources and never touched in the body
+@SuppressWarnings("try")
 public class EmployeeController {
 
     private final EEMSService service;
@@ -22,7 +26,7 @@ public class EmployeeController {
 
     public void createEmployee(String fullName, String title, LocalDate hireDate,
                                BigDecimal salary, int departmentId) {
-        try {
+        try (Span span = Tracer.startTrace("EmployeeController.createEmployee")) {
             Employee emp = new Employee(fullName, title, hireDate, salary, departmentId);
             Employee created = service.createEmployee(emp);
             System.out.println("Employee created successfully: " + created);
@@ -32,7 +36,7 @@ public class EmployeeController {
     }
 
     public void getEmployeeById(int id) {
-        try {
+        try (Span span = Tracer.startTrace("EmployeeController.getEmployeeById")) {
             Employee emp = service.getEmployeeById(id);
             if (emp != null) {
                 System.out.println("Employee found: " + emp);
@@ -45,7 +49,7 @@ public class EmployeeController {
     }
 
     public void getAllEmployees() {
-        try {
+        try (Span span = Tracer.startTrace("EmployeeController.getAllEmployees")) {
             List<Employee> employees = service.getAllEmployees();
             System.out.println("\n=== All Employees ===");
             employees.forEach(System.out::println);
@@ -57,7 +61,7 @@ public class EmployeeController {
 
     public void updateEmployee(int id, String fullName, String title, LocalDate hireDate,
                                BigDecimal salary, int departmentId) {
-        try {
+        try (Span span = Tracer.startTrace("EmployeeController.updateEmployee")) {
             Employee emp = new Employee(id, fullName, title, hireDate, salary, departmentId);
             boolean updated = service.updateEmployee(emp);
             if (updated) {
@@ -71,7 +75,7 @@ public class EmployeeController {
     }
 
     public void deleteEmployee(int id) {
-        try {
+        try (Span span = Tracer.startTrace("EmployeeController.deleteEmployee")) {
             boolean deleted = service.deleteEmployee(id);
             if (deleted) {
                 System.out.println("Employee deleted successfully");
@@ -84,7 +88,7 @@ public class EmployeeController {
     }
 
     public void transferEmployeeToDepartment(int employeeId, int newDepartmentId) {
-        try {
+        try (Span span = Tracer.startTrace("EmployeeController.transferEmployeeToDepartment")) {
             boolean transferred = service.transferEmployeeToDepartment(employeeId, newDepartmentId);
             if (transferred) {
                 System.out.println("Employee transferred successfully to department " + newDepartmentId);
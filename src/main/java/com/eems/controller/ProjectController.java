@@ -6,12 +6,16 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.eems.domain.Project;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
 import com.eems.service.EEMSService;
 
 /**
  * Presentation Layer: Project Controller
  * Handles all project-related operations
  */
+// Each handler's trace span is scoped by try-with-resources and never touched in the body
+@SuppressWarnings("try")
 public class ProjectController {
 
     private final EEMSService service;
@@ -22,7 +26,7 @@ public class ProjectController {
 
     public void createProject(String name, String description, LocalDate startDate,
                               LocalDate endDate, BigDecimal budget, String status) {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.createProject")) {
             Project proj = new Project(name, description, startDate, endDate, budget, status);
             Project created = service.createProject(proj);
             System.out.println("Project created successfully: " + created);
@@ -32,7 +36,7 @@ public class ProjectController {
     }
 
     public void getProjectById(int id) {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.getProjectById")) {
             Project proj = service.getProjectById(id);
             if (proj != null) {
                 System.out.println("Project found: " + proj);
@@ -45,7 +49,7 @@ public class ProjectController {
     }
 
     public void getAllProjects() {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.getAllProjects")) {
             List<Project> projects = service.getAllProjects();
             System.out.println("\n=== All Projects ===");
             projects.forEach(System.out::println);
@@ -57,7 +61,7 @@ public class ProjectController {
 
     public void updateProject(int id, String name, String description, LocalDate startDate,
                               LocalDate endDate, BigDecimal budget, String status) {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.updateProject")) {
             Project proj = new Project(id, name, description, startDate, endDate, budget, status);
             boolean updated = service.updateProject(proj);
             if (updated) {
@@ -71,7 +75,7 @@ public class ProjectController {
     }
 
     public void deleteProject(int id) {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.deleteProject")) {
             boolean deleted = service.deleteProject(id);
             if (deleted) {
                 System.out.println("Project deleted successfully");
@@ -84,7 +88,7 @@ public class ProjectController {
     }
 
     public void calculateProjectHRCost(int projectId) {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.calculateProjectHRCost")) {
             BigDecimal cost = service.calculateProjectHRCost(projectId);
             System.out.println("Project HR Cost for Project " + projectId + ": $" + cost);
         } catch (SQLException | IllegalArgumentException e) {
@@ -93,7 +97,7 @@ public class ProjectController {
     }
 
     public void getProjectsByDepartment(int departmentId, String sortBy) {
-        try {
+        try (Span span = Tracer.startTrace("ProjectController.getProjectsByDepartment")) {
             List<Project> projects = service.getProjectsByDepartment(departmentId, sortBy);
             System.out.println("\n=== Active Projects for Department " + departmentId + " (sorted by " + sortBy + ") ===");
             for (Project proj : projects) {
@@ -0,0 +1,185 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Data Access Layer: Batch Loader
+ * Coalesces point lookups by id into set-based queries.
+ *
+ * The first lookup after a dispatch opens a batch and a virtual thread
+ * dispatches it {@code windowMicros} later. Every lookup arriving meanwhile,
+ * from any thread, joins that batch, and repeated ids share one slot. The batch
+ * is loaded with one IN-list query and each caller's future is completed from
+ * the shared result, with its own copy of the row. A batch that reaches
+ * {@code maxBatchSize} is dispatched at once by the caller that filled it.
+ *
+ * A request can put several lookups into one batch by calling {@link #load}
+ * for each before waiting on any of them. A lookup never joins a batch whose
+ * query has already started, so it sees every write committed before it was made.
+ */
+public final class BatchLoader<V> {
+
+    /**
+     * Loads the rows with the given ids; ids without a row are left out.
+     */
+    @FunctionalInterface
+    public interface BatchFunction<V> {
+        List<V> load(int[] ids) throws SQLException;
+    }
+
+    private final String name;
+    private final BatchFunction<V> batchFunction;
+    private final ToIntFunction<V> idOf;
+    private final UnaryOperator<V> copier;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private IntObjectHashMap<CompletableFuture<V>> batch;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+
+    /**
+     * @param name          names the dispatch threads and appears in errors
+     * @param batchFunction set-based query, such as a repository's findByIds
+     * @param idOf          id of a loaded row
+     * @param copier        copies a row, so callers sharing a lookup cannot see each other's changes
+     * @param windowMicros  how long a batch collects lookups before it is dispatched
+     * @param maxBatchSize  most ids in one query
+     */
+    public BatchLoader(String name, BatchFunction<V> batchFunction, ToIntFunction<V> idOf,
+                       UnaryOperator<V> copier, long windowMicros, int maxBatchSize) {
+        if (windowMicros <= 0) {
+            throw new IllegalArgumentException("Batch window must be positive: " + windowMicros);
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.batchFunction = batchFunction;
+        this.idOf = idOf;
+        this.copier = copier;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queue a lookup; the future completes with the row, or null if there is none.
+     */
+    public CompletableFuture<V> load(int id) {
+        lookups.incrementAndGet();
+        CompletableFuture<V> shared;
+        IntObjectHashMap<CompletableFuture<V>> full = null;
+        synchronized (lock) {
+            if (batch == null) {
+                IntObjectHashMap<CompletableFuture<V>> opened = new IntObjectHashMap<>();
+                batch = opened;
+                Thread.ofVirtual().name(name).start(() -> dispatchAfterWindow(opened));
+            }
+            shared = batch.get(id);
+            if (shared == null) {
+                shared = new CompletableFuture<>();
+                batch.put(id, shared);
+            }
+            if (batch.size() >= maxBatchSize) {
+                full = batch;
+                batch = null;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return shared.thenApply(value -> value == null ? null : copier.apply(value));
+    }
+
+    /**
+     * Look up one row and wait for it, within the calling thread's deadline if one is bound.
+     */
+    public V get(int id) throws SQLException {
+        return await(load(id));
+    }
+
+    /**
+     * Wait for a lookup made with {@link #load}, within the calling thread's deadline if one is bound.
+     */
+    public V await(CompletableFuture<V> lookup) throws SQLException {
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return lookup.get();
+            }
+            return lookup.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException failure) {
+                // A fresh exception carries this caller's stack as well as the batch's
+                throw new SQLException(failure.getMessage(), failure.getSQLState(), failure.getErrorCode(), failure);
+            }
+            if (cause instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new SQLException(name + " lookup failed", cause);
+        } catch (TimeoutException e) {
+            throw new SQLTimeoutException("Operation deadline of " + deadline.getTimeout().toMillis() + "ms exceeded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for " + name, e);
+        }
+    }
+
+    /**
+     * Lookups requested since creation.
+     */
+    public long getLookupCount() {
+        return lookups.get();
+    }
+
+    /**
+     * Queries run to serve them.
+     */
+    public long getQueryCount() {
+        return queries.get();
+    }
+
+    private void dispatchAfterWindow(IntObjectHashMap<CompletableFuture<V>> opened) {
+        LockSupport.parkNanos(windowNanos);
+        synchronized (lock) {
+            // A batch that filled up was already dispatched by its last caller
+            if (batch != opened) {
+                return;
+            }
+            batch = null;
+        }
+        dispatch(opened);
+    }
+
+    private void dispatch(IntObjectHashMap<CompletableFuture<V>> ready) {
+        queries.incrementAndGet();
+        int[] ids = ready.keys();
+        Arrays.sort(ids);
+        try {
+            for (V value : batchFunction.load(ids)) {
+                CompletableFuture<V> lookup = ready.get(idOf.applyAsInt(value));
+                if (lookup != null) {
+                    lookup.complete(value);
+                }
+            }
+            ready.forEach((id, lookup) -> lookup.complete(null));
+        } catch (SQLException | RuntimeException e) {
+            ready.forEach((id, lookup) -> lookup.completeExceptionally(e));
+        }
+    }
+}
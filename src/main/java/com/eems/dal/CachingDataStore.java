@@ -0,0 +1,786 @@
+package com.eems.dal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+import com.eems.dal.memory.InMemoryDataStore;
+import com.eems.dal.memory.Rows;
+import com.eems.dal.memory.StoreSnapshotFile;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.util.IntList;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Data Access Layer: Caching Data Store
+ * Read-through cache in front of a backing store (normally MySQL), held in an
+ * in-memory store and persisted to a snapshot file.
+ *
+ * On startup the snapshot file, if valid, is mapped and serves reads at once;
+ * a background reconcile then reloads the cache from the backing store and
+ * swaps it in. Without a usable file, reads go to the backing store until that
+ * first reconcile completes. Reconciles repeat periodically, and the snapshot
+ * is saved after each one and at shutdown.
+ *
+ * Writes go to the backing store first and are then mirrored into the cache.
+ * Inside a transaction reads bypass the cache, and mirrors are held back until
+ * the transaction commits. Mirrors that arrive while a reconcile is loading are
+ * replayed onto the new cache before it is swapped in. Writes made by other
+ * nodes reach the cache through the change log (see {@link ChangeLogPoller}).
+ */
+public class CachingDataStore implements DataStore {
+
+    @FunctionalInterface
+    private interface Mirror {
+        void apply(InMemoryDataStore cache) throws SQLException;
+    }
+
+    private static final ThreadLocal<List<Mirror>> PENDING = new ThreadLocal<>();
+
+    private final DataStore backing;
+    private final Path snapshotFile;
+    private final ScheduledExecutorService reconciler;
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    private final Object mirrorLock = new Object();
+    private volatile InMemoryDataStore cache;
+    private List<Mirror> replay;
+    private ChangeLogPoller changeLog;
+
+    private final DepartmentRepository departments = new CachingDepartmentRepository();
+    private final EmployeeRepository employees = new CachingEmployeeRepository();
+    private final ProjectRepository projects = new CachingProjectRepository();
+    private final ClientRepository clients = new CachingClientRepository();
+    private final EmployeeProjectRepository employeeProjects = new CachingEmployeeProjectRepository();
+    private final ProjectClientRepository projectClients = new CachingProjectClientRepository();
+    private final ProjectDepartmentRepository projectDepartments = new CachingProjectDepartmentRepository();
+
+    private CachingDataStore(DataStore backing, Path snapshotFile) {
+        this.backing = backing;
+        this.snapshotFile = snapshotFile;
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eems-cache-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Warm-start from the snapshot file if it is usable, and reconcile with the
+     * backing store in the background, then every {@code reconcileMinutes}
+     * minutes (0 disables the periodic reconcile).
+     *
+     * With a positive {@code changeLogPollMillis} the backing store must be
+     * MySQL with the Change_Log table: writes made by other nodes are then
+     * polled from it and applied to the cache, and published on the shared bus.
+     */
+    public static CachingDataStore open(DataStore backing, Path snapshotFile, long reconcileMinutes,
+                                        long changeLogPollMillis) {
+        CachingDataStore store = new CachingDataStore(backing, snapshotFile);
+        if (Files.exists(snapshotFile)) {
+            try {
+                store.cache = StoreSnapshotFile.read(snapshotFile);
+            } catch (IOException e) {
+                System.err.println("Ignoring store snapshot, starting cold: " + e.getMessage());
+            }
+        }
+
+        // The poller's starting position must precede the first reconcile's load
+        if (changeLogPollMillis > 0) {
+            store.changeLog = new ChangeLogPoller(backing, ChangeEventBus.shared(), store.new RemoteChanges())
+                    .start(changeLogPollMillis);
+        }
+        store.reconciler.execute(store::reconcile);
+        if (reconcileMinutes > 0) {
+            store.reconciler.scheduleWithFixedDelay(store::reconcile, reconcileMinutes, reconcileMinutes,
+                    TimeUnit.MINUTES);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(store::saveSnapshot, "eems-cache-snapshot"));
+        return store;
+    }
+
+    public boolean isWarm() {
+        return cache != null;
+    }
+
+    /**
+     * Progress of the change-log poller, or null when the cache does not follow the change log.
+     */
+    public ChangeLogStats getChangeLogStats() {
+        return changeLog == null ? null : changeLog.getStats();
+    }
+
+    /**
+     * Reload the cache from the backing store and swap it in. Does nothing if a
+     * reconcile is already running.
+     */
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (mirrorLock) {
+                replay = new ArrayList<>();
+            }
+            InMemoryDataStore fresh = InMemoryDataStore.replica();
+            fresh.loadFrom(backing);
+            synchronized (mirrorLock) {
+                for (Mirror mirror : replay) {
+                    try {
+                        mirror.apply(fresh);
+                    } catch (SQLException e) {
+                        System.err.println("Cache replay failed: " + e.getMessage());
+                    }
+                }
+                replay = null;
+                cache = fresh;
+            }
+            saveSnapshot();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (mirrorLock) {
+                replay = null;
+            }
+            System.err.println("Cache reconcile failed: " + e.getMessage());
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    /**
+     * Persist the current cache to the snapshot file, if there is one.
+     */
+    public void saveSnapshot() {
+        InMemoryDataStore current = cache;
+        if (current == null) {
+            return;
+        }
+        try {
+            StoreSnapshotFile.write(current, snapshotFile);
+        } catch (IOException | SQLException e) {
+            System.err.println("Failed to save store snapshot " + snapshotFile + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public DepartmentRepository departments() {
+        return departments;
+    }
+
+    @Override
+    public EmployeeRepository employees() {
+        return employees;
+    }
+
+    @Override
+    public ProjectRepository projects() {
+        return projects;
+    }
+
+    @Override
+    public ClientRepository clients() {
+        return clients;
+    }
+
+    @Override
+    public EmployeeProjectRepository employeeProjects() {
+        return employeeProjects;
+    }
+
+    @Override
+    public ProjectClientRepository projectClients() {
+        return projectClients;
+    }
+
+    @Override
+    public ProjectDepartmentRepository projectDepartments() {
+        return projectDepartments;
+    }
+
+    @Override
+    public <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        if (PENDING.get() != null) {
+            return backing.inTransaction(work);
+        }
+
+        List<Mirror> pending = new ArrayList<>();
+        boolean[] rollbackOnly = new boolean[1];
+        PENDING.set(pending);
+        try {
+            T result = backing.inTransaction(transaction -> {
+                T value = work.run(transaction);
+                rollbackOnly[0] = transaction.isRollbackOnly();
+                return value;
+            });
+            if (!rollbackOnly[0]) {
+                for (Mirror mirror : pending) {
+                    apply(mirror);
+                }
+            }
+            return result;
+        } finally {
+            PENDING.remove();
+        }
+    }
+
+    // ============================================
+    // Routing
+    // ============================================
+
+    /**
+     * The cache to read from, or null when reads must go to the backing store.
+     */
+    private InMemoryDataStore readCache() {
+        return PENDING.get() != null ? null : cache;
+    }
+
+    private void mirror(Mirror mirror) {
+        List<Mirror> pending = PENDING.get();
+        if (pending != null) {
+            pending.add(mirror);
+        } else {
+            apply(mirror);
+        }
+    }
+
+    private void apply(Mirror mirror) {
+        synchronized (mirrorLock) {
+            if (replay != null) {
+                replay.add(mirror);
+            }
+            InMemoryDataStore current = cache;
+            if (current == null) {
+                return;
+            }
+            try {
+                mirror.apply(current);
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Cache mirror failed, scheduling reconcile: " + e.getMessage());
+                reconciler.execute(this::reconcile);
+            }
+        }
+    }
+
+    /**
+     * Applies the change-log batches; each event carries the row as currently
+     * stored, so applying one again is harmless.
+     */
+    private final class RemoteChanges implements ChangeListener {
+
+        @Override
+        public void onChanges(List<ChangeEvent> batch) {
+            for (ChangeEvent event : batch) {
+                apply(mirrorOf(event));
+            }
+        }
+
+        @Override
+        public void onOverflow() {
+            reconciler.execute(CachingDataStore.this::reconcile);
+        }
+    }
+
+    private static Mirror mirrorOf(ChangeEvent event) {
+        return switch (event) {
+            case ChangeEvent.DepartmentChanged e -> e.change() == Change.DELETED
+                    ? c -> c.departments().delete(e.departmentId())
+                    : c -> c.upsert(e.department());
+            case ChangeEvent.EmployeeChanged e -> e.change() == Change.DELETED
+                    ? c -> c.employees().delete(e.employeeId())
+                    : c -> c.upsert(e.employee());
+            case ChangeEvent.ProjectChanged e -> e.change() == Change.DELETED
+                    ? c -> c.projects().delete(e.projectId())
+                    : c -> c.upsert(e.project());
+            case ChangeEvent.ClientChanged e -> e.change() == Change.DELETED
+                    ? c -> c.clients().delete(e.clientId())
+                    : c -> c.upsert(e.client());
+            case ChangeEvent.AssignmentChanged e -> e.change() == Change.DELETED
+                    ? c -> c.employeeProjects().delete(e.employeeId(), e.projectId())
+                    : c -> c.upsert(e.assignment());
+            case ChangeEvent.ProjectDepartmentLinked e -> c -> c.linkDepartment(e.projectId(), e.departmentId());
+            case ChangeEvent.ProjectDepartmentUnlinked e ->
+                    c -> c.projectDepartments().removeDepartmentFromProject(e.projectId(), e.departmentId());
+            case ChangeEvent.ProjectClientLinked e -> c -> c.linkClient(e.projectId(), e.clientId());
+            case ChangeEvent.ProjectClientUnlinked e ->
+                    c -> c.projectClients().removeClientFromProject(e.projectId(), e.clientId());
+        };
+    }
+
+    // ============================================
+    // Repositories
+    // ============================================
+
+    private final class CachingDepartmentRepository implements DepartmentRepository {
+
+        @Override
+        public Department create(Department department) throws SQLException {
+            Department created = backing.departments().create(department);
+            if (created != null) {
+                Department row = Rows.copy(created);
+                mirror(c -> c.upsert(row));
+            }
+            return created;
+        }
+
+        @Override
+        public Department findById(int departmentId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).departments().findById(departmentId);
+        }
+
+        @Override
+        public List<Department> findAll() throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).departments().findAll();
+        }
+
+        @Override
+        public List<Department> findByIds(int[] ids) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).departments().findByIds(ids);
+        }
+
+        @Override
+        public void forEach(RowHandler<? super Department> handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).departments().forEach(handler);
+        }
+
+        @Override
+        public boolean update(Department department) throws SQLException {
+            boolean updated = backing.departments().update(department);
+            if (updated) {
+                Department row = Rows.copy(department);
+                mirror(c -> c.upsert(row));
+            }
+            return updated;
+        }
+
+        @Override
+        public boolean delete(int departmentId) throws SQLException {
+            boolean deleted = backing.departments().delete(departmentId);
+            if (deleted) {
+                mirror(c -> c.departments().delete(departmentId));
+            }
+            return deleted;
+        }
+
+        @Override
+        public IntObjectHashMap<List<Department>> findByProjectIds(int[] projectIds) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).departments().findByProjectIds(projectIds);
+        }
+    }
+
+    private final class CachingEmployeeRepository implements EmployeeRepository {
+
+        @Override
+        public Employee create(Employee employee) throws SQLException {
+            Employee created = backing.employees().create(employee);
+            if (created != null) {
+                Employee row = Rows.copy(created);
+                mirror(c -> c.upsert(row));
+            }
+            return created;
+        }
+
+        @Override
+        public Employee findById(int employeeId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employees().findById(employeeId);
+        }
+
+        @Override
+        public Employee findByIdForUpdate(int employeeId) throws SQLException {
+            return backing.employees().findByIdForUpdate(employeeId);
+        }
+
+        @Override
+        public List<Employee> findAll() throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employees().findAll();
+        }
+
+        @Override
+        public void forEach(RowHandler<? super Employee> handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).employees().forEach(handler);
+        }
+
+        @Override
+        public boolean update(Employee employee) throws SQLException {
+            boolean updated = backing.employees().update(employee);
+            if (updated) {
+                Employee row = Rows.copy(employee);
+                mirror(c -> c.upsert(row));
+            }
+            return updated;
+        }
+
+        @Override
+        public boolean delete(int employeeId) throws SQLException {
+            boolean deleted = backing.employees().delete(employeeId);
+            if (deleted) {
+                mirror(c -> c.employees().delete(employeeId));
+            }
+            return deleted;
+        }
+
+        @Override
+        public List<Employee> findByProjectId(int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employees().findByProjectId(projectId);
+        }
+
+        @Override
+        public List<Employee> findByIds(int[] ids) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employees().findByIds(ids);
+        }
+    }
+
+    private final class CachingProjectRepository implements ProjectRepository {
+
+        @Override
+        public Project create(Project project) throws SQLException {
+            Project created = backing.projects().create(project);
+            if (created != null) {
+                Project row = Rows.copy(created);
+                mirror(c -> c.upsert(row));
+            }
+            return created;
+        }
+
+        @Override
+        public Project findById(int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projects().findById(projectId);
+        }
+
+        @Override
+        public List<Project> findAll() throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projects().findAll();
+        }
+
+        @Override
+        public void forEach(RowHandler<? super Project> handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).projects().forEach(handler);
+        }
+
+        @Override
+        public List<Project> findByIds(int[] ids) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projects().findByIds(ids);
+        }
+
+        @Override
+        public boolean update(Project project) throws SQLException {
+            boolean updated = backing.projects().update(project);
+            if (updated) {
+                Project row = Rows.copy(project);
+                mirror(c -> c.upsert(row));
+            }
+            return updated;
+        }
+
+        @Override
+        public boolean delete(int projectId) throws SQLException {
+            boolean deleted = backing.projects().delete(projectId);
+            if (deleted) {
+                mirror(c -> c.projects().delete(projectId));
+            }
+            return deleted;
+        }
+
+        @Override
+        public List<Project> findActiveByDepartmentId(int departmentId, String sortBy) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projects().findActiveByDepartmentId(departmentId, sortBy);
+        }
+
+        @Override
+        public List<Project> findByEndDateBefore(LocalDate deadline) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projects().findByEndDateBefore(deadline);
+        }
+    }
+
+    private final class CachingClientRepository implements ClientRepository {
+
+        @Override
+        public Client create(Client client) throws SQLException {
+            Client created = backing.clients().create(client);
+            if (created != null) {
+                Client row = Rows.copy(created);
+                mirror(c -> c.upsert(row));
+            }
+            return created;
+        }
+
+        @Override
+        public Client findById(int clientId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).clients().findById(clientId);
+        }
+
+        @Override
+        public List<Client> findByIds(int[] ids) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).clients().findByIds(ids);
+        }
+
+        @Override
+        public List<Client> findAll() throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).clients().findAll();
+        }
+
+        @Override
+        public void forEach(RowHandler<? super Client> handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).clients().forEach(handler);
+        }
+
+        @Override
+        public boolean update(Client client) throws SQLException {
+            boolean updated = backing.clients().update(client);
+            if (updated) {
+                Client row = Rows.copy(client);
+                mirror(c -> c.upsert(row));
+            }
+            return updated;
+        }
+
+        @Override
+        public boolean delete(int clientId) throws SQLException {
+            boolean deleted = backing.clients().delete(clientId);
+            if (deleted) {
+                mirror(c -> c.clients().delete(clientId));
+            }
+            return deleted;
+        }
+
+        @Override
+        public List<Client> findByProjectId(int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).clients().findByProjectId(projectId);
+        }
+
+        @Override
+        public IntObjectHashMap<List<Client>> findByProjectIds(int[] projectIds) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).clients().findByProjectIds(projectIds);
+        }
+
+        @Override
+        public List<Client> findByUpcomingProjectDeadline(LocalDate deadline) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).clients().findByUpcomingProjectDeadline(deadline);
+        }
+    }
+
+    private final class CachingEmployeeProjectRepository implements EmployeeProjectRepository {
+
+        @Override
+        public boolean create(EmployeeProject employeeProject) throws SQLException {
+            boolean created = backing.employeeProjects().create(employeeProject);
+            if (created) {
+                EmployeeProject row = Rows.copy(employeeProject);
+                mirror(c -> c.upsert(row));
+            }
+            return created;
+        }
+
+        @Override
+        public EmployeeProject findByIds(int employeeId, int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employeeProjects().findByIds(employeeId, projectId);
+        }
+
+        @Override
+        public List<EmployeeProject> findByProjectId(int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employeeProjects().findByProjectId(projectId);
+        }
+
+        @Override
+        public List<EmployeeProject> findByEmployeeId(int employeeId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employeeProjects().findByEmployeeId(employeeId);
+        }
+
+        @Override
+        public List<EmployeeProject> findByEmployeeIdForUpdate(int employeeId) throws SQLException {
+            return backing.employeeProjects().findByEmployeeIdForUpdate(employeeId);
+        }
+
+        @Override
+        public IntObjectHashMap<List<EmployeeProject>> findByProjectIds(int[] projectIds) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).employeeProjects().findByProjectIds(projectIds);
+        }
+
+        @Override
+        public void forEach(RowHandler<? super EmployeeProject> handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).employeeProjects().forEach(handler);
+        }
+
+        @Override
+        public boolean update(EmployeeProject employeeProject) throws SQLException {
+            boolean updated = backing.employeeProjects().update(employeeProject);
+            if (updated) {
+                EmployeeProject row = Rows.copy(employeeProject);
+                mirror(c -> c.upsert(row));
+            }
+            return updated;
+        }
+
+        @Override
+        public int[] updateAll(List<EmployeeProject> assignments) throws SQLException {
+            int[] updated = backing.employeeProjects().updateAll(assignments);
+            List<EmployeeProject> rows = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 1) {
+                    rows.add(Rows.copy(assignments.get(i)));
+                }
+            }
+            if (!rows.isEmpty()) {
+                mirror(c -> {
+                    for (EmployeeProject row : rows) {
+                        c.upsert(row);
+                    }
+                });
+            }
+            return updated;
+        }
+
+        @Override
+        public void upsertAll(List<EmployeeProject> assignments) throws SQLException {
+            backing.employeeProjects().upsertAll(assignments);
+            List<EmployeeProject> rows = new ArrayList<>(assignments.size());
+            for (EmployeeProject assignment : assignments) {
+                rows.add(Rows.copy(assignment));
+            }
+            mirror(c -> {
+                for (EmployeeProject row : rows) {
+                    c.upsert(row);
+                }
+            });
+        }
+
+        @Override
+        public boolean delete(int employeeId, int projectId) throws SQLException {
+            boolean deleted = backing.employeeProjects().delete(employeeId, projectId);
+            if (deleted) {
+                mirror(c -> c.employeeProjects().delete(employeeId, projectId));
+            }
+            return deleted;
+        }
+
+        @Override
+        public int deleteAll(int projectId, int[] employeeIds) throws SQLException {
+            int deleted = backing.employeeProjects().deleteAll(projectId, employeeIds);
+            if (deleted > 0) {
+                int[] ids = employeeIds.clone();
+                mirror(c -> c.employeeProjects().deleteAll(projectId, ids));
+            }
+            return deleted;
+        }
+    }
+
+    private final class CachingProjectClientRepository implements ProjectClientRepository {
+
+        @Override
+        public boolean assignClientToProject(int projectId, int clientId) throws SQLException {
+            boolean assigned = backing.projectClients().assignClientToProject(projectId, clientId);
+            if (assigned) {
+                mirror(c -> c.linkClient(projectId, clientId));
+            }
+            return assigned;
+        }
+
+        @Override
+        public boolean removeClientFromProject(int projectId, int clientId) throws SQLException {
+            boolean removed = backing.projectClients().removeClientFromProject(projectId, clientId);
+            if (removed) {
+                mirror(c -> c.projectClients().removeClientFromProject(projectId, clientId));
+            }
+            return removed;
+        }
+
+        @Override
+        public IntList getClientIdsByProjectId(int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projectClients().getClientIdsByProjectId(projectId);
+        }
+
+        @Override
+        public IntList getProjectIdsByClientId(int clientId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projectClients().getProjectIdsByClientId(clientId);
+        }
+
+        @Override
+        public void forEach(LinkHandler handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).projectClients().forEach(handler);
+        }
+    }
+
+    private final class CachingProjectDepartmentRepository implements ProjectDepartmentRepository {
+
+        @Override
+        public boolean assignDepartmentToProject(int projectId, int departmentId) throws SQLException {
+            boolean assigned = backing.projectDepartments().assignDepartmentToProject(projectId, departmentId);
+            if (assigned) {
+                mirror(c -> c.linkDepartment(projectId, departmentId));
+            }
+            return assigned;
+        }
+
+        @Override
+        public boolean removeDepartmentFromProject(int projectId, int departmentId) throws SQLException {
+            boolean removed = backing.projectDepartments().removeDepartmentFromProject(projectId, departmentId);
+            if (removed) {
+                mirror(c -> c.projectDepartments().removeDepartmentFromProject(projectId, departmentId));
+            }
+            return removed;
+        }
+
+        @Override
+        public IntList getDepartmentIdsByProjectId(int projectId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projectDepartments().getDepartmentIdsByProjectId(projectId);
+        }
+
+        @Override
+        public IntList getProjectIdsByDepartmentId(int departmentId) throws SQLException {
+            InMemoryDataStore c = readCache();
+            return (c != null ? c : backing).projectDepartments().getProjectIdsByDepartmentId(departmentId);
+        }
+
+        @Override
+        public void forEach(LinkHandler handler) throws SQLException {
+            InMemoryDataStore c = readCache();
+            (c != null ? c : backing).projectDepartments().forEach(handler);
+        }
+    }
+}
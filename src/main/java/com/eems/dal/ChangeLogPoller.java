@@ -0,0 +1,443 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEvent.AssignmentChanged;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.ClientChanged;
+import com.eems.dal.events.ChangeEvent.DepartmentChanged;
+import com.eems.dal.events.ChangeEvent.EmployeeChanged;
+import com.eems.dal.events.ChangeEvent.ProjectChanged;
+import com.eems.dal.events.ChangeEvent.ProjectClientLinked;
+import com.eems.dal.events.ChangeEvent.ProjectClientUnlinked;
+import com.eems.dal.events.ChangeEvent.ProjectDepartmentLinked;
+import com.eems.dal.events.ChangeEvent.ProjectDepartmentUnlinked;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Data Access Layer: Change Log Poller
+ * Tails the Change_Log table, which triggers fill with one row per write from
+ * any node, so each JVM can keep its local caches coherent with the others.
+ *
+ * Each poll is a primary-key range scan past the last sequence read. A
+ * sequence can be allocated by a transaction that commits after later ones,
+ * so skipped sequences are remembered as gaps and looked up again until they
+ * appear or the gap timeout passes.
+ *
+ * The rows only carry keys: the current state of every changed row is read
+ * back from the store, and one change event per row, in the order of its last
+ * change, goes to the listener. Changes made by other nodes are also published
+ * on the local bus; this node's own writes were already announced there.
+ * If continuity is lost (too many gaps, or a poll fell behind retention), the
+ * listener's onOverflow asks for a full reload.
+ *
+ * Rows past retention are deleted by the {@link ChangeLogPruner} that
+ * {@link DataStores} starts with every MySQL-backed store.
+ *
+ * Configured through system properties:
+ *   eems.changelog.batchSize       (default 500)
+ *   eems.changelog.gapTimeoutMs    (default 60000)
+ *   eems.changelog.retentionHours  (default 24, a poll later than this resyncs)
+ */
+public final class ChangeLogPoller implements AutoCloseable {
+
+    private static final String EMPLOYEE = "Employee";
+    private static final String DEPARTMENT = "Department";
+    private static final String PROJECT = "Project";
+    private static final String CLIENT = "Client";
+    private static final String EMPLOYEE_PROJECT = "Employee_Project";
+    private static final String PROJECT_CLIENT = "Project_Client";
+    private static final String PROJECT_DEPARTMENT = "Project_Department";
+
+    private static final int MAX_GAPS = 10_000;
+    private static final int MAX_GAP_LOOKUP = 500;
+
+    private record Entry(long seq, String table, char operation, int key1, int key2, String nodeId,
+                         long changedAtMillis) {}
+
+    private final DataStore source;
+    private final ChangeEventBus bus;
+    private final ChangeListener listener;
+    private final String nodeId;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final long retentionHours;
+    private final ScheduledExecutorService executor;
+
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private volatile long position = -1;
+
+    private volatile long lastPollStartedAt = -1;
+    private volatile long lastApplyLagMillis;
+    private volatile long entriesRead;
+    private volatile long pollFailures;
+    private volatile long resyncs;
+    private volatile int openGaps;
+    private volatile boolean failing;
+
+    /**
+     * @param source   store the changed rows are read back from (MySQL)
+     * @param bus      local bus other nodes' changes are published on
+     * @param listener receives every batch, this node's writes included
+     */
+    public ChangeLogPoller(DataStore source, ChangeEventBus bus, ChangeListener listener) {
+        this.source = source;
+        this.bus = bus;
+        this.listener = listener;
+        this.nodeId = DatabaseConnection.getNodeId();
+        this.batchSize = Integer.getInteger("eems.changelog.batchSize", 500);
+        this.gapTimeoutMs = Long.getLong("eems.changelog.gapTimeoutMs", 60_000L);
+        this.retentionHours = ChangeLogPruner.retentionHours();
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eems-changelog-poller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Take the current end of the log as the starting position, then poll every
+     * {@code intervalMillis}. Changes committed before this call are expected to
+     * be in the listener's initial load, which should therefore start after it.
+     */
+    public ChangeLogPoller start(long intervalMillis) {
+        pollQuietly();
+        executor.scheduleWithFixedDelay(this::pollQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public ChangeLogStats getStats() {
+        long started = lastPollStartedAt;
+        return new ChangeLogStats(position, entriesRead, openGaps,
+                started < 0 ? -1 : System.currentTimeMillis() - started,
+                lastApplyLagMillis, pollFailures, resyncs);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+            failing = false;
+        } catch (SQLException | RuntimeException e) {
+            pollFailures++;
+            if (!failing) {
+                failing = true;
+                System.err.println("Change log poll failed (reported once until it recovers): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read everything new, then apply it as one batch per page.
+     */
+    void poll() throws SQLException {
+        long started = System.currentTimeMillis();
+        if (position < 0) {
+            position = readMaxSequence();
+            lastPollStartedAt = started;
+            return;
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        boolean full;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!gaps.isEmpty()) {
+                readGaps(conn, entries);
+            }
+            full = readAfter(conn, position, entries);
+        }
+        if (behindRetention(started)) {
+            resync();
+        } else if (!entries.isEmpty()) {
+            try {
+                apply(entries);
+            } catch (SQLException | RuntimeException e) {
+                // The position has already moved past these entries
+                resync();
+                throw e;
+            }
+        }
+        expireGaps(started);
+        openGaps = gaps.size();
+        lastPollStartedAt = started;
+
+        if (full) {
+            executor.execute(this::pollQuietly);
+        }
+    }
+
+    // ============================================
+    // Reading the log
+    // ============================================
+
+    private long readMaxSequence() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM Change_Log")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Append the page after the given sequence, advancing the position and
+     * recording skipped sequences. Returns true if the page was full.
+     */
+    private boolean readAfter(Connection conn, long after, List<Entry> entries) throws SQLException {
+        String sql = "SELECT seq, table_name, operation, key1, key2, node_id, changed_at "
+                + "FROM Change_Log WHERE seq > ? ORDER BY seq LIMIT ?";
+        int count = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, after);
+            stmt.setInt(2, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Entry entry = mapEntry(rs);
+                    long now = System.currentTimeMillis();
+                    for (long missing = position + 1; missing < entry.seq() && gaps.size() <= MAX_GAPS; missing++) {
+                        gaps.put(missing, now);
+                    }
+                    position = entry.seq();
+                    entries.add(entry);
+                    count++;
+                }
+            }
+        }
+        return count == batchSize;
+    }
+
+    private void readGaps(Connection conn, List<Entry> entries) throws SQLException {
+        List<Long> wanted = new ArrayList<>(Math.min(gaps.size(), MAX_GAP_LOOKUP));
+        for (Long seq : gaps.keySet()) {
+            if (wanted.size() == MAX_GAP_LOOKUP) break;
+            wanted.add(seq);
+        }
+        StringBuilder sql = new StringBuilder(
+                "SELECT seq, table_name, operation, key1, key2, node_id, changed_at FROM Change_Log WHERE seq IN (");
+        for (int i = 0; i < wanted.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY seq");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < wanted.size(); i++) {
+                stmt.setLong(i + 1, wanted.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Entry entry = mapEntry(rs);
+                    gaps.remove(entry.seq());
+                    entries.add(entry);
+                }
+            }
+        }
+    }
+
+    private Entry mapEntry(ResultSet rs) throws SQLException {
+        int key2 = rs.getInt("key2");
+        return new Entry(
+                rs.getLong("seq"),
+                rs.getString("table_name"),
+                rs.getString("operation").charAt(0),
+                rs.getInt("key1"),
+                rs.wasNull() ? 0 : key2,
+                rs.getString("node_id"),
+                rs.getTimestamp("changed_at").getTime()
+        );
+    }
+
+    /**
+     * Gaps older than the timeout belong to rolled-back transactions (or ones
+     * too long to wait for). Too many open gaps means continuity is lost.
+     */
+    private void expireGaps(long now) {
+        Iterator<Long> firstSeen = gaps.values().iterator();
+        while (firstSeen.hasNext()) {
+            if (now - firstSeen.next() <= gapTimeoutMs) break;
+            firstSeen.remove();
+        }
+        if (gaps.size() > MAX_GAPS) {
+            gaps.clear();
+            resync();
+        }
+    }
+
+    private boolean behindRetention(long now) {
+        long previous = lastPollStartedAt;
+        return previous > 0 && now - previous > TimeUnit.HOURS.toMillis(retentionHours);
+    }
+
+    private void resync() {
+        resyncs++;
+        try {
+            listener.onOverflow();
+        } catch (RuntimeException e) {
+            System.err.println("Change log resync failed: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // Turning log rows into events
+    // ============================================
+
+    private void apply(List<Entry> entries) throws SQLException {
+        entries.sort((a, b) -> Long.compare(a.seq(), b.seq()));
+
+        // Latest entry per row, and whether another node touched it
+        Map<String, Entry> latest = new LinkedHashMap<>();
+        Map<String, Boolean> remote = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            String key = entry.table() + ':' + entry.key1() + ':' + entry.key2();
+            latest.remove(key);
+            latest.put(key, entry);
+            remote.merge(key, !nodeId.equals(entry.nodeId()), Boolean::logicalOr);
+        }
+
+        Rows rows = loadRows(latest.values());
+        List<ChangeEvent> batch = new ArrayList<>(latest.size());
+        List<ChangeEvent> fromOtherNodes = new ArrayList<>();
+        for (Map.Entry<String, Entry> row : latest.entrySet()) {
+            ChangeEvent event = toEvent(row.getValue(), rows);
+            if (event == null) continue;
+            batch.add(event);
+            if (remote.get(row.getKey())) {
+                fromOtherNodes.add(event);
+            }
+        }
+
+        listener.onChanges(batch);
+        for (ChangeEvent event : fromOtherNodes) {
+            bus.publish(event);
+        }
+        entriesRead += entries.size();
+        lastApplyLagMillis = System.currentTimeMillis() - entries.get(entries.size() - 1).changedAtMillis();
+    }
+
+    /**
+     * Current state of the changed rows, read with one query per table.
+     */
+    private record Rows(IntObjectHashMap<Employee> employees, IntObjectHashMap<Department> departments,
+                        IntObjectHashMap<Project> projects, IntObjectHashMap<Client> clients,
+                        IntObjectHashMap<List<EmployeeProject>> assignmentsByProject) {}
+
+    private Rows loadRows(Iterable<Entry> entries) throws SQLException {
+        IntHashSet employeeIds = new IntHashSet();
+        IntHashSet departmentIds = new IntHashSet();
+        IntHashSet projectIds = new IntHashSet();
+        IntHashSet clientIds = new IntHashSet();
+        IntHashSet assignedProjectIds = new IntHashSet();
+        for (Entry entry : entries) {
+            switch (entry.table()) {
+                case EMPLOYEE -> employeeIds.add(entry.key1());
+                case DEPARTMENT -> departmentIds.add(entry.key1());
+                case PROJECT -> projectIds.add(entry.key1());
+                case CLIENT -> clientIds.add(entry.key1());
+                case EMPLOYEE_PROJECT -> assignedProjectIds.add(entry.key2());
+                default -> { }
+            }
+        }
+
+        IntObjectHashMap<Employee> employees = new IntObjectHashMap<>(employeeIds.size());
+        if (!employeeIds.isEmpty()) {
+            for (Employee employee : source.employees().findByIds(employeeIds.toSortedArray())) {
+                employees.put(employee.getEmployeeId(), employee);
+            }
+        }
+        IntObjectHashMap<Department> departments = new IntObjectHashMap<>(departmentIds.size());
+        if (!departmentIds.isEmpty()) {
+            for (Department department : source.departments().findByIds(departmentIds.toSortedArray())) {
+                departments.put(department.getDepartmentId(), department);
+            }
+        }
+        IntObjectHashMap<Project> projects = new IntObjectHashMap<>(projectIds.size());
+        if (!projectIds.isEmpty()) {
+            for (Project project : source.projects().findByIds(projectIds.toSortedArray())) {
+                projects.put(project.getProjectId(), project);
+            }
+        }
+        IntObjectHashMap<Client> clients = new IntObjectHashMap<>(clientIds.size());
+        if (!clientIds.isEmpty()) {
+            for (Client client : source.clients().findByIds(clientIds.toSortedArray())) {
+                clients.put(client.getClientId(), client);
+            }
+        }
+        IntObjectHashMap<List<EmployeeProject>> assignments = assignedProjectIds.isEmpty()
+                ? new IntObjectHashMap<>()
+                : source.employeeProjects().findByProjectIds(assignedProjectIds.toSortedArray());
+        return new Rows(employees, departments, projects, clients, assignments);
+    }
+
+    private static EmployeeProject findAssignment(Rows rows, int employeeId, int projectId) {
+        List<EmployeeProject> team = rows.assignmentsByProject().get(projectId);
+        if (team == null) return null;
+        for (EmployeeProject assignment : team) {
+            if (assignment.getEmployeeId() == employeeId) return assignment;
+        }
+        return null;
+    }
+
+    /**
+     * The event for a row's current state, or null for an unknown table.
+     */
+    private static ChangeEvent toEvent(Entry entry, Rows rows) {
+        Change change = entry.operation() == 'I' ? Change.CREATED : Change.UPDATED;
+        int id = entry.key1();
+        switch (entry.table()) {
+            case EMPLOYEE: {
+                Employee employee = rows.employees().get(id);
+                return new EmployeeChanged(employee == null ? Change.DELETED : change, id, employee);
+            }
+            case DEPARTMENT: {
+                Department department = rows.departments().get(id);
+                return new DepartmentChanged(department == null ? Change.DELETED : change, id, department);
+            }
+            case PROJECT: {
+                Project project = rows.projects().get(id);
+                return new ProjectChanged(project == null ? Change.DELETED : change, id, project);
+            }
+            case CLIENT: {
+                Client client = rows.clients().get(id);
+                return new ClientChanged(client == null ? Change.DELETED : change, id, client);
+            }
+            case EMPLOYEE_PROJECT: {
+                EmployeeProject assignment = findAssignment(rows, id, entry.key2());
+                return new AssignmentChanged(assignment == null ? Change.DELETED : change, id, entry.key2(), assignment);
+            }
+            case PROJECT_CLIENT:
+                return entry.operation() == 'D'
+                        ? new ProjectClientUnlinked(id, entry.key2())
+                        : new ProjectClientLinked(id, entry.key2());
+            case PROJECT_DEPARTMENT:
+                return entry.operation() == 'D'
+                        ? new ProjectDepartmentUnlinked(id, entry.key2())
+                        : new ProjectDepartmentLinked(id, entry.key2());
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data Access Layer: Change Log Pruner
+ * Deletes Change_Log rows past retention. The triggers log every write in
+ * every storage mode, so {@link DataStores} starts one pruner with each
+ * MySQL-backed store, whether or not a {@link ChangeLogPoller} tails the log.
+ *
+ * Rows are deleted hourly on a daemon thread, in small autocommitted chunks,
+ * so no statement holds locks on the log for long. Several nodes may prune
+ * the same database; each chunk simply finds less to delete.
+ *
+ * Configured through system properties:
+ *   eems.changelog.retentionHours  (default 24, rows older than this are pruned)
+ */
+public final class ChangeLogPruner implements AutoCloseable {
+
+    private static final long PRUNE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int PRUNE_CHUNK = 1_000;
+
+    private final long retentionHours;
+    private final ScheduledExecutorService executor;
+
+    private ChangeLogPruner(long retentionHours) {
+        this.retentionHours = retentionHours;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eems-changelog-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Prune now and then every hour, until closed.
+     */
+    public static ChangeLogPruner start() {
+        ChangeLogPruner pruner = new ChangeLogPruner(retentionHours());
+        pruner.executor.scheduleWithFixedDelay(pruner::pruneQuietly, 0, PRUNE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return pruner;
+    }
+
+    /**
+     * Hours a log row is kept; a poller idle for longer may have missed rows.
+     */
+    static long retentionHours() {
+        return Long.getLong("eems.changelog.retentionHours", 24L);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void pruneQuietly() {
+        try {
+            prune();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Change log prune failed: " + e.getMessage());
+        }
+    }
+
+    private void prune() throws SQLException {
+        String sql = "DELETE FROM Change_Log WHERE changed_at < NOW(3) - INTERVAL ? HOUR ORDER BY changed_at LIMIT ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, retentionHours);
+            stmt.setInt(2, PRUNE_CHUNK);
+            int deleted;
+            do {
+                deleted = stmt.executeUpdate();
+            } while (deleted == PRUNE_CHUNK && !Thread.currentThread().isInterrupted());
+        }
+    }
+}
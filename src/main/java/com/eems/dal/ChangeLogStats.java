@@ -0,0 +1,25 @@
+package com.eems.dal;
+
+/**
+ * Data Access Layer: Change Log Stats
+ * Point-in-time progress of a node's change-log poller.
+ *
+ * @param position          highest change-log sequence read
+ * @param entriesRead       change-log rows read since start
+ * @param openGaps          skipped sequences still awaited from transactions committing late
+ * @param stalenessMillis   age of the newest successful poll: every change committed
+ *                          before that poll started has been applied (-1 before the first)
+ * @param lastApplyLagMillis delay between the newest applied change and its application
+ * @param pollFailures      polls that failed since start
+ * @param resyncs           times continuity was lost and a full reload was requested
+ */
+public record ChangeLogStats(long position, long entriesRead, int openGaps, long stalenessMillis,
+                             long lastApplyLagMillis, long pollFailures, long resyncs) {
+
+    @Override
+    public String toString() {
+        return "position=" + position + ", entriesRead=" + entriesRead + ", openGaps=" + openGaps
+                + ", stalenessMs=" + stalenessMillis + ", lastApplyLagMs=" + lastApplyLagMillis
+                + ", pollFailures=" + pollFailures + ", resyncs=" + resyncs;
+    }
+}
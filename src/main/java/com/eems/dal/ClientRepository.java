@@ -1,162 +1,50 @@
 package com.eems.dal;
 
-import java.sql.Connection;
-import java.sql.Date;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 import com.eems.domain.Client;
+import com.eems.util.IntObjectHashMap;
 
 /**
  * Data Access Layer: Client Repository
- * Handles all database operations for Client entity
+ * Storage contract for the Client entity
  */
-public class ClientRepository {
+public interface ClientRepository {
 
-    public Client create(Client client) throws SQLException {
-        String sql = "INSERT INTO Client (name, industry, contact_person, contact_phone, contact_email) VALUES (?, ?, ?, ?, ?)";
+    Client create(Client client) throws SQLException;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    Client findById(int clientId) throws SQLException;
 
-            stmt.setString(1, client.getName());
-            stmt.setString(2, client.getIndustry());
-            stmt.setString(3, client.getContactPerson());
-            stmt.setString(4, client.getContactPhone());
-            stmt.setString(5, client.getContactEmail());
+    List<Client> findAll() throws SQLException;
 
-            int rowsAffected = stmt.executeUpdate();
+    /**
+     * Clients with the given ids, ascending by id; unknown and repeated ids
+     * are ignored.
+     */
+    List<Client> findByIds(int[] ids) throws SQLException;
 
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        client.setClientId(generatedKeys.getInt(1));
-                    }
-                }
-            }
+    /**
+     * Stream every client to the handler without materialising the table. The
+     * handler must not write through this store while the scan runs.
+     */
+    void forEach(RowHandler<? super Client> handler) throws SQLException;
 
-            return client;
-        }
-    }
+    boolean update(Client client) throws SQLException;
 
-    public Client findById(int clientId) throws SQLException {
-        String sql = "SELECT * FROM Client WHERE client_id = ?";
+    boolean delete(int clientId) throws SQLException;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    List<Client> findByProjectId(int projectId) throws SQLException;
 
-            stmt.setInt(1, clientId);
+    /**
+     * Clients of each of the given projects in one query, keyed by project id
+     * and ascending by client id; projects without clients are absent.
+     */
+    IntObjectHashMap<List<Client>> findByProjectIds(int[] projectIds) throws SQLException;
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToClient(rs);
-                }
-            }
-        }
-
-        return null;
-    }
-
-    public List<Client> findAll() throws SQLException {
-        String sql = "SELECT * FROM Client";
-        List<Client> clients = new ArrayList<>();
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                clients.add(mapResultSetToClient(rs));
-            }
-        }
-
-        return clients;
-    }
-
-    public boolean update(Client client) throws SQLException {
-        String sql = "UPDATE Client SET name = ?, industry = ?, contact_person = ?, contact_phone = ?, contact_email = ? WHERE client_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, client.getName());
-            stmt.setString(2, client.getIndustry());
-            stmt.setString(3, client.getContactPerson());
-            stmt.setString(4, client.getContactPhone());
-            stmt.setString(5, client.getContactEmail());
-            stmt.setInt(6, client.getClientId());
-
-            return stmt.executeUpdate() > 0;
-        }
-    }
-
-    public boolean delete(int clientId) throws SQLException {
-        String sql = "DELETE FROM Client WHERE client_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, clientId);
-            return stmt.executeUpdate() > 0;
-        }
-    }
-
-    public List<Client> findByProjectId(int projectId) throws SQLException {
-        String sql = "SELECT c.* FROM Client c " +
-                "INNER JOIN Project_Client pc ON c.client_id = pc.client_id " +
-                "WHERE pc.project_id = ?";
-        List<Client> clients = new ArrayList<>();
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, projectId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    clients.add(mapResultSetToClient(rs));
-                }
-            }
-        }
-
-        return clients;
-    }
-
-    public List<Client> findByUpcomingProjectDeadline(LocalDate deadline) throws SQLException {
-        String sql = "SELECT DISTINCT c.* FROM Client c " +
-                "INNER JOIN Project_Client pc ON c.client_id = pc.client_id " +
-                "INNER JOIN Project p ON pc.project_id = p.project_id " +
-                "WHERE p.end_date <= ?";
-        List<Client> clients = new ArrayList<>();
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDate(1, Date.valueOf(deadline));
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    clients.add(mapResultSetToClient(rs));
-                }
-            }
-        }
-
-        return clients.stream().distinct().toList();
-    }
-
-    private Client mapResultSetToClient(ResultSet rs) throws SQLException {
-        return new Client(
-                rs.getInt("client_id"),
-                rs.getString("name"),
-                rs.getString("industry"),
-                rs.getString("contact_person"),
-                rs.getString("contact_phone"),
-                rs.getString("contact_email")
-        );
-    }
-}
\ No newline at end of file
+    /**
+     * Distinct clients with at least one project ending on or before the deadline.
+     */
+    List<Client> findByUpcomingProjectDeadline(LocalDate deadline) throws SQLException;
+}
@@ -0,0 +1,74 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import com.eems.dal.memory.Rows;
+import com.eems.domain.Employee;
+
+/**
+ * Data Access Layer: Coalescing Employee Repository
+ * Serves findById outside transactions through a {@link BatchLoader}, so
+ * concurrent lookups share IN-list queries. Inside a transaction, and for every
+ * other method, calls go straight to the wrapped repository.
+ */
+final class CoalescingEmployeeRepository implements EmployeeRepository {
+
+    private final EmployeeRepository delegate;
+    private final BatchLoader<Employee> loader;
+    private final BooleanSupplier inTransaction;
+
+    CoalescingEmployeeRepository(EmployeeRepository delegate, long windowMicros, int maxBatchSize,
+                                 BooleanSupplier inTransaction) {
+        this.delegate = delegate;
+        this.loader = new BatchLoader<>("eems-employee-loader", delegate::findByIds, Employee::getEmployeeId,
+                Rows::copy, windowMicros, maxBatchSize);
+        this.inTransaction = inTransaction;
+    }
+
+    @Override
+    public Employee create(Employee employee) throws SQLException {
+        return delegate.create(employee);
+    }
+
+    @Override
+    public Employee findById(int employeeId) throws SQLException {
+        return inTransaction.getAsBoolean() ? delegate.findById(employeeId) : loader.get(employeeId);
+    }
+
+    @Override
+    public Employee findByIdForUpdate(int employeeId) throws SQLException {
+        return delegate.findByIdForUpdate(employeeId);
+    }
+
+    @Override
+    public List<Employee> findAll() throws SQLException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Employee> handler) throws SQLException {
+        delegate.forEach(handler);
+    }
+
+    @Override
+    public boolean update(Employee employee) throws SQLException {
+        return delegate.update(employee);
+    }
+
+    @Override
+    public boolean delete(int employeeId) throws SQLException {
+        return delegate.delete(employeeId);
+    }
+
+    @Override
+    public List<Employee> findByProjectId(int projectId) throws SQLException {
+        return delegate.findByProjectId(projectId);
+    }
+
+    @Override
+    public List<Employee> findByIds(int[] ids) throws SQLException {
+        return delegate.findByIds(ids);
+    }
+}
@@ -0,0 +1,75 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import com.eems.dal.memory.Rows;
+import com.eems.domain.Project;
+
+/**
+ * Data Access Layer: Coalescing Project Repository
+ * Serves findById outside transactions through a {@link BatchLoader}, so
+ * concurrent lookups share IN-list queries. Inside a transaction, and for every
+ * other method, calls go straight to the wrapped repository.
+ */
+final class CoalescingProjectRepository implements ProjectRepository {
+
+    private final ProjectRepository delegate;
+    private final BatchLoader<Project> loader;
+    private final BooleanSupplier inTransaction;
+
+    CoalescingProjectRepository(ProjectRepository delegate, long windowMicros, int maxBatchSize,
+                                BooleanSupplier inTransaction) {
+        this.delegate = delegate;
+        this.loader = new BatchLoader<>("eems-project-loader", delegate::findByIds, Project::getProjectId,
+                Rows::copy, windowMicros, maxBatchSize);
+        this.inTransaction = inTransaction;
+    }
+
+    @Override
+    public Project create(Project project) throws SQLException {
+        return delegate.create(project);
+    }
+
+    @Override
+    public Project findById(int projectId) throws SQLException {
+        return inTransaction.getAsBoolean() ? delegate.findById(projectId) : loader.get(projectId);
+    }
+
+    @Override
+    public List<Project> findAll() throws SQLException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Project> handler) throws SQLException {
+        delegate.forEach(handler);
+    }
+
+    @Override
+    public List<Project> findByIds(int[] ids) throws SQLException {
+        return delegate.findByIds(ids);
+    }
+
+    @Override
+    public boolean update(Project project) throws SQLException {
+        return delegate.update(project);
+    }
+
+    @Override
+    public boolean delete(int projectId) throws SQLException {
+        return delegate.delete(projectId);
+    }
+
+    @Override
+    public List<Project> findActiveByDepartmentId(int departmentId, String sortBy) throws SQLException {
+        return delegate.findActiveByDepartmentId(departmentId, sortBy);
+    }
+
+    @Override
+    public List<Project> findByEndDateBefore(LocalDate deadline) throws SQLException {
+        return delegate.findByEndDateBefore(deadline);
+    }
+}
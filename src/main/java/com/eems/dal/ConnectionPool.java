@@ -0,0 +1,327 @@
+package com.eems.dal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.eems.monitoring.LatencyHistogram;
+
+/**
+ * Data Access Layer: Connection Pool
+ * Bounded pool of physical JDBC connections with lifecycle tracking.
+ *
+ * Every borrowed connection is a lease. A background reaper reports leases held
+ * longer than the leak threshold and forcibly reclaims leases held past the
+ * hard timeout, so a forgotten close cannot starve the application. The hard
+ * timeout defaults to ten times the leak threshold, well beyond any
+ * legitimate transaction. Leases borrowed as long-lived, for streaming scans that hold
+ * their connection while the consumer works, are neither reported nor
+ * reclaimed. The borrower's stack trace is captured only on request, since
+ * it costs a stack walk on every borrow. New connections record the node id in
+ * the {@code @eems_node} session variable for the change-log triggers.
+ *
+ * Configured through system properties:
+ *   eems.pool.maxSize           (default 10)
+ *   eems.pool.acquireTimeoutMs  (default 30000)
+ *   eems.pool.leakDetectionMs   (default 60000, 0 disables leak reports)
+ *   eems.pool.leakTraces        (default false, true adds the borrower's stack trace to leak reports)
+ *   eems.pool.leakReclaimMs     (default 600000, ten times the leak threshold; 0 disables reclaiming)
+ *   eems.pool.validateIdleMs    (default 30000, idle time after which a connection is validated)
+ */
+final class ConnectionPool {
+
+    private static final ClassLoader LOADER = ConnectionPool.class.getClassLoader();
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final String nodeId;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final long leakDetectionNanos;
+    private final boolean leakTraces;
+    private final long leakReclaimNanos;
+    private final long validateIdleNanos;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger physicalCount = new AtomicInteger();
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder leaksReclaimed = new LongAdder();
+    private final ScheduledExecutorService reaper;
+
+    ConnectionPool(String url, String user, String password, String nodeId) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.nodeId = nodeId;
+        this.maxSize = Integer.getInteger("eems.pool.maxSize", 10);
+        this.acquireTimeoutMs = Long.getLong("eems.pool.acquireTimeoutMs", 30_000L);
+        this.leakDetectionNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("eems.pool.leakDetectionMs", 60_000L));
+        this.leakTraces = Boolean.getBoolean("eems.pool.leakTraces");
+        this.leakReclaimNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("eems.pool.leakReclaimMs", 600_000L));
+        this.validateIdleNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("eems.pool.validateIdleMs", 30_000L));
+        this.permits = new Semaphore(maxSize, true);
+
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eems-pool-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        long checkMs = Math.max(TimeUnit.NANOSECONDS.toMillis(minPositive(leakDetectionNanos, leakReclaimNanos)) / 2, 1_000L);
+        reaper.scheduleWithFixedDelay(this::checkLeases, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the acquire timeout for a free slot.
+     */
+    Connection borrow() throws SQLException {
+        return borrow(false);
+    }
+
+    /**
+     * @param longLived exempt the lease from leak reports and reclaiming; for a
+     *                  streaming scan, which holds its connection as long as its consumer takes
+     */
+    Connection borrow(boolean longLived) throws SQLException {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        acquireWait.record(System.nanoTime() - start);
+        if (!acquired) {
+            acquireTimeouts.increment();
+            throw new SQLTransientConnectionException("Timed out after " + acquireTimeoutMs
+                    + "ms waiting for a database connection (" + getStats() + ")");
+        }
+
+        try {
+            Connection physical = takeIdleOrOpen();
+            Lease lease = new Lease(physical, longLived,
+                    leakTraces && leakDetectionNanos > 0 && !longLived ? new Throwable("Connection borrowed here") : null);
+            leases.add(lease);
+            return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class}, lease);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    PoolStats getStats() {
+        int active = leases.size();
+        return new PoolStats(active, idle.size(), waiting.get(), physicalCount.get(), maxSize,
+                acquireTimeouts.sum(), leaksDetected.sum(), leaksReclaimed.sum(), acquireWait.snapshot());
+    }
+
+    /**
+     * Close idle connections and stop the reaper. Connections still on lease are
+     * closed when their holders return them.
+     */
+    void shutdown() {
+        reaper.shutdownNow();
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closePhysical(entry.connection);
+        }
+    }
+
+    private Connection takeIdleOrOpen() throws SQLException {
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            boolean stale = System.nanoTime() - entry.returnedAt > validateIdleNanos;
+            if (!stale || isUsable(entry.connection)) {
+                return entry.connection;
+            }
+            closePhysical(entry.connection);
+        }
+        Connection conn = DriverManager.getConnection(url, user, password);
+        try (PreparedStatement stmt = conn.prepareStatement("SET @eems_node = ?")) {
+            stmt.setString(1, nodeId);
+            stmt.execute();
+        } catch (SQLException e) {
+            closePhysical(conn);
+            throw e;
+        }
+        physicalCount.incrementAndGet();
+        return conn;
+    }
+
+    private boolean isUsable(Connection conn) {
+        try {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Return a physical connection after its lease ends. An open transaction is
+     * rolled back so the next borrower never inherits uncommitted work.
+     */
+    private void giveBack(Lease lease) {
+        leases.remove(lease);
+        Connection conn = lease.physical;
+        try {
+            if (conn.isClosed()) {
+                physicalCount.decrementAndGet();
+            } else {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+                idle.addFirst(new IdleConnection(conn, System.nanoTime()));
+            }
+        } catch (SQLException e) {
+            closePhysical(conn);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void closePhysical(Connection conn) {
+        physicalCount.decrementAndGet();
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close DB connection: " + e.getMessage());
+        }
+    }
+
+    private void checkLeases() {
+        long now = System.nanoTime();
+        for (Lease lease : leases) {
+            if (lease.longLived) continue;
+            long held = now - lease.borrowedAt;
+            if (leakReclaimNanos > 0 && held > leakReclaimNanos) {
+                reclaim(lease, held);
+            } else if (leakDetectionNanos > 0 && held > leakDetectionNanos && lease.reported.compareAndSet(false, true)) {
+                leaksDetected.increment();
+                System.err.println("Possible connection leak: connection held by thread '" + lease.threadName
+                        + "' for " + TimeUnit.NANOSECONDS.toMillis(held) + "ms");
+                if (lease.borrowSite != null) {
+                    lease.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void reclaim(Lease lease, long heldNanos) {
+        if (!lease.closed.compareAndSet(false, true)) return;
+        lease.reclaimed = true;
+        leaksReclaimed.increment();
+        System.err.println("Reclaiming leaked connection held by thread '" + lease.threadName
+                + "' for " + TimeUnit.NANOSECONDS.toMillis(heldNanos) + "ms");
+        leases.remove(lease);
+        try {
+            // The holder may still be using it; abort instead of returning it to the pool
+            lease.physical.abort(Runnable::run);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Failed to abort leaked connection: " + e.getMessage());
+        } finally {
+            physicalCount.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private static boolean createsStatement(Method method) {
+        String name = method.getName();
+        return name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall");
+    }
+
+    private static long minPositive(long a, long b) {
+        if (a <= 0) return b > 0 ? b : TimeUnit.SECONDS.toNanos(10);
+        if (b <= 0) return a;
+        return Math.min(a, b);
+    }
+
+    private record IdleConnection(Connection connection, long returnedAt) {}
+
+    /**
+     * One borrowed connection. Acts as the proxy handler handed to callers:
+     * close() returns the physical connection, everything else is delegated
+     * until the lease ends.
+     */
+    private final class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final boolean longLived;
+        private final Throwable borrowSite;
+        private final String threadName = Thread.currentThread().getName();
+        private final long borrowedAt = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean reported = new AtomicBoolean();
+        private volatile boolean reclaimed;
+
+        Lease(Connection physical, boolean longLived, Throwable borrowSite) {
+            this.physical = physical;
+            this.longLived = longLived;
+            this.borrowSite = borrowSite;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        giveBack(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed.get() ? ", closed" : "") + "]";
+                default:
+                    if (closed.get()) {
+                        throw new SQLException(reclaimed
+                                ? "Connection was reclaimed by the pool after exceeding the leak timeout"
+                                : "Connection is closed");
+                    }
+                    // Statements get the bound deadline's remaining budget as their query timeout
+                    Deadline deadline = createsStatement(method) ? Deadline.current() : null;
+                    if (deadline != null) {
+                        deadline.checkBeforeExecute();
+                    }
+                    try {
+                        Object result = method.invoke(physical, args);
+                        if (deadline != null) {
+                            ((Statement) result).setQueryTimeout(deadline.queryTimeoutSeconds());
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
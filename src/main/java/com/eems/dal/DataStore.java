@@ -0,0 +1,52 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+
+/**
+ * Data Access Layer: Data Store
+ * One storage engine: the repositories it serves and the transactions that
+ * span them. Implementations are the MySQL-backed {@link JdbcDataStore} and
+ * the in-memory {@link com.eems.dal.memory.InMemoryDataStore}; see
+ * {@link DataStores} for how the application picks one.
+ */
+public interface DataStore {
+
+    DepartmentRepository departments();
+
+    EmployeeRepository employees();
+
+    ProjectRepository projects();
+
+    ClientRepository clients();
+
+    EmployeeProjectRepository employeeProjects();
+
+    ProjectClientRepository projectClients();
+
+    ProjectDepartmentRepository projectDepartments();
+
+    /**
+     * Run the work as one atomic unit: every repository call made by the
+     * calling thread inside it joins the transaction. It commits when the work
+     * returns normally, and rolls back when the work throws or marks the
+     * transaction rollback-only. A nested call joins the outer transaction.
+     */
+    <T> T inTransaction(TransactionWork<T> work) throws SQLException;
+
+    @FunctionalInterface
+    interface TransactionWork<T> {
+        T run(Transaction transaction) throws SQLException;
+    }
+
+    /**
+     * Handle on the running transaction.
+     */
+    interface Transaction {
+        /**
+         * Roll back instead of committing once the work returns.
+         */
+        void setRollbackOnly();
+
+        boolean isRollbackOnly();
+    }
+}
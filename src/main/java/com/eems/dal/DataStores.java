@@ -0,0 +1,147 @@
+package com.eems.dal;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.memory.InMemoryDataStore;
+
+/**
+ * Data Access Layer: Data Stores
+ * Selects the application's storage engine from system properties:
+ *   eems.storage                  jdbc (default), memory or cached
+ *   eems.storage.preload          with memory, load the MySQL data at startup (default false)
+ *   eems.cache.snapshotFile       with cached, the warm-start snapshot (default data/eems-store.snapshot)
+ *   eems.cache.reconcileMinutes   with cached, minutes between reconciles with MySQL (default 10, 0 disables)
+ *   eems.changelog.pollMillis     with cached, change-log poll interval (default 500, 0 disables)
+ *   eems.changelog.retentionHours with jdbc or cached, hours Change_Log rows are kept (default 24)
+ *   eems.writeBehind.windowMillis with jdbc or cached, buffer allocation updates this long and
+ *                                 write them in batches (default 0, written at once)
+ *   eems.loader.windowMicros      with jdbc or cached, collect employee and project lookups by id
+ *                                 this long into one query (default 0, queried one by one)
+ *
+ * It also owns the engines derived from a store, such as the in-memory indexes
+ * that follow its change events: {@link #engine} hands every caller the same
+ * instance per store and type, and {@link #closeEngines} (or JVM shutdown)
+ * closes them. A MySQL-backed store also gets a {@link ChangeLogPruner} this
+ * way, since the Change_Log triggers fill the log in every mode.
+ */
+public final class DataStores {
+
+    private static volatile DataStore defaultStore;
+
+    // Engines per store, in creation order so they close in reverse
+    private static final Map<DataStore, LinkedHashMap<Class<?>, AutoCloseable>> ENGINES = new IdentityHashMap<>();
+    private static boolean shutdownHookAdded;
+
+    private DataStores() {}
+
+    /**
+     * The shared store used by services created without an explicit one.
+     */
+    public static DataStore defaultStore() {
+        DataStore store = defaultStore;
+        if (store == null) {
+            synchronized (DataStores.class) {
+                store = defaultStore;
+                if (store == null) {
+                    store = create(System.getProperty("eems.storage", "jdbc"));
+                    defaultStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * The store's engine of the given type, created by the factory on first
+     * request and shared by every later caller until it is closed.
+     */
+    public static <T extends AutoCloseable> T engine(DataStore store, Class<T> type, Function<DataStore, T> factory) {
+        synchronized (ENGINES) {
+            LinkedHashMap<Class<?>, AutoCloseable> engines = ENGINES.computeIfAbsent(store, s -> new LinkedHashMap<>());
+            AutoCloseable engine = engines.get(type);
+            if (engine == null) {
+                engine = factory.apply(store);
+                engines.put(type, engine);
+                if (!shutdownHookAdded) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(DataStores::closeAllEngines, "eems-engines-shutdown"));
+                    shutdownHookAdded = true;
+                }
+            }
+            return type.cast(engine);
+        }
+    }
+
+    /**
+     * Close the store's engines, newest first; the next request creates them anew.
+     */
+    public static void closeEngines(DataStore store) {
+        LinkedHashMap<Class<?>, AutoCloseable> engines;
+        synchronized (ENGINES) {
+            engines = ENGINES.remove(store);
+        }
+        if (engines == null) return;
+
+        List<AutoCloseable> newestFirst = new ArrayList<>(engines.values());
+        Collections.reverse(newestFirst);
+        for (AutoCloseable engine : newestFirst) {
+            try {
+                engine.close();
+            } catch (Exception e) {
+                System.err.println("Failed to close " + engine.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void closeAllEngines() {
+        List<DataStore> stores;
+        synchronized (ENGINES) {
+            stores = new ArrayList<>(ENGINES.keySet());
+        }
+        for (DataStore store : stores) {
+            closeEngines(store);
+        }
+    }
+
+    private static DataStore create(String engine) {
+        switch (engine) {
+            case "jdbc":
+                return withChangeLogPruner(jdbcDataStore());
+            case "memory":
+                InMemoryDataStore store = new InMemoryDataStore();
+                if (Boolean.getBoolean("eems.storage.preload")) {
+                    try {
+                        store.loadFrom(new JdbcDataStore());
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Failed to preload in-memory store from MySQL", e);
+                    }
+                }
+                return store;
+            case "cached":
+                return withChangeLogPruner(CachingDataStore.open(jdbcDataStore(),
+                        Path.of(System.getProperty("eems.cache.snapshotFile", "data/eems-store.snapshot")),
+                        Long.getLong("eems.cache.reconcileMinutes", 10),
+                        Long.getLong("eems.changelog.pollMillis", 500)));
+            default:
+                throw new IllegalArgumentException("Unknown storage engine: " + engine);
+        }
+    }
+
+    private static DataStore withChangeLogPruner(DataStore store) {
+        engine(store, ChangeLogPruner.class, s -> ChangeLogPruner.start());
+        return store;
+    }
+
+    private static JdbcDataStore jdbcDataStore() {
+        return new JdbcDataStore(ChangeEventBus.shared(), Long.getLong("eems.writeBehind.windowMillis", 0),
+                Long.getLong("eems.loader.windowMicros", 0));
+    }
+}
@@ -1,15 +1,21 @@
 package com.eems.dal;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import com.eems.monitoring.JdbcStatementEvent;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
+
 /**
  * Database Connection Utility
- * Manages database connections using JDBC
+ * Manages pooled database connections using JDBC
  */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/project_eems";
+    // Batches go to the server as multi-row statements rather than one round trip per row
+    private static final String URL = "jdbc:mysql://localhost:3306/project_eems?rewriteBatchedStatements=true";
     private static final String USER = "root";
     private static final String PASSWORD = "root";
 
@@ -21,8 +27,104 @@ public class DatabaseConnection {
         }
     }
 
+    private static final String NODE_ID = System.getProperty("eems.nodeId",
+            ProcessHandle.current().pid() + "-" + Long.toHexString(System.nanoTime() & 0xffffff));
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD, NODE_ID);
+    private static final ThreadLocal<Connection> TRANSACTION = new ThreadLocal<>();
+
+    /**
+     * Borrow a pooled connection; closing it returns it to the pool. Statements
+     * executed on it are timed and reported to the {@link SlowQueryLog} together
+     * with the time spent waiting for the connection, emitted as JFR events while
+     * a recording is running, traced as child spans of the current request
+     * when it is sampled, and bounded by the thread's {@link Deadline} if any.
+     *
+     * Inside {@link JdbcDataStore#inTransaction} the thread's transaction
+     * connection is returned instead; closing it leaves the transaction open.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return connect(false);
+    }
+
+    /**
+     * As {@link #getConnection()}, for a streaming scan: the connection is held
+     * for as long as the scan's consumer takes, so the pool neither reports it
+     * as a leak nor reclaims it.
+     */
+    public static Connection getScanConnection() throws SQLException {
+        return connect(true);
+    }
+
+    // The span only times the borrow, so the body never refers to it
+    @SuppressWarnings("try")
+    private static Connection connect(boolean longLived) throws SQLException {
+        Connection transaction = TRANSACTION.get();
+        if (transaction != null) {
+            return nonClosing(transaction);
+        }
+        long start = System.nanoTime();
+        Connection conn;
+        try (Span span = Tracer.startSpan("DatabaseConnection.getConnection", Tracer.LAYER_CONNECTION)) {
+            conn = POOL.borrow(longLived);
+        }
+        Deadline deadline = Deadline.current();
+        if (!SlowQueryLog.isEnabled() && !JdbcStatementEvent.isTypeEnabled() && !Tracer.isRecording()
+                && (deadline == null || deadline.isTimeoutOnly())) {
+            return conn;
+        }
+        return InstrumentedConnection.wrap(conn, System.nanoTime() - start);
+    }
+
+    /**
+     * This JVM's identity in the change log ({@code eems.nodeId}, by default
+     * derived from the process id). Every pooled connection carries it in the
+     * {@code @eems_node} session variable, which the change-log triggers record.
+     */
+    public static String getNodeId() {
+        return NODE_ID;
+    }
+
+    static void bindTransaction(Connection conn) {
+        TRANSACTION.set(conn);
+    }
+
+    static void unbindTransaction() {
+        TRANSACTION.remove();
+    }
+
+    private static Connection nonClosing(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(DatabaseConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(conn, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Current pool health: active, idle and waiting counts, leak counters and
+     * the acquire-wait distribution.
+     */
+    public static PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    /**
+     * Close idle pooled connections, e.g. on application shutdown.
+     */
+    public static void shutdown() {
+        POOL.shutdown();
     }
 
     public static void closeConnection(Connection conn) {
@@ -34,4 +136,4 @@ public class DatabaseConnection {
             }
         }
     }
-}
\ No newline at end of file
+}
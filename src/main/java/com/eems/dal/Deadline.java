@@ -0,0 +1,223 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data Access Layer: Deadline
+ * Time budget of an operation, bound to the executing thread. Every statement
+ * executed while a deadline is bound gets Statement.setQueryTimeout set to the
+ * remaining budget, and is cancelled in flight when the deadline expires, when
+ * the bound thread is interrupted, or when the caller gives up via {@link #cancel()}.
+ *
+ * <pre>
+ * Deadline deadline = Deadline.after(Duration.ofSeconds(2));
+ * try (Deadline.Scope scope = deadline.bind()) {
+ *     service.calculateProjectHRCost(projectId);
+ * }
+ * // from another thread, if the caller stops waiting:
+ * deadline.cancel();
+ * </pre>
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final Set<Deadline> WATCHED = ConcurrentHashMap.newKeySet();
+    private static final long WATCH_INTERVAL_MS = 50;
+    private static volatile ScheduledExecutorService watchdog;
+
+    private final long expiresAtNanos;
+    private final Duration timeout;
+    private final boolean timeoutOnly;
+    private final Set<Statement> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile Thread boundThread;
+    private volatile boolean cancelled;
+
+    private Deadline(Duration timeout, boolean timeoutOnly) {
+        this.timeout = timeout;
+        this.timeoutOnly = timeoutOnly;
+        this.expiresAtNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(requirePositive(timeout), false);
+    }
+
+    /**
+     * A deadline enforced only by the query timeout the pooled connection sets
+     * on each statement it creates: the watchdog does not follow it, so a
+     * statement is not cancelled on interrupt, and {@link #cancel()} refuses only
+     * statements not yet created. Its statements skip the instrumented
+     * connection proxy. Service operations run under one by default.
+     */
+    public static Deadline timeoutOnly(Duration timeout) {
+        return new Deadline(requirePositive(timeout), true);
+    }
+
+    private static Duration requirePositive(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Deadline timeout must be positive");
+        }
+        return timeout;
+    }
+
+    /**
+     * The deadline bound to the calling thread, or null.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind this deadline to the calling thread until the scope is closed.
+     */
+    public Scope bind() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        boundThread = Thread.currentThread();
+        return new Scope(previous);
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    boolean isTimeoutOnly() {
+        return timeoutOnly;
+    }
+
+    /**
+     * The caller gave up: cancel every statement running under this deadline and
+     * refuse new ones.
+     */
+    public void cancel() {
+        cancelled = true;
+        cancelInFlight();
+    }
+
+    /**
+     * Refuse to start a statement once the budget is spent.
+     */
+    void checkBeforeExecute() throws SQLException {
+        if (cancelled) {
+            throw new SQLTimeoutException("Operation was cancelled by the caller");
+        }
+        if (isExpired() || (boundThread != null && boundThread.isInterrupted())) {
+            throw new SQLTimeoutException("Operation deadline of " + timeout.toMillis() + "ms exceeded");
+        }
+    }
+
+    /**
+     * Remaining budget in whole seconds, rounded up, as Statement.setQueryTimeout expects.
+     */
+    int queryTimeoutSeconds() {
+        long remaining = remainingNanos();
+        long seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.max(1, Math.min(seconds, Integer.MAX_VALUE));
+    }
+
+    void register(Statement statement) {
+        inFlight.add(statement);
+        WATCHED.add(this);
+        ensureWatchdog();
+    }
+
+    void unregister(Statement statement) {
+        inFlight.remove(statement);
+        if (inFlight.isEmpty()) {
+            WATCHED.remove(this);
+        }
+    }
+
+    /**
+     * Turn a driver failure caused by cancellation into a timeout so callers and
+     * metrics see one consistent exception type.
+     */
+    SQLException translate(SQLException e) {
+        if (e instanceof SQLTimeoutException || !(cancelled || isExpired())) {
+            return e;
+        }
+        String reason = cancelled ? "Operation was cancelled by the caller"
+                : "Operation deadline of " + timeout.toMillis() + "ms exceeded";
+        return new SQLTimeoutException(reason, e);
+    }
+
+    private void cancelInFlight() {
+        for (Statement statement : inFlight) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                System.err.println("Failed to cancel statement: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void ensureWatchdog() {
+        if (watchdog != null) return;
+        synchronized (Deadline.class) {
+            if (watchdog != null) return;
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "eems-deadline-watchdog");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.scheduleWithFixedDelay(Deadline::checkWatched, WATCH_INTERVAL_MS, WATCH_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+            watchdog = executor;
+        }
+    }
+
+    /**
+     * The driver's query timeout has one-second granularity and does not notice
+     * interrupts; the watchdog cancels statements that outlive their deadline or
+     * whose thread was interrupted.
+     */
+    private static void checkWatched() {
+        for (Deadline deadline : WATCHED) {
+            Thread thread = deadline.boundThread;
+            if (deadline.isExpired() || (thread != null && thread.isInterrupted())) {
+                WATCHED.remove(deadline);
+                deadline.cancelInFlight();
+            }
+        }
+    }
+
+    /**
+     * Restores the previously bound deadline when closed.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -1,108 +1,62 @@
 package com.eems.dal;
 
-import com.eems.domain.EmployeeProject;
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.SQLException;
 import java.util.List;
 
+import com.eems.domain.EmployeeProject;
+import com.eems.util.IntObjectHashMap;
+
 /**
  * Data Access Layer: EmployeeProject Repository
- * Handles all database operations for Employee-Project relationship
+ * Storage contract for the Employee-Project relationship
  */
-public class EmployeeProjectRepository {
-
-    public boolean create(EmployeeProject employeeProject) throws SQLException {
-        String sql = "INSERT INTO Employee_Project (employee_id, project_id, time_allocation_percent) VALUES (?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, employeeProject.getEmployeeId());
-            stmt.setInt(2, employeeProject.getProjectId());
-            stmt.setInt(3, employeeProject.getTimeAllocationPercent());
-
-            return stmt.executeUpdate() > 0;
-        }
-    }
-
-    public EmployeeProject findByIds(int employeeId, int projectId) throws SQLException {
-        String sql = "SELECT * FROM Employee_Project WHERE employee_id = ? AND project_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, employeeId);
-            stmt.setInt(2, projectId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToEmployeeProject(rs);
-                }
-            }
-        }
-
-        return null;
-    }
-
-    public List<EmployeeProject> findByProjectId(int projectId) throws SQLException {
-        String sql = "SELECT * FROM Employee_Project WHERE project_id = ?";
-        return getEmployeeProjects(projectId, sql);
-    }
-
-    private List<EmployeeProject> getEmployeeProjects(int projectId, String sql) throws SQLException {
-        List<EmployeeProject> assignments = new ArrayList<>();
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+public interface EmployeeProjectRepository {
 
-            stmt.setInt(1, projectId);
+    boolean create(EmployeeProject employeeProject) throws SQLException;
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    assignments.add(mapResultSetToEmployeeProject(rs));
-                }
-            }
-        }
+    EmployeeProject findByIds(int employeeId, int projectId) throws SQLException;
 
-        return assignments;
-    }
+    List<EmployeeProject> findByProjectId(int projectId) throws SQLException;
 
-    public List<EmployeeProject> findByEmployeeId(int employeeId) throws SQLException {
-        String sql = "SELECT * FROM Employee_Project WHERE employee_id = ?";
-        return getEmployeeProjects(employeeId, sql);
-    }
+    List<EmployeeProject> findByEmployeeId(int employeeId) throws SQLException;
 
-    public boolean update(EmployeeProject employeeProject) throws SQLException {
-        String sql = "UPDATE Employee_Project SET time_allocation_percent = ? WHERE employee_id = ? AND project_id = ?";
+    /**
+     * The employee's assignments, ascending by project id, locked against
+     * concurrent writers until the surrounding transaction ends.
+     */
+    List<EmployeeProject> findByEmployeeIdForUpdate(int employeeId) throws SQLException;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Assignments of each of the given projects in one query, keyed by project
+     * id and ascending by employee id; projects without assignments are absent.
+     */
+    IntObjectHashMap<List<EmployeeProject>> findByProjectIds(int[] projectIds) throws SQLException;
 
-            stmt.setInt(1, employeeProject.getTimeAllocationPercent());
-            stmt.setInt(2, employeeProject.getEmployeeId());
-            stmt.setInt(3, employeeProject.getProjectId());
+    /**
+     * Stream every assignment to the handler without materialising the table. The
+     * handler must not write through this store while the scan runs.
+     */
+    void forEach(RowHandler<? super EmployeeProject> handler) throws SQLException;
 
-            return stmt.executeUpdate() > 0;
-        }
-    }
+    boolean update(EmployeeProject employeeProject) throws SQLException;
 
-    public boolean delete(int employeeId, int projectId) throws SQLException {
-        String sql = "DELETE FROM Employee_Project WHERE employee_id = ? AND project_id = ?";
+    /**
+     * Update the allocation of every listed assignment in one batch. Element
+     * i of the result is 1 if assignment i was updated and 0 if it does not exist.
+     */
+    int[] updateAll(List<EmployeeProject> assignments) throws SQLException;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Insert every listed assignment, or set its allocation if it already
+     * exists, in one batch.
+     */
+    void upsertAll(List<EmployeeProject> assignments) throws SQLException;
 
-            stmt.setInt(1, employeeId);
-            stmt.setInt(2, projectId);
-            return stmt.executeUpdate() > 0;
-        }
-    }
+    boolean delete(int employeeId, int projectId) throws SQLException;
 
-    private EmployeeProject mapResultSetToEmployeeProject(ResultSet rs) throws SQLException {
-        return new EmployeeProject(
-                rs.getInt("employee_id"),
-                rs.getInt("project_id"),
-                rs.getInt("time_allocation_percent")
-        );
-    }
-}
\ No newline at end of file
+    /**
+     * Remove the listed employees from the project in one statement and return
+     * how many of them were assigned to it.
+     */
+    int deleteAll(int projectId, int[] employeeIds) throws SQLException;
+}
@@ -0,0 +1,280 @@
+package com.eems.dal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import com.eems.monitoring.JdbcStatementEvent;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
+
+/**
+ * Data Access Layer: Instrumented Connection
+ * Wraps a JDBC connection so every statement executed through it is timed.
+ * Bound parameters are kept in a small array per statement and only formatted
+ * when the statement turns out to be slow. Each execution is also reported as a
+ * {@link JdbcStatementEvent} while a flight recording has the event enabled, and
+ * as a span when the current request is traced. Under a bound {@link Deadline}
+ * every execution gets the remaining budget as its query timeout and stays
+ * cancellable until its result set is closed.
+ */
+final class InstrumentedConnection implements InvocationHandler {
+
+    private static final ClassLoader LOADER = InstrumentedConnection.class.getClassLoader();
+
+    private final Connection delegate;
+    private long unreportedWaitNanos;
+
+    private InstrumentedConnection(Connection delegate, long acquireNanos) {
+        this.delegate = delegate;
+        this.unreportedWaitNanos = acquireNanos;
+    }
+
+    static Connection wrap(Connection conn, long acquireNanos) {
+        return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class},
+                new InstrumentedConnection(conn, acquireNanos));
+    }
+
+    /**
+     * The connection wait is attributed to the first statement that runs on it.
+     */
+    private long takeWaitNanos() {
+        long wait = unreportedWaitNanos;
+        unreportedWaitNanos = 0;
+        return wait;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result = invokeDelegate(delegate, method, args);
+        return switch (method.getName()) {
+            case "prepareStatement", "prepareCall" ->
+                    wrapStatement((Statement) result, method.getReturnType(), (String) args[0]);
+            case "createStatement" -> wrapStatement((Statement) result, Statement.class, null);
+            default -> result;
+        };
+    }
+
+    private Object wrapStatement(Statement statement, Class<?> type, String sql) {
+        return Proxy.newProxyInstance(LOADER, new Class<?>[]{type}, new StatementHandler(statement, sql));
+    }
+
+    private static Object invokeDelegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Times executions and captures bound parameters for one statement.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private String sql;
+        private Object[] params = new Object[8];
+        private int paramCount;
+
+        private boolean executionOpen;
+        private JdbcStatementEvent event;
+        private Span span;
+        private Deadline deadline;
+        private long executeNanos;
+        private long fetchNanos;
+        private long rows;
+
+        StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                return dispatch(method, args);
+            } catch (SQLException e) {
+                Deadline active = deadline != null ? deadline : Deadline.current();
+                throw active == null ? e : active.translate(e);
+            }
+        }
+
+        private Object dispatch(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (args != null && args.length >= 2 && name.startsWith("set") && args[0] instanceof Integer index
+                    && method.getDeclaringClass() != Statement.class) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return invokeDelegate(statement, method, args);
+            }
+
+            switch (name) {
+                case "clearParameters":
+                    Arrays.fill(params, null);
+                    paramCount = 0;
+                    return invokeDelegate(statement, method, args);
+                case "executeQuery": {
+                    beginExecution(args);
+                    long start = System.nanoTime();
+                    ResultSet rs = (ResultSet) invokeDelegate(statement, method, args);
+                    executeNanos = System.nanoTime() - start;
+                    return wrapResultSet(rs);
+                }
+                case "executeUpdate", "executeLargeUpdate": {
+                    beginExecution(args);
+                    long start = System.nanoTime();
+                    Number count = (Number) invokeDelegate(statement, method, args);
+                    executeNanos = System.nanoTime() - start;
+                    rows = count.longValue();
+                    finishExecution();
+                    return count;
+                }
+                case "executeBatch", "executeLargeBatch": {
+                    beginExecution(null);
+                    long start = System.nanoTime();
+                    Object counts = invokeDelegate(statement, method, args);
+                    executeNanos = System.nanoTime() - start;
+                    rows = sumCounts(counts);
+                    finishExecution();
+                    return counts;
+                }
+                case "execute": {
+                    beginExecution(args);
+                    long start = System.nanoTime();
+                    Boolean hasResultSet = (Boolean) invokeDelegate(statement, method, args);
+                    executeNanos = System.nanoTime() - start;
+                    if (!hasResultSet) {
+                        rows = Math.max(statement.getUpdateCount(), 0);
+                        finishExecution();
+                    }
+                    return hasResultSet;
+                }
+                case "getResultSet": {
+                    ResultSet rs = (ResultSet) invokeDelegate(statement, method, args);
+                    return executionOpen && rs != null ? wrapResultSet(rs) : rs;
+                }
+                case "close":
+                    finishExecution();
+                    return invokeDelegate(statement, method, args);
+                default:
+                    return invokeDelegate(statement, method, args);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= params.length) {
+                params = Arrays.copyOf(params, Math.max(index + 1, params.length * 2));
+            }
+            params[index] = value;
+            if (index > paramCount) paramCount = index;
+        }
+
+        private void beginExecution(Object[] args) throws SQLException {
+            finishExecution();
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                sql = text;
+            }
+            Deadline current = Deadline.current();
+            if (current != null) {
+                current.checkBeforeExecute();
+                statement.setQueryTimeout(current.queryTimeoutSeconds());
+                current.register(statement);
+                deadline = current;
+            }
+            executionOpen = true;
+            if (Tracer.isRecording()) {
+                span = Tracer.startSpan(SqlStatementInfo.of(sql).spanName, Tracer.LAYER_STATEMENT);
+            }
+            if (JdbcStatementEvent.isTypeEnabled()) {
+                event = new JdbcStatementEvent();
+                event.begin();
+            }
+            executeNanos = 0;
+            fetchNanos = 0;
+            rows = 0;
+        }
+
+        private void finishExecution() {
+            if (!executionOpen) return;
+            executionOpen = false;
+            if (deadline != null) {
+                deadline.unregister(statement);
+                deadline = null;
+            }
+            long waitNanos = takeWaitNanos();
+            if (event != null) {
+                commitEvent(waitNanos);
+            }
+            if (span != null) {
+                closeSpan();
+            }
+            if (SlowQueryLog.isSlow(executeNanos + fetchNanos)) {
+                SlowQueryLog.record(sql, params, paramCount, rows, waitNanos, executeNanos, fetchNanos);
+            }
+        }
+
+        private void commitEvent(long waitNanos) {
+            event.end();
+            if (event.shouldCommit()) {
+                SqlStatementInfo info = SqlStatementInfo.of(sql);
+                event.sqlId = info.id;
+                event.entity = info.entity;
+                event.sql = sql;
+                event.rowCount = rows;
+                event.connectionWait = waitNanos;
+                event.commit();
+            }
+            event = null;
+        }
+
+        private void closeSpan() {
+            SqlStatementInfo info = SqlStatementInfo.of(sql);
+            span.setAttribute("db.system", "mysql")
+                .setAttribute("db.statement", sql)
+                .setAttribute("db.sql.table", info.entity)
+                .setAttribute("eems.sql_id", info.id)
+                .setAttribute("eems.rows", rows);
+            span.close();
+            span = null;
+        }
+
+        private ResultSet wrapResultSet(ResultSet rs) {
+            return (ResultSet) Proxy.newProxyInstance(LOADER, new Class<?>[]{ResultSet.class},
+                    (p, method, args) -> switch (method.getName()) {
+                        case "next" -> {
+                            long start = System.nanoTime();
+                            Boolean hasRow;
+                            try {
+                                hasRow = (Boolean) invokeDelegate(rs, method, args);
+                            } catch (SQLException e) {
+                                throw deadline == null ? e : deadline.translate(e);
+                            }
+                            fetchNanos += System.nanoTime() - start;
+                            if (hasRow) rows++;
+                            yield hasRow;
+                        }
+                        case "close" -> {
+                            Object result = invokeDelegate(rs, method, args);
+                            finishExecution();
+                            yield result;
+                        }
+                        default -> invokeDelegate(rs, method, args);
+                    });
+        }
+
+        private long sumCounts(Object counts) {
+            long total = 0;
+            if (counts instanceof int[] ints) {
+                for (int c : ints) if (c > 0) total += c;
+            } else if (counts instanceof long[] longs) {
+                for (long c : longs) if (c > 0) total += c;
+            }
+            return total;
+        }
+    }
+}
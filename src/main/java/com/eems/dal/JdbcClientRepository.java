@@ -0,0 +1,268 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.ClientChanged;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.Client;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Data Access Layer: JDBC Client Repository
+ * Handles all database operations for Client entity against MySQL
+ */
+public class JdbcClientRepository implements ClientRepository {
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final ChangeEventBus events;
+
+    public JdbcClientRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public Client create(Client client) throws SQLException {
+        String sql = "INSERT INTO Client (name, industry, contact_person, contact_phone, contact_email) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, client.getName());
+            stmt.setString(2, client.getIndustry());
+            stmt.setString(3, client.getContactPerson());
+            stmt.setString(4, client.getContactPhone());
+            stmt.setString(5, client.getContactEmail());
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        client.setClientId(generatedKeys.getInt(1));
+                    }
+                }
+                events.publish(new ClientChanged(Change.CREATED, client.getClientId(), client));
+            }
+
+            return client;
+        }
+    }
+
+    @Override
+    public Client findById(int clientId) throws SQLException {
+        String sql = "SELECT * FROM Client WHERE client_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, clientId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToClient(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<Client> findByIds(int[] ids) throws SQLException {
+        List<Client> clients = new ArrayList<>();
+        if (ids == null || ids.length == 0) return clients;
+
+        int[] sorted = Arrays.stream(ids).distinct().sorted().toArray();
+        // One IN list per chunk keeps each statement well under the placeholder limit
+        for (int from = 0; from < sorted.length; from += IN_LIST_CHUNK) {
+            int to = Math.min(sorted.length, from + IN_LIST_CHUNK);
+            String sql = "SELECT * FROM Client WHERE client_id IN ("
+                    + String.join(",", Collections.nCopies(to - from, "?")) + ") ORDER BY client_id";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = from; i < to; i++) {
+                    stmt.setInt(i - from + 1, sorted[i]);
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        clients.add(mapResultSetToClient(rs));
+                    }
+                }
+            }
+        }
+
+        return clients;
+    }
+
+    @Override
+    public List<Client> findAll() throws SQLException {
+        String sql = "SELECT * FROM Client";
+        List<Client> clients = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                clients.add(mapResultSetToClient(rs));
+            }
+        }
+
+        return clients;
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Client> handler) throws SQLException {
+        String sql = "SELECT * FROM Client";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToClient(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean update(Client client) throws SQLException {
+        String sql = "UPDATE Client SET name = ?, industry = ?, contact_person = ?, contact_phone = ?, contact_email = ? WHERE client_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, client.getName());
+            stmt.setString(2, client.getIndustry());
+            stmt.setString(3, client.getContactPerson());
+            stmt.setString(4, client.getContactPhone());
+            stmt.setString(5, client.getContactEmail());
+            stmt.setInt(6, client.getClientId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                events.publish(new ClientChanged(Change.UPDATED, client.getClientId(), client));
+            }
+            return updated;
+        }
+    }
+
+    @Override
+    public boolean delete(int clientId) throws SQLException {
+        String sql = "DELETE FROM Client WHERE client_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, clientId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                events.publish(new ClientChanged(Change.DELETED, clientId, null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public List<Client> findByProjectId(int projectId) throws SQLException {
+        String sql = "SELECT c.* FROM Client c " +
+                "INNER JOIN Project_Client pc ON c.client_id = pc.client_id " +
+                "WHERE pc.project_id = ?";
+        List<Client> clients = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clients.add(mapResultSetToClient(rs));
+                }
+            }
+        }
+
+        return clients;
+    }
+
+    @Override
+    public IntObjectHashMap<List<Client>> findByProjectIds(int[] projectIds) throws SQLException {
+        IntObjectHashMap<List<Client>> clientsByProject = new IntObjectHashMap<>();
+        if (projectIds == null || projectIds.length == 0) return clientsByProject;
+
+        String sql = "SELECT pc.project_id AS linked_project_id, c.* FROM Project_Client pc " +
+                "INNER JOIN Client c ON c.client_id = pc.client_id " +
+                "WHERE pc.project_id IN (" + String.join(",", Collections.nCopies(projectIds.length, "?")) + ") " +
+                "ORDER BY pc.project_id, c.client_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < projectIds.length; i++) {
+                stmt.setInt(i + 1, projectIds[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clientsByProject.computeIfAbsent(rs.getInt("linked_project_id"), k -> new ArrayList<>())
+                            .add(mapResultSetToClient(rs));
+                }
+            }
+        }
+
+        return clientsByProject;
+    }
+
+    @Override
+    public List<Client> findByUpcomingProjectDeadline(LocalDate deadline) throws SQLException {
+        String sql = "SELECT DISTINCT c.* FROM Client c " +
+                "INNER JOIN Project_Client pc ON c.client_id = pc.client_id " +
+                "INNER JOIN Project p ON pc.project_id = p.project_id " +
+                "WHERE p.end_date <= ?";
+        List<Client> clients = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(deadline));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clients.add(mapResultSetToClient(rs));
+                }
+            }
+        }
+
+        return clients.stream().distinct().toList();
+    }
+
+    private Client mapResultSetToClient(ResultSet rs) throws SQLException {
+        return new Client(
+                rs.getInt("client_id"),
+                rs.getString("name"),
+                rs.getString("industry"),
+                rs.getString("contact_person"),
+                rs.getString("contact_phone"),
+                rs.getString("contact_email")
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.eems.dal.events.ChangeEventBus;
+
+/**
+ * Data Access Layer: JDBC Data Store
+ * MySQL-backed storage engine. A transaction borrows one pooled connection and
+ * binds it to the calling thread, so repository calls made inside it run on
+ * that connection. Change events raised inside a transaction are published
+ * once it commits.
+ *
+ * Allocation updates can optionally be written behind (see
+ * {@link WriteBehindEmployeeProjectRepository}), and concurrent employee and
+ * project lookups by id coalesced into batch queries (see {@link BatchLoader}).
+ */
+public class JdbcDataStore implements DataStore {
+
+    private static final ThreadLocal<JdbcTransaction> CURRENT = new ThreadLocal<>();
+    private static final int MAX_LOOKUP_BATCH = 500;
+
+    private final ChangeEventBus events;
+    private final DepartmentRepository departments;
+    private final EmployeeRepository employees;
+    private final ProjectRepository projects;
+    private final ClientRepository clients;
+    private final EmployeeProjectRepository employeeProjects;
+    private final ProjectClientRepository projectClients;
+    private final ProjectDepartmentRepository projectDepartments;
+
+    public JdbcDataStore() {
+        this(ChangeEventBus.shared());
+    }
+
+    /**
+     * @param events bus that committed writes are announced on
+     */
+    public JdbcDataStore(ChangeEventBus events) {
+        this(events, 0);
+    }
+
+    /**
+     * @param events                 bus that committed writes are announced on
+     * @param writeBehindWindowMillis how long allocation updates are buffered and
+     *                               coalesced before a batch write (0 writes them at once)
+     */
+    public JdbcDataStore(ChangeEventBus events, long writeBehindWindowMillis) {
+        this(events, writeBehindWindowMillis, 0);
+    }
+
+    /**
+     * @param events                 bus that committed writes are announced on
+     * @param writeBehindWindowMillis how long allocation updates are buffered and
+     *                               coalesced before a batch write (0 writes them at once)
+     * @param lookupWindowMicros     how long employee and project lookups by id are
+     *                               collected into one query (0 runs each on its own)
+     */
+    public JdbcDataStore(ChangeEventBus events, long writeBehindWindowMillis, long lookupWindowMicros) {
+        this.events = events;
+        this.departments = new JdbcDepartmentRepository(events);
+        EmployeeRepository employeeTable = new JdbcEmployeeRepository(events);
+        ProjectRepository projectTable = new JdbcProjectRepository(events);
+        if (lookupWindowMicros > 0) {
+            this.employees = new CoalescingEmployeeRepository(employeeTable, lookupWindowMicros, MAX_LOOKUP_BATCH,
+                    () -> CURRENT.get() != null);
+            this.projects = new CoalescingProjectRepository(projectTable, lookupWindowMicros, MAX_LOOKUP_BATCH,
+                    () -> CURRENT.get() != null);
+        } else {
+            this.employees = employeeTable;
+            this.projects = projectTable;
+        }
+        this.clients = new JdbcClientRepository(events);
+        EmployeeProjectRepository assignments = new JdbcEmployeeProjectRepository(events);
+        this.employeeProjects = writeBehindWindowMillis > 0
+                ? new WriteBehindEmployeeProjectRepository(assignments, writeBehindWindowMillis,
+                        () -> CURRENT.get() != null, action -> CURRENT.get().onCommit(action),
+                        action -> CURRENT.get().onRollback(action))
+                : assignments;
+        this.projectClients = new JdbcProjectClientRepository(events);
+        this.projectDepartments = new JdbcProjectDepartmentRepository(events);
+    }
+
+    @Override
+    public DepartmentRepository departments() {
+        return departments;
+    }
+
+    @Override
+    public EmployeeRepository employees() {
+        return employees;
+    }
+
+    @Override
+    public ProjectRepository projects() {
+        return projects;
+    }
+
+    @Override
+    public ClientRepository clients() {
+        return clients;
+    }
+
+    @Override
+    public EmployeeProjectRepository employeeProjects() {
+        return employeeProjects;
+    }
+
+    @Override
+    public ProjectClientRepository projectClients() {
+        return projectClients;
+    }
+
+    @Override
+    public ProjectDepartmentRepository projectDepartments() {
+        return projectDepartments;
+    }
+
+    @Override
+    public <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        JdbcTransaction outer = CURRENT.get();
+        if (outer != null) {
+            return work.run(outer);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            JdbcTransaction transaction = new JdbcTransaction();
+            CURRENT.set(transaction);
+            DatabaseConnection.bindTransaction(conn);
+            boolean ownsEvents = events.beginTransaction();
+            boolean committed = false;
+            try {
+                T result = work.run(transaction);
+                if (transaction.rollbackOnly) {
+                    conn.rollback();
+                } else {
+                    conn.commit();
+                    committed = true;
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                DatabaseConnection.unbindTransaction();
+                CURRENT.remove();
+                if (ownsEvents) {
+                    events.endTransaction(committed);
+                }
+                if (committed) {
+                    transaction.committed();
+                } else {
+                    transaction.rolledBack();
+                }
+            }
+        }
+    }
+
+    private static final class JdbcTransaction implements Transaction {
+        private boolean rollbackOnly;
+        private List<Runnable> commitActions;
+        private List<Runnable> rollbackActions;
+
+        /**
+         * Run the action once this transaction has committed.
+         */
+        void onCommit(Runnable action) {
+            if (commitActions == null) {
+                commitActions = new ArrayList<>();
+            }
+            commitActions.add(action);
+        }
+
+        void committed() {
+            if (commitActions == null) return;
+            for (Runnable action : commitActions) {
+                action.run();
+            }
+        }
+
+        /**
+         * Run the action if this transaction rolls back.
+         */
+        void onRollback(Runnable action) {
+            if (rollbackActions == null) {
+                rollbackActions = new ArrayList<>();
+            }
+            rollbackActions.add(action);
+        }
+
+        void rolledBack() {
+            if (rollbackActions == null) return;
+            for (Runnable action : rollbackActions) {
+                action.run();
+            }
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+    }
+}
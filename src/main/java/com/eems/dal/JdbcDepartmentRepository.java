@@ -0,0 +1,228 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.DepartmentChanged;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.Department;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Data Access Layer: JDBC Department Repository
+ * Handles all database operations for Department entity against MySQL
+ */
+public class JdbcDepartmentRepository implements DepartmentRepository {
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final ChangeEventBus events;
+
+    public JdbcDepartmentRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public Department create(Department department) throws SQLException {
+        String sql = "INSERT INTO Department (name, location, annual_budget) VALUES (?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, department.getName());
+            stmt.setString(2, department.getLocation());
+            stmt.setBigDecimal(3, department.getAnnualBudget());
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        department.setDepartmentId(generatedKeys.getInt(1));
+                    }
+                }
+                events.publish(new DepartmentChanged(Change.CREATED, department.getDepartmentId(), department));
+            }
+
+            return department;
+        }
+    }
+
+    @Override
+    public Department findById(int departmentId) throws SQLException {
+        String sql = "SELECT * FROM Department WHERE department_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, departmentId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToDepartment(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<Department> findAll() throws SQLException {
+        String sql = "SELECT * FROM Department";
+        List<Department> departments = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                departments.add(mapResultSetToDepartment(rs));
+            }
+        }
+
+        return departments;
+    }
+
+    @Override
+    public List<Department> findByIds(int[] ids) throws SQLException {
+        List<Department> departments = new ArrayList<>();
+        if (ids == null || ids.length == 0) return departments;
+
+        int[] sorted = Arrays.stream(ids).distinct().sorted().toArray();
+        // One IN list per chunk keeps each statement well under the placeholder limit
+        for (int from = 0; from < sorted.length; from += IN_LIST_CHUNK) {
+            int to = Math.min(sorted.length, from + IN_LIST_CHUNK);
+            String sql = "SELECT * FROM Department WHERE department_id IN ("
+                    + String.join(",", Collections.nCopies(to - from, "?")) + ") ORDER BY department_id";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = from; i < to; i++) {
+                    stmt.setInt(i - from + 1, sorted[i]);
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        departments.add(mapResultSetToDepartment(rs));
+                    }
+                }
+            }
+        }
+
+        return departments;
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Department> handler) throws SQLException {
+        String sql = "SELECT * FROM Department";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToDepartment(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean update(Department department) throws SQLException {
+        String sql = "UPDATE Department SET name = ?, location = ?, annual_budget = ? WHERE department_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, department.getName());
+            stmt.setString(2, department.getLocation());
+            stmt.setBigDecimal(3, department.getAnnualBudget());
+            stmt.setInt(4, department.getDepartmentId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                events.publish(new DepartmentChanged(Change.UPDATED, department.getDepartmentId(), department));
+            }
+            return updated;
+        }
+    }
+
+    @Override
+    public boolean delete(int departmentId) throws SQLException {
+        // Check if department has employees
+        String checkSql = "SELECT COUNT(*) FROM Employee WHERE department_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
+
+            checkStmt.setInt(1, departmentId);
+            try (ResultSet rs = checkStmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new SQLException("Cannot delete department with existing employees");
+                }
+            }
+        }
+
+        String sql = "DELETE FROM Department WHERE department_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, departmentId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                events.publish(new DepartmentChanged(Change.DELETED, departmentId, null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public IntObjectHashMap<List<Department>> findByProjectIds(int[] projectIds) throws SQLException {
+        IntObjectHashMap<List<Department>> departmentsByProject = new IntObjectHashMap<>();
+        if (projectIds == null || projectIds.length == 0) return departmentsByProject;
+
+        String sql = "SELECT pd.project_id AS linked_project_id, d.* FROM Project_Department pd " +
+                "INNER JOIN Department d ON d.department_id = pd.department_id " +
+                "WHERE pd.project_id IN (" + String.join(",", Collections.nCopies(projectIds.length, "?")) + ") " +
+                "ORDER BY pd.project_id, d.department_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < projectIds.length; i++) {
+                stmt.setInt(i + 1, projectIds[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    departmentsByProject.computeIfAbsent(rs.getInt("linked_project_id"), k -> new ArrayList<>())
+                            .add(mapResultSetToDepartment(rs));
+                }
+            }
+        }
+
+        return departmentsByProject;
+    }
+
+    private Department mapResultSetToDepartment(ResultSet rs) throws SQLException {
+        return new Department(
+                rs.getInt("department_id"),
+                rs.getString("name"),
+                rs.getString("location"),
+                rs.getBigDecimal("annual_budget")
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,396 @@
+package com.eems.dal;
+
+import com.eems.dal.events.ChangeEvent.AssignmentChanged;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.EmployeeProject;
+import com.eems.util.IntList;
+import com.eems.util.IntObjectHashMap;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data Access Layer: JDBC EmployeeProject Repository
+ * Handles all database operations for Employee-Project relationship against MySQL
+ */
+public class JdbcEmployeeProjectRepository implements EmployeeProjectRepository {
+
+    private final ChangeEventBus events;
+
+    public JdbcEmployeeProjectRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public boolean create(EmployeeProject employeeProject) throws SQLException {
+        String sql = "INSERT INTO Employee_Project (employee_id, project_id, time_allocation_percent) VALUES (?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeProject.getEmployeeId());
+            stmt.setInt(2, employeeProject.getProjectId());
+            stmt.setInt(3, employeeProject.getTimeAllocationPercent());
+
+            boolean created = stmt.executeUpdate() > 0;
+            if (created) {
+                events.publish(new AssignmentChanged(Change.CREATED,
+                        employeeProject.getEmployeeId(), employeeProject.getProjectId(), employeeProject));
+            }
+            return created;
+        }
+    }
+
+    @Override
+    public EmployeeProject findByIds(int employeeId, int projectId) throws SQLException {
+        String sql = "SELECT * FROM Employee_Project WHERE employee_id = ? AND project_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeId);
+            stmt.setInt(2, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToEmployeeProject(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<EmployeeProject> findByProjectId(int projectId) throws SQLException {
+        String sql = "SELECT * FROM Employee_Project WHERE project_id = ?";
+        return getEmployeeProjects(projectId, sql);
+    }
+
+    private List<EmployeeProject> getEmployeeProjects(int projectId, String sql) throws SQLException {
+        List<EmployeeProject> assignments = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    assignments.add(mapResultSetToEmployeeProject(rs));
+                }
+            }
+        }
+
+        return assignments;
+    }
+
+    @Override
+    public List<EmployeeProject> findByEmployeeId(int employeeId) throws SQLException {
+        String sql = "SELECT * FROM Employee_Project WHERE employee_id = ?";
+        return getEmployeeProjects(employeeId, sql);
+    }
+
+    /**
+     * Locking read of the employee's assignments. Only meaningful inside a
+     * transaction, where the locks are held until commit or rollback.
+     */
+    @Override
+    public List<EmployeeProject> findByEmployeeIdForUpdate(int employeeId) throws SQLException {
+        String sql = "SELECT * FROM Employee_Project WHERE employee_id = ? ORDER BY project_id FOR UPDATE";
+        return getEmployeeProjects(employeeId, sql);
+    }
+
+    @Override
+    public IntObjectHashMap<List<EmployeeProject>> findByProjectIds(int[] projectIds) throws SQLException {
+        IntObjectHashMap<List<EmployeeProject>> assignmentsByProject = new IntObjectHashMap<>();
+        if (projectIds == null || projectIds.length == 0) return assignmentsByProject;
+
+        String sql = "SELECT * FROM Employee_Project WHERE project_id IN ("
+                + String.join(",", Collections.nCopies(projectIds.length, "?")) + ") ORDER BY project_id, employee_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < projectIds.length; i++) {
+                stmt.setInt(i + 1, projectIds[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    EmployeeProject assignment = mapResultSetToEmployeeProject(rs);
+                    assignmentsByProject.computeIfAbsent(assignment.getProjectId(), k -> new ArrayList<>())
+                            .add(assignment);
+                }
+            }
+        }
+
+        return assignmentsByProject;
+    }
+
+    @Override
+    public void forEach(RowHandler<? super EmployeeProject> handler) throws SQLException {
+        String sql = "SELECT * FROM Employee_Project";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToEmployeeProject(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean update(EmployeeProject employeeProject) throws SQLException {
+        String sql = "UPDATE Employee_Project SET time_allocation_percent = ? WHERE employee_id = ? AND project_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeProject.getTimeAllocationPercent());
+            stmt.setInt(2, employeeProject.getEmployeeId());
+            stmt.setInt(3, employeeProject.getProjectId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                events.publish(new AssignmentChanged(Change.UPDATED,
+                        employeeProject.getEmployeeId(), employeeProject.getProjectId(), employeeProject));
+            }
+            return updated;
+        }
+    }
+
+    @Override
+    public int[] updateAll(List<EmployeeProject> assignments) throws SQLException {
+        String sql = "UPDATE Employee_Project SET time_allocation_percent = ? WHERE employee_id = ? AND project_id = ?";
+        int[] updated = new int[assignments.size()];
+        if (assignments.isEmpty()) {
+            return updated;
+        }
+
+        inBatchTransaction(conn -> {
+            int[] counts = executeBatch(conn, sql, assignments.size(), (stmt, i) -> {
+                EmployeeProject assignment = assignments.get(i);
+                stmt.setInt(1, assignment.getTimeAllocationPercent());
+                stmt.setInt(2, assignment.getEmployeeId());
+                stmt.setInt(3, assignment.getProjectId());
+            });
+            // A rewritten batch may report SUCCESS_NO_INFO; the keys never change, so
+            // a row that exists after its UPDATE is one the UPDATE matched
+            List<EmployeeProject> unknown = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    updated[i] = 1;
+                } else if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(assignments.get(i));
+                }
+            }
+            if (!unknown.isEmpty()) {
+                Set<Long> found = existingKeys(conn, unknown, false);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == Statement.SUCCESS_NO_INFO && found.contains(key(assignments.get(i)))) {
+                        updated[i] = 1;
+                    }
+                }
+            }
+            return null;
+        });
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                EmployeeProject assignment = assignments.get(i);
+                events.publish(new AssignmentChanged(Change.UPDATED,
+                        assignment.getEmployeeId(), assignment.getProjectId(), assignment));
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void upsertAll(List<EmployeeProject> assignments) throws SQLException {
+        String sql = "INSERT INTO Employee_Project (employee_id, project_id, time_allocation_percent) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE time_allocation_percent = VALUES(time_allocation_percent)";
+        if (assignments.isEmpty()) {
+            return;
+        }
+
+        // The update counts cannot tell inserts from updates once the driver rewrites
+        // the batch, so the rows that already exist are read and locked first
+        Set<Long> existing = inBatchTransaction(conn -> {
+            Set<Long> before = existingKeys(conn, assignments, true);
+            executeBatch(conn, sql, assignments.size(), (stmt, i) -> {
+                EmployeeProject assignment = assignments.get(i);
+                stmt.setInt(1, assignment.getEmployeeId());
+                stmt.setInt(2, assignment.getProjectId());
+                stmt.setInt(3, assignment.getTimeAllocationPercent());
+            });
+            return before;
+        });
+        for (EmployeeProject assignment : assignments) {
+            // A key repeated in the batch is created once and then updated
+            Change change = existing.add(key(assignment)) ? Change.CREATED : Change.UPDATED;
+            events.publish(new AssignmentChanged(change,
+                    assignment.getEmployeeId(), assignment.getProjectId(), assignment));
+        }
+    }
+
+    @Override
+    public boolean delete(int employeeId, int projectId) throws SQLException {
+        String sql = "DELETE FROM Employee_Project WHERE employee_id = ? AND project_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeId);
+            stmt.setInt(2, projectId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                events.publish(new AssignmentChanged(Change.DELETED, employeeId, projectId, null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public int deleteAll(int projectId, int[] employeeIds) throws SQLException {
+        if (employeeIds.length == 0) {
+            return 0;
+        }
+
+        // Lock and read the assignments that exist, then delete exactly those in one
+        // statement, so every event stands for a removed row whatever the driver reports
+        String placeholders = String.join(",", Collections.nCopies(employeeIds.length, "?"));
+        String select = "SELECT employee_id FROM Employee_Project WHERE project_id = ? AND employee_id IN ("
+                + placeholders + ") FOR UPDATE";
+        IntList deleted = inBatchTransaction(conn -> {
+            IntList present = new IntList();
+            try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                stmt.setInt(1, projectId);
+                for (int i = 0; i < employeeIds.length; i++) {
+                    stmt.setInt(i + 2, employeeIds[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        present.add(rs.getInt(1));
+                    }
+                }
+            }
+            if (present.isEmpty()) {
+                return present;
+            }
+            String delete = "DELETE FROM Employee_Project WHERE project_id = ? AND employee_id IN ("
+                    + String.join(",", Collections.nCopies(present.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(delete)) {
+                stmt.setInt(1, projectId);
+                for (int i = 0; i < present.size(); i++) {
+                    stmt.setInt(i + 2, present.get(i));
+                }
+                stmt.executeUpdate();
+            }
+            return present;
+        });
+        deleted.forEach(employeeId ->
+                events.publish(new AssignmentChanged(Change.DELETED, employeeId, projectId, null)));
+        return deleted.size();
+    }
+
+    @FunctionalInterface
+    private interface BatchBinder {
+        void bind(PreparedStatement stmt, int index) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface BatchWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Run the work on one connection. Outside a transaction it commits once
+     * at the end rather than once per statement.
+     */
+    private <T> T inBatchTransaction(BatchWork<T> work) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                T result = work.run(conn);
+                if (autoCommit) {
+                    conn.commit();
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                if (autoCommit) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the statement once per index as a single JDBC batch.
+     */
+    private static int[] executeBatch(Connection conn, String sql, int size, BatchBinder binder) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < size; i++) {
+                binder.bind(stmt, i);
+                stmt.addBatch();
+            }
+            return stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Keys of the given assignments that have a row, optionally locking those rows.
+     */
+    private static Set<Long> existingKeys(Connection conn, List<EmployeeProject> assignments, boolean lock)
+            throws SQLException {
+        String sql = "SELECT employee_id, project_id FROM Employee_Project WHERE (employee_id, project_id) IN ("
+                + String.join(",", Collections.nCopies(assignments.size(), "(?, ?)")) + ")"
+                + (lock ? " FOR UPDATE" : "");
+        Set<Long> keys = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < assignments.size(); i++) {
+                stmt.setInt(2 * i + 1, assignments.get(i).getEmployeeId());
+                stmt.setInt(2 * i + 2, assignments.get(i).getProjectId());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(key(rs.getInt(1), rs.getInt(2)));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static long key(EmployeeProject assignment) {
+        return key(assignment.getEmployeeId(), assignment.getProjectId());
+    }
+
+    private static long key(int employeeId, int projectId) {
+        return ((long) employeeId << 32) | (projectId & 0xFFFFFFFFL);
+    }
+
+    private EmployeeProject mapResultSetToEmployeeProject(ResultSet rs) throws SQLException {
+        return new EmployeeProject(
+                rs.getInt("employee_id"),
+                rs.getInt("project_id"),
+                rs.getInt("time_allocation_percent")
+        );
+    }
+}
\ No newline at end of file
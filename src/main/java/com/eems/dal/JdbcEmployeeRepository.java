@@ -0,0 +1,237 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.EmployeeChanged;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.Employee;
+
+/**
+ * Data Access Layer: JDBC Employee Repository
+ * Handles all database operations for Employee entity against MySQL
+ */
+public class JdbcEmployeeRepository implements EmployeeRepository {
+
+    private final ChangeEventBus events;
+
+    public JdbcEmployeeRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public Employee create(Employee employee) throws SQLException {
+        String sql = "INSERT INTO Employee (full_name, title, hire_date, salary, department_id) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, employee.getFullName());
+            stmt.setString(2, employee.getTitle());
+            stmt.setDate(3, Date.valueOf(employee.getHireDate()));
+            stmt.setBigDecimal(4, employee.getSalary());
+            stmt.setInt(5, employee.getDepartmentId());
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        employee.setEmployeeId(generatedKeys.getInt(1));
+                    }
+                }
+                events.publish(new EmployeeChanged(Change.CREATED, employee.getEmployeeId(), employee));
+            }
+
+            return employee;
+        }
+    }
+
+    @Override
+    public Employee findById(int employeeId) throws SQLException {
+        String sql = "SELECT * FROM Employee WHERE employee_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToEmployee(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Find employee for update (pessimistic lock). Only meaningful inside a
+     * transaction, where the lock is held until commit or rollback.
+     */
+    @Override
+    public Employee findByIdForUpdate(int employeeId) throws SQLException {
+        String sql = "SELECT * FROM Employee WHERE employee_id = ? FOR UPDATE";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToEmployee(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<Employee> findAll() throws SQLException {
+        String sql = "SELECT * FROM Employee";
+        List<Employee> employees = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                employees.add(mapResultSetToEmployee(rs));
+            }
+        }
+
+        return employees;
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Employee> handler) throws SQLException {
+        String sql = "SELECT * FROM Employee";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToEmployee(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean update(Employee employee) throws SQLException {
+        String sql = "UPDATE Employee SET full_name = ?, title = ?, hire_date = ?, salary = ?, department_id = ? WHERE employee_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, employee.getFullName());
+            stmt.setString(2, employee.getTitle());
+            stmt.setDate(3, Date.valueOf(employee.getHireDate()));
+            stmt.setBigDecimal(4, employee.getSalary());
+            stmt.setInt(5, employee.getDepartmentId());
+            stmt.setInt(6, employee.getEmployeeId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                events.publish(new EmployeeChanged(Change.UPDATED, employee.getEmployeeId(), employee));
+            }
+            return updated;
+        }
+    }
+
+    @Override
+    public boolean delete(int employeeId) throws SQLException {
+        String sql = "DELETE FROM Employee WHERE employee_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                events.publish(new EmployeeChanged(Change.DELETED, employeeId, null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public List<Employee> findByProjectId(int projectId) throws SQLException {
+        String sql = "SELECT e.* FROM Employee e " +
+                "INNER JOIN Employee_Project ep ON e.employee_id = ep.employee_id " +
+                "WHERE ep.project_id = ?";
+        List<Employee> employees = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    employees.add(mapResultSetToEmployee(rs));
+                }
+            }
+        }
+
+        return employees;
+    }
+
+    /**
+     * Fetch multiple employees by their IDs using an IN clause.
+     */
+    @Override
+    public List<Employee> findByIds(int[] ids) throws SQLException {
+        if (ids == null || ids.length == 0) return new ArrayList<>();
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < ids.length; i++) {
+            placeholders.append("?");
+            if (i < ids.length - 1) placeholders.append(",");
+        }
+
+        String sql = "SELECT * FROM Employee WHERE employee_id IN (" + placeholders.toString() + ") ORDER BY employee_id";
+        List<Employee> employees = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.length; i++) {
+                stmt.setInt(i + 1, ids[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    employees.add(mapResultSetToEmployee(rs));
+                }
+            }
+        }
+
+        return employees;
+    }
+
+    private Employee mapResultSetToEmployee(ResultSet rs) throws SQLException {
+        return new Employee(
+                rs.getInt("employee_id"),
+                rs.getString("full_name"),
+                rs.getString("title"),
+                rs.getDate("hire_date").toLocalDate(),
+                rs.getBigDecimal("salary"),
+                rs.getInt("department_id")
+        );
+    }
+}
\ No newline at end of file
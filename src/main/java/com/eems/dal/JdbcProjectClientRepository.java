@@ -0,0 +1,114 @@
+package com.eems.dal;
+
+import java.sql.*;
+
+import com.eems.dal.events.ChangeEvent.ProjectClientLinked;
+import com.eems.dal.events.ChangeEvent.ProjectClientUnlinked;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.util.IntList;
+
+/**
+ * JdbcProjectClientRepository - Manages Project-Client relationships in MySQL
+ */
+public class JdbcProjectClientRepository implements ProjectClientRepository {
+
+    private final ChangeEventBus events;
+
+    public JdbcProjectClientRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public boolean assignClientToProject(int projectId, int clientId) throws SQLException {
+        String sql = "INSERT INTO Project_Client (project_id, client_id) VALUES (?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+            stmt.setInt(2, clientId);
+
+            boolean assigned = stmt.executeUpdate() > 0;
+            if (assigned) {
+                events.publish(new ProjectClientLinked(projectId, clientId));
+            }
+            return assigned;
+        }
+    }
+
+    @Override
+    public boolean removeClientFromProject(int projectId, int clientId) throws SQLException {
+        String sql = "DELETE FROM Project_Client WHERE project_id = ? AND client_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+            stmt.setInt(2, clientId);
+
+            boolean removed = stmt.executeUpdate() > 0;
+            if (removed) {
+                events.publish(new ProjectClientUnlinked(projectId, clientId));
+            }
+            return removed;
+        }
+    }
+
+    @Override
+    public IntList getClientIdsByProjectId(int projectId) throws SQLException {
+        String sql = "SELECT client_id FROM Project_Client WHERE project_id = ?";
+        IntList clientIds = new IntList();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clientIds.add(rs.getInt("client_id"));
+                }
+            }
+        }
+
+        return clientIds;
+    }
+
+    @Override
+    public IntList getProjectIdsByClientId(int clientId) throws SQLException {
+        String sql = "SELECT project_id FROM Project_Client WHERE client_id = ?";
+        IntList projectIds = new IntList();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, clientId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projectIds.add(rs.getInt("project_id"));
+                }
+            }
+        }
+
+        return projectIds;
+    }
+
+    @Override
+    public void forEach(LinkHandler handler) throws SQLException {
+        String sql = "SELECT project_id, client_id FROM Project_Client ORDER BY project_id, client_id";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs.getInt("project_id"), rs.getInt("client_id"));
+                }
+            }
+        }
+    }
+}
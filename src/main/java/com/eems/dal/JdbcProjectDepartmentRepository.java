@@ -0,0 +1,114 @@
+package com.eems.dal;
+
+import java.sql.*;
+
+import com.eems.dal.events.ChangeEvent.ProjectDepartmentLinked;
+import com.eems.dal.events.ChangeEvent.ProjectDepartmentUnlinked;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.util.IntList;
+
+/**
+ * JdbcProjectDepartmentRepository - Manages Project-Department relationships in MySQL
+ */
+public class JdbcProjectDepartmentRepository implements ProjectDepartmentRepository {
+
+    private final ChangeEventBus events;
+
+    public JdbcProjectDepartmentRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public boolean assignDepartmentToProject(int projectId, int departmentId) throws SQLException {
+        String sql = "INSERT INTO Project_Department (project_id, department_id) VALUES (?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+            stmt.setInt(2, departmentId);
+
+            boolean assigned = stmt.executeUpdate() > 0;
+            if (assigned) {
+                events.publish(new ProjectDepartmentLinked(projectId, departmentId));
+            }
+            return assigned;
+        }
+    }
+
+    @Override
+    public boolean removeDepartmentFromProject(int projectId, int departmentId) throws SQLException {
+        String sql = "DELETE FROM Project_Department WHERE project_id = ? AND department_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+            stmt.setInt(2, departmentId);
+
+            boolean removed = stmt.executeUpdate() > 0;
+            if (removed) {
+                events.publish(new ProjectDepartmentUnlinked(projectId, departmentId));
+            }
+            return removed;
+        }
+    }
+
+    @Override
+    public IntList getDepartmentIdsByProjectId(int projectId) throws SQLException {
+        String sql = "SELECT department_id FROM Project_Department WHERE project_id = ?";
+        IntList departmentIds = new IntList();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    departmentIds.add(rs.getInt("department_id"));
+                }
+            }
+        }
+
+        return departmentIds;
+    }
+
+    @Override
+    public IntList getProjectIdsByDepartmentId(int departmentId) throws SQLException {
+        String sql = "SELECT project_id FROM Project_Department WHERE department_id = ?";
+        IntList projectIds = new IntList();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, departmentId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projectIds.add(rs.getInt("project_id"));
+                }
+            }
+        }
+
+        return projectIds;
+    }
+
+    @Override
+    public void forEach(LinkHandler handler) throws SQLException {
+        String sql = "SELECT project_id, department_id FROM Project_Department ORDER BY project_id, department_id";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs.getInt("project_id"), rs.getInt("department_id"));
+                }
+            }
+        }
+    }
+}
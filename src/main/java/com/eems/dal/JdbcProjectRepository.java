@@ -0,0 +1,233 @@
+package com.eems.dal;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.ProjectChanged;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.Project;
+
+/**
+ * Data Access Layer: JDBC Project Repository
+ * Handles all database operations for Project entity against MySQL
+ */
+public class JdbcProjectRepository implements ProjectRepository {
+
+    private final ChangeEventBus events;
+
+    public JdbcProjectRepository(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    @Override
+    public Project create(Project project) throws SQLException {
+        String sql = "INSERT INTO Project (name, description, start_date, end_date, budget, status) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, project.getName());
+            stmt.setString(2, project.getDescription());
+            stmt.setDate(3, Date.valueOf(project.getStartDate()));
+            stmt.setDate(4, Date.valueOf(project.getEndDate()));
+            stmt.setBigDecimal(5, project.getBudget());
+            stmt.setString(6, project.getStatus());
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        project.setProjectId(generatedKeys.getInt(1));
+                    }
+                }
+                events.publish(new ProjectChanged(Change.CREATED, project.getProjectId(), project));
+            }
+
+            return project;
+        }
+    }
+
+    @Override
+    public Project findById(int projectId) throws SQLException {
+        String sql = "SELECT * FROM Project WHERE project_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToProject(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<Project> findAll() throws SQLException {
+        String sql = "SELECT * FROM Project";
+        List<Project> projects = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                projects.add(mapResultSetToProject(rs));
+            }
+        }
+
+        return projects;
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Project> handler) throws SQLException {
+        String sql = "SELECT * FROM Project";
+
+        try (Connection conn = DatabaseConnection.getScanConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToProject(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean update(Project project) throws SQLException {
+        String sql = "UPDATE Project SET name = ?, description = ?, start_date = ?, end_date = ?, budget = ?, status = ? WHERE project_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, project.getName());
+            stmt.setString(2, project.getDescription());
+            stmt.setDate(3, Date.valueOf(project.getStartDate()));
+            stmt.setDate(4, Date.valueOf(project.getEndDate()));
+            stmt.setBigDecimal(5, project.getBudget());
+            stmt.setString(6, project.getStatus());
+            stmt.setInt(7, project.getProjectId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                events.publish(new ProjectChanged(Change.UPDATED, project.getProjectId(), project));
+            }
+            return updated;
+        }
+    }
+
+    @Override
+    public boolean delete(int projectId) throws SQLException {
+        String sql = "DELETE FROM Project WHERE project_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projectId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                events.publish(new ProjectChanged(Change.DELETED, projectId, null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public List<Project> findActiveByDepartmentId(int departmentId, String sortBy) throws SQLException {
+        String sql = "SELECT DISTINCT p.* FROM Project p " +
+                "INNER JOIN Project_Department pd ON p.project_id = pd.project_id " +
+                "WHERE pd.department_id = ? AND p.status = 'Active' " +
+                "ORDER BY " + sortBy;
+
+        List<Project> projects = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, departmentId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projects.add(mapResultSetToProject(rs));
+                }
+            }
+        }
+
+        return projects;
+    }
+
+    @Override
+    public List<Project> findByEndDateBefore(LocalDate deadline) throws SQLException {
+        String sql = "SELECT * FROM Project WHERE end_date <= ?";
+        List<Project> projects = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(deadline));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projects.add(mapResultSetToProject(rs));
+                }
+            }
+        }
+
+        return projects;
+    }
+
+    @Override
+    public List<Project> findByIds(int[] ids) throws SQLException {
+        List<Project> projects = new ArrayList<>();
+        if (ids == null || ids.length == 0) return projects;
+
+        String sql = "SELECT * FROM Project WHERE project_id IN ("
+                + String.join(",", Collections.nCopies(ids.length, "?")) + ") ORDER BY project_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.length; i++) {
+                stmt.setInt(i + 1, ids[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projects.add(mapResultSetToProject(rs));
+                }
+            }
+        }
+
+        return projects;
+    }
+
+    private Project mapResultSetToProject(ResultSet rs) throws SQLException {
+        return new Project(
+                rs.getInt("project_id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getDate("start_date").toLocalDate(),
+                rs.getDate("end_date").toLocalDate(),
+                rs.getBigDecimal("budget"),
+                rs.getString("status")
+        );
+    }
+}
\ No newline at end of file
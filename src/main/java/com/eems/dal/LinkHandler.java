@@ -0,0 +1,13 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+
+/**
+ * Data Access Layer: Link Handler
+ * Callback receiving the links of a streaming scan one at a time, as the
+ * project id and the id of the entity it is linked to.
+ */
+@FunctionalInterface
+public interface LinkHandler {
+    void accept(int projectId, int otherId) throws SQLException;
+}
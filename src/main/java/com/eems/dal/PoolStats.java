@@ -0,0 +1,30 @@
+package com.eems.dal;
+
+import com.eems.monitoring.LatencyHistogram;
+
+/**
+ * Data Access Layer: Pool Stats
+ * Point-in-time health of the connection pool.
+ *
+ * @param active          connections currently on lease
+ * @param idle            open connections waiting in the pool
+ * @param waiting         threads blocked waiting for a connection
+ * @param open            physical connections currently open
+ * @param maxSize         configured pool size
+ * @param acquireTimeouts borrow attempts that gave up waiting
+ * @param leaksDetected   leases reported as held past the leak threshold
+ * @param leaksReclaimed  leases forcibly reclaimed past the hard timeout
+ * @param acquireWait     distribution of time spent waiting to borrow
+ */
+public record PoolStats(int active, int idle, int waiting, int open, int maxSize,
+                        long acquireTimeouts, long leaksDetected, long leaksReclaimed,
+                        LatencyHistogram.Snapshot acquireWait) {
+
+    @Override
+    public String toString() {
+        return "active=" + active + ", idle=" + idle + ", waiting=" + waiting + ", open=" + open
+                + ", max=" + maxSize + ", acquireTimeouts=" + acquireTimeouts
+                + ", leaksDetected=" + leaksDetected + ", leaksReclaimed=" + leaksReclaimed
+                + ", acquireWait[" + acquireWait + "]";
+    }
+}
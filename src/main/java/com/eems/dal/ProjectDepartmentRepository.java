@@ -0,0 +1,25 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+
+import com.eems.util.IntList;
+
+/**
+ * Data Access Layer: ProjectDepartment Repository
+ * Storage contract for the Project-Department relationship
+ */
+public interface ProjectDepartmentRepository {
+
+    boolean assignDepartmentToProject(int projectId, int departmentId) throws SQLException;
+
+    boolean removeDepartmentFromProject(int projectId, int departmentId) throws SQLException;
+
+    IntList getDepartmentIdsByProjectId(int projectId) throws SQLException;
+
+    IntList getProjectIdsByDepartmentId(int departmentId) throws SQLException;
+
+    /**
+     * Stream every project-department link to the handler, ascending by project id.
+     */
+    void forEach(LinkHandler handler) throws SQLException;
+}
@@ -0,0 +1,12 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+
+/**
+ * Data Access Layer: Row Handler
+ * Callback receiving the rows of a streaming scan one at a time.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    void accept(T row) throws SQLException;
+}
@@ -0,0 +1,99 @@
+package com.eems.dal;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import com.eems.monitoring.AsyncRollingFileAppender;
+
+/**
+ * Data Access Layer: Slow Query Log
+ * Records statements whose execution plus fetch time exceeds a threshold.
+ * Off unless a threshold is set: timing a statement means handing out a
+ * proxied connection, and every call on it is a reflective dispatch.
+ *
+ * Configured through system properties:
+ *   eems.slowQuery.thresholdMs  (default -1, negative disables the log)
+ *   eems.slowQuery.file         (default logs/eems-slow-queries.log)
+ *   eems.slowQuery.maxFileMb    (default 10)
+ *   eems.slowQuery.maxBackups   (default 5)
+ */
+public final class SlowQueryLog {
+
+    private static final int MAX_PARAM_LENGTH = 200;
+
+    private static final long THRESHOLD_NANOS;
+    private static volatile AsyncRollingFileAppender appender;
+
+    static {
+        long thresholdMs = Long.getLong("eems.slowQuery.thresholdMs", -1L);
+        THRESHOLD_NANOS = thresholdMs < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    private SlowQueryLog() {}
+
+    public static boolean isEnabled() {
+        return THRESHOLD_NANOS != Long.MAX_VALUE;
+    }
+
+    static boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= THRESHOLD_NANOS;
+    }
+
+    /**
+     * Hand a slow statement to the asynchronous appender. Only called once the
+     * threshold has been exceeded, so formatting cost stays off the fast path.
+     */
+    static void record(String sql, Object[] params, int paramCount, long rows,
+                       long connectionWaitNanos, long executeNanos, long fetchNanos) {
+        StringBuilder line = new StringBuilder(256)
+                .append(Instant.now())
+                .append(" totalMs=").append(millis(executeNanos + fetchNanos))
+                .append(" execMs=").append(millis(executeNanos))
+                .append(" fetchMs=").append(millis(fetchNanos))
+                .append(" connWaitMs=").append(millis(connectionWaitNanos))
+                .append(" rows=").append(rows)
+                .append(" sql=\"").append(sql.replace('\n', ' ')).append('"')
+                .append(" params=[");
+        for (int i = 1; i <= paramCount; i++) {
+            if (i > 1) line.append(", ");
+            appendParam(line, params[i]);
+        }
+        line.append(']');
+        appender().append(line.toString());
+    }
+
+    private static void appendParam(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("NULL");
+        } else if (value instanceof CharSequence text) {
+            String s = text.length() > MAX_PARAM_LENGTH
+                    ? text.subSequence(0, MAX_PARAM_LENGTH) + "..."
+                    : text.toString();
+            line.append('\'').append(s.replace("'", "''")).append('\'');
+        } else {
+            line.append(value);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    private static AsyncRollingFileAppender appender() {
+        AsyncRollingFileAppender current = appender;
+        if (current == null) {
+            synchronized (SlowQueryLog.class) {
+                current = appender;
+                if (current == null) {
+                    Path file = Path.of(System.getProperty("eems.slowQuery.file", "logs/eems-slow-queries.log"));
+                    long maxBytes = Long.getLong("eems.slowQuery.maxFileMb", 10L) * 1024 * 1024;
+                    int backups = Integer.getInteger("eems.slowQuery.maxBackups", 5);
+                    current = new AsyncRollingFileAppender("eems-slow-query-log", file, maxBytes, backups, 8192);
+                    appender = current;
+                }
+            }
+        }
+        return current;
+    }
+}
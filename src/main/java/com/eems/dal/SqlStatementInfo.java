@@ -0,0 +1,70 @@
+package com.eems.dal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Data Access Layer: SQL Statement Info
+ * Stable identifier and primary entity of a SQL text, computed once per
+ * distinct statement and cached.
+ */
+final class SqlStatementInfo {
+
+    private static final int MAX_CACHED = 4096;
+    private static final ConcurrentHashMap<String, SqlStatementInfo> CACHE = new ConcurrentHashMap<>();
+    private static final SqlStatementInfo UNKNOWN = new SqlStatementInfo("00000000", "unknown", "SQL");
+
+    final String id;
+    final String entity;
+    final String spanName;
+
+    private SqlStatementInfo(String id, String entity, String verb) {
+        this.id = id;
+        this.entity = entity;
+        this.spanName = verb + " " + entity;
+    }
+
+    static SqlStatementInfo of(String sql) {
+        if (sql == null) return UNKNOWN;
+        SqlStatementInfo info = CACHE.get(sql);
+        if (info == null) {
+            info = new SqlStatementInfo(idOf(sql), entityOf(sql), verbOf(sql));
+            // IN-lists produce one text per size; stop caching rather than grow unbounded
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(sql, info);
+            }
+        }
+        return info;
+    }
+
+    private static String idOf(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static String verbOf(String sql) {
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && !Character.isWhitespace(trimmed.charAt(end))) end++;
+        return end == 0 ? "SQL" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * The table following the first FROM, INTO or UPDATE keyword.
+     */
+    private static String entityOf(String sql) {
+        String[] tokens = sql.trim().split("\\s+");
+        for (int i = 0; i < tokens.length - 1; i++) {
+            String keyword = tokens[i].toUpperCase(Locale.ROOT);
+            if (keyword.equals("FROM") || keyword.equals("INTO") || keyword.equals("UPDATE")) {
+                String table = tokens[i + 1];
+                int paren = table.indexOf('(');
+                return paren > 0 ? table.substring(0, paren) : table;
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,388 @@
+package com.eems.dal;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.eems.dal.memory.Rows;
+import com.eems.domain.EmployeeProject;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Data Access Layer: Write-Behind EmployeeProject Repository
+ * Buffers allocation updates and writes them to the wrapped repository in batches.
+ *
+ * An update outside a transaction records the new allocation under its
+ * (employee, project) key and returns; a later update to the same key replaces
+ * it, so a burst of changes to one assignment costs a single UPDATE. A virtual
+ * thread flushes the buffer as one batch {@code windowMillis} after the first
+ * buffered change. Reads lay the buffered allocations over the rows the wrapped
+ * repository returns, so callers see their writes before they reach the table.
+ *
+ * Creates, deletes, batch writes and updates inside a transaction are written
+ * through after the key's buffered value is discarded. The discarded value is
+ * put back if the write fails, or if the transaction it ran in rolls back, unless
+ * the key was buffered again meanwhile. The buffer is flushed on close and at
+ * JVM shutdown; a crash loses at most the last window.
+ *
+ * No Java lock is held while the database is written, since a transaction may
+ * already hold row locks the flush waits for. A batch is taken from the buffer
+ * under a short state lock and written outside it. A write-through that finds
+ * its key in the batch being written re-buffers its own value once it commits,
+ * so the batch's older value, which may land after it, is overwritten by the
+ * next flush. Flushes run one at a time.
+ */
+final class WriteBehindEmployeeProjectRepository implements EmployeeProjectRepository, AutoCloseable {
+
+    @FunctionalInterface
+    private interface Write<T> {
+        T run() throws SQLException;
+    }
+
+    private static final int MAX_PENDING = 10_000;
+
+    private final EmployeeProjectRepository delegate;
+    private final long windowMillis;
+    private final BooleanSupplier inTransaction;
+    private final Consumer<Runnable> onCommit;
+    private final Consumer<Runnable> onRollback;
+    private final ConcurrentHashMap<Long, EmployeeProject> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private Set<Long> inFlight = Set.of();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate      repository the buffered updates are written to
+     * @param windowMillis  how long updates are collected before a flush
+     * @param inTransaction whether the calling thread has a transaction open
+     * @param onCommit      registers an action to run once that transaction commits
+     * @param onRollback    registers an action to run if that transaction rolls back
+     */
+    WriteBehindEmployeeProjectRepository(EmployeeProjectRepository delegate, long windowMillis,
+                                         BooleanSupplier inTransaction, Consumer<Runnable> onCommit,
+                                         Consumer<Runnable> onRollback) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Write-behind window must be positive: " + windowMillis);
+        }
+        this.delegate = delegate;
+        this.windowMillis = windowMillis;
+        this.inTransaction = inTransaction;
+        this.onCommit = onCommit;
+        this.onRollback = onRollback;
+        this.flusher = Thread.ofVirtual().name("eems-write-behind").start(this::flushLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAtShutdown, "eems-write-behind-shutdown"));
+    }
+
+    @Override
+    public boolean create(EmployeeProject employeeProject) throws SQLException {
+        return writeThrough(() -> delegate.create(employeeProject),
+                created -> created ? List.of(employeeProject) : List.of(), key(employeeProject));
+    }
+
+    @Override
+    public EmployeeProject findByIds(int employeeId, int projectId) throws SQLException {
+        return overlay(delegate.findByIds(employeeId, projectId));
+    }
+
+    @Override
+    public List<EmployeeProject> findByProjectId(int projectId) throws SQLException {
+        return overlayAll(delegate.findByProjectId(projectId));
+    }
+
+    @Override
+    public List<EmployeeProject> findByEmployeeId(int employeeId) throws SQLException {
+        return overlayAll(delegate.findByEmployeeId(employeeId));
+    }
+
+    @Override
+    public List<EmployeeProject> findByEmployeeIdForUpdate(int employeeId) throws SQLException {
+        return overlayAll(delegate.findByEmployeeIdForUpdate(employeeId));
+    }
+
+    @Override
+    public IntObjectHashMap<List<EmployeeProject>> findByProjectIds(int[] projectIds) throws SQLException {
+        IntObjectHashMap<List<EmployeeProject>> assignmentsByProject = delegate.findByProjectIds(projectIds);
+        if (!pending.isEmpty()) {
+            for (List<EmployeeProject> rows : assignmentsByProject.values()) {
+                overlayAll(rows);
+            }
+        }
+        return assignmentsByProject;
+    }
+
+    @Override
+    public void forEach(RowHandler<? super EmployeeProject> handler) throws SQLException {
+        delegate.forEach(row -> handler.accept(overlay(row)));
+    }
+
+    @Override
+    public boolean update(EmployeeProject employeeProject) throws SQLException {
+        if (closed || inTransaction.getAsBoolean()) {
+            return writeThrough(() -> delegate.update(employeeProject),
+                    updated -> updated ? List.of(employeeProject) : List.of(), key(employeeProject));
+        }
+
+        int employeeId = employeeProject.getEmployeeId();
+        int projectId = employeeProject.getProjectId();
+        long key = key(employeeId, projectId);
+        // A buffered key is known to exist; otherwise keep update's not-found result
+        if (!pending.containsKey(key) && delegate.findByIds(employeeId, projectId) == null) {
+            return false;
+        }
+        pending.put(key, Rows.copy(employeeProject));
+        // Past close, nothing would flush the buffer later
+        if (closed || pending.size() >= MAX_PENDING) {
+            flush();
+        } else {
+            schedule();
+        }
+        return true;
+    }
+
+    @Override
+    public int[] updateAll(List<EmployeeProject> assignments) throws SQLException {
+        return writeThrough(() -> delegate.updateAll(assignments), counts -> {
+            List<EmployeeProject> updated = new ArrayList<>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    updated.add(assignments.get(i));
+                }
+            }
+            return updated;
+        }, keys(assignments));
+    }
+
+    @Override
+    public void upsertAll(List<EmployeeProject> assignments) throws SQLException {
+        writeThrough(() -> {
+            delegate.upsertAll(assignments);
+            return null;
+        }, ignored -> assignments, keys(assignments));
+    }
+
+    @Override
+    public boolean delete(int employeeId, int projectId) throws SQLException {
+        return writeThrough(() -> delegate.delete(employeeId, projectId), deleted -> List.of(),
+                key(employeeId, projectId));
+    }
+
+    @Override
+    public int deleteAll(int projectId, int[] employeeIds) throws SQLException {
+        long[] keys = new long[employeeIds.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(employeeIds[i], projectId);
+        }
+        return writeThrough(() -> delegate.deleteAll(projectId, employeeIds), removed -> List.of(), keys);
+    }
+
+    /**
+     * Write every buffered update to the wrapped repository now.
+     */
+    public void flush() throws SQLException {
+        flushLock.lock();
+        try {
+            List<EmployeeProject> batch;
+            stateLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                Set<Long> keys = new HashSet<>(batch.size() * 2);
+                for (EmployeeProject row : batch) {
+                    keys.add(key(row));
+                }
+                inFlight = keys;
+            } finally {
+                stateLock.unlock();
+            }
+
+            boolean written = false;
+            try {
+                delegate.updateAll(batch);
+                written = true;
+            } finally {
+                stateLock.lock();
+                try {
+                    inFlight = Set.of();
+                    // Keys updated again while the batch ran keep their newer value
+                    if (written) {
+                        for (EmployeeProject row : batch) {
+                            pending.remove(key(row), row);
+                        }
+                    }
+                } finally {
+                    stateLock.unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Updates buffered and not yet written.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop the flush thread and flush the buffer; later updates are written through.
+     * If the flush fails the updates stay buffered, and calling close or flush
+     * again retries them.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (!closed) {
+            closed = true;
+            LockSupport.unpark(flusher);
+        }
+        flush();
+    }
+
+    private void closeAtShutdown() {
+        try {
+            close();
+        } catch (SQLException e) {
+            System.err.println("Write-behind flush failed at shutdown, " + pending.size()
+                    + " allocation updates lost: " + e.getMessage());
+        }
+    }
+
+    // Discard the keys' buffered values and write through; written maps the result to the rows it left
+    private <T> T writeThrough(Write<T> write, Function<T, List<EmployeeProject>> written, long... keys)
+            throws SQLException {
+        List<EmployeeProject> discarded = new ArrayList<>();
+        Set<Long> raced = new HashSet<>();
+        stateLock.lock();
+        try {
+            for (long key : keys) {
+                EmployeeProject buffered = pending.remove(key);
+                if (buffered != null) {
+                    discarded.add(buffered);
+                }
+                if (inFlight.contains(key)) {
+                    raced.add(key);
+                }
+            }
+        } finally {
+            stateLock.unlock();
+        }
+
+        T result;
+        try {
+            result = write.run();
+        } catch (SQLException | RuntimeException e) {
+            restore(discarded);
+            throw e;
+        }
+
+        List<EmployeeProject> rebuffer = new ArrayList<>();
+        if (!raced.isEmpty()) {
+            for (EmployeeProject row : written.apply(result)) {
+                if (raced.contains(key(row))) {
+                    rebuffer.add(Rows.copy(row));
+                }
+            }
+        }
+        if (inTransaction.getAsBoolean()) {
+            if (!discarded.isEmpty()) {
+                onRollback.accept(() -> restore(discarded));
+            }
+            if (!rebuffer.isEmpty()) {
+                onCommit.accept(() -> restore(rebuffer));
+            }
+        } else {
+            restore(rebuffer);
+        }
+        return result;
+    }
+
+    // Buffer rows again unless the key was buffered meanwhile; a newer buffered value wins
+    private void restore(List<EmployeeProject> discarded) {
+        if (discarded.isEmpty()) return;
+        for (EmployeeProject row : discarded) {
+            pending.putIfAbsent(key(row), row);
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.park(this);
+            if (closed || !scheduled.get()) {
+                continue;
+            }
+            try {
+                Thread.sleep(windowMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            scheduled.set(false);
+            try {
+                flush();
+            } catch (SQLException e) {
+                System.err.println("Write-behind flush failed, retrying: " + e.getMessage());
+            }
+            // Retry after a failure; updates made during the flush already rescheduled
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private EmployeeProject overlay(EmployeeProject row) {
+        if (row == null) {
+            return null;
+        }
+        EmployeeProject buffered = pending.get(key(row));
+        if (buffered != null) {
+            row.setTimeAllocationPercent(buffered.getTimeAllocationPercent());
+        }
+        return row;
+    }
+
+    private List<EmployeeProject> overlayAll(List<EmployeeProject> rows) {
+        if (!pending.isEmpty()) {
+            for (EmployeeProject row : rows) {
+                overlay(row);
+            }
+        }
+        return rows;
+    }
+
+    private static long[] keys(List<EmployeeProject> rows) {
+        long[] keys = new long[rows.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(rows.get(i));
+        }
+        return keys;
+    }
+
+    private static long key(EmployeeProject row) {
+        return key(row.getEmployeeId(), row.getProjectId());
+    }
+
+    private static long key(int employeeId, int projectId) {
+        return ((long) employeeId << 32) | (projectId & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,60 @@
+package com.eems.dal.events;
+
+import com.eems.dal.memory.Rows;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * Data Change Events: Change Event
+ * A committed write to one row. Entity payloads are copies of the row as
+ * written and are null for deletions; listeners must treat them as read-only.
+ *
+ * Rows removed by ON DELETE CASCADE are not announced separately: a deleted
+ * project or employee implies its assignments and links are gone too.
+ */
+public sealed interface ChangeEvent {
+
+    enum Change { CREATED, UPDATED, DELETED }
+
+    record DepartmentChanged(Change change, int departmentId, Department department) implements ChangeEvent {
+        public DepartmentChanged {
+            department = Rows.copy(department);
+        }
+    }
+
+    record EmployeeChanged(Change change, int employeeId, Employee employee) implements ChangeEvent {
+        public EmployeeChanged {
+            employee = Rows.copy(employee);
+        }
+    }
+
+    record ProjectChanged(Change change, int projectId, Project project) implements ChangeEvent {
+        public ProjectChanged {
+            project = Rows.copy(project);
+        }
+    }
+
+    record ClientChanged(Change change, int clientId, Client client) implements ChangeEvent {
+        public ClientChanged {
+            client = Rows.copy(client);
+        }
+    }
+
+    record AssignmentChanged(Change change, int employeeId, int projectId, EmployeeProject assignment)
+            implements ChangeEvent {
+        public AssignmentChanged {
+            assignment = Rows.copy(assignment);
+        }
+    }
+
+    record ProjectDepartmentLinked(int projectId, int departmentId) implements ChangeEvent {}
+
+    record ProjectDepartmentUnlinked(int projectId, int departmentId) implements ChangeEvent {}
+
+    record ProjectClientLinked(int projectId, int clientId) implements ChangeEvent {}
+
+    record ProjectClientUnlinked(int projectId, int clientId) implements ChangeEvent {}
+}
@@ -0,0 +1,272 @@
+package com.eems.dal.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Data Change Events: Change Event Bus
+ * Bounded, lock-free multi-producer ring buffer of committed changes.
+ *
+ * A writer claims a sequence number with one compare-and-set, stores the event
+ * in slot (sequence mod capacity) and marks the slot published. Nothing else
+ * happens on the write path: every subscription runs its own thread, which
+ * collects the contiguous published events after its position into a batch,
+ * frees their slots and hands the batch to its listener. A writer never waits;
+ * if the slowest subscription is a full ring behind, the event is dropped,
+ * counted, and every subscription is told through {@link ChangeListener#onOverflow}.
+ *
+ * An idle subscription backs off with short timed parks and then parks without
+ * a timeout; a writer that finds it waiting unparks it, so a quiet bus costs no
+ * wakeups.
+ *
+ * Events published while the calling thread has a transaction open are held
+ * back and published when it commits, or discarded when it rolls back.
+ */
+public final class ChangeEventBus {
+
+    private static final ChangeEventBus SHARED =
+            new ChangeEventBus(Integer.getInteger("eems.events.capacity", 8192));
+
+    private static final int MAX_BATCH = 256;
+    // Timed parks double from 1 µs up to this; after it the subscription waits to be unparked
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int mask;
+    private final AtomicReferenceArray<ChangeEvent> events;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<ChangeEvent>> deferred = new ThreadLocal<>();
+
+    /**
+     * @param capacity ring size, rounded up to a power of two
+     */
+    public ChangeEventBus(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.mask = size - 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * The bus the storage engines publish to by default.
+     */
+    public static ChangeEventBus shared() {
+        return SHARED;
+    }
+
+    /**
+     * Publish a change, or hold it until commit if the calling thread is in a transaction.
+     */
+    public void publish(ChangeEvent event) {
+        List<ChangeEvent> pending = deferred.get();
+        if (pending != null) {
+            pending.add(event);
+        } else {
+            offer(event);
+        }
+    }
+
+    /**
+     * Start holding back this thread's events. Returns false if a transaction
+     * was already open, in which case the caller must not end it.
+     */
+    public boolean beginTransaction() {
+        if (deferred.get() != null) {
+            return false;
+        }
+        deferred.set(new ArrayList<>());
+        return true;
+    }
+
+    /**
+     * Publish the held-back events if the transaction committed, otherwise discard them.
+     */
+    public void endTransaction(boolean committed) {
+        List<ChangeEvent> pending = deferred.get();
+        deferred.remove();
+        if (committed && pending != null) {
+            for (ChangeEvent event : pending) {
+                offer(event);
+            }
+        }
+    }
+
+    /**
+     * Deliver every change published from now on to the listener, on a new
+     * daemon thread named after the subscription.
+     */
+    public Subscription subscribe(String name, ChangeListener listener) {
+        Subscription subscription = new Subscription(name, listener, claimed.get(), dropped.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getPublishedCount() {
+        return claimed.get();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    private void offer(ChangeEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - slowestPosition(sequence) > mask) {
+                dropped.incrementAndGet();
+                wakeWaiting();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        events.set(slot, event);
+        // A volatile store, so it cannot pass the read of a subscription's waiting flag
+        published.set(slot, sequence);
+        wakeWaiting();
+    }
+
+    private void wakeWaiting() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.waiting) {
+                subscription.waiting = false;
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    private long slowestPosition(long limit) {
+        long slowest = limit;
+        for (Subscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.position.get());
+        }
+        return slowest;
+    }
+
+    /**
+     * One consumer of the bus, with its own position in the ring and its own thread.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final ChangeListener listener;
+        private final AtomicLong position;
+        private final Thread thread;
+        private long seenDropped;
+        private volatile boolean closed;
+        private volatile boolean waiting;
+
+        private Subscription(String name, ChangeListener listener, long position, long seenDropped) {
+            this.listener = listener;
+            this.position = new AtomicLong(position);
+            this.seenDropped = seenDropped;
+            this.thread = new Thread(this::consumeLoop, name);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Published changes this subscription has not taken yet.
+         */
+        public long getLag() {
+            return Math.max(0, claimed.get() - position.get());
+        }
+
+        /**
+         * Stop after delivering what is already published.
+         */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void consumeLoop() {
+            List<ChangeEvent> batch = new ArrayList<>(MAX_BATCH);
+            long backoffNanos = 1_000;
+            while (true) {
+                long next = position.get();
+                while (batch.size() < MAX_BATCH) {
+                    long sequence = next + batch.size();
+                    int slot = (int) sequence & mask;
+                    if (published.getAcquire(slot) != sequence) break;
+                    batch.add(events.get(slot));
+                }
+
+                if (batch.isEmpty()) {
+                    checkOverflow();
+                    if (closed) break;
+                    if (backoffNanos <= MAX_BACKOFF_NANOS) {
+                        LockSupport.parkNanos(backoffNanos);
+                        backoffNanos *= 2;
+                    } else {
+                        awaitPublish(next);
+                    }
+                    continue;
+                }
+
+                // The events are copied out, so their slots can be reused before delivery
+                position.setRelease(next + batch.size());
+                try {
+                    listener.onChanges(batch);
+                } catch (RuntimeException e) {
+                    System.err.println("Change listener " + thread.getName() + " failed: " + e);
+                }
+                batch.clear();
+                backoffNanos = 1_000;
+            }
+        }
+
+        // Announce the wait, then check again: a writer either sees the flag or its event is seen here
+        private void awaitPublish(long next) {
+            waiting = true;
+            if (published.get((int) next & mask) == next || dropped.get() != seenDropped || closed) {
+                waiting = false;
+                return;
+            }
+            LockSupport.park(this);
+            waiting = false;
+        }
+
+        private void checkOverflow() {
+            long droppedNow = dropped.get();
+            if (droppedNow != seenDropped) {
+                seenDropped = droppedNow;
+                try {
+                    listener.onOverflow();
+                } catch (RuntimeException e) {
+                    System.err.println("Change listener " + thread.getName() + " failed: " + e);
+                }
+            }
+        }
+    }
+}
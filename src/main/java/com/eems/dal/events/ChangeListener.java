@@ -0,0 +1,23 @@
+package com.eems.dal.events;
+
+import java.util.List;
+
+/**
+ * Data Change Events: Change Listener
+ * Receives committed changes in publication order, in batches, on the
+ * subscription's own thread.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Handle the next batch. The list is only valid for the duration of the call.
+     */
+    void onChanges(List<ChangeEvent> batch);
+
+    /**
+     * Called when changes were dropped because the ring buffer was full; a
+     * listener keeping derived state should rebuild it from the store.
+     */
+    default void onOverflow() {}
+}
@@ -0,0 +1,160 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.eems.dal.ClientRepository;
+import com.eems.dal.RowHandler;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.ClientChanged;
+import com.eems.domain.Client;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * In-Memory Storage: Client Repository
+ * Client table of the in-memory engine
+ */
+class InMemoryClientRepository implements ClientRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryClientRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public Client create(Client client) throws SQLException {
+        return tables.write(() -> {
+            checkColumns(client);
+            client.setClientId(tables.nextClientId());
+            tables.putClient(Rows.copy(client));
+            tables.publish(new ClientChanged(Change.CREATED, client.getClientId(), client));
+            return client;
+        });
+    }
+
+    @Override
+    public Client findById(int clientId) throws SQLException {
+        return tables.read(() -> Rows.copy(tables.clients.get(clientId)));
+    }
+
+    @Override
+    public List<Client> findByIds(int[] ids) throws SQLException {
+        if (ids == null || ids.length == 0) return new ArrayList<>();
+
+        IntHashSet distinct = new IntHashSet(ids.length);
+        for (int id : ids) {
+            distinct.add(id);
+        }
+        int[] sorted = distinct.toSortedArray();
+        return tables.read(() -> byIds(sorted));
+    }
+
+    @Override
+    public List<Client> findAll() throws SQLException {
+        return tables.read(() -> {
+            int[] ids = tables.clients.keys();
+            Arrays.sort(ids);
+            return byIds(ids);
+        });
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Client> handler) throws SQLException {
+        tables.read(() -> {
+            int[] ids = tables.clients.keys();
+            Arrays.sort(ids);
+            for (int id : ids) {
+                handler.accept(Rows.copy(tables.clients.get(id)));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean update(Client client) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.clients.containsKey(client.getClientId())) {
+                return false;
+            }
+            checkColumns(client);
+            tables.putClient(Rows.copy(client));
+            tables.publish(new ClientChanged(Change.UPDATED, client.getClientId(), client));
+            return true;
+        });
+    }
+
+    /**
+     * Project links cascade with the client.
+     */
+    @Override
+    public boolean delete(int clientId) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.clients.containsKey(clientId)) {
+                return false;
+            }
+            for (int projectId : tables.projectClients.projectsOf(clientId)) {
+                tables.unlink(tables.projectClients, projectId, clientId);
+            }
+            tables.removeClient(clientId);
+            tables.publish(new ClientChanged(Change.DELETED, clientId, null));
+            return true;
+        });
+    }
+
+    @Override
+    public List<Client> findByProjectId(int projectId) throws SQLException {
+        return tables.read(() -> byIds(tables.projectClients.othersOf(projectId)));
+    }
+
+    @Override
+    public IntObjectHashMap<List<Client>> findByProjectIds(int[] projectIds) throws SQLException {
+        return tables.read(() -> {
+            IntObjectHashMap<List<Client>> clientsByProject = new IntObjectHashMap<>();
+            if (projectIds == null) return clientsByProject;
+            for (int projectId : projectIds) {
+                int[] clientIds = tables.projectClients.othersOf(projectId);
+                if (clientIds.length > 0) {
+                    clientsByProject.put(projectId, byIds(clientIds));
+                }
+            }
+            return clientsByProject;
+        });
+    }
+
+    @Override
+    public List<Client> findByUpcomingProjectDeadline(LocalDate deadline) throws SQLException {
+        return tables.read(() -> {
+            IntHashSet clientIds = new IntHashSet();
+            tables.projects.forEach((projectId, project) -> {
+                if (!project.getEndDate().isAfter(deadline)) {
+                    for (int clientId : tables.projectClients.othersOf(projectId)) {
+                        clientIds.add(clientId);
+                    }
+                }
+            });
+            return byIds(clientIds.toSortedArray());
+        });
+    }
+
+    private List<Client> byIds(int[] ids) {
+        List<Client> clients = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Client client = tables.clients.get(id);
+            if (client != null) {
+                clients.add(Rows.copy(client));
+            }
+        }
+        return clients;
+    }
+
+    private static void checkColumns(Client client) throws SQLException {
+        MemoryTables.requireColumn(client.getName(), "name");
+        MemoryTables.requireColumn(client.getIndustry(), "industry");
+        MemoryTables.requireColumn(client.getContactPerson(), "contact_person");
+    }
+}
@@ -0,0 +1,241 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.eems.dal.ClientRepository;
+import com.eems.dal.DataStore;
+import com.eems.dal.DepartmentRepository;
+import com.eems.dal.EmployeeProjectRepository;
+import com.eems.dal.EmployeeRepository;
+import com.eems.dal.ProjectClientRepository;
+import com.eems.dal.ProjectDepartmentRepository;
+import com.eems.dal.ProjectRepository;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * In-Memory Storage: Data Store
+ * Storage engine keeping every table in primitive int-keyed hash maps, with
+ * secondary indexes for employees by department, assignments by employee and
+ * by project, and project links to departments and clients in both directions.
+ *
+ * It enforces the schema's keys and foreign keys (violations raise
+ * SQLIntegrityConstraintViolationException) and its ON DELETE CASCADE rules.
+ * Reads see a consistent snapshot and never observe an open transaction;
+ * transactions are serialised and undone from an undo log on rollback.
+ * Rows are copied on the way in and out, so callers cannot mutate stored state.
+ * Repository writes are announced as change events once committed; the
+ * replica writes below are not.
+ */
+public class InMemoryDataStore implements DataStore {
+
+    private final ChangeEventBus events;
+    private final MemoryTables tables;
+    private final ThreadLocal<MemoryTransaction> current = new ThreadLocal<>();
+
+    private final DepartmentRepository departments;
+    private final EmployeeRepository employees;
+    private final ProjectRepository projects;
+    private final ClientRepository clients;
+    private final EmployeeProjectRepository employeeProjects;
+    private final ProjectClientRepository projectClients;
+    private final ProjectDepartmentRepository projectDepartments;
+
+    public InMemoryDataStore() {
+        this(ChangeEventBus.shared());
+    }
+
+    /**
+     * @param events bus that committed writes are announced on, or null for none
+     */
+    public InMemoryDataStore(ChangeEventBus events) {
+        this.events = events;
+        this.tables = new MemoryTables(events);
+        this.departments = new InMemoryDepartmentRepository(tables);
+        this.employees = new InMemoryEmployeeRepository(tables);
+        this.projects = new InMemoryProjectRepository(tables);
+        this.clients = new InMemoryClientRepository(tables);
+        this.employeeProjects = new InMemoryEmployeeProjectRepository(tables);
+        this.projectClients = new InMemoryProjectClientRepository(tables);
+        this.projectDepartments = new InMemoryProjectDepartmentRepository(tables);
+    }
+
+    /**
+     * A store that announces nothing, for copies of another store such as caches.
+     */
+    public static InMemoryDataStore replica() {
+        return new InMemoryDataStore(null);
+    }
+
+    @Override
+    public DepartmentRepository departments() {
+        return departments;
+    }
+
+    @Override
+    public EmployeeRepository employees() {
+        return employees;
+    }
+
+    @Override
+    public ProjectRepository projects() {
+        return projects;
+    }
+
+    @Override
+    public ClientRepository clients() {
+        return clients;
+    }
+
+    @Override
+    public EmployeeProjectRepository employeeProjects() {
+        return employeeProjects;
+    }
+
+    @Override
+    public ProjectClientRepository projectClients() {
+        return projectClients;
+    }
+
+    @Override
+    public ProjectDepartmentRepository projectDepartments() {
+        return projectDepartments;
+    }
+
+    @Override
+    public <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        MemoryTransaction outer = current.get();
+        if (outer != null) {
+            return work.run(outer);
+        }
+
+        MemoryTransaction transaction = new MemoryTransaction();
+        tables.beginTransaction();
+        current.set(transaction);
+        boolean ownsEvents = events != null && events.beginTransaction();
+        boolean commit = false;
+        try {
+            T result = work.run(transaction);
+            commit = !transaction.rollbackOnly;
+            return result;
+        } finally {
+            current.remove();
+            if (commit) {
+                tables.commit();
+            } else {
+                tables.rollback();
+            }
+            if (ownsEvents) {
+                events.endTransaction(commit);
+            }
+        }
+    }
+
+    /**
+     * Copy every row of another store, keeping its ids, e.g. to warm a read
+     * tier from MySQL. Link tables are read project by project.
+     */
+    public void loadFrom(DataStore source) throws SQLException {
+        for (Department department : source.departments().findAll()) {
+            upsert(department);
+        }
+        source.employees().forEach(this::upsert);
+        List<Project> projects = source.projects().findAll();
+        for (Project project : projects) {
+            upsert(project);
+        }
+        for (Client client : source.clients().findAll()) {
+            upsert(client);
+        }
+        source.employeeProjects().forEach(this::upsert);
+        for (Project project : projects) {
+            int projectId = project.getProjectId();
+            for (int departmentId : source.projectDepartments().getDepartmentIdsByProjectId(projectId).toArray()) {
+                link(tables.projectDepartments, projectId, departmentId);
+            }
+            for (int clientId : source.projectClients().getClientIdsByProjectId(projectId).toArray()) {
+                link(tables.projectClients, projectId, clientId);
+            }
+        }
+    }
+
+    // ============================================
+    // Replica writes: rows keep their ids and skip the foreign-key checks, so
+    // this store can mirror another one whatever order changes arrive in
+    // ============================================
+
+    public void upsert(Department department) throws SQLException {
+        Department row = Rows.copy(department);
+        tables.write(() -> {
+            tables.putDepartment(row);
+            return null;
+        });
+    }
+
+    public void upsert(Employee employee) throws SQLException {
+        Employee row = Rows.copy(employee);
+        tables.write(() -> {
+            tables.putEmployee(row);
+            return null;
+        });
+    }
+
+    public void upsert(Project project) throws SQLException {
+        Project row = Rows.copy(project);
+        tables.write(() -> {
+            tables.putProject(row);
+            return null;
+        });
+    }
+
+    public void upsert(Client client) throws SQLException {
+        Client row = Rows.copy(client);
+        tables.write(() -> {
+            tables.putClient(row);
+            return null;
+        });
+    }
+
+    public void upsert(EmployeeProject assignment) throws SQLException {
+        EmployeeProject row = Rows.copy(assignment);
+        tables.write(() -> {
+            tables.putAssignment(row);
+            return null;
+        });
+    }
+
+    public void linkDepartment(int projectId, int departmentId) throws SQLException {
+        link(tables.projectDepartments, projectId, departmentId);
+    }
+
+    public void linkClient(int projectId, int clientId) throws SQLException {
+        link(tables.projectClients, projectId, clientId);
+    }
+
+    MemoryTables tables() {
+        return tables;
+    }
+
+    private void link(LinkTable table, int projectId, int otherId) throws SQLException {
+        tables.write(() -> tables.link(table, projectId, otherId));
+    }
+
+    private static final class MemoryTransaction implements Transaction {
+        private boolean rollbackOnly;
+
+        @Override
+        public void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.eems.dal.DepartmentRepository;
+import com.eems.dal.RowHandler;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.DepartmentChanged;
+import com.eems.domain.Department;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * In-Memory Storage: Department Repository
+ * Department table of the in-memory engine
+ */
+class InMemoryDepartmentRepository implements DepartmentRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryDepartmentRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public Department create(Department department) throws SQLException {
+        return tables.write(() -> {
+            checkColumns(department);
+            department.setDepartmentId(tables.nextDepartmentId());
+            tables.putDepartment(Rows.copy(department));
+            tables.publish(new DepartmentChanged(Change.CREATED, department.getDepartmentId(), department));
+            return department;
+        });
+    }
+
+    @Override
+    public Department findById(int departmentId) throws SQLException {
+        return tables.read(() -> Rows.copy(tables.departments.get(departmentId)));
+    }
+
+    @Override
+    public List<Department> findAll() throws SQLException {
+        return tables.read(() -> {
+            int[] ids = tables.departments.keys();
+            Arrays.sort(ids);
+            List<Department> departments = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                departments.add(Rows.copy(tables.departments.get(id)));
+            }
+            return departments;
+        });
+    }
+
+    @Override
+    public List<Department> findByIds(int[] ids) throws SQLException {
+        if (ids == null || ids.length == 0) return new ArrayList<>();
+
+        IntHashSet distinct = new IntHashSet(ids.length);
+        for (int id : ids) {
+            distinct.add(id);
+        }
+        int[] sorted = distinct.toSortedArray();
+        return tables.read(() -> {
+            List<Department> departments = new ArrayList<>(sorted.length);
+            for (int id : sorted) {
+                Department department = tables.departments.get(id);
+                if (department != null) {
+                    departments.add(Rows.copy(department));
+                }
+            }
+            return departments;
+        });
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Department> handler) throws SQLException {
+        tables.read(() -> {
+            int[] ids = tables.departments.keys();
+            Arrays.sort(ids);
+            for (int id : ids) {
+                handler.accept(Rows.copy(tables.departments.get(id)));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean update(Department department) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.departments.containsKey(department.getDepartmentId())) {
+                return false;
+            }
+            checkColumns(department);
+            tables.putDepartment(Rows.copy(department));
+            tables.publish(new DepartmentChanged(Change.UPDATED, department.getDepartmentId(), department));
+            return true;
+        });
+    }
+
+    /**
+     * Employees keep the department alive (no cascade on Employee.department_id);
+     * project links are removed with it.
+     */
+    @Override
+    public boolean delete(int departmentId) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.departments.containsKey(departmentId)) {
+                return false;
+            }
+            if (tables.employeesByDepartment.containsKey(departmentId)) {
+                throw new SQLIntegrityConstraintViolationException(
+                        "Cannot delete or update a parent row: a foreign key constraint fails (Employee.department_id)");
+            }
+            for (int projectId : tables.projectDepartments.projectsOf(departmentId)) {
+                tables.unlink(tables.projectDepartments, projectId, departmentId);
+            }
+            tables.removeDepartment(departmentId);
+            tables.publish(new DepartmentChanged(Change.DELETED, departmentId, null));
+            return true;
+        });
+    }
+
+    @Override
+    public IntObjectHashMap<List<Department>> findByProjectIds(int[] projectIds) throws SQLException {
+        return tables.read(() -> {
+            IntObjectHashMap<List<Department>> departmentsByProject = new IntObjectHashMap<>();
+            if (projectIds == null) return departmentsByProject;
+            for (int projectId : projectIds) {
+                int[] departmentIds = tables.projectDepartments.othersOf(projectId);
+                if (departmentIds.length == 0) {
+                    continue;
+                }
+                List<Department> departments = new ArrayList<>(departmentIds.length);
+                for (int departmentId : departmentIds) {
+                    Department department = tables.departments.get(departmentId);
+                    if (department != null) {
+                        departments.add(Rows.copy(department));
+                    }
+                }
+                departmentsByProject.put(projectId, departments);
+            }
+            return departmentsByProject;
+        });
+    }
+
+    private static void checkColumns(Department department) throws SQLException {
+        MemoryTables.requireColumn(department.getName(), "name");
+        MemoryTables.requireColumn(department.getLocation(), "location");
+        MemoryTables.requireColumn(department.getAnnualBudget(), "annual_budget");
+    }
+}
@@ -0,0 +1,189 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.eems.dal.EmployeeProjectRepository;
+import com.eems.dal.RowHandler;
+import com.eems.dal.events.ChangeEvent.AssignmentChanged;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.domain.EmployeeProject;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * In-Memory Storage: EmployeeProject Repository
+ * Employee-Project assignments of the in-memory engine, indexed by employee
+ * and by project
+ */
+class InMemoryEmployeeProjectRepository implements EmployeeProjectRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryEmployeeProjectRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public boolean create(EmployeeProject employeeProject) throws SQLException {
+        int employeeId = employeeProject.getEmployeeId();
+        int projectId = employeeProject.getProjectId();
+        return tables.write(() -> {
+            if (find(employeeId, projectId) != null) {
+                throw MemoryTables.duplicateEntry(employeeId + "-" + projectId, "Employee_Project");
+            }
+            MemoryTables.requireParent(tables.employees.containsKey(employeeId), "Employee_Project.employee_id");
+            MemoryTables.requireParent(tables.projects.containsKey(projectId), "Employee_Project.project_id");
+            tables.putAssignment(Rows.copy(employeeProject));
+            tables.publish(new AssignmentChanged(Change.CREATED, employeeId, projectId, employeeProject));
+            return true;
+        });
+    }
+
+    @Override
+    public EmployeeProject findByIds(int employeeId, int projectId) throws SQLException {
+        return tables.read(() -> Rows.copy(find(employeeId, projectId)));
+    }
+
+    @Override
+    public List<EmployeeProject> findByProjectId(int projectId) throws SQLException {
+        return tables.read(() -> copyAll(MemoryTables.sortedAssignments(tables.assignmentsByProject, projectId)));
+    }
+
+    @Override
+    public List<EmployeeProject> findByEmployeeId(int employeeId) throws SQLException {
+        return tables.read(() -> copyAll(MemoryTables.sortedAssignments(tables.assignmentsByEmployee, employeeId)));
+    }
+
+    /**
+     * Transactions already hold the engine's write lock, so a plain read is
+     * enough to keep the rows stable until commit.
+     */
+    @Override
+    public List<EmployeeProject> findByEmployeeIdForUpdate(int employeeId) throws SQLException {
+        return findByEmployeeId(employeeId);
+    }
+
+    @Override
+    public IntObjectHashMap<List<EmployeeProject>> findByProjectIds(int[] projectIds) throws SQLException {
+        return tables.read(() -> {
+            IntObjectHashMap<List<EmployeeProject>> assignmentsByProject = new IntObjectHashMap<>();
+            if (projectIds == null) return assignmentsByProject;
+            for (int projectId : projectIds) {
+                EmployeeProject[] assignments = MemoryTables.sortedAssignments(tables.assignmentsByProject, projectId);
+                if (assignments.length > 0) {
+                    assignmentsByProject.put(projectId, copyAll(assignments));
+                }
+            }
+            return assignmentsByProject;
+        });
+    }
+
+    @Override
+    public void forEach(RowHandler<? super EmployeeProject> handler) throws SQLException {
+        tables.read(() -> {
+            int[] employeeIds = tables.assignmentsByEmployee.keys();
+            Arrays.sort(employeeIds);
+            for (int employeeId : employeeIds) {
+                for (EmployeeProject assignment : MemoryTables.sortedAssignments(tables.assignmentsByEmployee, employeeId)) {
+                    handler.accept(Rows.copy(assignment));
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean update(EmployeeProject employeeProject) throws SQLException {
+        return tables.write(() -> {
+            if (find(employeeProject.getEmployeeId(), employeeProject.getProjectId()) == null) {
+                return false;
+            }
+            tables.putAssignment(Rows.copy(employeeProject));
+            tables.publish(new AssignmentChanged(Change.UPDATED,
+                    employeeProject.getEmployeeId(), employeeProject.getProjectId(), employeeProject));
+            return true;
+        });
+    }
+
+    @Override
+    public int[] updateAll(List<EmployeeProject> assignments) throws SQLException {
+        return tables.write(() -> {
+            int[] updated = new int[assignments.size()];
+            for (int i = 0; i < updated.length; i++) {
+                EmployeeProject assignment = assignments.get(i);
+                if (find(assignment.getEmployeeId(), assignment.getProjectId()) != null) {
+                    tables.putAssignment(Rows.copy(assignment));
+                    tables.publish(new AssignmentChanged(Change.UPDATED,
+                            assignment.getEmployeeId(), assignment.getProjectId(), assignment));
+                    updated[i] = 1;
+                }
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public void upsertAll(List<EmployeeProject> assignments) throws SQLException {
+        tables.write(() -> {
+            // Check every new row first so a failure leaves the table untouched
+            for (EmployeeProject assignment : assignments) {
+                if (find(assignment.getEmployeeId(), assignment.getProjectId()) == null) {
+                    MemoryTables.requireParent(tables.employees.containsKey(assignment.getEmployeeId()),
+                            "Employee_Project.employee_id");
+                    MemoryTables.requireParent(tables.projects.containsKey(assignment.getProjectId()),
+                            "Employee_Project.project_id");
+                }
+            }
+            for (EmployeeProject assignment : assignments) {
+                int employeeId = assignment.getEmployeeId();
+                int projectId = assignment.getProjectId();
+                Change change = find(employeeId, projectId) == null ? Change.CREATED : Change.UPDATED;
+                tables.putAssignment(Rows.copy(assignment));
+                tables.publish(new AssignmentChanged(change, employeeId, projectId, assignment));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean delete(int employeeId, int projectId) throws SQLException {
+        return tables.write(() -> {
+            if (find(employeeId, projectId) == null) {
+                return false;
+            }
+            tables.removeAssignment(employeeId, projectId);
+            tables.publish(new AssignmentChanged(Change.DELETED, employeeId, projectId, null));
+            return true;
+        });
+    }
+
+    @Override
+    public int deleteAll(int projectId, int[] employeeIds) throws SQLException {
+        return tables.write(() -> {
+            int deleted = 0;
+            for (int employeeId : employeeIds) {
+                if (find(employeeId, projectId) != null) {
+                    tables.removeAssignment(employeeId, projectId);
+                    tables.publish(new AssignmentChanged(Change.DELETED, employeeId, projectId, null));
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    private EmployeeProject find(int employeeId, int projectId) {
+        IntObjectHashMap<EmployeeProject> byProject = tables.assignmentsByEmployee.get(employeeId);
+        return byProject == null ? null : byProject.get(projectId);
+    }
+
+    private static List<EmployeeProject> copyAll(EmployeeProject[] assignments) {
+        List<EmployeeProject> result = new ArrayList<>(assignments.length);
+        for (EmployeeProject assignment : assignments) {
+            result.add(Rows.copy(assignment));
+        }
+        return result;
+    }
+}
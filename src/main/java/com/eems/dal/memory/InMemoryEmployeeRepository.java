@@ -0,0 +1,145 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.eems.dal.EmployeeRepository;
+import com.eems.dal.RowHandler;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.EmployeeChanged;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.util.IntHashSet;
+
+/**
+ * In-Memory Storage: Employee Repository
+ * Employee table of the in-memory engine, indexed by department
+ */
+class InMemoryEmployeeRepository implements EmployeeRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryEmployeeRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public Employee create(Employee employee) throws SQLException {
+        return tables.write(() -> {
+            checkColumns(employee);
+            employee.setEmployeeId(tables.nextEmployeeId());
+            tables.putEmployee(Rows.copy(employee));
+            tables.publish(new EmployeeChanged(Change.CREATED, employee.getEmployeeId(), employee));
+            return employee;
+        });
+    }
+
+    @Override
+    public Employee findById(int employeeId) throws SQLException {
+        return tables.read(() -> Rows.copy(tables.employees.get(employeeId)));
+    }
+
+    /**
+     * Transactions already hold the engine's write lock, so a plain read is
+     * enough to keep the row stable until commit.
+     */
+    @Override
+    public Employee findByIdForUpdate(int employeeId) throws SQLException {
+        return findById(employeeId);
+    }
+
+    @Override
+    public List<Employee> findAll() throws SQLException {
+        return tables.read(() -> {
+            int[] ids = tables.employees.keys();
+            Arrays.sort(ids);
+            return byIds(ids);
+        });
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Employee> handler) throws SQLException {
+        tables.read(() -> {
+            int[] ids = tables.employees.keys();
+            Arrays.sort(ids);
+            for (int id : ids) {
+                handler.accept(Rows.copy(tables.employees.get(id)));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean update(Employee employee) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.employees.containsKey(employee.getEmployeeId())) {
+                return false;
+            }
+            checkColumns(employee);
+            tables.putEmployee(Rows.copy(employee));
+            tables.publish(new EmployeeChanged(Change.UPDATED, employee.getEmployeeId(), employee));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean delete(int employeeId) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.employees.containsKey(employeeId)) {
+                return false;
+            }
+            for (EmployeeProject assignment : MemoryTables.sortedAssignments(tables.assignmentsByEmployee, employeeId)) {
+                tables.removeAssignment(employeeId, assignment.getProjectId());
+            }
+            tables.removeEmployee(employeeId);
+            tables.publish(new EmployeeChanged(Change.DELETED, employeeId, null));
+            return true;
+        });
+    }
+
+    @Override
+    public List<Employee> findByProjectId(int projectId) throws SQLException {
+        return tables.read(() -> {
+            EmployeeProject[] assignments = MemoryTables.sortedAssignments(tables.assignmentsByProject, projectId);
+            List<Employee> employees = new ArrayList<>(assignments.length);
+            for (EmployeeProject assignment : assignments) {
+                employees.add(Rows.copy(tables.employees.get(assignment.getEmployeeId())));
+            }
+            return employees;
+        });
+    }
+
+    @Override
+    public List<Employee> findByIds(int[] ids) throws SQLException {
+        if (ids == null || ids.length == 0) return new ArrayList<>();
+
+        IntHashSet distinct = new IntHashSet(ids.length);
+        for (int id : ids) {
+            distinct.add(id);
+        }
+        int[] sorted = distinct.toSortedArray();
+        return tables.read(() -> byIds(sorted));
+    }
+
+    private List<Employee> byIds(int[] ids) {
+        List<Employee> employees = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Employee employee = tables.employees.get(id);
+            if (employee != null) {
+                employees.add(Rows.copy(employee));
+            }
+        }
+        return employees;
+    }
+
+    private void checkColumns(Employee employee) throws SQLException {
+        MemoryTables.requireColumn(employee.getFullName(), "full_name");
+        MemoryTables.requireColumn(employee.getTitle(), "title");
+        MemoryTables.requireColumn(employee.getHireDate(), "hire_date");
+        MemoryTables.requireColumn(employee.getSalary(), "salary");
+        MemoryTables.requireParent(tables.departments.containsKey(employee.getDepartmentId()),
+                "Employee.department_id");
+    }
+}
@@ -0,0 +1,69 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+
+import com.eems.dal.LinkHandler;
+import com.eems.dal.ProjectClientRepository;
+import com.eems.dal.events.ChangeEvent.ProjectClientLinked;
+import com.eems.dal.events.ChangeEvent.ProjectClientUnlinked;
+import com.eems.util.IntList;
+
+/**
+ * In-Memory Storage: ProjectClient Repository
+ * Project-Client links of the in-memory engine, indexed in both directions
+ */
+class InMemoryProjectClientRepository implements ProjectClientRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryProjectClientRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public boolean assignClientToProject(int projectId, int clientId) throws SQLException {
+        return tables.write(() -> {
+            if (tables.projectClients.contains(projectId, clientId)) {
+                throw MemoryTables.duplicateEntry(projectId + "-" + clientId, "Project_Client");
+            }
+            MemoryTables.requireParent(tables.projects.containsKey(projectId), "Project_Client.project_id");
+            MemoryTables.requireParent(tables.clients.containsKey(clientId), "Project_Client.client_id");
+            tables.link(tables.projectClients, projectId, clientId);
+            tables.publish(new ProjectClientLinked(projectId, clientId));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean removeClientFromProject(int projectId, int clientId) throws SQLException {
+        return tables.write(() -> {
+            boolean removed = tables.unlink(tables.projectClients, projectId, clientId);
+            if (removed) {
+                tables.publish(new ProjectClientUnlinked(projectId, clientId));
+            }
+            return removed;
+        });
+    }
+
+    @Override
+    public IntList getClientIdsByProjectId(int projectId) throws SQLException {
+        return tables.read(() -> IntList.of(tables.projectClients.othersOf(projectId)));
+    }
+
+    @Override
+    public IntList getProjectIdsByClientId(int clientId) throws SQLException {
+        return tables.read(() -> IntList.of(tables.projectClients.projectsOf(clientId)));
+    }
+
+    @Override
+    public void forEach(LinkHandler handler) throws SQLException {
+        tables.read(() -> {
+            for (int projectId : tables.projectClients.projects()) {
+                for (int otherId : tables.projectClients.othersOf(projectId)) {
+                    handler.accept(projectId, otherId);
+                }
+            }
+            return null;
+        });
+    }
+}
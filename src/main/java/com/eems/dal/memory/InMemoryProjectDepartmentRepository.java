@@ -0,0 +1,69 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+
+import com.eems.dal.LinkHandler;
+import com.eems.dal.ProjectDepartmentRepository;
+import com.eems.dal.events.ChangeEvent.ProjectDepartmentLinked;
+import com.eems.dal.events.ChangeEvent.ProjectDepartmentUnlinked;
+import com.eems.util.IntList;
+
+/**
+ * In-Memory Storage: ProjectDepartment Repository
+ * Project-Department links of the in-memory engine, indexed in both directions
+ */
+class InMemoryProjectDepartmentRepository implements ProjectDepartmentRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryProjectDepartmentRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public boolean assignDepartmentToProject(int projectId, int departmentId) throws SQLException {
+        return tables.write(() -> {
+            if (tables.projectDepartments.contains(projectId, departmentId)) {
+                throw MemoryTables.duplicateEntry(projectId + "-" + departmentId, "Project_Department");
+            }
+            MemoryTables.requireParent(tables.projects.containsKey(projectId), "Project_Department.project_id");
+            MemoryTables.requireParent(tables.departments.containsKey(departmentId), "Project_Department.department_id");
+            tables.link(tables.projectDepartments, projectId, departmentId);
+            tables.publish(new ProjectDepartmentLinked(projectId, departmentId));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean removeDepartmentFromProject(int projectId, int departmentId) throws SQLException {
+        return tables.write(() -> {
+            boolean removed = tables.unlink(tables.projectDepartments, projectId, departmentId);
+            if (removed) {
+                tables.publish(new ProjectDepartmentUnlinked(projectId, departmentId));
+            }
+            return removed;
+        });
+    }
+
+    @Override
+    public IntList getDepartmentIdsByProjectId(int projectId) throws SQLException {
+        return tables.read(() -> IntList.of(tables.projectDepartments.othersOf(projectId)));
+    }
+
+    @Override
+    public IntList getProjectIdsByDepartmentId(int departmentId) throws SQLException {
+        return tables.read(() -> IntList.of(tables.projectDepartments.projectsOf(departmentId)));
+    }
+
+    @Override
+    public void forEach(LinkHandler handler) throws SQLException {
+        tables.read(() -> {
+            for (int projectId : tables.projectDepartments.projects()) {
+                for (int otherId : tables.projectDepartments.othersOf(projectId)) {
+                    handler.accept(projectId, otherId);
+                }
+            }
+            return null;
+        });
+    }
+}
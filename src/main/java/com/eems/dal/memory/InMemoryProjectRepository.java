@@ -0,0 +1,186 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.eems.dal.ProjectRepository;
+import com.eems.dal.RowHandler;
+import com.eems.dal.events.ChangeEvent.Change;
+import com.eems.dal.events.ChangeEvent.ProjectChanged;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.util.IntHashSet;
+
+/**
+ * In-Memory Storage: Project Repository
+ * Project table of the in-memory engine
+ */
+class InMemoryProjectRepository implements ProjectRepository {
+
+    private final MemoryTables tables;
+
+    InMemoryProjectRepository(MemoryTables tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public Project create(Project project) throws SQLException {
+        return tables.write(() -> {
+            checkColumns(project);
+            project.setProjectId(tables.nextProjectId());
+            tables.putProject(Rows.copy(project));
+            tables.publish(new ProjectChanged(Change.CREATED, project.getProjectId(), project));
+            return project;
+        });
+    }
+
+    @Override
+    public Project findById(int projectId) throws SQLException {
+        return tables.read(() -> Rows.copy(tables.projects.get(projectId)));
+    }
+
+    @Override
+    public List<Project> findAll() throws SQLException {
+        return tables.read(() -> {
+            int[] ids = tables.projects.keys();
+            Arrays.sort(ids);
+            List<Project> projects = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                projects.add(Rows.copy(tables.projects.get(id)));
+            }
+            return projects;
+        });
+    }
+
+    @Override
+    public List<Project> findByIds(int[] ids) throws SQLException {
+        if (ids == null || ids.length == 0) return new ArrayList<>();
+
+        IntHashSet distinct = new IntHashSet(ids.length);
+        for (int id : ids) {
+            distinct.add(id);
+        }
+        int[] sorted = distinct.toSortedArray();
+        return tables.read(() -> {
+            List<Project> projects = new ArrayList<>(sorted.length);
+            for (int id : sorted) {
+                Project project = tables.projects.get(id);
+                if (project != null) {
+                    projects.add(Rows.copy(project));
+                }
+            }
+            return projects;
+        });
+    }
+
+    @Override
+    public void forEach(RowHandler<? super Project> handler) throws SQLException {
+        tables.read(() -> {
+            int[] ids = tables.projects.keys();
+            Arrays.sort(ids);
+            for (int id : ids) {
+                handler.accept(Rows.copy(tables.projects.get(id)));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean update(Project project) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.projects.containsKey(project.getProjectId())) {
+                return false;
+            }
+            checkColumns(project);
+            tables.putProject(Rows.copy(project));
+            tables.publish(new ProjectChanged(Change.UPDATED, project.getProjectId(), project));
+            return true;
+        });
+    }
+
+    /**
+     * Assignments and client/department links cascade with the project.
+     */
+    @Override
+    public boolean delete(int projectId) throws SQLException {
+        return tables.write(() -> {
+            if (!tables.projects.containsKey(projectId)) {
+                return false;
+            }
+            for (EmployeeProject assignment : MemoryTables.sortedAssignments(tables.assignmentsByProject, projectId)) {
+                tables.removeAssignment(assignment.getEmployeeId(), projectId);
+            }
+            for (int departmentId : tables.projectDepartments.othersOf(projectId)) {
+                tables.unlink(tables.projectDepartments, projectId, departmentId);
+            }
+            for (int clientId : tables.projectClients.othersOf(projectId)) {
+                tables.unlink(tables.projectClients, projectId, clientId);
+            }
+            tables.removeProject(projectId);
+            tables.publish(new ProjectChanged(Change.DELETED, projectId, null));
+            return true;
+        });
+    }
+
+    /**
+     * Status matches case-insensitively, as under MySQL's default collation;
+     * equal sort keys fall back to the project id.
+     */
+    @Override
+    public List<Project> findActiveByDepartmentId(int departmentId, String sortBy) throws SQLException {
+        Comparator<Project> order = orderBy(sortBy).thenComparingInt(Project::getProjectId);
+        return tables.read(() -> {
+            List<Project> projects = new ArrayList<>();
+            for (int projectId : tables.projectDepartments.projectsOf(departmentId)) {
+                Project project = tables.projects.get(projectId);
+                if (project != null && project.isActive()) {
+                    projects.add(Rows.copy(project));
+                }
+            }
+            projects.sort(order);
+            return projects;
+        });
+    }
+
+    @Override
+    public List<Project> findByEndDateBefore(LocalDate deadline) throws SQLException {
+        return tables.read(() -> {
+            List<Project> projects = new ArrayList<>();
+            tables.projects.forEach((id, project) -> {
+                if (!project.getEndDate().isAfter(deadline)) {
+                    projects.add(Rows.copy(project));
+                }
+            });
+            projects.sort(Comparator.comparingInt(Project::getProjectId));
+            return projects;
+        });
+    }
+
+    private static Comparator<Project> orderBy(String sortBy) throws SQLException {
+        switch (sortBy) {
+            case "budget":
+                return Comparator.comparing(Project::getBudget);
+            case "end_date":
+                return Comparator.comparing(Project::getEndDate);
+            case "name":
+                return Comparator.comparing(Project::getName, String.CASE_INSENSITIVE_ORDER);
+            case "start_date":
+                return Comparator.comparing(Project::getStartDate);
+            default:
+                throw new SQLSyntaxErrorException("Unknown column '" + sortBy + "' in 'order clause'");
+        }
+    }
+
+    private static void checkColumns(Project project) throws SQLException {
+        MemoryTables.requireColumn(project.getName(), "name");
+        MemoryTables.requireColumn(project.getStartDate(), "start_date");
+        MemoryTables.requireColumn(project.getEndDate(), "end_date");
+        MemoryTables.requireColumn(project.getBudget(), "budget");
+        MemoryTables.requireColumn(project.getStatus(), "status");
+    }
+}
@@ -0,0 +1,74 @@
+package com.eems.dal.memory;
+
+import java.util.Arrays;
+
+import com.eems.util.IntHashSet;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * In-Memory Storage: Link Table
+ * Many-to-many relationship between projects and another entity, indexed in
+ * both directions.
+ */
+final class LinkTable {
+
+    private final IntObjectHashMap<IntHashSet> byProject = new IntObjectHashMap<>();
+    private final IntObjectHashMap<IntHashSet> byOther = new IntObjectHashMap<>();
+
+    boolean contains(int projectId, int otherId) {
+        IntHashSet others = byProject.get(projectId);
+        return others != null && others.contains(otherId);
+    }
+
+    boolean add(int projectId, int otherId) {
+        if (!byProject.computeIfAbsent(projectId, k -> new IntHashSet()).add(otherId)) {
+            return false;
+        }
+        byOther.computeIfAbsent(otherId, k -> new IntHashSet()).add(projectId);
+        return true;
+    }
+
+    boolean remove(int projectId, int otherId) {
+        if (!removeFrom(byProject, projectId, otherId)) {
+            return false;
+        }
+        removeFrom(byOther, otherId, projectId);
+        return true;
+    }
+
+    /**
+     * Projects with at least one link, ascending.
+     */
+    int[] projects() {
+        int[] projects = byProject.keys();
+        Arrays.sort(projects);
+        return projects;
+    }
+
+    /**
+     * Ids linked to the project, ascending.
+     */
+    int[] othersOf(int projectId) {
+        IntHashSet others = byProject.get(projectId);
+        return others == null ? new int[0] : others.toSortedArray();
+    }
+
+    /**
+     * Projects linked to the other entity, ascending.
+     */
+    int[] projectsOf(int otherId) {
+        IntHashSet projects = byOther.get(otherId);
+        return projects == null ? new int[0] : projects.toSortedArray();
+    }
+
+    private static boolean removeFrom(IntObjectHashMap<IntHashSet> index, int key, int value) {
+        IntHashSet values = index.get(key);
+        if (values == null || !values.remove(value)) {
+            return false;
+        }
+        if (values.isEmpty()) {
+            index.remove(key);
+        }
+        return true;
+    }
+}
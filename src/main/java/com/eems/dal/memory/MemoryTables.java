@@ -0,0 +1,334 @@
+package com.eems.dal.memory;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * In-Memory Storage: Tables
+ * Rows and secondary indexes of the in-memory engine, guarded by one
+ * read-write lock. Readers share the read lock and therefore always see a
+ * consistent snapshot; writers, and whole transactions, hold the write lock.
+ *
+ * Every mutation goes through a primitive below that keeps the indexes in step
+ * and, while a transaction is open, records its inverse in the undo log.
+ * Repositories announce their writes through {@link #publish}, under the write
+ * lock, so events follow the order in which changes were applied.
+ */
+final class MemoryTables {
+
+    @FunctionalInterface
+    interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ChangeEventBus events;
+
+    final IntObjectHashMap<Department> departments = new IntObjectHashMap<>();
+    final IntObjectHashMap<Employee> employees = new IntObjectHashMap<>();
+    final IntObjectHashMap<Project> projects = new IntObjectHashMap<>();
+    final IntObjectHashMap<Client> clients = new IntObjectHashMap<>();
+
+    final IntObjectHashMap<IntHashSet> employeesByDepartment = new IntObjectHashMap<>();
+    final IntObjectHashMap<IntObjectHashMap<EmployeeProject>> assignmentsByEmployee = new IntObjectHashMap<>();
+    final IntObjectHashMap<IntObjectHashMap<EmployeeProject>> assignmentsByProject = new IntObjectHashMap<>();
+    final LinkTable projectDepartments = new LinkTable();
+    final LinkTable projectClients = new LinkTable();
+
+    private int nextDepartmentId = 1;
+    private int nextEmployeeId = 1;
+    private int nextProjectId = 1;
+    private int nextClientId = 1;
+
+    private Deque<Runnable> undoLog;
+
+    /**
+     * @param events bus that writes are announced on, or null for none
+     */
+    MemoryTables(ChangeEventBus events) {
+        this.events = events;
+    }
+
+    <T> T read(Work<T> work) throws SQLException {
+        lock.readLock().lock();
+        try {
+            return work.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    <T> T write(Work<T> work) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            return work.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============================================
+    // Transactions
+    // ============================================
+
+    /**
+     * Take the write lock for the whole transaction and start recording undo actions.
+     */
+    void beginTransaction() {
+        lock.writeLock().lock();
+        undoLog = new ArrayDeque<>();
+    }
+
+    boolean isInTransaction() {
+        return lock.isWriteLockedByCurrentThread() && undoLog != null;
+    }
+
+    void commit() {
+        undoLog = null;
+        lock.writeLock().unlock();
+    }
+
+    void rollback() {
+        Deque<Runnable> undo = undoLog;
+        undoLog = null;
+        try {
+            // Primitives replayed here must not log again
+            Runnable action;
+            while ((action = undo.pollFirst()) != null) {
+                action.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void publish(ChangeEvent event) {
+        if (events != null) {
+            events.publish(event);
+        }
+    }
+
+    private void logUndo(Runnable action) {
+        if (undoLog != null) {
+            undoLog.addFirst(action);
+        }
+    }
+
+    // ============================================
+    // Identity
+    // ============================================
+
+    int nextDepartmentId() {
+        return nextDepartmentId++;
+    }
+
+    int nextEmployeeId() {
+        return nextEmployeeId++;
+    }
+
+    int nextProjectId() {
+        return nextProjectId++;
+    }
+
+    int nextClientId() {
+        return nextClientId++;
+    }
+
+    // ============================================
+    // Mutation primitives (rows stored under an explicit id move the
+    // sequence past it, like AUTO_INCREMENT)
+    // ============================================
+
+    void putDepartment(Department department) {
+        int id = department.getDepartmentId();
+        Department previous = departments.put(id, department);
+        nextDepartmentId = Math.max(nextDepartmentId, id + 1);
+        logUndo(() -> restore(departments, id, previous));
+    }
+
+    void removeDepartment(int id) {
+        Department previous = departments.remove(id);
+        if (previous != null) {
+            logUndo(() -> departments.put(id, previous));
+        }
+    }
+
+    void putProject(Project project) {
+        int id = project.getProjectId();
+        Project previous = projects.put(id, project);
+        nextProjectId = Math.max(nextProjectId, id + 1);
+        logUndo(() -> restore(projects, id, previous));
+    }
+
+    void removeProject(int id) {
+        Project previous = projects.remove(id);
+        if (previous != null) {
+            logUndo(() -> projects.put(id, previous));
+        }
+    }
+
+    void putClient(Client client) {
+        int id = client.getClientId();
+        Client previous = clients.put(id, client);
+        nextClientId = Math.max(nextClientId, id + 1);
+        logUndo(() -> restore(clients, id, previous));
+    }
+
+    void removeClient(int id) {
+        Client previous = clients.remove(id);
+        if (previous != null) {
+            logUndo(() -> clients.put(id, previous));
+        }
+    }
+
+    void putEmployee(Employee employee) {
+        int id = employee.getEmployeeId();
+        Employee previous = employees.put(id, employee);
+        nextEmployeeId = Math.max(nextEmployeeId, id + 1);
+        if (previous != null) {
+            unindex(employeesByDepartment, previous.getDepartmentId(), id);
+        }
+        employeesByDepartment.computeIfAbsent(employee.getDepartmentId(), k -> new IntHashSet()).add(id);
+        logUndo(() -> {
+            if (previous == null) {
+                removeEmployee(id);
+            } else {
+                putEmployee(previous);
+            }
+        });
+    }
+
+    void removeEmployee(int id) {
+        Employee previous = employees.remove(id);
+        if (previous != null) {
+            unindex(employeesByDepartment, previous.getDepartmentId(), id);
+            logUndo(() -> putEmployee(previous));
+        }
+    }
+
+    void putAssignment(EmployeeProject assignment) {
+        int employeeId = assignment.getEmployeeId();
+        int projectId = assignment.getProjectId();
+        EmployeeProject previous = assignmentsByEmployee
+                .computeIfAbsent(employeeId, k -> new IntObjectHashMap<>()).put(projectId, assignment);
+        assignmentsByProject.computeIfAbsent(projectId, k -> new IntObjectHashMap<>()).put(employeeId, assignment);
+        logUndo(() -> {
+            if (previous == null) {
+                removeAssignment(employeeId, projectId);
+            } else {
+                putAssignment(previous);
+            }
+        });
+    }
+
+    void removeAssignment(int employeeId, int projectId) {
+        EmployeeProject previous = removeNested(assignmentsByEmployee, employeeId, projectId);
+        if (previous != null) {
+            removeNested(assignmentsByProject, projectId, employeeId);
+            logUndo(() -> putAssignment(previous));
+        }
+    }
+
+    boolean link(LinkTable table, int projectId, int otherId) {
+        boolean added = table.add(projectId, otherId);
+        if (added) {
+            logUndo(() -> table.remove(projectId, otherId));
+        }
+        return added;
+    }
+
+    boolean unlink(LinkTable table, int projectId, int otherId) {
+        boolean removed = table.remove(projectId, otherId);
+        if (removed) {
+            logUndo(() -> table.add(projectId, otherId));
+        }
+        return removed;
+    }
+
+    // ============================================
+    // Index reads
+    // ============================================
+
+    /**
+     * Assignments of one employee or one project, ordered by the other key.
+     */
+    static EmployeeProject[] sortedAssignments(IntObjectHashMap<IntObjectHashMap<EmployeeProject>> index, int key) {
+        IntObjectHashMap<EmployeeProject> byOther = index.get(key);
+        if (byOther == null) {
+            return new EmployeeProject[0];
+        }
+        int[] others = byOther.keys();
+        Arrays.sort(others);
+        EmployeeProject[] result = new EmployeeProject[others.length];
+        for (int i = 0; i < others.length; i++) {
+            result[i] = byOther.get(others[i]);
+        }
+        return result;
+    }
+
+    // ============================================
+    // Constraints
+    // ============================================
+
+    static void requireColumn(Object value, String column) throws SQLException {
+        if (value == null) {
+            throw new SQLIntegrityConstraintViolationException("Column '" + column + "' cannot be null");
+        }
+    }
+
+    static void requireParent(boolean exists, String constraint) throws SQLException {
+        if (!exists) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Cannot add or update a child row: a foreign key constraint fails (" + constraint + ")");
+        }
+    }
+
+    static SQLException duplicateEntry(String key, String table) {
+        return new SQLIntegrityConstraintViolationException(
+                "Duplicate entry '" + key + "' for key '" + table + ".PRIMARY'");
+    }
+
+    private static <T> void restore(IntObjectHashMap<T> table, int id, T previous) {
+        if (previous == null) {
+            table.remove(id);
+        } else {
+            table.put(id, previous);
+        }
+    }
+
+    private static void unindex(IntObjectHashMap<IntHashSet> index, int key, int id) {
+        IntHashSet ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static <T> T removeNested(IntObjectHashMap<IntObjectHashMap<T>> index, int outer, int inner) {
+        IntObjectHashMap<T> nested = index.get(outer);
+        if (nested == null) {
+            return null;
+        }
+        T removed = nested.remove(inner);
+        if (nested.isEmpty()) {
+            index.remove(outer);
+        }
+        return removed;
+    }
+}
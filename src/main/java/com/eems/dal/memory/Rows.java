@@ -0,0 +1,47 @@
+package com.eems.dal.memory;
+
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * In-Memory Storage: Rows
+ * Defensive copies of domain rows, so state held by a store is never shared
+ * with callers. Null copies to null.
+ */
+public final class Rows {
+
+    private Rows() {}
+
+    public static Department copy(Department department) {
+        if (department == null) return null;
+        return new Department(department.getDepartmentId(), department.getName(),
+                department.getLocation(), department.getAnnualBudget());
+    }
+
+    public static Employee copy(Employee employee) {
+        if (employee == null) return null;
+        return new Employee(employee.getEmployeeId(), employee.getFullName(), employee.getTitle(),
+                employee.getHireDate(), employee.getSalary(), employee.getDepartmentId());
+    }
+
+    public static Project copy(Project project) {
+        if (project == null) return null;
+        return new Project(project.getProjectId(), project.getName(), project.getDescription(),
+                project.getStartDate(), project.getEndDate(), project.getBudget(), project.getStatus());
+    }
+
+    public static Client copy(Client client) {
+        if (client == null) return null;
+        return new Client(client.getClientId(), client.getName(), client.getIndustry(),
+                client.getContactPerson(), client.getContactPhone(), client.getContactEmail());
+    }
+
+    public static EmployeeProject copy(EmployeeProject assignment) {
+        if (assignment == null) return null;
+        return new EmployeeProject(assignment.getEmployeeId(), assignment.getProjectId(),
+                assignment.getTimeAllocationPercent());
+    }
+}
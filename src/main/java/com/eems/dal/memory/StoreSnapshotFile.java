@@ -0,0 +1,306 @@
+package com.eems.dal.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * In-Memory Storage: Store Snapshot File
+ * Versioned binary image of an {@link InMemoryDataStore}, so a restart can
+ * serve reads before the database has been queried.
+ *
+ * Layout: magic "EEMS", format version, creation time, payload length and
+ * CRC32, then the payload: departments, employees, projects, clients,
+ * assignments, project-department and project-client links, each a count
+ * followed by fixed-order fields. Strings are length-prefixed UTF-8 (-1 for
+ * null), decimals a scale plus unscaled bytes, dates epoch days.
+ *
+ * Files are written to a temporary sibling and moved into place atomically,
+ * and read through a read-only memory mapping.
+ */
+public final class StoreSnapshotFile {
+
+    private static final int MAGIC = 0x45454D53;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+
+    private StoreSnapshotFile() {}
+
+    /**
+     * Write a consistent image of the store; writers are held off while it is taken.
+     */
+    public static void write(InMemoryDataStore store, Path file) throws IOException, SQLException {
+        MemoryTables tables = store.tables();
+        byte[] payload = tables.read(() -> {
+            try {
+                return encode(tables);
+            } catch (IOException e) {
+                throw new SQLException("Failed to encode store snapshot", e);
+            }
+        });
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(System.currentTimeMillis())
+                .putLong(payload.length)
+                .putLong(crc.getValue())
+                .flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) channel.write(header);
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (body.hasRemaining()) channel.write(body);
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map the file and decode it into a new store.
+     *
+     * @throws IOException if the file is missing, truncated, corrupt or of another format version
+     */
+    public static InMemoryDataStore read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Store snapshot " + file + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a store snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported store snapshot version " + version + " (expected " + VERSION + ")");
+            }
+            buffer.getLong(); // creation time
+            long payloadLength = buffer.getLong();
+            long expectedCrc = buffer.getLong();
+            if (payloadLength != size - HEADER_BYTES) {
+                throw new IOException("Store snapshot " + file + " is truncated");
+            }
+
+            ByteBuffer payload = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Store snapshot " + file + " failed its checksum");
+            }
+
+            InMemoryDataStore store = InMemoryDataStore.replica();
+            MemoryTables tables = store.tables();
+            try {
+                tables.write(() -> {
+                    decode(payload, tables);
+                    return null;
+                });
+            } catch (SQLException | RuntimeException e) {
+                throw new IOException("Store snapshot " + file + " could not be decoded", e);
+            }
+            return store;
+        }
+    }
+
+    // ============================================
+    // Encoding
+    // ============================================
+
+    private static byte[] encode(MemoryTables tables) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        int[] departmentIds = sortedKeys(tables.departments.keys());
+        out.writeInt(departmentIds.length);
+        for (int id : departmentIds) {
+            Department department = tables.departments.get(id);
+            out.writeInt(id);
+            writeString(out, department.getName());
+            writeString(out, department.getLocation());
+            writeDecimal(out, department.getAnnualBudget());
+        }
+
+        int[] employeeIds = sortedKeys(tables.employees.keys());
+        out.writeInt(employeeIds.length);
+        for (int id : employeeIds) {
+            Employee employee = tables.employees.get(id);
+            out.writeInt(id);
+            writeString(out, employee.getFullName());
+            writeString(out, employee.getTitle());
+            writeDate(out, employee.getHireDate());
+            writeDecimal(out, employee.getSalary());
+            out.writeInt(employee.getDepartmentId());
+        }
+
+        int[] projectIds = sortedKeys(tables.projects.keys());
+        out.writeInt(projectIds.length);
+        for (int id : projectIds) {
+            Project project = tables.projects.get(id);
+            out.writeInt(id);
+            writeString(out, project.getName());
+            writeString(out, project.getDescription());
+            writeDate(out, project.getStartDate());
+            writeDate(out, project.getEndDate());
+            writeDecimal(out, project.getBudget());
+            writeString(out, project.getStatus());
+        }
+
+        int[] clientIds = sortedKeys(tables.clients.keys());
+        out.writeInt(clientIds.length);
+        for (int id : clientIds) {
+            Client client = tables.clients.get(id);
+            out.writeInt(id);
+            writeString(out, client.getName());
+            writeString(out, client.getIndustry());
+            writeString(out, client.getContactPerson());
+            writeString(out, client.getContactPhone());
+            writeString(out, client.getContactEmail());
+        }
+
+        int assignmentCount = 0;
+        int[] assignedEmployees = sortedKeys(tables.assignmentsByEmployee.keys());
+        for (int employeeId : assignedEmployees) {
+            assignmentCount += tables.assignmentsByEmployee.get(employeeId).size();
+        }
+        out.writeInt(assignmentCount);
+        for (int employeeId : assignedEmployees) {
+            for (EmployeeProject assignment : MemoryTables.sortedAssignments(tables.assignmentsByEmployee, employeeId)) {
+                out.writeInt(assignment.getEmployeeId());
+                out.writeInt(assignment.getProjectId());
+                out.writeInt(assignment.getTimeAllocationPercent());
+            }
+        }
+
+        writeLinks(out, tables.projectDepartments, projectIds);
+        writeLinks(out, tables.projectClients, projectIds);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeLinks(DataOutputStream out, LinkTable links, int[] projectIds) throws IOException {
+        int count = 0;
+        for (int projectId : projectIds) {
+            count += links.othersOf(projectId).length;
+        }
+        out.writeInt(count);
+        for (int projectId : projectIds) {
+            for (int otherId : links.othersOf(projectId)) {
+                out.writeInt(projectId);
+                out.writeInt(otherId);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        out.writeLong(value == null ? Long.MIN_VALUE : value.toEpochDay());
+    }
+
+    private static int[] sortedKeys(int[] keys) {
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    // ============================================
+    // Decoding
+    // ============================================
+
+    private static void decode(ByteBuffer in, MemoryTables tables) {
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.putDepartment(new Department(in.getInt(), readString(in), readString(in), readDecimal(in)));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.putEmployee(new Employee(in.getInt(), readString(in), readString(in), readDate(in),
+                    readDecimal(in), in.getInt()));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.putProject(new Project(in.getInt(), readString(in), readString(in), readDate(in), readDate(in),
+                    readDecimal(in), readString(in)));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.putClient(new Client(in.getInt(), readString(in), readString(in), readString(in),
+                    readString(in), readString(in)));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.putAssignment(new EmployeeProject(in.getInt(), in.getInt(), in.getInt()));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.link(tables.projectDepartments, in.getInt(), in.getInt());
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            tables.link(tables.projectClients, in.getInt(), in.getInt());
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.getInt());
+    }
+
+    private static LocalDate readDate(ByteBuffer in) {
+        long epochDay = in.getLong();
+        return epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
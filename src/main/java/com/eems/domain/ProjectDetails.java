@@ -0,0 +1,59 @@
+package com.eems.domain;
+
+import java.util.List;
+
+/**
+ * Domain Model: ProjectDetails
+ * A project together with its clients, departments, assigned employees and
+ * their allocations, as shown on the project detail screen
+ */
+public class ProjectDetails {
+    private final Project project;
+    private final List<Client> clients;
+    private final List<Department> departments;
+    private final List<Employee> employees;
+    private final List<EmployeeProject> assignments;
+
+    public ProjectDetails(Project project, List<Client> clients, List<Department> departments,
+                          List<Employee> employees, List<EmployeeProject> assignments) {
+        this.project = project;
+        this.clients = clients;
+        this.departments = departments;
+        this.employees = employees;
+        this.assignments = assignments;
+    }
+
+    // Getters
+    public Project getProject() {
+        return project;
+    }
+
+    public List<Client> getClients() {
+        return clients;
+    }
+
+    public List<Department> getDepartments() {
+        return departments;
+    }
+
+    /**
+     * Employees assigned to the project, in the order of {@link #getAssignments()}.
+     */
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public List<EmployeeProject> getAssignments() {
+        return assignments;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectDetails{" +
+                "project=" + project +
+                ", clients=" + clients.size() +
+                ", departments=" + departments.size() +
+                ", employees=" + employees.size() +
+                '}';
+    }
+}
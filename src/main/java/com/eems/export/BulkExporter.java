@@ -0,0 +1,239 @@
+package com.eems.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
+import com.eems.dal.DatabaseConnection;
+import com.eems.dal.RowHandler;
+
+/**
+ * Export: Bulk Exporter
+ * Extracts whole tables to gzip-compressed CSV or JSON Lines files for the
+ * warehouse. Each table is streamed from a forward-only scan of the store (a
+ * server-side cursor on MySQL), encoded into a fixed-size buffer and deflated
+ * into a direct buffer written to the file, so memory use does not grow with
+ * the table. Tables are exported in parallel, each scan on its own pooled
+ * connection.
+ *
+ * A file is written to a temporary sibling and moved into place once
+ * complete, so a failed export never leaves a truncated file. The tables are
+ * not read from one snapshot: a write committed during the export may appear
+ * in one file and not in another.
+ */
+public class BulkExporter {
+
+    private static final String DEFAULT_DIRECTORY = "data/export";
+    private static final int DEFAULT_PARALLELISM = 4;
+    // Rows reach the compressor, and compressed bytes the file, in chunks of this size
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final DataStore store;
+    private final ExportFormat format;
+    private final int parallelism;
+
+    public BulkExporter(DataStore store, ExportFormat format) {
+        this(store, format, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param parallelism how many tables are exported at once, each holding a connection while it runs
+     */
+    public BulkExporter(DataStore store, ExportFormat format, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Export parallelism must be at least 1: " + parallelism);
+        }
+        this.store = store;
+        this.format = format;
+        this.parallelism = parallelism;
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        Path directory = Path.of(System.getProperty("eems.export.dir", DEFAULT_DIRECTORY));
+        ExportFormat format = ExportFormat.fromName(System.getProperty("eems.export.format", "csv"));
+        int parallelism = Integer.getInteger("eems.export.parallelism", DEFAULT_PARALLELISM);
+
+        BulkExporter exporter = new BulkExporter(DataStores.defaultStore(), format, parallelism);
+        long start = System.nanoTime();
+        try {
+            List<ExportResult> results = exporter.exportAll(directory);
+            long rows = 0;
+            for (ExportResult result : results) {
+                System.out.printf("%-20s %,14d rows %,10d ms %,14.0f rows/s %,16d bytes%n", result.table().tableName(),
+                        result.rows(), result.elapsedMillis(), result.rowsPerSecond(), result.bytes());
+                rows += result.rows();
+            }
+            long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+            System.out.printf("%-20s %,14d rows %,10d ms %,14.0f rows/s%n", "Total", rows,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    /**
+     * Export every table into the directory.
+     */
+    public List<ExportResult> exportAll(Path directory) throws IOException, SQLException {
+        return export(EnumSet.allOf(ExportTable.class), directory);
+    }
+
+    /**
+     * Export the tables in parallel, returning their results in the order given.
+     * Every table is attempted; if any fail, the first failure is thrown with the
+     * others suppressed, and the files of the tables that succeeded are kept.
+     */
+    public List<ExportResult> export(Collection<ExportTable> tables, Path directory) throws IOException, SQLException {
+        Files.createDirectories(directory);
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(Math.min(parallelism, tables.size()), 1), r -> {
+            Thread t = new Thread(r, "eems-export-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<ExportResult>> pending = new ArrayList<>(tables.size());
+            for (ExportTable table : tables) {
+                pending.add(executor.submit(() -> export(table, directory)));
+            }
+
+            List<ExportResult> results = new ArrayList<>(tables.size());
+            Throwable failure = null;
+            for (Future<ExportResult> table : pending) {
+                try {
+                    results.add(table.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while exporting to " + directory, e);
+                }
+            }
+            if (failure != null) {
+                throw rethrow(failure);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Export one table into the directory on the calling thread.
+     */
+    public ExportResult export(ExportTable table, Path directory) throws IOException, SQLException {
+        Path file = directory.resolve(table.fileName(format));
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        long start = System.nanoTime();
+        long rows;
+        long bytes;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            try (GzipChannelOutput gzip = new GzipChannelOutput(channel, BUFFER_SIZE, Deflater.BEST_SPEED)) {
+                RecordEncoder encoder = format.encoder(gzip, BUFFER_SIZE);
+                encoder.begin(table);
+                rows = scan(table, encoder);
+                encoder.flush();
+            }
+            channel.force(true);
+            bytes = channel.size();
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ExportResult(table, file, rows, bytes, System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface RowEncoder<T> {
+        void encode(T row) throws IOException;
+    }
+
+    // Rows encoded so far by one scan
+    private static final class Progress {
+        long rows;
+    }
+
+    private long scan(ExportTable table, RecordEncoder encoder) throws IOException, SQLException {
+        Progress progress = new Progress();
+        try {
+            switch (table) {
+                case DEPARTMENT -> store.departments().forEach(rows(encoder::department, progress));
+                case EMPLOYEE -> store.employees().forEach(rows(encoder::employee, progress));
+                case PROJECT -> store.projects().forEach(rows(encoder::project, progress));
+                case CLIENT -> store.clients().forEach(rows(encoder::client, progress));
+                case EMPLOYEE_PROJECT -> store.employeeProjects().forEach(rows(encoder::assignment, progress));
+                case PROJECT_CLIENT -> store.projectClients().forEach((projectId, clientId) -> {
+                    link(encoder, projectId, clientId);
+                    progress.rows++;
+                });
+                case PROJECT_DEPARTMENT -> store.projectDepartments().forEach((projectId, departmentId) -> {
+                    link(encoder, projectId, departmentId);
+                    progress.rows++;
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return progress.rows;
+    }
+
+    // Handlers may only throw SQLException, so a write failure leaves the scan unchecked
+    private static <T> RowHandler<T> rows(RowEncoder<T> encoder, Progress progress) {
+        return row -> {
+            try {
+                encoder.encode(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            progress.rows++;
+        };
+    }
+
+    private static void link(RecordEncoder encoder, int projectId, int otherId) {
+        try {
+            encoder.link(projectId, otherId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static IOException rethrow(Throwable failure) throws SQLException {
+        if (failure instanceof SQLException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        if (failure instanceof IOException e) {
+            return e;
+        }
+        return new IOException("Export failed", failure);
+    }
+}
@@ -0,0 +1,288 @@
+package com.eems.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * Export: CSV Record Encoder
+ * RFC 4180 rows with a header line, encoded as UTF-8 straight into the buffer:
+ * numbers and dates are written digit by digit, and a string is only scanned
+ * for characters that need quoting before it is copied.
+ */
+final class CsvRecordEncoder implements RecordEncoder {
+
+    // Unscaled values of up to 18 digits always fit a long
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private boolean separate;
+
+    CsvRecordEncoder(OutputStream out, int bufferSize) {
+        this.out = out;
+        // Room for the longest number or date written in place
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+    }
+
+    @Override
+    public void begin(ExportTable table) throws IOException {
+        for (String column : table.columns()) {
+            field(column);
+        }
+        endRecord();
+    }
+
+    @Override
+    public void department(Department department) throws IOException {
+        field(department.getDepartmentId());
+        field(department.getName());
+        field(department.getLocation());
+        field(department.getAnnualBudget());
+        endRecord();
+    }
+
+    @Override
+    public void employee(Employee employee) throws IOException {
+        field(employee.getEmployeeId());
+        field(employee.getFullName());
+        field(employee.getTitle());
+        field(employee.getHireDate());
+        field(employee.getSalary());
+        field(employee.getDepartmentId());
+        endRecord();
+    }
+
+    @Override
+    public void project(Project project) throws IOException {
+        field(project.getProjectId());
+        field(project.getName());
+        field(project.getDescription());
+        field(project.getStartDate());
+        field(project.getEndDate());
+        field(project.getBudget());
+        field(project.getStatus());
+        endRecord();
+    }
+
+    @Override
+    public void client(Client client) throws IOException {
+        field(client.getClientId());
+        field(client.getName());
+        field(client.getIndustry());
+        field(client.getContactPerson());
+        field(client.getContactPhone());
+        field(client.getContactEmail());
+        endRecord();
+    }
+
+    @Override
+    public void assignment(EmployeeProject assignment) throws IOException {
+        field(assignment.getEmployeeId());
+        field(assignment.getProjectId());
+        field(assignment.getTimeAllocationPercent());
+        endRecord();
+    }
+
+    @Override
+    public void link(int projectId, int otherId) throws IOException {
+        field(projectId);
+        field(otherId);
+        endRecord();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            return;
+        }
+        boolean quoted = value.isEmpty() || needsQuotes(value);
+        if (quoted) {
+            writeByte('"');
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"') {
+                    writeByte('"');
+                }
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // A lone surrogate cannot be encoded
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+        if (quoted) {
+            writeByte('"');
+        }
+    }
+
+    private void field(int value) throws IOException {
+        separator();
+        writeLong(value);
+    }
+
+    private void field(BigDecimal value) throws IOException {
+        separator();
+        if (value == null) {
+            return;
+        }
+        int scale = value.scale();
+        if (value.precision() > MAX_LONG_PRECISION || scale < 0 || scale > MAX_LONG_PRECISION) {
+            // Out of the range of money; only this rare case builds a String
+            writeAscii(value.toPlainString());
+            return;
+        }
+        long unscaled = value.unscaledValue().longValue();
+        if (scale == 0) {
+            writeLong(unscaled);
+            return;
+        }
+        if (unscaled < 0) {
+            writeByte('-');
+            unscaled = -unscaled;
+        }
+        // Digits with a decimal point scale places from the right, zero-padded: (5, 2) is 0.05
+        int digits = 1;
+        for (long rest = unscaled / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int width = Math.max(digits - scale, 1) + 1 + scale;
+        ensure(width);
+        int end = position + width;
+        for (int i = end - 1, written = 0; i >= position; i--, written++) {
+            if (written == scale) {
+                buffer[i] = '.';
+            } else {
+                buffer[i] = (byte) ('0' + (int) (unscaled % 10));
+                unscaled /= 10;
+            }
+        }
+        position = end;
+    }
+
+    private void field(LocalDate value) throws IOException {
+        separator();
+        if (value == null) {
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            writeAscii(value.toString());
+            return;
+        }
+        writeDigits(year, 4);
+        writeByte('-');
+        writeDigits(value.getMonthValue(), 2);
+        writeByte('-');
+        writeDigits(value.getDayOfMonth(), 2);
+    }
+
+    private void endRecord() throws IOException {
+        writeByte('\n');
+        separate = false;
+    }
+
+    private void separator() throws IOException {
+        if (separate) {
+            writeByte(',');
+        }
+        separate = true;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        ensure(19);
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Digits came out least significant first
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    private void writeDigits(int value, int width) throws IOException {
+        ensure(width);
+        for (int i = width - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
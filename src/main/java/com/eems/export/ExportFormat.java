@@ -0,0 +1,50 @@
+package com.eems.export;
+
+import java.io.OutputStream;
+
+/**
+ * Export: Format
+ * Row encoding of an export file. Either way the file is gzip-compressed and
+ * holds one row per line.
+ *
+ * CSV starts with a header of the table's column names. Fields are quoted only
+ * when they contain a comma, quote or line break, with quotes doubled. A NULL
+ * is an empty field and an empty string is {@code ""}. Decimals are written
+ * plain, as in 1200.00, and dates as yyyy-MM-dd.
+ *
+ * NDJSON (JSON Lines) writes each row as a JSON object with the member names
+ * and value forms of the HTTP API.
+ */
+public enum ExportFormat {
+    CSV(".csv.gz"),
+    NDJSON(".ndjson.gz");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * File name suffix, including the compression suffix.
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown name
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name + " (expected csv or ndjson)");
+    }
+
+    RecordEncoder encoder(OutputStream out, int bufferSize) {
+        return this == CSV ? new CsvRecordEncoder(out, bufferSize) : new JsonLinesRecordEncoder(out, bufferSize);
+    }
+}
@@ -0,0 +1,20 @@
+package com.eems.export;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export: Result
+ * One exported table: the file written, the rows in it, its compressed size
+ * and how long the scan and write took.
+ */
+public record ExportResult(ExportTable table, Path file, long rows, long bytes, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+}
@@ -0,0 +1,40 @@
+package com.eems.export;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Export: Table
+ * The tables of the schema that can be exported, each with its columns in
+ * schema order. An export file is named after its table in lower case, such
+ * as employee_project.csv.gz.
+ */
+public enum ExportTable {
+    DEPARTMENT("Department", "department_id", "name", "location", "annual_budget"),
+    EMPLOYEE("Employee", "employee_id", "full_name", "title", "hire_date", "salary", "department_id"),
+    PROJECT("Project", "project_id", "name", "description", "start_date", "end_date", "budget", "status"),
+    CLIENT("Client", "client_id", "name", "industry", "contact_person", "contact_phone", "contact_email"),
+    EMPLOYEE_PROJECT("Employee_Project", "employee_id", "project_id", "time_allocation_percent"),
+    PROJECT_CLIENT("Project_Client", "project_id", "client_id"),
+    PROJECT_DEPARTMENT("Project_Department", "project_id", "department_id");
+
+    private final String tableName;
+    private final List<String> columns;
+
+    ExportTable(String tableName, String... columns) {
+        this.tableName = tableName;
+        this.columns = List.of(columns);
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    public String fileName(ExportFormat format) {
+        return tableName.toLowerCase(Locale.ROOT) + format.extension();
+    }
+}
@@ -0,0 +1,96 @@
+package com.eems.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Export: Gzip Channel Output
+ * Gzip stream (RFC 1952) deflated straight into a direct buffer that is
+ * written to a file channel whenever it fills, so compressed bytes are never
+ * copied through the heap. Callers are expected to write large chunks.
+ *
+ * {@link #close()} writes the trailer but leaves the channel open.
+ */
+final class GzipChannelOutput extends OutputStream {
+
+    // ID1, ID2, CM = deflate, no flags, no mtime, no extra flags, OS unknown
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final FileChannel channel;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer compressed;
+    private long uncompressedBytes;
+    private boolean closed;
+
+    GzipChannelOutput(FileChannel channel, int bufferSize, int level) {
+        this.channel = channel;
+        this.deflater = new Deflater(level, true);
+        this.compressed = ByteBuffer.allocateDirect(Math.max(bufferSize, 64)).order(ByteOrder.LITTLE_ENDIAN);
+        compressed.put(HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Gzip output is closed");
+        }
+        if (length == 0) {
+            return;
+        }
+        crc.update(bytes, offset, length);
+        uncompressedBytes += length;
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            if (compressed.remaining() < 8) {
+                drain();
+            }
+            // The trailer is little-endian: CRC-32 and size modulo 2^32 of the input
+            compressed.putInt((int) crc.getValue());
+            compressed.putInt((int) uncompressedBytes);
+            drain();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void deflate() throws IOException {
+        deflater.deflate(compressed);
+        if (!compressed.hasRemaining()) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        compressed.flip();
+        while (compressed.hasRemaining()) {
+            channel.write(compressed);
+        }
+        compressed.clear();
+    }
+}
@@ -0,0 +1,82 @@
+package com.eems.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.eems.api.DomainJson;
+import com.eems.api.JsonName;
+import com.eems.api.JsonWriter;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * Export: JSON Lines Record Encoder
+ * One JSON object per line, written by {@link DomainJson} so that rows read
+ * the same as in the HTTP API.
+ */
+final class JsonLinesRecordEncoder implements RecordEncoder {
+
+    private static final JsonName PROJECT_ID = JsonName.of("projectId");
+    private static final JsonName CLIENT_ID = JsonName.of("clientId");
+    private static final JsonName DEPARTMENT_ID = JsonName.of("departmentId");
+
+    private final JsonWriter json;
+    // Member name of a link's second id
+    private JsonName linked;
+
+    JsonLinesRecordEncoder(OutputStream out, int bufferSize) {
+        this.json = new JsonWriter(out, bufferSize);
+    }
+
+    @Override
+    public void begin(ExportTable table) {
+        linked = table == ExportTable.PROJECT_DEPARTMENT ? DEPARTMENT_ID : CLIENT_ID;
+    }
+
+    @Override
+    public void department(Department department) throws IOException {
+        DomainJson.writeDepartment(json, department);
+        json.endLine();
+    }
+
+    @Override
+    public void employee(Employee employee) throws IOException {
+        DomainJson.writeEmployee(json, employee);
+        json.endLine();
+    }
+
+    @Override
+    public void project(Project project) throws IOException {
+        DomainJson.writeProject(json, project);
+        json.endLine();
+    }
+
+    @Override
+    public void client(Client client) throws IOException {
+        DomainJson.writeClient(json, client);
+        json.endLine();
+    }
+
+    @Override
+    public void assignment(EmployeeProject assignment) throws IOException {
+        DomainJson.writeAssignment(json, assignment);
+        json.endLine();
+    }
+
+    @Override
+    public void link(int projectId, int otherId) throws IOException {
+        json.beginObject();
+        json.name(PROJECT_ID).value(projectId);
+        json.name(linked).value(otherId);
+        json.endObject();
+        json.endLine();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        json.flush();
+    }
+}
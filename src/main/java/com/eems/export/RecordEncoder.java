@@ -0,0 +1,42 @@
+package com.eems.export;
+
+import java.io.IOException;
+
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+import com.eems.domain.Project;
+
+/**
+ * Export: Record Encoder
+ * Writes the rows of one table, one line each, into its own buffer and hands
+ * full buffers to the output stream.
+ */
+interface RecordEncoder {
+
+    /**
+     * Called once, before the first row.
+     */
+    void begin(ExportTable table) throws IOException;
+
+    void department(Department department) throws IOException;
+
+    void employee(Employee employee) throws IOException;
+
+    void project(Project project) throws IOException;
+
+    void client(Client client) throws IOException;
+
+    void assignment(EmployeeProject assignment) throws IOException;
+
+    /**
+     * A row of {@link ExportTable#PROJECT_CLIENT} or {@link ExportTable#PROJECT_DEPARTMENT}.
+     */
+    void link(int projectId, int otherId) throws IOException;
+
+    /**
+     * Push the buffered rows to the output stream.
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,195 @@
+package com.eems.monitoring;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monitoring: Asynchronous Rolling File Appender
+ * Writes log lines to a size-capped, rotating file from a background thread.
+ * Callers only enqueue; when the queue is full the line is dropped and counted
+ * instead of blocking the caller.
+ */
+public final class AsyncRollingFileAppender implements AutoCloseable {
+
+    private static final int DRAIN_BATCH = 256;
+    private static final int NEWLINE_BYTES = System.lineSeparator().length();
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxBackups;
+    private final BlockingQueue<String> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+
+    private volatile boolean closed;
+    private BufferedWriter writer;
+    private long currentBytes;
+
+    public AsyncRollingFileAppender(String threadName, Path file, long maxFileBytes, int maxBackups, int queueCapacity) {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::drainLoop, threadName);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, threadName + "-shutdown"));
+    }
+
+    /**
+     * Enqueue a line without blocking. Returns false if the line was dropped.
+     */
+    public boolean append(String line) {
+        if (closed || !queue.offer(line)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<String> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                String first;
+                try {
+                    first = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    first = queue.poll();
+                    if (first == null && closed) break;
+                }
+                if (first == null) {
+                    flushQuietly();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+                writeBatch(batch);
+                batch.clear();
+            }
+            // Drain whatever arrived while shutting down
+            queue.drainTo(batch);
+            writeBatch(batch);
+        } finally {
+            closeWriterQuietly();
+        }
+    }
+
+    private void writeBatch(List<String> lines) {
+        if (lines.isEmpty()) return;
+        try {
+            for (String line : lines) {
+                if (writer == null || currentBytes >= maxFileBytes) {
+                    roll();
+                }
+                writer.write(line);
+                writer.newLine();
+                currentBytes += utf8Length(line) + NEWLINE_BYTES;
+            }
+            if (queue.isEmpty()) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write " + file + ": " + e.getMessage());
+            closeWriterQuietly();
+        }
+    }
+
+    private void roll() throws IOException {
+        closeWriterQuietly();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                Path src = backup(i);
+                if (Files.exists(src)) {
+                    Files.move(src, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (maxBackups > 0) {
+                Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+            }
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentBytes = Files.size(file);
+    }
+
+    // Bytes the line takes in the file, without encoding it twice
+    private static long utf8Length(String line) {
+        long bytes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < line.length() && Character.isLowSurrogate(line.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                // Other BMP characters, and lone surrogates which encode as a one-byte '?'
+                bytes += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return bytes;
+    }
+
+    private Path backup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void flushQuietly() {
+        if (writer == null) return;
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to flush " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void closeWriterQuietly() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close " + file + ": " + e.getMessage());
+        }
+        writer = null;
+    }
+}
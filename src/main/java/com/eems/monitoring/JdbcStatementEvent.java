@@ -0,0 +1,49 @@
+package com.eems.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Monitoring: JFR event emitted once per JDBC statement execution.
+ * The event duration covers execution and result set consumption.
+ */
+@Name("com.eems.JdbcStatement")
+@Label("EEMS JDBC Statement")
+@Category({"EEMS", "Database"})
+@Description("Execution of one JDBC statement issued by the data access layer")
+@StackTrace(false)
+public class JdbcStatementEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(JdbcStatementEvent.class);
+
+    @Label("SQL Id")
+    @Description("Stable identifier derived from the SQL text")
+    public String sqlId;
+
+    @Label("Entity")
+    @Description("Primary table the statement reads or writes")
+    public String entity;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Row Count")
+    public long rowCount;
+
+    @Label("Connection Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long connectionWait;
+
+    /**
+     * Whether a running recording has the event enabled, without allocating an event.
+     */
+    public static boolean isTypeEnabled() {
+        return TYPE.isEnabled();
+    }
+}
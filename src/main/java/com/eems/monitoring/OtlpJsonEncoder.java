@@ -0,0 +1,107 @@
+package com.eems.monitoring;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monitoring: OTLP JSON Encoder
+ * Renders a finished trace as one OpenTelemetry (OTLP/JSON) ExportTraceServiceRequest.
+ */
+final class OtlpJsonEncoder {
+
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int SPAN_KIND_CLIENT = 3;
+
+    private OtlpJsonEncoder() {}
+
+    static String encode(Span.Trace trace, List<Span> spans) {
+        String traceId = trace.traceIdHex();
+        StringBuilder json = new StringBuilder(256 + spans.size() * 256);
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        attribute(json, "service.name", "eems");
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"com.eems\"},\"spans\":[");
+        for (int i = 0; i < spans.size(); i++) {
+            if (i > 0) json.append(',');
+            span(json, traceId, spans.get(i));
+        }
+        json.append("]}]}]}");
+        return json.toString();
+    }
+
+    private static void span(StringBuilder json, String traceId, Span span) {
+        json.append("{\"traceId\":\"").append(traceId)
+            .append("\",\"spanId\":\"").append(hex(span.spanId())).append('"');
+        if (span.parent() != null) {
+            json.append(",\"parentSpanId\":\"").append(hex(span.parent().spanId())).append('"');
+        }
+        json.append(",\"name\":");
+        string(json, span.name());
+        json.append(",\"kind\":").append(kind(span))
+            .append(",\"startTimeUnixNano\":\"").append(span.startEpochNanos())
+            .append("\",\"endTimeUnixNano\":\"").append(span.endEpochNanos())
+            .append("\",\"attributes\":[");
+        boolean first = true;
+        if (span.layer() != null) {
+            attribute(json, "eems.layer", span.layer());
+            first = false;
+        }
+        for (Map.Entry<String, Object> entry : span.attributes().entrySet()) {
+            if (!first) json.append(',');
+            attribute(json, entry.getKey(), entry.getValue());
+            first = false;
+        }
+        json.append("]}");
+    }
+
+    private static int kind(Span span) {
+        if (span.parent() == null) return SPAN_KIND_SERVER;
+        String layer = span.layer();
+        if (Tracer.LAYER_CONNECTION.equals(layer) || Tracer.LAYER_STATEMENT.equals(layer)) return SPAN_KIND_CLIENT;
+        return SPAN_KIND_INTERNAL;
+    }
+
+    private static void attribute(StringBuilder json, String key, Object value) {
+        json.append("{\"key\":");
+        string(json, key);
+        json.append(",\"value\":{");
+        if (value instanceof Integer || value instanceof Long) {
+            // OTLP/JSON carries 64-bit integers as strings
+            json.append("\"intValue\":\"").append(value).append('"');
+        } else if (value instanceof Double || value instanceof Float) {
+            json.append("\"doubleValue\":").append(value);
+        } else if (value instanceof Boolean) {
+            json.append("\"boolValue\":").append(value);
+        } else {
+            json.append("\"stringValue\":");
+            string(json, String.valueOf(value));
+        }
+        json.append("}}");
+    }
+
+    private static void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String hex(long id) {
+        return String.format("%016x", id);
+    }
+}
@@ -0,0 +1,32 @@
+package com.eems.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Monitoring: JFR event emitted once per EEMSService operation.
+ */
+@Name("com.eems.ServiceOperation")
+@Label("EEMS Service Operation")
+@Category({"EEMS", "Service"})
+@Description("Execution of one EEMSService operation")
+@StackTrace(false)
+public class ServiceOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("Row Count")
+    @Description("Rows returned or affected; -1 when not applicable")
+    public long rowCount;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,144 @@
+package com.eems.monitoring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monitoring: Span
+ * One timed unit of work inside a trace. Spans are opened through {@link Tracer}
+ * and closed with try-with-resources, which also restores the parent span as the
+ * current one. Unsampled work gets the shared no-op span.
+ */
+public final class Span implements AutoCloseable {
+
+    static final Span NOOP = new Span();
+
+    private final Trace trace;
+    private final Span parent;
+    private final long spanId;
+    private final String name;
+    private final String layer;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private long endNanos;
+    private Map<String, Object> attributes;
+
+    private Span() {
+        this.trace = null;
+        this.parent = null;
+        this.spanId = 0;
+        this.name = "noop";
+        this.layer = null;
+        this.startEpochNanos = 0;
+        this.startNanos = 0;
+    }
+
+    Span(Trace trace, Span parent, String name, String layer) {
+        this.trace = trace;
+        this.parent = parent;
+        this.spanId = ThreadLocalRandom.current().nextLong() | 1L;
+        this.name = name;
+        this.layer = layer;
+        this.startNanos = System.nanoTime();
+        this.startEpochNanos = trace.epochNanosAt(startNanos);
+    }
+
+    public boolean isRecording() {
+        return trace != null;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (trace == null) return this;
+        if (attributes == null) {
+            attributes = new LinkedHashMap<>();
+        }
+        attributes.put(key, value);
+        return this;
+    }
+
+    public String getTraceId() {
+        return trace == null ? null : trace.traceIdHex();
+    }
+
+    @Override
+    public void close() {
+        if (trace == null || endNanos != 0) return;
+        endNanos = System.nanoTime();
+        Tracer.restore(this, parent);
+        trace.finished(this);
+    }
+
+    // --- accessors used by the trace and exporter ---
+
+    Trace trace() {
+        return trace;
+    }
+
+    Span parent() {
+        return parent;
+    }
+
+    long spanId() {
+        return spanId;
+    }
+
+    String name() {
+        return name;
+    }
+
+    String layer() {
+        return layer;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long endEpochNanos() {
+        return startEpochNanos + durationNanos();
+    }
+
+    long durationNanos() {
+        return endNanos - startNanos;
+    }
+
+    Map<String, Object> attributes() {
+        return attributes == null ? Map.of() : attributes;
+    }
+
+    /**
+     * State shared by all spans of one sampled request.
+     */
+    static final class Trace {
+        private final long traceIdHigh;
+        private final long traceIdLow;
+        private final long epochOffsetNanos;
+        private final List<Span> finished = new ArrayList<>();
+
+        Trace() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            this.traceIdHigh = random.nextLong();
+            this.traceIdLow = random.nextLong() | 1L;
+            long wallNanos = System.currentTimeMillis() * 1_000_000L;
+            this.epochOffsetNanos = wallNanos - System.nanoTime();
+        }
+
+        long epochNanosAt(long nanoTime) {
+            return epochOffsetNanos + nanoTime;
+        }
+
+        String traceIdHex() {
+            return String.format("%016x%016x", traceIdHigh, traceIdLow);
+        }
+
+        synchronized void finished(Span span) {
+            finished.add(span);
+            if (span.parent() == null) {
+                Tracer.export(span, List.copyOf(finished));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.eems.monitoring;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monitoring: Tracer
+ * Request-scoped tracing. Controllers open the root span of a request, the service
+ * and data access layers open child spans on the same thread. Only a sampled share
+ * of requests is recorded; for the rest every span is the shared no-op span and
+ * the cost is one thread-local lookup per layer.
+ *
+ * Completed traces are written, one OTLP/JSON document per line, to a rolling file.
+ *
+ * Configured through system properties:
+ *   eems.trace.sampleRate  (default 0.01, 0 disables tracing)
+ *   eems.trace.file        (default logs/eems-traces.jsonl)
+ */
+public final class Tracer {
+
+    public static final String LAYER_CONTROLLER = "controller";
+    public static final String LAYER_SERVICE = "service";
+    public static final String LAYER_CONNECTION = "db.connection";
+    public static final String LAYER_STATEMENT = "db.statement";
+
+    private static final double SAMPLE_RATE = Double.parseDouble(System.getProperty("eems.trace.sampleRate", "0.01"));
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static volatile AsyncRollingFileAppender appender;
+
+    private Tracer() {}
+
+    /**
+     * Open the root span of a request, deciding whether it is sampled. Inside an
+     * already traced request this opens a child span instead.
+     */
+    public static Span startTrace(String name) {
+        Span current = CURRENT.get();
+        if (current != null) {
+            return open(current.trace(), current, name, LAYER_CONTROLLER);
+        }
+        if (SAMPLE_RATE <= 0 || ThreadLocalRandom.current().nextDouble() >= SAMPLE_RATE) {
+            return Span.NOOP;
+        }
+        return open(new Span.Trace(), null, name, LAYER_CONTROLLER);
+    }
+
+    /**
+     * Open a child of the current span, or the no-op span outside a sampled request.
+     */
+    public static Span startSpan(String name, String layer) {
+        Span current = CURRENT.get();
+        if (current == null) {
+            return Span.NOOP;
+        }
+        return open(current.trace(), current, name, layer);
+    }
+
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    public static Span currentSpan() {
+        Span current = CURRENT.get();
+        return current == null ? Span.NOOP : current;
+    }
+
+    private static Span open(Span.Trace trace, Span parent, String name, String layer) {
+        Span span = new Span(trace, parent, name, layer);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Make the parent current again. Spans left open below the closing one (for
+     * example a statement whose result set was never closed) are abandoned.
+     */
+    static void restore(Span closing, Span parent) {
+        Span current = CURRENT.get();
+        while (current != null && current != closing) {
+            current = current.parent();
+        }
+        if (current == null) return;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    /**
+     * Called when the root span closes: attach the per-layer timing breakdown and
+     * hand the trace to the file exporter.
+     */
+    static void export(Span root, List<Span> spans) {
+        long connectionNanos = 0;
+        long statementNanos = 0;
+        for (Span span : spans) {
+            if (LAYER_CONNECTION.equals(span.layer())) {
+                connectionNanos += span.durationNanos();
+            } else if (LAYER_STATEMENT.equals(span.layer())) {
+                statementNanos += span.durationNanos();
+            }
+        }
+        long appNanos = root.durationNanos() - connectionNanos - statementNanos;
+        root.setAttribute("eems.breakdown.connection_wait_ms", connectionNanos / 1_000_000.0)
+            .setAttribute("eems.breakdown.db_ms", statementNanos / 1_000_000.0)
+            .setAttribute("eems.breakdown.app_ms", Math.max(appNanos, 0) / 1_000_000.0)
+            .setAttribute("eems.span_count", spans.size());
+        appender().append(OtlpJsonEncoder.encode(root.trace(), spans));
+    }
+
+    private static AsyncRollingFileAppender appender() {
+        AsyncRollingFileAppender current = appender;
+        if (current == null) {
+            synchronized (Tracer.class) {
+                current = appender;
+                if (current == null) {
+                    Path file = Path.of(System.getProperty("eems.trace.file", "logs/eems-traces.jsonl"));
+                    current = new AsyncRollingFileAppender("eems-trace-exporter", file, 50L * 1024 * 1024, 5, 4096);
+                    appender = current;
+                }
+            }
+        }
+        return current;
+    }
+}
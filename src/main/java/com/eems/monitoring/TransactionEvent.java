@@ -0,0 +1,31 @@
+package com.eems.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Monitoring: JFR event spanning a service-managed transaction,
+ * from the first statement to commit or rollback.
+ */
+@Name("com.eems.Transaction")
+@Label("EEMS Transaction")
+@Category({"EEMS", "Database"})
+@Description("Service-managed database transaction")
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    @Description("COMMIT or ROLLBACK")
+    public String outcome;
+
+    @Label("Reason")
+    @Description("Why the transaction was rolled back, if it was")
+    public String reason;
+}
@@ -0,0 +1,173 @@
+package com.eems.search;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
+import com.eems.dal.events.ChangeEvent;
+import com.eems.dal.events.ChangeEventBus;
+import com.eems.dal.events.ChangeListener;
+
+/**
+ * Search: Directory Search
+ * Name search over employees (full name) and clients (name and contact person),
+ * served from in-memory {@link NgramIndex}es instead of LIKE '%x%' scans.
+ *
+ * The indexes are loaded on first use by streaming scans of the store. From
+ * then on each committed create, update and delete is applied from the row
+ * carried by its change event on the bus, without querying the store; a lost
+ * batch forces a reload.
+ */
+public class DirectorySearch implements AutoCloseable {
+
+    private final DataStore store;
+    private final ChangeEventBus bus;
+    private volatile NgramIndex employees;
+    private volatile NgramIndex clients;
+    private ChangeEventBus.Subscription subscription;
+
+    /**
+     * A search following the shared change-event bus, which every built-in store publishes to.
+     */
+    public DirectorySearch(DataStore store) {
+        this(store, ChangeEventBus.shared());
+    }
+
+    /**
+     * The search every service over the store shares, so its indexes are
+     * loaded once per store; see {@link DataStores#engine}.
+     */
+    public static DirectorySearch shared(DataStore store) {
+        return DataStores.engine(store, DirectorySearch.class, DirectorySearch::new);
+    }
+
+    /**
+     * @param bus bus the store announces its writes on, or null to refresh only through {@link #rebuild}
+     */
+    public DirectorySearch(DataStore store, ChangeEventBus bus) {
+        this.store = store;
+        this.bus = bus;
+    }
+
+    /**
+     * Employees whose full name contains the query, best matches first.
+     */
+    public List<SearchHit> searchEmployees(String query, int limit) throws SQLException {
+        return employeeIndex().search(query, limit);
+    }
+
+    /**
+     * Employees with a name word starting with the prefix, for autocomplete.
+     */
+    public List<SearchHit> completeEmployees(String prefix, int limit) throws SQLException {
+        return employeeIndex().complete(prefix, limit);
+    }
+
+    /**
+     * Clients whose name or contact person contains the query; each hit carries the field that matched.
+     */
+    public List<SearchHit> searchClients(String query, int limit) throws SQLException {
+        return clientIndex().search(query, limit);
+    }
+
+    public List<SearchHit> completeClients(String prefix, int limit) throws SQLException {
+        return clientIndex().complete(prefix, limit);
+    }
+
+    /**
+     * Reload both indexes from streaming scans of the store; searches keep using
+     * the previous indexes until the new ones are complete.
+     */
+    public synchronized void rebuild() throws SQLException {
+        NgramIndex employeeIndex = new NgramIndex();
+        store.employees().forEach(employee -> employeeIndex.put(employee.getEmployeeId(), employee.getFullName()));
+        NgramIndex clientIndex = new NgramIndex();
+        store.clients().forEach(client -> clientIndex.put(client.getClientId(),
+                client.getName(), client.getContactPerson()));
+        // Employees last: a non-null employee index means both are loaded
+        clients = clientIndex;
+        employees = employeeIndex;
+    }
+
+    /**
+     * Stop following the bus.
+     */
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    // Serialized with rebuild(), so a change is never applied to an index that a rebuild then replaces
+    private synchronized void apply(List<ChangeEvent> batch) {
+        NgramIndex employeeIndex = employees;
+        NgramIndex clientIndex = clients;
+        if (employeeIndex == null) return;
+
+        for (ChangeEvent event : batch) {
+            switch (event) {
+                case ChangeEvent.EmployeeChanged e -> {
+                    if (e.change() == ChangeEvent.Change.DELETED) {
+                        employeeIndex.remove(e.employeeId());
+                    } else {
+                        employeeIndex.put(e.employeeId(), e.employee().getFullName());
+                    }
+                }
+                case ChangeEvent.ClientChanged c -> {
+                    if (c.change() == ChangeEvent.Change.DELETED) {
+                        clientIndex.remove(c.clientId());
+                    } else {
+                        clientIndex.put(c.clientId(), c.client().getName(), c.client().getContactPerson());
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private NgramIndex employeeIndex() throws SQLException {
+        NgramIndex current = employees;
+        if (current == null) {
+            loadOnce();
+            current = employees;
+        }
+        return current;
+    }
+
+    private NgramIndex clientIndex() throws SQLException {
+        NgramIndex current = clients;
+        if (current == null) {
+            loadOnce();
+            current = clients;
+        }
+        return current;
+    }
+
+    // Subscribe before the scans, so no write committed during them is missed
+    private synchronized void loadOnce() throws SQLException {
+        if (employees != null) return;
+
+        if (bus != null && subscription == null) {
+            subscription = bus.subscribe("eems-directory-search", new ChangeListener() {
+                @Override
+                public void onChanges(List<ChangeEvent> batch) {
+                    apply(batch);
+                }
+
+                @Override
+                public void onOverflow() {
+                    if (employees == null) return;
+                    try {
+                        rebuild();
+                    } catch (SQLException e) {
+                        System.err.println("Directory search rebuild failed: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        rebuild();
+    }
+}
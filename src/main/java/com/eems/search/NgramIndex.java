@@ -0,0 +1,393 @@
+package com.eems.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.eems.util.IntHashSet;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Search: N-gram Index
+ * In-memory text index over documents identified by an int id, each with one
+ * or more text fields.
+ *
+ * Text is normalized to lower case without accents, with every run of other
+ * characters turned into one space. Three structures are kept, each holding
+ * ascending document ids:
+ * - a sorted dictionary of the first word of each field;
+ * - a sorted dictionary of every word; and
+ * - a posting list per trigram, for matches inside words.
+ *
+ * Hits are ranked by how they match: text starting with the query, then a
+ * later word starting with it, then the query inside a word. Each class is
+ * read from its own structure in rank order, alphabetically by word and then
+ * by id (by id alone for queries of several words), so a query stops as soon
+ * as it has a page of hits and its cost follows the page size, not the number
+ * of matching documents.
+ *
+ * Trigram keys keep 10 bits per character, so two rare characters can share a
+ * key; every trigram candidate is checked against its text.
+ *
+ * Reads run concurrently under a read lock. Updates take the write lock and
+ * touch only the posting lists of the document's own words and trigrams.
+ */
+public final class NgramIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntObjectHashMap<String[]> texts = new IntObjectHashMap<>();
+    private final IntObjectHashMap<String[]> normalized = new IntObjectHashMap<>();
+    private final TreeMap<String, Postings> leadingWords = new TreeMap<>();
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    private final IntObjectHashMap<Postings> grams = new IntObjectHashMap<>();
+
+    /**
+     * Index a document, replacing what was indexed under its id. Null fields are skipped.
+     */
+    public void put(int id, String... fields) {
+        String[] folded = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            folded[i] = fields[i] == null ? "" : normalize(fields[i]);
+        }
+        lock.writeLock().lock();
+        try {
+            texts.put(id, fields.clone());
+            String[] previous = normalized.put(id, folded);
+            if (previous != null) {
+                if (Arrays.equals(previous, folded)) {
+                    return;
+                }
+                unindex(id, previous);
+            }
+            index(id, folded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = normalized.remove(id);
+            if (previous != null) {
+                texts.remove(id);
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents containing the query, best {@code limit} first. Queries under three
+     * characters match word starts only.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return find(query, limit, true);
+    }
+
+    /**
+     * Autocomplete: documents with a word starting with the prefix, which may span
+     * words ("ann sm"), best {@code limit} first.
+     */
+    public List<SearchHit> complete(String prefix, int limit) {
+        return find(prefix, limit, false);
+    }
+
+    /**
+     * Lower case, accents removed, and every run of characters other than letters and digits
+     * turned into one space, trimmed.
+     */
+    static String normalize(String text) {
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        String decomposed = ascii ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && folded.length() > 0) {
+                    folded.append(' ');
+                }
+                pendingSpace = false;
+                folded.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return folded.toString();
+    }
+
+    private List<SearchHit> find(String query, int limit, boolean substrings) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return q.indexOf(' ') < 0 ? findWord(q, limit, substrings) : findPhrase(q, limit, substrings);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A single-word query: each class of hit comes straight from its own structure, in rank order.
+     */
+    private List<SearchHit> findWord(String q, int limit, boolean substrings) {
+        List<SearchHit> hits = new ArrayList<>(Math.min(limit, 64));
+        IntHashSet seen = new IntHashSet();
+        if (collect(leadingWords.subMap(q, true, q + Character.MAX_VALUE, false).values(), q, limit, hits, seen)
+                || collect(words.subMap(q, true, q + Character.MAX_VALUE, false).values(), q, limit, hits, seen)
+                || !substrings || q.length() < GRAM) {
+            return List.copyOf(hits);
+        }
+        // Every word-start match is already in seen; what remains matches inside a word
+        Postings candidates = rarestGram(q);
+        if (candidates != null) {
+            for (int i = 0; i < candidates.size && hits.size() < limit; i++) {
+                int id = candidates.ids[i];
+                if (!seen.contains(id)) {
+                    SearchHit hit = match(id, q, false);
+                    if (hit != null) {
+                        hits.add(hit);
+                    }
+                }
+            }
+        }
+        return List.copyOf(hits);
+    }
+
+    /**
+     * Add the documents of each posting list, in order, until {@code limit} hits; returns whether it got there.
+     */
+    private boolean collect(Iterable<Postings> lists, String q, int limit, List<SearchHit> hits, IntHashSet seen) {
+        for (Postings postings : lists) {
+            for (int i = 0; i < postings.size; i++) {
+                int id = postings.ids[i];
+                if (seen.add(id)) {
+                    hits.add(match(id, q, true));
+                    if (hits.size() == limit) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A query of several words: candidates from the rarest trigram, checked in id order,
+     * stopping once a page of text-prefix hits is found.
+     */
+    private List<SearchHit> findPhrase(String q, int limit, boolean substrings) {
+        Postings candidates = rarestGram(q);
+        if (candidates == null) {
+            return List.of();
+        }
+        List<SearchHit> leading = new ArrayList<>();
+        List<SearchHit> wordStarts = new ArrayList<>();
+        List<SearchHit> inside = new ArrayList<>();
+        for (int i = 0; i < candidates.size && leading.size() < limit; i++) {
+            SearchHit hit = match(candidates.ids[i], q, !substrings);
+            if (hit == null) {
+                continue;
+            }
+            List<SearchHit> bucket = switch (hit.match()) {
+                case PREFIX -> leading;
+                case WORD_PREFIX -> wordStarts;
+                case SUBSTRING -> inside;
+            };
+            if (bucket.size() < limit) {
+                bucket.add(hit);
+            }
+        }
+        leading.addAll(wordStarts);
+        leading.addAll(inside);
+        return List.copyOf(leading.size() > limit ? leading.subList(0, limit) : leading);
+    }
+
+    private Postings rarestGram(String q) {
+        Postings rarest = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Postings postings = grams.get(gramKey(q, i));
+            if (postings == null) {
+                return null;
+            }
+            if (rarest == null || postings.size < rarest.size) {
+                rarest = postings;
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * The document's best matching field, or null if none contains the query.
+     */
+    private SearchHit match(int id, String q, boolean wordStartsOnly) {
+        String[] fields = normalized.get(id);
+        int bestField = -1;
+        SearchHit.Match best = null;
+        for (int f = 0; f < fields.length; f++) {
+            SearchHit.Match match = matchField(fields[f], q, wordStartsOnly);
+            if (match != null && (best == null || match.compareTo(best) < 0)) {
+                best = match;
+                bestField = f;
+            }
+        }
+        return best == null ? null : new SearchHit(id, texts.get(id)[bestField], best);
+    }
+
+    private static SearchHit.Match matchField(String field, String q, boolean wordStartsOnly) {
+        if (field.startsWith(q)) {
+            return SearchHit.Match.PREFIX;
+        }
+        boolean inside = false;
+        for (int at = field.indexOf(q, 1); at > 0; at = field.indexOf(q, at + 1)) {
+            if (field.charAt(at - 1) == ' ') {
+                return SearchHit.Match.WORD_PREFIX;
+            }
+            inside = true;
+        }
+        return inside && !wordStartsOnly ? SearchHit.Match.SUBSTRING : null;
+    }
+
+    private void index(int id, String[] fields) {
+        for (String word : leadingWordsOf(fields)) {
+            leadingWords.computeIfAbsent(word, w -> new Postings()).add(id);
+        }
+        for (String word : wordsOf(fields)) {
+            words.computeIfAbsent(word, w -> new Postings()).add(id);
+        }
+        for (int key : gramKeys(fields)) {
+            grams.computeIfAbsent(key, k -> new Postings()).add(id);
+        }
+    }
+
+    private void unindex(int id, String[] fields) {
+        for (String word : leadingWordsOf(fields)) {
+            removePosting(leadingWords, word, id);
+        }
+        for (String word : wordsOf(fields)) {
+            removePosting(words, word, id);
+        }
+        for (int key : gramKeys(fields)) {
+            Postings postings = grams.get(key);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                grams.remove(key);
+            }
+        }
+    }
+
+    private static void removePosting(TreeMap<String, Postings> dictionary, String word, int id) {
+        Postings postings = dictionary.get(word);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            dictionary.remove(word);
+        }
+    }
+
+    private static List<String> leadingWordsOf(String[] fields) {
+        List<String> found = new ArrayList<>(fields.length);
+        for (String field : fields) {
+            if (!field.isEmpty()) {
+                int space = field.indexOf(' ');
+                String word = space < 0 ? field : field.substring(0, space);
+                if (!found.contains(word)) {
+                    found.add(word);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static List<String> wordsOf(String[] fields) {
+        List<String> found = new ArrayList<>();
+        for (String field : fields) {
+            if (field.isEmpty()) {
+                continue;
+            }
+            for (String word : field.split(" ")) {
+                if (!found.contains(word)) {
+                    found.add(word);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int[] gramKeys(String[] fields) {
+        IntHashSet keys = new IntHashSet();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                keys.add(gramKey(field, i));
+            }
+        }
+        return keys.toArray();
+    }
+
+    private static int gramKey(String text, int from) {
+        return (text.charAt(from) & 0x3FF) << 20
+                | (text.charAt(from + 1) & 0x3FF) << 10
+                | (text.charAt(from + 2) & 0x3FF);
+    }
+
+    /**
+     * Ascending document ids.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            // Ids mostly arrive in ascending order during a load
+            if (size > 0 && ids[size - 1] < id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+                }
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.eems.search;
+
+/**
+ * Search: Search Hit
+ * One matching row: its id, the indexed text that matched, and how it matched.
+ */
+public record SearchHit(int id, String text, Match match) {
+
+    /**
+     * How the query matched, best first.
+     */
+    public enum Match {
+        /** The text starts with the query. */
+        PREFIX,
+        /** A later word of the text starts with the query. */
+        WORD_PREFIX,
+        /** The query occurs inside a word. */
+        SUBSTRING
+    }
+}
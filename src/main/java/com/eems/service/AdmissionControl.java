@@ -0,0 +1,54 @@
+package com.eems.service;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Business Logic Layer: Admission Control
+ * One bulkhead per workload class, so expensive analytical operations queue and
+ * fail among themselves instead of taking every database connection away from
+ * cheap transactional work. The default limits add up to the default
+ * connection pool size.
+ *
+ * Each bulkhead is configured through eems.bulkhead.&lt;analytical|transactional&gt;.*
+ * system properties: limit, queue, maxWaitMs, adaptive and targetLatencyMs.
+ */
+public final class AdmissionControl {
+
+    private static final Map<ServiceOperation.Workload, Bulkhead> BULKHEADS = new EnumMap<>(ServiceOperation.Workload.class);
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    static {
+        BULKHEADS.put(ServiceOperation.Workload.ANALYTICAL,
+                Bulkhead.fromProperties("analytical", 3, 10, 2_000, 1_000));
+        BULKHEADS.put(ServiceOperation.Workload.TRANSACTIONAL,
+                Bulkhead.fromProperties("transactional", 7, 100, 500, 200));
+    }
+
+    private AdmissionControl() {}
+
+    public static Bulkhead getBulkhead(ServiceOperation.Workload workload) {
+        return BULKHEADS.get(workload);
+    }
+
+    /**
+     * Run the work inside the operation's bulkhead. Operations nested inside an
+     * already admitted one on the same thread are not admitted twice.
+     */
+    static <T> T admit(ServiceOperation operation, OperationExecutor.Work<T> work) throws SQLException {
+        if (ADMITTED.get() != null) {
+            return work.run();
+        }
+        Bulkhead bulkhead = BULKHEADS.get(operation.getWorkload());
+        bulkhead.acquire();
+        ADMITTED.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try {
+            return work.run();
+        } finally {
+            ADMITTED.remove();
+            bulkhead.release(System.nanoTime() - start);
+        }
+    }
+}
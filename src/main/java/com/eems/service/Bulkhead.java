@@ -0,0 +1,185 @@
+package com.eems.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Business Logic Layer: Bulkhead
+ * Concurrency limit with a bounded wait queue. Callers beyond the limit wait up
+ * to maxWait for a slot; once the queue is full, or the wait expires, they are
+ * rejected immediately with a {@link ServiceOverloadedException}.
+ *
+ * In adaptive mode the limit follows observed latency (AIMD): it shrinks by 10%
+ * when operations take longer than the latency target and grows by one while the
+ * bulkhead is saturated and latency stays under target.
+ */
+public class Bulkhead {
+
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final boolean adaptive;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private int limit;
+    private int inFlight;
+    private int queued;
+    private long lastAdjustNanos;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int limit, int maxQueue, long maxWaitMs, boolean adaptive, long targetLatencyMs) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Bulkhead limit must be positive");
+        }
+        this.name = name;
+        this.limit = limit;
+        this.minLimit = 1;
+        this.maxLimit = limit * 4;
+        this.maxQueue = Math.max(maxQueue, 0);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.adaptive = adaptive;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+    }
+
+    /**
+     * Build a bulkhead from system properties prefixed with eems.bulkhead.&lt;name&gt;.
+     */
+    static Bulkhead fromProperties(String name, int defaultLimit, int defaultQueue, long defaultWaitMs,
+                                   long defaultTargetLatencyMs) {
+        String prefix = "eems.bulkhead." + name + ".";
+        return new Bulkhead(name,
+                Integer.getInteger(prefix + "limit", defaultLimit),
+                Integer.getInteger(prefix + "queue", defaultQueue),
+                Long.getLong(prefix + "maxWaitMs", defaultWaitMs),
+                Boolean.getBoolean(prefix + "adaptive"),
+                Long.getLong(prefix + "targetLatencyMs", defaultTargetLatencyMs));
+    }
+
+    /**
+     * Take a slot or fail fast. Every successful call must be paired with
+     * {@link #release(long)}.
+     */
+    public void acquire() throws ServiceOverloadedException {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                admitted.increment();
+                return;
+            }
+            if (queued >= maxQueue) {
+                throw reject("queue full");
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        throw reject("timed out waiting for a slot");
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("interrupted while waiting for a slot");
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            admitted.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Free the slot and feed the operation's latency to the adaptive limit.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (adaptive) {
+                adjustLimit(latencyNanos);
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjustLimit(long latencyNanos) {
+        long now = System.nanoTime();
+        if (now - lastAdjustNanos < ADJUST_INTERVAL_NANOS) return;
+        if (latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, (int) (limit * 0.9));
+            lastAdjustNanos = now;
+        } else if (inFlight + 1 >= limit || queued > 0) {
+            limit = Math.min(maxLimit, limit + 1);
+            lastAdjustNanos = now;
+            slotFreed.signal();
+        }
+    }
+
+    private ServiceOverloadedException reject(String reason) {
+        rejected.increment();
+        return new ServiceOverloadedException("EEMS is overloaded: " + name + " bulkhead rejected the request ("
+                + reason + ", limit=" + limit + ", inFlight=" + inFlight + ", queued=" + queued + "); retry later");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{" + name + ", limit=" + getLimit() + ", inFlight=" + getInFlight()
+                + ", queued=" + getQueued() + ", admitted=" + getAdmittedCount()
+                + ", rejected=" + getRejectedCount() + '}';
+    }
+}
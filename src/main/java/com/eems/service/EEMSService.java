@@ -1,17 +1,25 @@
 package com.eems.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import com.eems.analytics.CapacityEngine;
+import com.eems.analytics.CapacitySegment;
+import com.eems.analytics.FacetCounts;
+import com.eems.analytics.FacetEngine;
+import com.eems.analytics.FacetFilter;
+import com.eems.analytics.OverAllocation;
+import com.eems.analytics.ProjectTimeline;
+import com.eems.analytics.WorkforceAnalytics;
 import com.eems.dal.ClientRepository;
-import com.eems.dal.DatabaseConnection;
+import com.eems.dal.DataStore;
+import com.eems.dal.DataStores;
 import com.eems.dal.DepartmentRepository;
 import com.eems.dal.EmployeeProjectRepository;
 import com.eems.dal.EmployeeRepository;
@@ -21,6 +29,15 @@ import com.eems.domain.Department;
 import com.eems.domain.Employee;
 import com.eems.domain.EmployeeProject;
 import com.eems.domain.Project;
+import com.eems.domain.ProjectDetails;
+import com.eems.monitoring.TransactionEvent;
+import com.eems.search.DirectorySearch;
+import com.eems.search.SearchHit;
+import com.eems.util.IntHashSet;
+import com.eems.util.IntIntHashMap;
+import com.eems.util.IntObjectHashMap;
+
+import static com.eems.service.OperationExecutor.execute;
 
 /**
  * Business Logic Layer: EEMS Service
@@ -28,71 +45,97 @@ import com.eems.domain.Project;
  */
 public class EEMSService {
 
+    // Reject assignment changes that would raise an employee above 100%; off by default
+    private static final boolean ENFORCE_CAPACITY = Boolean.getBoolean("eems.capacity.enforce");
+
+    private final DataStore dataStore;
     private final DepartmentRepository departmentRepo;
     private final EmployeeRepository employeeRepo;
     private final ProjectRepository projectRepo;
     private final ClientRepository clientRepo;
     private final EmployeeProjectRepository empProjRepo;
+    private final FacetEngine facets;
+    private final ProjectTimeline timeline;
+    private final CapacityEngine capacity;
+    private final WorkforceAnalytics analytics;
+    private final DirectorySearch search;
 
     public EEMSService() {
-        this.departmentRepo = new DepartmentRepository();
-        this.employeeRepo = new EmployeeRepository();
-        this.projectRepo = new ProjectRepository();
-        this.clientRepo = new ClientRepository();
-        this.empProjRepo = new EmployeeProjectRepository();
+        this(DataStores.defaultStore());
+    }
+
+    /**
+     * A service over the store using the store's shared engines, so any number
+     * of services over one store keep one set of indexes between them.
+     */
+    public EEMSService(DataStore dataStore) {
+        this(dataStore, FacetEngine.shared(dataStore), ProjectTimeline.shared(dataStore),
+                CapacityEngine.shared(dataStore), WorkforceAnalytics.shared(dataStore),
+                DirectorySearch.shared(dataStore));
+    }
+
+    /**
+     * @param facets engine answering faceted queries over the same store; its index is built on first use
+     * @param timeline index of project date ranges over the same store; also built on first use
+     * @param capacity per-employee allocation timelines over the same store; also built on first use
+     * @param analytics columnar snapshot for payroll and cost reports over the same store; also built on first use
+     * @param search name indexes of employees and clients over the same store; also built on first use
+     */
+    public EEMSService(DataStore dataStore, FacetEngine facets, ProjectTimeline timeline, CapacityEngine capacity,
+                       WorkforceAnalytics analytics, DirectorySearch search) {
+        this.dataStore = dataStore;
+        this.facets = facets;
+        this.timeline = timeline;
+        this.capacity = capacity;
+        this.analytics = analytics;
+        this.search = search;
+        this.departmentRepo = dataStore.departments();
+        this.employeeRepo = dataStore.employees();
+        this.projectRepo = dataStore.projects();
+        this.clientRepo = dataStore.clients();
+        this.empProjRepo = dataStore.employeeProjects();
     }
 
     // ============================================
     // TASK 1: Calculate Project HR Cost
     // ============================================
     public BigDecimal calculateProjectHRCost(int projectId) throws SQLException {
+        return execute(ServiceOperation.CALCULATE_PROJECT_HR_COST, () -> computeProjectHRCost(projectId));
+    }
+
+    private BigDecimal computeProjectHRCost(int projectId) throws SQLException {
         Project project = Optional.ofNullable(projectRepo.findById(projectId))
             .orElseThrow(() -> new IllegalArgumentException("Project not found with ID: " + projectId));
 
         long durationMonths = project.getDurationInMonths();
 
+        // Sum allocations per employee, keyed by primitive id
         List<EmployeeProject> assignments = empProjRepo.findByProjectId(projectId);
-        List<Employee> employees = employeeRepo.findByIds(
-            assignments.stream()
-                .map(EmployeeProject::getEmployeeId)
-                .distinct()
-                .toList()
-        );
-
-        Map<Integer, Employee> employeeById = employees.stream()
-            .collect(java.util.stream.Collectors.toMap(
-                Employee::getEmployeeId,
-                e -> e
-            ));
-
-        // Calculate total cost using streams
-        return assignments.stream()
-            // Group by employee and sum their allocations
-            .collect(Collectors.groupingBy(
-                EmployeeProject::getEmployeeId,
-                Collectors.summingInt(EmployeeProject::getTimeAllocationPercent)))
-            .entrySet().stream()
-            // Convert to employee costs
-            .map(entry -> {
-                Employee employee = employeeById.get(entry.getKey());
-                if (employee == null) return BigDecimal.ZERO;
-                
-                // Following the exact formula from requirements with high precision:
-                // CostEmployee = (Salary / 12) × Duration (Months) × (Allocation Percentage / 100)
-                return employee.getSalary()  // Annual Salary
-                    .multiply(BigDecimal.valueOf(durationMonths))  // Times Duration
-                    .multiply(BigDecimal.valueOf(entry.getValue()))  // Times Allocation
-                    .divide(BigDecimal.valueOf(1200), 8, RoundingMode.HALF_EVEN);  // Divide by (12 * 100) with high precision
-            })
-            // Sum all costs and round only the final result to 2 decimal places
-            .reduce(BigDecimal.ZERO, BigDecimal::add)
-            .setScale(2, RoundingMode.HALF_UP);
+        IntIntHashMap allocationByEmployee = new IntIntHashMap(assignments.size());
+        for (EmployeeProject assignment : assignments) {
+            allocationByEmployee.addTo(assignment.getEmployeeId(), assignment.getTimeAllocationPercent());
+        }
+
+        int[] employeeIds = allocationByEmployee.keys();
+        IntObjectHashMap<Employee> employeeById = new IntObjectHashMap<>(employeeIds.length);
+        for (Employee employee : employeeRepo.findByIds(employeeIds)) {
+            employeeById.put(employee.getEmployeeId(), employee);
+        }
+
+        // CostEmployee = (Salary / 12) × Duration (Months) × (Allocation Percentage / 100),
+        // each term to 8 decimals HALF_EVEN and the total to 2 decimals HALF_UP
+        return HrCostKernel.projectCost(durationMonths, employeeById, allocationByEmployee);
     }
 
     // ============================================
     // TASK 2: Get Projects by Department
     // ============================================
     public List<Project> getProjectsByDepartment(int departmentId, String sortBy) throws SQLException {
+        return execute(ServiceOperation.GET_PROJECTS_BY_DEPARTMENT,
+            () -> findActiveProjectsForDepartment(departmentId, sortBy));
+    }
+
+    private List<Project> findActiveProjectsForDepartment(int departmentId, String sortBy) throws SQLException {
         // Validate department exists
         Department department = departmentRepo.findById(departmentId);
         if (department == null) {
@@ -121,47 +164,330 @@ public class EEMSService {
         }
 
         LocalDate deadline = LocalDate.now().plusDays(daysUntilDeadline);
-        return clientRepo.findByUpcomingProjectDeadline(deadline);
+        return execute(ServiceOperation.FIND_CLIENTS_BY_UPCOMING_PROJECT_DEADLINE,
+            () -> clientRepo.findByUpcomingProjectDeadline(deadline));
+    }
+
+    /**
+     * Task 3 narrowed by facets: distinct clients passing the filter's client
+     * facets with a project that ends within the window and passes its project
+     * facets, ascending by id. Answered from the facet index.
+     */
+    public List<Client> findClientsByUpcomingProjectDeadline(int daysUntilDeadline, FacetFilter filter)
+            throws SQLException {
+        if (daysUntilDeadline < 0) {
+            throw new IllegalArgumentException("Days until deadline must be non-negative");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Facet filter cannot be null");
+        }
+
+        FacetFilter withDeadline = filter.withProjectEndOnOrBefore(LocalDate.now().plusDays(daysUntilDeadline));
+        return execute(ServiceOperation.FIND_CLIENTS_BY_UPCOMING_PROJECT_DEADLINE,
+            () -> facets.findClients(withDeadline));
+    }
+
+    /**
+     * How many clients and projects match the filter, in total and per facet value.
+     */
+    public FacetCounts countClientFacets(FacetFilter filter) throws SQLException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Facet filter cannot be null");
+        }
+        return execute(ServiceOperation.COUNT_CLIENT_FACETS, () -> facets.count(filter));
     }
 
     // ============================================
-    // TASK 4: Transfer Employee to Department
+    // Project Timeline
     // ============================================
-    public boolean transferEmployeeToDepartment(int employeeId, int newDepartmentId) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
-
-            // Lock the employee row to avoid concurrent transfers
-            Employee employee = employeeRepo.findByIdForUpdate(conn, employeeId);
-            if (employee == null) {
-                conn.rollback();
-                throw new IllegalArgumentException("Employee not found with ID: " + employeeId);
-            }
 
-            // Ensure department exists within same transaction
-            Department newDepartment = departmentRepo.findById(conn, newDepartmentId);
-            if (newDepartment == null) {
-                conn.rollback();
-                throw new IllegalArgumentException("Department not found with ID: " + newDepartmentId);
-            }
+    /**
+     * Projects active on at least one day from {@code from} through {@code to},
+     * both inclusive, ascending by id. Answered from the project timeline.
+     */
+    public List<Project> findProjectsActiveBetween(LocalDate from, LocalDate to) throws SQLException {
+        validateDateRange(from, to);
+        return execute(ServiceOperation.FIND_PROJECTS_ACTIVE_BETWEEN,
+            () -> timeline.findProjectsActiveBetween(from, to));
+    }
+
+    /**
+     * The department's projects active on at least one day from {@code from}
+     * through {@code to}, both inclusive, ascending by id.
+     */
+    public List<Project> findProjectsActiveBetween(LocalDate from, LocalDate to, int departmentId)
+            throws SQLException {
+        validateDateRange(from, to);
+        return execute(ServiceOperation.FIND_PROJECTS_ACTIVE_BETWEEN,
+            () -> findDepartmentProjectsActiveBetween(from, to, departmentId));
+    }
+
+    /**
+     * Projects whose start and end dates include the date, ascending by id.
+     */
+    public List<Project> findProjectsActiveOn(LocalDate date) throws SQLException {
+        validateDateRange(date, date);
+        return execute(ServiceOperation.FIND_PROJECTS_ACTIVE_ON,
+            () -> timeline.findProjectsActiveBetween(date, date));
+    }
+
+    /**
+     * The department's projects whose start and end dates include the date, ascending by id.
+     */
+    public List<Project> findProjectsActiveOn(LocalDate date, int departmentId) throws SQLException {
+        validateDateRange(date, date);
+        return execute(ServiceOperation.FIND_PROJECTS_ACTIVE_ON,
+            () -> findDepartmentProjectsActiveBetween(date, date, departmentId));
+    }
+
+    private List<Project> findDepartmentProjectsActiveBetween(LocalDate from, LocalDate to, int departmentId)
+            throws SQLException {
+        if (departmentRepo.findById(departmentId) == null) {
+            throw new IllegalArgumentException("Department not found with ID: " + departmentId);
+        }
+        return timeline.findProjectsActiveBetween(from, to, departmentId);
+    }
+
+    // ============================================
+    // Employee Capacity
+    // ============================================
 
-            // Check if employee is already in that department
-            if (employee.getDepartmentId() == newDepartmentId) {
-                conn.rollback();
-                throw new IllegalArgumentException("Employee is already in department: " + newDepartmentId);
+    /**
+     * Employees with at least {@code minFreePercent} of their time unallocated on
+     * every day from {@code from} through {@code to}, ascending by id.
+     */
+    public List<Employee> findAvailableEmployees(int minFreePercent, LocalDate from, LocalDate to)
+            throws SQLException {
+        validateFreePercent(minFreePercent);
+        validateDateRange(from, to);
+        return execute(ServiceOperation.FIND_AVAILABLE_EMPLOYEES,
+            () -> capacity.findAvailableEmployees(0, minFreePercent, from, to));
+    }
+
+    /**
+     * The department's employees with at least {@code minFreePercent} of their time
+     * unallocated on every day from {@code from} through {@code to}, ascending by id.
+     */
+    public List<Employee> findAvailableEmployees(int departmentId, int minFreePercent, LocalDate from, LocalDate to)
+            throws SQLException {
+        validateFreePercent(minFreePercent);
+        validateDateRange(from, to);
+        return execute(ServiceOperation.FIND_AVAILABLE_EMPLOYEES, () -> {
+            if (departmentRepo.findById(departmentId) == null) {
+                throw new IllegalArgumentException("Department not found with ID: " + departmentId);
             }
+            return capacity.findAvailableEmployees(departmentId, minFreePercent, from, to);
+        });
+    }
+
+    /**
+     * The employee's summed allocation from {@code from} through {@code to}, as
+     * consecutive segments of constant allocation covering the whole range.
+     */
+    public List<CapacitySegment> getEmployeeCapacity(int employeeId, LocalDate from, LocalDate to)
+            throws SQLException {
+        validateDateRange(from, to);
+        return execute(ServiceOperation.GET_EMPLOYEE_CAPACITY, () -> Optional
+            .ofNullable(capacity.getCapacity(employeeId, from, to))
+            .orElseThrow(() -> new IllegalArgumentException("Employee not found with ID: " + employeeId)));
+    }
+
+    /**
+     * Every run of days on which an employee's concurrent allocations exceed 100%,
+     * by employee and then by date, with the projects involved.
+     */
+    public List<OverAllocation> getOverAllocationReport() throws SQLException {
+        return execute(ServiceOperation.GET_OVER_ALLOCATION_REPORT, capacity::findOverAllocations);
+    }
+
+    /**
+     * Annual payroll of each department with employees, ascending by id.
+     * Answered from the workforce snapshot.
+     */
+    public Map<Integer, BigDecimal> getPayrollByDepartment() throws SQLException {
+        return execute(ServiceOperation.GET_PAYROLL_BY_DEPARTMENT, analytics::getPayrollByDepartment);
+    }
+
+    /**
+     * HR cost of every project, ascending by id, as calculateProjectHRCost would
+     * compute it. Answered from the workforce snapshot.
+     */
+    public Map<Integer, BigDecimal> getHRCostByProject() throws SQLException {
+        return execute(ServiceOperation.GET_HR_COST_BY_PROJECT, analytics::getHRCostByProject);
+    }
+
+    /**
+     * The runs of days within the project's dates on which the employee would be
+     * over-allocated with this allocation to the project, in place of any current
+     * one; empty if the assignment fits. Reads the capacity index, not the
+     * assignment table, so it is cheap enough to run before every assignment.
+     * The index trails committed writes, so the answer is advisory; with
+     * eems.capacity.enforce set the write itself checks against the tables.
+     */
+    public List<OverAllocation> checkAssignment(int employeeId, int projectId, int timeAllocation)
+            throws SQLException {
+        if (timeAllocation <= 0 || timeAllocation > 100) {
+            throw new IllegalArgumentException("Time allocation must be between 1 and 100");
+        }
+        return execute(ServiceOperation.CHECK_ASSIGNMENT, () -> {
+            Project project = Optional.ofNullable(projectRepo.findById(projectId))
+                .orElseThrow(() -> new IllegalArgumentException("Project not found with ID: " + projectId));
+            return capacity.checkAllocation(employeeId, project, timeAllocation);
+        });
+    }
+
+    /*
+     * With eems.capacity.enforce set, refuse an allocation that over-allocates the
+     * employee. Called inside the write's transaction and checked against the
+     * tables, not the capacity index: locking the employee row makes concurrent
+     * checked writes for the employee take turns, so each one sees the assignments
+     * the one before it committed. An allocation no higher than the current one is
+     * always allowed, so an over-allocated employee can be brought down.
+     */
+    private void requireCapacity(int employeeId, Project project, int timeAllocation) throws SQLException {
+        employeeRepo.findByIdForUpdate(employeeId);
+        List<EmployeeProject> assignments = empProjRepo.findByEmployeeIdForUpdate(employeeId);
+        int[] projectIds = new int[assignments.size()];
+        for (int i = 0; i < projectIds.length; i++) {
+            EmployeeProject assignment = assignments.get(i);
+            if (assignment.getProjectId() == project.getProjectId()
+                    && timeAllocation <= assignment.getTimeAllocationPercent()) {
+                return;
+            }
+            projectIds[i] = assignment.getProjectId();
+        }
+
+        List<Project> projects = projectRepo.findByIds(projectIds);
+        List<OverAllocation> runs = CapacityEngine.checkAllocation(employeeId, assignments, projects, project,
+            timeAllocation);
+        if (!runs.isEmpty()) {
+            OverAllocation first = runs.get(0);
+            throw new IllegalArgumentException("Employee " + employeeId + " would be allocated "
+                + first.peakPercent() + "% from " + first.from() + " to " + first.to());
+        }
+    }
+
+    private void validateFreePercent(int minFreePercent) {
+        if (minFreePercent < 0 || minFreePercent > 100) {
+            throw new IllegalArgumentException("Free capacity must be between 0 and 100 percent");
+        }
+    }
+
+    private void validateDateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Date range is empty: " + from + " to " + to);
+        }
+    }
 
-            // Update using the same connection (participates in transaction)
-            employee.setDepartmentId(newDepartmentId);
-            boolean updated = employeeRepo.update(conn, employee);
+    // ============================================
+    // Directory Search
+    // ============================================
 
-            if (updated) {
-                conn.commit();
+    /**
+     * Employees whose full name contains the query, best {@code limit} matches first.
+     * Answered from the directory search index.
+     */
+    public List<SearchHit> searchEmployees(String query, int limit) throws SQLException {
+        validateSearch(query, limit);
+        return execute(ServiceOperation.SEARCH_EMPLOYEES, () -> search.searchEmployees(query, limit));
+    }
+
+    /**
+     * Employees with a name word starting with the prefix, for autocomplete.
+     */
+    public List<SearchHit> completeEmployees(String prefix, int limit) throws SQLException {
+        validateSearch(prefix, limit);
+        return execute(ServiceOperation.COMPLETE_EMPLOYEES, () -> search.completeEmployees(prefix, limit));
+    }
+
+    /**
+     * Clients whose name or contact person contains the query, best {@code limit} matches first.
+     */
+    public List<SearchHit> searchClients(String query, int limit) throws SQLException {
+        validateSearch(query, limit);
+        return execute(ServiceOperation.SEARCH_CLIENTS, () -> search.searchClients(query, limit));
+    }
+
+    private void validateSearch(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new IllegalArgumentException("Limit must be between 1 and 100");
+        }
+    }
+
+    // ============================================
+    // TASK 4: Transfer Employee to Department
+    // ============================================
+    public boolean transferEmployeeToDepartment(int employeeId, int newDepartmentId) throws SQLException {
+        return execute(ServiceOperation.TRANSFER_EMPLOYEE_TO_DEPARTMENT,
+            () -> transferInTransaction(employeeId, newDepartmentId));
+    }
+
+    private boolean transferInTransaction(int employeeId, int newDepartmentId) throws SQLException {
+        TransactionEvent tx = beginTransaction(ServiceOperation.TRANSFER_EMPLOYEE_TO_DEPARTMENT);
+
+        // Every failure path, validation or SQL, rolls back the whole transaction
+        try {
+            boolean transferred = dataStore.inTransaction(transaction -> {
+                // Lock the employee row to avoid concurrent transfers
+                Employee employee = employeeRepo.findByIdForUpdate(employeeId);
+                if (employee == null) {
+                    throw new IllegalArgumentException("Employee not found with ID: " + employeeId);
+                }
+
+                // Ensure department exists within same transaction
+                Department newDepartment = departmentRepo.findById(newDepartmentId);
+                if (newDepartment == null) {
+                    throw new IllegalArgumentException("Department not found with ID: " + newDepartmentId);
+                }
+
+                // Check if employee is already in that department
+                if (employee.getDepartmentId() == newDepartmentId) {
+                    throw new IllegalArgumentException("Employee is already in department: " + newDepartmentId);
+                }
+
+                employee.setDepartmentId(newDepartmentId);
+                if (!employeeRepo.update(employee)) {
+                    transaction.setRollbackOnly();
+                    return false;
+                }
                 return true;
+            });
+
+            if (transferred) {
+                endTransaction(tx, "COMMIT", null);
             } else {
-                conn.rollback();
-                return false;
+                endTransaction(tx, "ROLLBACK", "no rows updated");
             }
+            return transferred;
+        } catch (SQLException | RuntimeException e) {
+            endTransaction(tx, "ROLLBACK", e.getMessage());
+            throw e;
+        }
+    }
+
+    private TransactionEvent beginTransaction(ServiceOperation operation) {
+        TransactionEvent tx = new TransactionEvent();
+        if (!tx.isEnabled()) {
+            return null;
+        }
+        tx.operation = operation.getOperationName();
+        tx.begin();
+        return tx;
+    }
+
+    private void endTransaction(TransactionEvent tx, String outcome, String reason) {
+        if (tx == null) return;
+        tx.end();
+        if (tx.shouldCommit()) {
+            tx.outcome = outcome;
+            tx.reason = reason;
+            tx.commit();
         }
     }
 
@@ -169,25 +495,29 @@ public class EEMSService {
     // CRUD Operations - Department
     // ============================================
     public Department createDepartment(Department department) throws SQLException {
-        validateDepartment(department);
-        return departmentRepo.create(department);
+        return execute(ServiceOperation.CREATE_DEPARTMENT, () -> {
+            validateDepartment(department);
+            return departmentRepo.create(department);
+        });
     }
 
     public Department getDepartmentById(int id) throws SQLException {
-        return departmentRepo.findById(id);
+        return execute(ServiceOperation.GET_DEPARTMENT_BY_ID, () -> departmentRepo.findById(id));
     }
 
     public List<Department> getAllDepartments() throws SQLException {
-        return departmentRepo.findAll();
+        return execute(ServiceOperation.GET_ALL_DEPARTMENTS, departmentRepo::findAll);
     }
 
     public boolean updateDepartment(Department department) throws SQLException {
-        validateDepartment(department);
-        return departmentRepo.update(department);
+        return execute(ServiceOperation.UPDATE_DEPARTMENT, () -> {
+            validateDepartment(department);
+            return departmentRepo.update(department);
+        });
     }
 
     public boolean deleteDepartment(int id) throws SQLException {
-        return departmentRepo.delete(id);
+        return execute(ServiceOperation.DELETE_DEPARTMENT, () -> departmentRepo.delete(id));
     }
 
     private void validateDepartment(Department dept) {
@@ -206,25 +536,29 @@ public class EEMSService {
     // CRUD Operations - Employee
     // ============================================
     public Employee createEmployee(Employee employee) throws SQLException {
-        validateEmployee(employee);
-        return employeeRepo.create(employee);
+        return execute(ServiceOperation.CREATE_EMPLOYEE, () -> {
+            validateEmployee(employee);
+            return employeeRepo.create(employee);
+        });
     }
 
     public Employee getEmployeeById(int id) throws SQLException {
-        return employeeRepo.findById(id);
+        return execute(ServiceOperation.GET_EMPLOYEE_BY_ID, () -> employeeRepo.findById(id));
     }
 
     public List<Employee> getAllEmployees() throws SQLException {
-        return employeeRepo.findAll();
+        return execute(ServiceOperation.GET_ALL_EMPLOYEES, employeeRepo::findAll);
     }
 
     public boolean updateEmployee(Employee employee) throws SQLException {
-        validateEmployee(employee);
-        return employeeRepo.update(employee);
+        return execute(ServiceOperation.UPDATE_EMPLOYEE, () -> {
+            validateEmployee(employee);
+            return employeeRepo.update(employee);
+        });
     }
 
     public boolean deleteEmployee(int id) throws SQLException {
-        return employeeRepo.delete(id);
+        return execute(ServiceOperation.DELETE_EMPLOYEE, () -> employeeRepo.delete(id));
     }
 
     private void validateEmployee(Employee emp) {
@@ -246,25 +580,100 @@ public class EEMSService {
     // CRUD Operations - Project
     // ============================================
     public Project createProject(Project project) throws SQLException {
-        validateProject(project);
-        return projectRepo.create(project);
+        return execute(ServiceOperation.CREATE_PROJECT, () -> {
+            validateProject(project);
+            return projectRepo.create(project);
+        });
     }
 
     public Project getProjectById(int id) throws SQLException {
-        return projectRepo.findById(id);
+        return execute(ServiceOperation.GET_PROJECT_BY_ID, () -> projectRepo.findById(id));
     }
 
     public List<Project> getAllProjects() throws SQLException {
-        return projectRepo.findAll();
+        return execute(ServiceOperation.GET_ALL_PROJECTS, projectRepo::findAll);
+    }
+
+    public ProjectDetails getProjectDetails(int projectId) throws SQLException {
+        return execute(ServiceOperation.GET_PROJECT_DETAILS, () -> {
+            List<ProjectDetails> details = loadProjectDetails(new int[] {projectId});
+            if (details.isEmpty()) {
+                throw new IllegalArgumentException("Project not found with ID: " + projectId);
+            }
+            return details.get(0);
+        });
+    }
+
+    /**
+     * Details of each given project that exists, ascending by project id.
+     */
+    public List<ProjectDetails> getProjectDetailsBatch(List<Integer> projectIds) throws SQLException {
+        if (projectIds == null) {
+            throw new IllegalArgumentException("Project IDs are required");
+        }
+        int[] ids = projectIds.stream().mapToInt(Integer::intValue).toArray();
+        return execute(ServiceOperation.GET_PROJECT_DETAILS_BATCH, () -> loadProjectDetails(ids));
+    }
+
+    /**
+     * Load the detail graph of the projects with five set-based queries, however
+     * many projects and team members there are. The queries share one connection
+     * and one transaction, so the graph is a consistent snapshot.
+     */
+    private List<ProjectDetails> loadProjectDetails(int[] projectIds) throws SQLException {
+        return dataStore.inTransaction(transaction -> {
+            List<Project> projects = projectRepo.findByIds(projectIds);
+            if (projects.isEmpty()) {
+                return new ArrayList<>();
+            }
+            int[] foundIds = projects.stream().mapToInt(Project::getProjectId).toArray();
+
+            IntObjectHashMap<List<Client>> clientsByProject = clientRepo.findByProjectIds(foundIds);
+            IntObjectHashMap<List<Department>> departmentsByProject = departmentRepo.findByProjectIds(foundIds);
+            IntObjectHashMap<List<EmployeeProject>> assignmentsByProject = empProjRepo.findByProjectIds(foundIds);
+
+            IntHashSet employeeIds = new IntHashSet();
+            for (List<EmployeeProject> assignments : assignmentsByProject.values()) {
+                for (EmployeeProject assignment : assignments) {
+                    employeeIds.add(assignment.getEmployeeId());
+                }
+            }
+            IntObjectHashMap<Employee> employeeById = new IntObjectHashMap<>(employeeIds.size());
+            for (Employee employee : employeeRepo.findByIds(employeeIds.toSortedArray())) {
+                employeeById.put(employee.getEmployeeId(), employee);
+            }
+
+            List<ProjectDetails> details = new ArrayList<>(projects.size());
+            for (Project project : projects) {
+                int projectId = project.getProjectId();
+                List<EmployeeProject> assignments = orEmpty(assignmentsByProject.get(projectId));
+                List<Employee> employees = new ArrayList<>(assignments.size());
+                for (EmployeeProject assignment : assignments) {
+                    Employee employee = employeeById.get(assignment.getEmployeeId());
+                    if (employee != null) {
+                        employees.add(employee);
+                    }
+                }
+                details.add(new ProjectDetails(project, orEmpty(clientsByProject.get(projectId)),
+                        orEmpty(departmentsByProject.get(projectId)), employees, assignments));
+            }
+            return details;
+        });
+    }
+
+    private static <T> List<T> orEmpty(List<T> rows) {
+        return rows != null ? rows : new ArrayList<>();
     }
 
     public boolean updateProject(Project project) throws SQLException {
-        validateProject(project);
-        return projectRepo.update(project);
+        return execute(ServiceOperation.UPDATE_PROJECT, () -> {
+            validateProject(project);
+            return projectRepo.update(project);
+        });
     }
 
     public boolean deleteProject(int id) throws SQLException {
-        return projectRepo.delete(id);
+        return execute(ServiceOperation.DELETE_PROJECT, () -> projectRepo.delete(id));
     }
 
     private void validateProject(Project proj) {
@@ -286,25 +695,29 @@ public class EEMSService {
     // CRUD Operations - Client
     // ============================================
     public Client createClient(Client client) throws SQLException {
-        validateClient(client);
-        return clientRepo.create(client);
+        return execute(ServiceOperation.CREATE_CLIENT, () -> {
+            validateClient(client);
+            return clientRepo.create(client);
+        });
     }
 
     public Client getClientById(int id) throws SQLException {
-        return clientRepo.findById(id);
+        return execute(ServiceOperation.GET_CLIENT_BY_ID, () -> clientRepo.findById(id));
     }
 
     public List<Client> getAllClients() throws SQLException {
-        return clientRepo.findAll();
+        return execute(ServiceOperation.GET_ALL_CLIENTS, clientRepo::findAll);
     }
 
     public boolean updateClient(Client client) throws SQLException {
-        validateClient(client);
-        return clientRepo.update(client);
+        return execute(ServiceOperation.UPDATE_CLIENT, () -> {
+            validateClient(client);
+            return clientRepo.update(client);
+        });
     }
 
     public boolean deleteClient(int id) throws SQLException {
-        return clientRepo.delete(id);
+        return execute(ServiceOperation.DELETE_CLIENT, () -> clientRepo.delete(id));
     }
 
     private void validateClient(Client client) {
@@ -323,6 +736,13 @@ public class EEMSService {
     // CRUD Operations - Employee-Project Assignment
     // ============================================
     public boolean assignEmployeeToProject(int employeeId, int projectId, int timeAllocation) throws SQLException {
+        return execute(ServiceOperation.ASSIGN_EMPLOYEE_TO_PROJECT, () -> ENFORCE_CAPACITY
+            ? inCapacityTransaction(ServiceOperation.ASSIGN_EMPLOYEE_TO_PROJECT,
+                transaction -> createAssignment(employeeId, projectId, timeAllocation))
+            : createAssignment(employeeId, projectId, timeAllocation));
+    }
+
+    private boolean createAssignment(int employeeId, int projectId, int timeAllocation) throws SQLException {
         // Validate employee exists
         Employee employee = employeeRepo.findById(employeeId);
         if (employee == null) {
@@ -340,6 +760,10 @@ public class EEMSService {
             throw new IllegalArgumentException("Time allocation must be between 1 and 100");
         }
 
+        if (ENFORCE_CAPACITY) {
+            requireCapacity(employeeId, project, timeAllocation);
+        }
+
         EmployeeProject assignment = new EmployeeProject(employeeId, projectId, timeAllocation);
         return empProjRepo.create(assignment);
     }
@@ -350,14 +774,123 @@ public class EEMSService {
         }
 
         EmployeeProject assignment = new EmployeeProject(employeeId, projectId, newAllocation);
-        return empProjRepo.update(assignment);
+        return execute(ServiceOperation.UPDATE_EMPLOYEE_PROJECT_ALLOCATION, () -> {
+            if (!ENFORCE_CAPACITY) {
+                return empProjRepo.update(assignment);
+            }
+            return inCapacityTransaction(ServiceOperation.UPDATE_EMPLOYEE_PROJECT_ALLOCATION, transaction -> {
+                // A missing assignment is left for the update to report
+                Project project = projectRepo.findById(projectId);
+                if (project != null && empProjRepo.findByIds(employeeId, projectId) != null) {
+                    requireCapacity(employeeId, project, newAllocation);
+                }
+                return empProjRepo.update(assignment);
+            });
+        });
+    }
+
+    // Run a capacity-checked write in its own transaction, so the check's locks are held until it commits
+    private <T> T inCapacityTransaction(ServiceOperation operation, DataStore.TransactionWork<T> work)
+            throws SQLException {
+        TransactionEvent tx = beginTransaction(operation);
+
+        try {
+            T result = dataStore.inTransaction(work);
+            endTransaction(tx, "COMMIT", null);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            endTransaction(tx, "ROLLBACK", e.getMessage());
+            throw e;
+        }
     }
 
     public boolean removeEmployeeFromProject(int employeeId, int projectId) throws SQLException {
-        return empProjRepo.delete(employeeId, projectId);
+        return execute(ServiceOperation.REMOVE_EMPLOYEE_FROM_PROJECT, () -> empProjRepo.delete(employeeId, projectId));
     }
 
     public List<EmployeeProject> getProjectAssignments(int projectId) throws SQLException {
-        return empProjRepo.findByProjectId(projectId);
+        return execute(ServiceOperation.GET_PROJECT_ASSIGNMENTS, () -> empProjRepo.findByProjectId(projectId));
+    }
+
+    /**
+     * Make the given employees, at the given allocations, the whole team of the
+     * project in one transaction: new members are added, changed allocations
+     * updated and everyone else removed. Returns false if the team already matched.
+     */
+    public boolean replaceProjectTeam(int projectId, Map<Integer, Integer> allocations) throws SQLException {
+        if (allocations == null) {
+            throw new IllegalArgumentException("Team allocations are required");
+        }
+        IntIntHashMap team = new IntIntHashMap(allocations.size());
+        for (Map.Entry<Integer, Integer> entry : allocations.entrySet()) {
+            Integer allocation = entry.getValue();
+            if (entry.getKey() == null || allocation == null) {
+                throw new IllegalArgumentException("Every team member needs an employee ID and an allocation");
+            }
+            if (allocation <= 0 || allocation > 100) {
+                throw new IllegalArgumentException("Time allocation must be between 1 and 100");
+            }
+            team.put(entry.getKey(), allocation);
+        }
+
+        return execute(ServiceOperation.REPLACE_PROJECT_TEAM, () -> replaceTeamInTransaction(projectId, team));
+    }
+
+    private boolean replaceTeamInTransaction(int projectId, IntIntHashMap team) throws SQLException {
+        TransactionEvent tx = beginTransaction(ServiceOperation.REPLACE_PROJECT_TEAM);
+
+        try {
+            boolean changed = dataStore.inTransaction(transaction -> {
+                Project project = projectRepo.findById(projectId);
+                if (project == null) {
+                    throw new IllegalArgumentException("Project not found with ID: " + projectId);
+                }
+
+                // Validate all employees with one query; ascending ids also give a stable lock order
+                int[] employeeIds = team.keys();
+                Arrays.sort(employeeIds);
+                List<Employee> employees = employeeRepo.findByIds(employeeIds);
+                if (employees.size() != employeeIds.length) {
+                    IntHashSet found = new IntHashSet(employees.size());
+                    for (Employee employee : employees) {
+                        found.add(employee.getEmployeeId());
+                    }
+                    for (int employeeId : employeeIds) {
+                        if (!found.contains(employeeId)) {
+                            throw new IllegalArgumentException("Employee not found with ID: " + employeeId);
+                        }
+                    }
+                }
+
+                // Diff the requested team against the current assignments
+                IntIntHashMap current = new IntIntHashMap();
+                for (EmployeeProject assignment : empProjRepo.findByProjectId(projectId)) {
+                    current.put(assignment.getEmployeeId(), assignment.getTimeAllocationPercent());
+                }
+                List<EmployeeProject> upserts = new ArrayList<>();
+                for (int employeeId : employeeIds) {
+                    int allocation = team.getOrDefault(employeeId, 0);
+                    if (current.getOrDefault(employeeId, 0) != allocation) {
+                        if (ENFORCE_CAPACITY && allocation > current.getOrDefault(employeeId, 0)) {
+                            requireCapacity(employeeId, project, allocation);
+                        }
+                        upserts.add(new EmployeeProject(employeeId, projectId, allocation));
+                    }
+                }
+                int[] currentIds = current.keys();
+                Arrays.sort(currentIds);
+                int[] removals = Arrays.stream(currentIds).filter(id -> !team.containsKey(id)).toArray();
+
+                empProjRepo.upsertAll(upserts);
+                int removed = empProjRepo.deleteAll(projectId, removals);
+                return !upserts.isEmpty() || removed > 0;
+            });
+
+            endTransaction(tx, "COMMIT", null);
+            return changed;
+        } catch (SQLException | RuntimeException e) {
+            endTransaction(tx, "ROLLBACK", e.getMessage());
+            throw e;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.eems.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.eems.domain.Employee;
+import com.eems.util.IntIntHashMap;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Business Logic Layer: HR Cost Kernel
+ * Project HR cost in scaled long fixed-point, bit-for-bit equal to the
+ * BigDecimal definition
+ *
+ *   cost = sum over employees of round_HALF_EVEN(salary × months × allocation / 1200, 8)
+ *   result = round_HALF_UP(cost, 2)
+ *
+ * A term is carried in units of 1e-8. With the salary in cents it equals
+ * cents × months × allocation × 2500 / 3, so the only rounding left is a
+ * division by 3, whose remainder is never a tie: 1/3 rounds down and 2/3 up.
+ * Overflow is detected with exact arithmetic and answered by the BigDecimal
+ * path, as are salaries with more than two decimals.
+ */
+public final class HrCostKernel {
+
+    /**
+     * Marker returned by {@link #toCents} for salaries that are not a whole
+     * number of cents within a long.
+     */
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    // 1e6 (cents to 1e-8) / 1200 (months per year × percent) = 2500 / 3
+    private static final long TERM_NUMERATOR = 2_500;
+    private static final long E8_PER_CENT = 1_000_000;
+    private static final BigDecimal PERCENT_MONTHS_PER_YEAR = BigDecimal.valueOf(1200);
+
+    private HrCostKernel() {}
+
+    /**
+     * Project cost for the summed allocation of each employee, rounded HALF_UP to cents.
+     * Employees missing from the map contribute nothing.
+     */
+    public static BigDecimal projectCost(long durationMonths, IntObjectHashMap<Employee> employeeById,
+                                         IntIntHashMap allocationByEmployee) {
+        int[] employeeIds = allocationByEmployee.keys();
+        try {
+            long totalE8 = 0;
+            for (int employeeId : employeeIds) {
+                Employee employee = employeeById.get(employeeId);
+                if (employee == null) continue;
+
+                long cents = toCents(employee.getSalary());
+                if (cents == NOT_REPRESENTABLE) {
+                    return bigDecimalCost(durationMonths, employeeIds, employeeById, allocationByEmployee);
+                }
+                totalE8 = Math.addExact(totalE8,
+                        employeeCostE8(cents, durationMonths, allocationByEmployee.getOrDefault(employeeId, 0)));
+            }
+            return BigDecimal.valueOf(roundToCents(totalE8), 2);
+        } catch (ArithmeticException overflow) {
+            return bigDecimalCost(durationMonths, employeeIds, employeeById, allocationByEmployee);
+        }
+    }
+
+    /**
+     * Bulk form over parallel arrays: total cost in cents of the first
+     * {@code count} employees, without allocating.
+     *
+     * @throws ArithmeticException if an intermediate value overflows a long
+     */
+    public static long projectCostCents(long durationMonths, long[] salaryCents, int[] allocationPercent, int count) {
+        long totalE8 = 0;
+        for (int i = 0; i < count; i++) {
+            totalE8 = Math.addExact(totalE8, employeeCostE8(salaryCents[i], durationMonths, allocationPercent[i]));
+        }
+        return roundToCents(totalE8);
+    }
+
+    /**
+     * One employee's cost in units of 1e-8, rounded HALF_EVEN.
+     *
+     * @throws ArithmeticException if an intermediate value overflows a long
+     */
+    public static long employeeCostE8(long salaryCents, long durationMonths, int allocationPercent) {
+        long numerator = Math.multiplyExact(
+                Math.multiplyExact(Math.multiplyExact(salaryCents, durationMonths), (long) allocationPercent),
+                TERM_NUMERATOR);
+        long quotient = Math.floorDiv(numerator, 3);
+        // Remainder 1 is a third (round down), 2 is two thirds (round up); never a tie
+        return Math.floorMod(numerator, 3) == 2 ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Round an amount in units of 1e-8 HALF_UP to cents.
+     */
+    public static long roundToCents(long amountE8) {
+        long cents = amountE8 / E8_PER_CENT;
+        long remainder = amountE8 % E8_PER_CENT;
+        if (Math.abs(remainder) >= E8_PER_CENT / 2) {
+            cents += Long.signum(amountE8);
+        }
+        return cents;
+    }
+
+    /**
+     * The salary as a whole number of cents, or {@link #NOT_REPRESENTABLE}.
+     */
+    public static long toCents(BigDecimal salary) {
+        try {
+            return salary.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return NOT_REPRESENTABLE;
+        }
+    }
+
+    /**
+     * The defining BigDecimal computation, used when fixed-point cannot represent the inputs.
+     */
+    private static BigDecimal bigDecimalCost(long durationMonths, int[] employeeIds, IntObjectHashMap<Employee> employeeById,
+                                    IntIntHashMap allocationByEmployee) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int employeeId : employeeIds) {
+            Employee employee = employeeById.get(employeeId);
+            if (employee == null) continue;
+
+            // CostEmployee = (Salary / 12) × Duration (Months) × (Allocation Percentage / 100)
+            total = total.add(employee.getSalary()
+                    .multiply(BigDecimal.valueOf(durationMonths))
+                    .multiply(BigDecimal.valueOf(allocationByEmployee.getOrDefault(employeeId, 0)))
+                    .divide(PERCENT_MONTHS_PER_YEAR, 8, RoundingMode.HALF_EVEN));
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,83 @@
+package com.eems.service;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Collection;
+
+import com.eems.dal.Deadline;
+import com.eems.monitoring.ServiceOperationEvent;
+import com.eems.monitoring.Span;
+import com.eems.monitoring.Tracer;
+
+/**
+ * Business Logic Layer: Operation Executor
+ * Runs the body of a service operation inside a trace span, admits it through
+ * the operation's bulkhead, and reports it as a JFR event. The body runs under a
+ * deadline: the caller's if one is bound, otherwise the operation's default,
+ * which is enforced through query timeouts alone ({@link Deadline#timeoutOnly}). The default starts only once the bulkhead
+ * has admitted the operation: time spent queueing ends in a 503-style
+ * {@link ServiceOverloadedException}, never in a statement timeout.
+ */
+final class OperationExecutor {
+
+    @FunctionalInterface
+    interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private OperationExecutor() {}
+
+    // The span and the deadline scope only need closing, so the bodies never refer to them
+    @SuppressWarnings("try")
+    static <T> T execute(ServiceOperation operation, Work<T> work) throws SQLException {
+        try (Span span = Tracer.startSpan(operation.getSpanName(), Tracer.LAYER_SERVICE)) {
+            return AdmissionControl.admit(operation, () -> {
+                try (Deadline.Scope scope = bindDefaultDeadline(operation)) {
+                    return recordEvent(operation, work);
+                }
+            });
+        } catch (SQLTimeoutException e) {
+            TimeoutMetrics.recordTimeout(operation);
+            throw e;
+        }
+    }
+
+    private static Deadline.Scope bindDefaultDeadline(ServiceOperation operation) {
+        if (Deadline.current() != null) {
+            return null;
+        }
+        return Deadline.timeoutOnly(operation.getDefaultTimeout()).bind();
+    }
+
+    private static <T> T recordEvent(ServiceOperation operation, Work<T> work) throws SQLException {
+        ServiceOperationEvent event = new ServiceOperationEvent();
+        if (!event.isEnabled()) {
+            return work.run();
+        }
+
+        event.begin();
+        T result = null;
+        boolean success = false;
+        try {
+            result = work.run();
+            success = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.getOperationName();
+                event.entity = operation.getEntity();
+                event.rowCount = success ? rowCount(result) : -1;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> rows) return rows.size();
+        if (result instanceof Boolean changed) return changed ? 1 : 0;
+        return 1;
+    }
+}
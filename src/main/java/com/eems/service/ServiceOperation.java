@@ -0,0 +1,111 @@
+package com.eems.service;
+
+import java.time.Duration;
+
+/**
+ * Business Logic Layer: Service Operation
+ * Identifies each public EEMSService operation, the entity it works on, the
+ * workload class admission control assigns it to and its default deadline.
+ * Analytical operations default to 30 seconds, all others to 10; override per
+ * operation with eems.timeout.&lt;operationName&gt;Ms.
+ */
+public enum ServiceOperation {
+    CALCULATE_PROJECT_HR_COST("calculateProjectHRCost", "Project", Workload.ANALYTICAL),
+    GET_PROJECTS_BY_DEPARTMENT("getProjectsByDepartment", "Project"),
+    FIND_CLIENTS_BY_UPCOMING_PROJECT_DEADLINE("findClientsByUpcomingProjectDeadline", "Client", Workload.ANALYTICAL),
+    COUNT_CLIENT_FACETS("countClientFacets", "Client", Workload.ANALYTICAL),
+    FIND_PROJECTS_ACTIVE_BETWEEN("findProjectsActiveBetween", "Project", Workload.ANALYTICAL),
+    FIND_PROJECTS_ACTIVE_ON("findProjectsActiveOn", "Project", Workload.ANALYTICAL),
+    FIND_AVAILABLE_EMPLOYEES("findAvailableEmployees", "Employee", Workload.ANALYTICAL),
+    GET_EMPLOYEE_CAPACITY("getEmployeeCapacity", "Employee", Workload.ANALYTICAL),
+    GET_OVER_ALLOCATION_REPORT("getOverAllocationReport", "Employee", Workload.ANALYTICAL),
+    GET_PAYROLL_BY_DEPARTMENT("getPayrollByDepartment", "Department", Workload.ANALYTICAL),
+    GET_HR_COST_BY_PROJECT("getHRCostByProject", "Project", Workload.ANALYTICAL),
+    SEARCH_EMPLOYEES("searchEmployees", "Employee"),
+    COMPLETE_EMPLOYEES("completeEmployees", "Employee"),
+    SEARCH_CLIENTS("searchClients", "Client"),
+    TRANSFER_EMPLOYEE_TO_DEPARTMENT("transferEmployeeToDepartment", "Employee"),
+
+    CREATE_DEPARTMENT("createDepartment", "Department"),
+    GET_DEPARTMENT_BY_ID("getDepartmentById", "Department"),
+    GET_ALL_DEPARTMENTS("getAllDepartments", "Department"),
+    UPDATE_DEPARTMENT("updateDepartment", "Department"),
+    DELETE_DEPARTMENT("deleteDepartment", "Department"),
+
+    CREATE_EMPLOYEE("createEmployee", "Employee"),
+    GET_EMPLOYEE_BY_ID("getEmployeeById", "Employee"),
+    GET_ALL_EMPLOYEES("getAllEmployees", "Employee"),
+    UPDATE_EMPLOYEE("updateEmployee", "Employee"),
+    DELETE_EMPLOYEE("deleteEmployee", "Employee"),
+
+    CREATE_PROJECT("createProject", "Project"),
+    GET_PROJECT_BY_ID("getProjectById", "Project"),
+    GET_ALL_PROJECTS("getAllProjects", "Project"),
+    GET_PROJECT_DETAILS("getProjectDetails", "Project"),
+    GET_PROJECT_DETAILS_BATCH("getProjectDetailsBatch", "Project"),
+    UPDATE_PROJECT("updateProject", "Project"),
+    DELETE_PROJECT("deleteProject", "Project"),
+
+    CREATE_CLIENT("createClient", "Client"),
+    GET_CLIENT_BY_ID("getClientById", "Client"),
+    GET_ALL_CLIENTS("getAllClients", "Client"),
+    UPDATE_CLIENT("updateClient", "Client"),
+    DELETE_CLIENT("deleteClient", "Client"),
+
+    ASSIGN_EMPLOYEE_TO_PROJECT("assignEmployeeToProject", "EmployeeProject"),
+    UPDATE_EMPLOYEE_PROJECT_ALLOCATION("updateEmployeeProjectAllocation", "EmployeeProject"),
+    REMOVE_EMPLOYEE_FROM_PROJECT("removeEmployeeFromProject", "EmployeeProject"),
+    GET_PROJECT_ASSIGNMENTS("getProjectAssignments", "EmployeeProject"),
+    REPLACE_PROJECT_TEAM("replaceProjectTeam", "EmployeeProject"),
+    CHECK_ASSIGNMENT("checkAssignment", "EmployeeProject");
+
+    /**
+     * Expensive reporting queries versus cheap CRUD and transactional work.
+     */
+    public enum Workload {
+        ANALYTICAL,
+        TRANSACTIONAL
+    }
+
+    private final String operationName;
+    private final String entity;
+    private final Workload workload;
+    private final String spanName;
+    private final Duration defaultTimeout;
+
+    ServiceOperation(String operationName, String entity) {
+        this(operationName, entity, Workload.TRANSACTIONAL);
+    }
+
+    ServiceOperation(String operationName, String entity, Workload workload) {
+        this.operationName = operationName;
+        this.entity = entity;
+        this.workload = workload;
+        this.spanName = "EEMSService." + operationName;
+        long defaultMs = workload == Workload.ANALYTICAL ? 30_000L : 10_000L;
+        this.defaultTimeout = Duration.ofMillis(Long.getLong("eems.timeout." + operationName + "Ms", defaultMs));
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public String getSpanName() {
+        return spanName;
+    }
+
+    /**
+     * The deadline the operation runs under when the caller binds none.
+     */
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+}
@@ -0,0 +1,17 @@
+package com.eems.service;
+
+import java.sql.SQLTransientException;
+
+/**
+ * Business Logic Layer: Service Overloaded Exception
+ * Thrown when admission control rejects an operation because its bulkhead is
+ * full. The condition is transient: the caller may retry later.
+ */
+public class ServiceOverloadedException extends SQLTransientException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
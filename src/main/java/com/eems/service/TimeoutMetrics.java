@@ -0,0 +1,45 @@
+package com.eems.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Business Logic Layer: Timeout Metrics
+ * Counts operations that failed because their deadline expired or the caller
+ * cancelled them, per service operation.
+ */
+public final class TimeoutMetrics {
+
+    private static final Map<ServiceOperation, LongAdder> TIMEOUTS = new EnumMap<>(ServiceOperation.class);
+
+    static {
+        for (ServiceOperation operation : ServiceOperation.values()) {
+            TIMEOUTS.put(operation, new LongAdder());
+        }
+    }
+
+    private TimeoutMetrics() {}
+
+    static void recordTimeout(ServiceOperation operation) {
+        TIMEOUTS.get(operation).increment();
+    }
+
+    public static long getTimeouts(ServiceOperation operation) {
+        return TIMEOUTS.get(operation).sum();
+    }
+
+    /**
+     * Operations that have timed out at least once, with their counts.
+     */
+    public static Map<ServiceOperation, Long> snapshot() {
+        Map<ServiceOperation, Long> counts = new EnumMap<>(ServiceOperation.class);
+        TIMEOUTS.forEach((operation, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                counts.put(operation, value);
+            }
+        });
+        return counts;
+    }
+}
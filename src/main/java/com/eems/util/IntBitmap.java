@@ -0,0 +1,616 @@
+package com.eems.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * Utility: Int Bitmap
+ * Compressed bitmap of non-negative ints in the Roaring layout: values are
+ * grouped by their high 16 bits, and each group keeps its low 16 bits either
+ * as a sorted array (up to 4096 values) or as a 65536-bit bitset, whichever
+ * is smaller. Sparse sets cost two bytes a value, dense ones one bit, and
+ * AND, OR and counts work a group at a time without expanding the values.
+ *
+ * Not thread-safe; the set operations return new bitmaps and leave their
+ * operands unchanged.
+ */
+public final class IntBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITSET_WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public IntBitmap() {
+        this(0);
+    }
+
+    private IntBitmap(int capacity) {
+        keys = new char[Math.max(capacity, 4)];
+        containers = new Container[keys.length];
+    }
+
+    /**
+     * A bitmap of the given values, which must be distinct, ascending and non-negative.
+     */
+    public static IntBitmap ofSorted(int[] values) {
+        IntBitmap bitmap = new IntBitmap();
+        int from = 0;
+        while (from < values.length) {
+            int high = values[from] >>> 16;
+            int to = from;
+            while (to < values.length && values[to] >>> 16 == high) {
+                to++;
+            }
+            Container container;
+            if (to - from > ARRAY_MAX) {
+                long[] words = new long[BITSET_WORDS];
+                for (int i = from; i < to; i++) {
+                    words[(values[i] & 0xFFFF) >>> 6] |= 1L << values[i];
+                }
+                container = new BitsetContainer(words, to - from);
+            } else {
+                char[] low = new char[to - from];
+                for (int i = from; i < to; i++) {
+                    low[i - from] = (char) values[i];
+                }
+                container = new ArrayContainer(low, low.length);
+            }
+            bitmap.append((char) high, container);
+            from = to;
+        }
+        return bitmap;
+    }
+
+    /**
+     * A bitmap of the given non-negative values, in any order and with repeats.
+     */
+    public static IntBitmap of(int... values) {
+        IntObjectHashMap<long[]> groups = new IntObjectHashMap<>();
+        for (int value : values) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+            }
+            groups.computeIfAbsent(value >>> 16, k -> new long[BITSET_WORDS])[(value & 0xFFFF) >>> 6] |= 1L << value;
+        }
+        return fromGroups(groups);
+    }
+
+    public boolean contains(int value) {
+        int at = find((char) (value >>> 16));
+        return at >= 0 && containers[at].contains((char) value);
+    }
+
+    /**
+     * Add the value, returning false if it was already present.
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+        char high = (char) (value >>> 16);
+        int at = find(high);
+        if (at < 0) {
+            insert(-at - 1, high, new ArrayContainer(new char[] {(char) value}, 1));
+            return true;
+        }
+        Container container = containers[at];
+        int before = container.cardinality();
+        containers[at] = container.add((char) value);
+        return containers[at].cardinality() > before;
+    }
+
+    /**
+     * Remove the value, returning false if it was absent.
+     */
+    public boolean remove(int value) {
+        int at = find((char) (value >>> 16));
+        if (at < 0) {
+            return false;
+        }
+        Container container = containers[at];
+        int before = container.cardinality();
+        Container after = container.remove((char) value);
+        if (after.cardinality() == before) {
+            return false;
+        }
+        if (after.cardinality() == 0) {
+            System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+            System.arraycopy(containers, at + 1, containers, at, size - at - 1);
+            containers[--size] = null;
+        } else {
+            containers[at] = after;
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Values in both bitmaps.
+     */
+    public static IntBitmap and(IntBitmap a, IntBitmap b) {
+        IntBitmap result = new IntBitmap(Math.min(a.size, b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container both = a.containers[i].and(b.containers[j]);
+                if (both.cardinality() > 0) {
+                    result.append(a.keys[i], both);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of values in both bitmaps, without building their intersection.
+     */
+    public static int andCardinality(IntBitmap a, IntBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Values in either bitmap.
+     */
+    public static IntBitmap or(IntBitmap a, IntBitmap b) {
+        IntBitmap result = new IntBitmap(a.size + b.size);
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Values in any of the bitmaps. Each group is merged once in a scratch
+     * bitset, so the cost follows the total size, not the number of bitmaps.
+     */
+    public static IntBitmap orAll(Collection<IntBitmap> bitmaps) {
+        IntObjectHashMap<long[]> groups = new IntObjectHashMap<>();
+        for (IntBitmap bitmap : bitmaps) {
+            for (int i = 0; i < bitmap.size; i++) {
+                bitmap.containers[i].orInto(groups.computeIfAbsent(bitmap.keys[i], k -> new long[BITSET_WORDS]));
+            }
+        }
+        return fromGroups(groups);
+    }
+
+    public IntBitmap copy() {
+        IntBitmap copy = new IntBitmap(size);
+        for (int i = 0; i < size; i++) {
+            copy.append(keys[i], containers[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Visit every value in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * The values, ascending.
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int at = 0;
+        for (int i = 0; i < size; i++) {
+            at = containers[i].toArray(keys[i] << 16, values, at);
+        }
+        return values;
+    }
+
+    private int find(char high) {
+        int low = 0;
+        int top = size - 1;
+        while (low <= top) {
+            int mid = (low + top) >>> 1;
+            if (keys[mid] < high) {
+                low = mid + 1;
+            } else if (keys[mid] > high) {
+                top = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void append(char high, Container container) {
+        insert(size, high, container);
+    }
+
+    private void insert(int at, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = high;
+        containers[at] = container;
+        size++;
+    }
+
+    private static IntBitmap fromGroups(IntObjectHashMap<long[]> groups) {
+        int[] highs = groups.keys();
+        Arrays.sort(highs);
+        IntBitmap result = new IntBitmap(highs.length);
+        for (int high : highs) {
+            result.append((char) high, fromWords(groups.get(high)));
+        }
+        return result;
+    }
+
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality > ARRAY_MAX
+                ? new BitsetContainer(words, cardinality)
+                : BitsetContainer.toArray(words, cardinality);
+    }
+
+    /**
+     * The low 16 bits of one group of values.
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        /** This container with the value added; may be a converted replacement. */
+        abstract Container add(char value);
+
+        /** This container with the value removed; may be a converted replacement. */
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract void orInto(long[] words);
+
+        abstract Container copy();
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract int toArray(int base, int[] out, int at);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int at = Arrays.binarySearch(values, 0, cardinality, value);
+            if (at >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                long[] words = new long[BITSET_WORDS];
+                orInto(words);
+                words[value >>> 6] |= 1L << value;
+                return new BitsetContainer(words, cardinality + 1);
+            }
+            at = -at - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality + (cardinality >> 1) + 4));
+            }
+            System.arraycopy(values, at, values, at + 1, cardinality - at);
+            values[at] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int at = Arrays.binarySearch(values, 0, cardinality, value);
+            if (at >= 0) {
+                System.arraycopy(values, at + 1, values, at, cardinality - at - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] both = new char[cardinality];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        both[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        both[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(both, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer array) || cardinality + array.cardinality > ARRAY_MAX) {
+                long[] words = new long[BITSET_WORDS];
+                orInto(words);
+                other.orInto(words);
+                return fromWords(words);
+            }
+            char[] merged = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    merged[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    merged[count++] = array.values[j++];
+                } else {
+                    merged[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(merged, count);
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        int toArray(int base, int[] out, int at) {
+            for (int i = 0; i < cardinality; i++) {
+                out[at++] = base | values[i];
+            }
+            return at;
+        }
+    }
+
+    private static final class BitsetContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitsetContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer toArray(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[count++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (after != before) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (after == before) {
+                return this;
+            }
+            words[value >>> 6] = after;
+            cardinality--;
+            return cardinality <= ARRAY_MAX ? toArray(words, cardinality) : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitsetContainer) other).words;
+            long[] both = new long[BITSET_WORDS];
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                both[w] = words[w] & otherWords[w];
+            }
+            return fromWords(both);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitsetContainer) other).words;
+            int count = 0;
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                count += Long.bitCount(words[w] & otherWords[w]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] merged = words.clone();
+            other.orInto(merged);
+            return fromWords(merged);
+        }
+
+        @Override
+        void orInto(long[] target) {
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                target[w] |= words[w];
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitsetContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int toArray(int base, int[] out, int at) {
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    out[at++] = base | (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return at;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.eems.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Utility: Int Hash Set
+ * Open-addressing set of primitive ints (linear probing, backward-shift deletion).
+ */
+public class IntHashSet {
+
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntHashSet() {
+        this(8);
+    }
+
+    public IntHashSet(int expectedSize) {
+        allocate(IntObjectHashMap.capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int key) {
+        int slot = IntObjectHashMap.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Add the key, returning false if it was already present.
+     */
+    public boolean add(int key) {
+        int slot = IntObjectHashMap.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        used[slot] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int key) {
+        int slot = IntObjectHashMap.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Elements in ascending order.
+     */
+    public int[] toSortedArray() {
+        int[] result = toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!used[slot]) {
+                break;
+            }
+            int home = IntObjectHashMap.mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+        }
+        used[gap] = false;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = IntObjectHashMap.mix(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75);
+    }
+}
@@ -0,0 +1,173 @@
+package com.eems.util;
+
+import java.util.Arrays;
+
+/**
+ * Utility: Int-to-Int Hash Map
+ * Open-addressing map from primitive int keys to primitive int values, e.g.
+ * for summing allocations per employee without boxing either side.
+ */
+public class IntIntHashMap {
+
+    @FunctionalInterface
+    public interface Entry {
+        void accept(int key, int value);
+    }
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntIntHashMap() {
+        this(8);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(IntObjectHashMap.capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[slotOf(key)];
+    }
+
+    /**
+     * The value for the key, or the default when absent.
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        int slot = slotOf(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    public void put(int key, int value) {
+        int slot = slotOf(key);
+        if (used[slot]) {
+            values[slot] = value;
+            return;
+        }
+        insert(slot, key, value);
+    }
+
+    /**
+     * Add the delta to the key's value (absent keys start at zero) and return the new value.
+     */
+    public int addTo(int key, int delta) {
+        int slot = slotOf(key);
+        if (used[slot]) {
+            return values[slot] += delta;
+        }
+        insert(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * @return false if the key was absent
+     */
+    public boolean remove(int key) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            return false;
+        }
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(Entry action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The slot holding the key, or the empty slot where it would be inserted.
+     */
+    private int slotOf(int key) {
+        int slot = IntObjectHashMap.mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Close the gap left by a removed entry so probe chains stay unbroken.
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!used[slot]) {
+                break;
+            }
+            int home = IntObjectHashMap.mix(keys[slot]) & mask;
+            // Move the entry into the gap unless its home lies cyclically in (gap, slot]
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        used[gap] = false;
+    }
+
+    private void insert(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75);
+    }
+}
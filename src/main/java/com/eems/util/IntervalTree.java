@@ -0,0 +1,267 @@
+package com.eems.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Utility: Interval Tree
+ * Closed int intervals [start, end] keyed by an int id, in a centered interval
+ * tree over a fixed binary partition of the int range. Each interval is stored
+ * once, at the smallest aligned block that contains it, next to the point
+ * where that block's halves meet. The block's intervals are sorted by start and
+ * by end. A point query reads one block per level, 33 levels at most, and
+ * scans each block only as far as its intervals contain the point. An overlap
+ * query adds the intervals starting inside the range, looked up by start.
+ * Queries cost O(log n) plus the matches.
+ *
+ * Add and remove cost O(log n) plus shifting the one block's sorted arrays.
+ * Not thread-safe.
+ */
+public final class IntervalTree {
+
+    private static final int LEVELS = 33;
+
+    private record Interval(int start, int end) {}
+
+    // Ids sorted by start and by end, packed as (value << 32 | id); slots from size on are spare
+    private static final class Block {
+        long[] byStart = new long[4];
+        long[] byEnd = new long[4];
+        int size;
+
+        void append(long startKey, long endKey) {
+            if (size == byStart.length) {
+                byStart = Arrays.copyOf(byStart, size * 2);
+                byEnd = Arrays.copyOf(byEnd, size * 2);
+            }
+            byStart[size] = startKey;
+            byEnd[size] = endKey;
+            size++;
+        }
+
+        void insert(long startKey, long endKey) {
+            append(startKey, endKey);
+            shiftIn(byStart, size, startKey);
+            shiftIn(byEnd, size, endKey);
+        }
+
+        void delete(long startKey, long endKey) {
+            shiftOut(byStart, size, startKey);
+            shiftOut(byEnd, size, endKey);
+            size--;
+        }
+
+        void sort() {
+            Arrays.sort(byStart, 0, size);
+            Arrays.sort(byEnd, 0, size);
+        }
+
+        private static void shiftIn(long[] keys, int size, long key) {
+            int at = -Arrays.binarySearch(keys, 0, size - 1, key) - 1;
+            System.arraycopy(keys, at, keys, at + 1, size - 1 - at);
+            keys[at] = key;
+        }
+
+        private static void shiftOut(long[] keys, int size, long key) {
+            int at = Arrays.binarySearch(keys, 0, size, key);
+            System.arraycopy(keys, at + 1, keys, at, size - 1 - at);
+        }
+    }
+
+    private final IntObjectHashMap<Interval> intervals;
+    // Level 0 holds single points keyed by value; level b + 1 holds the blocks of 2^(b + 1)
+    // values that straddle bit b, keyed by their unsigned position shifted right by b + 1
+    private final List<IntObjectHashMap<Block>> levels = new ArrayList<>(LEVELS);
+    private final TreeMap<Integer, IntBitmap> idsByStart = new TreeMap<>();
+
+    public IntervalTree() {
+        this(0);
+    }
+
+    private IntervalTree(int expectedSize) {
+        this.intervals = new IntObjectHashMap<>(expectedSize);
+        for (int level = 0; level < LEVELS; level++) {
+            levels.add(new IntObjectHashMap<>());
+        }
+    }
+
+    /**
+     * A tree of the intervals [starts[i], ends[i]] keyed by ids[i], sorting each
+     * block once instead of inserting one at a time. Ids must be distinct and non-negative.
+     */
+    public static IntervalTree of(int[] ids, int[] starts, int[] ends) {
+        if (starts.length != ids.length || ends.length != ids.length) {
+            throw new IllegalArgumentException("Interval arrays differ in length");
+        }
+        IntervalTree tree = new IntervalTree(ids.length);
+        IntObjectHashMap<IntList> idsByStart = new IntObjectHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            checkInterval(ids[i], starts[i], ends[i]);
+            if (tree.intervals.put(ids[i], new Interval(starts[i], ends[i])) != null) {
+                throw new IllegalArgumentException("Duplicate interval id: " + ids[i]);
+            }
+            tree.block(starts[i], ends[i]).append(key(starts[i], ids[i]), key(ends[i], ids[i]));
+            idsByStart.computeIfAbsent(starts[i], s -> new IntList()).add(ids[i]);
+        }
+        for (IntObjectHashMap<Block> level : tree.levels) {
+            level.forEach((position, block) -> block.sort());
+        }
+        idsByStart.forEach((start, startIds) -> {
+            int[] sorted = startIds.toArray();
+            Arrays.sort(sorted);
+            tree.idsByStart.put(start, IntBitmap.ofSorted(sorted));
+        });
+        return tree;
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+
+    public boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    public boolean contains(int id) {
+        return intervals.containsKey(id);
+    }
+
+    /**
+     * Set the interval of the id, replacing the one it had. The id must be non-negative.
+     */
+    public void put(int id, int start, int end) {
+        checkInterval(id, start, end);
+        Interval previous = intervals.get(id);
+        if (previous != null) {
+            if (previous.start() == start && previous.end() == end) {
+                return;
+            }
+            remove(id);
+        }
+        intervals.put(id, new Interval(start, end));
+        block(start, end).insert(key(start, id), key(end, id));
+        idsByStart.computeIfAbsent(start, s -> new IntBitmap()).add(id);
+    }
+
+    /**
+     * @return false if the id had no interval
+     */
+    public boolean remove(int id) {
+        Interval interval = intervals.remove(id);
+        if (interval == null) {
+            return false;
+        }
+        int start = interval.start();
+        int end = interval.end();
+        int level = level(start, end);
+        int position = position(level, start);
+        Block block = levels.get(level).get(position);
+        block.delete(key(start, id), key(end, id));
+        if (block.size == 0) {
+            levels.get(level).remove(position);
+        }
+        IntBitmap starting = idsByStart.get(start);
+        if (starting.remove(id) && starting.isEmpty()) {
+            idsByStart.remove(start);
+        }
+        return true;
+    }
+
+    /**
+     * Ids of the intervals sharing at least one point with [from, to], ascending.
+     */
+    public int[] overlapping(int from, int to) {
+        IntList ids = new IntList();
+        forEachOverlapping(from, to, ids::add);
+        // Grouping by high bits orders a large result several times faster than a comparison sort
+        return IntBitmap.of(ids.toArray()).toArray();
+    }
+
+    /**
+     * Visit the ids of the intervals sharing at least one point with [from, to], each once.
+     */
+    public void forEachOverlapping(int from, int to, IntConsumer action) {
+        if (from > to) {
+            return;
+        }
+        forEachContaining(from, action);
+        if (from < to) {
+            NavigableMap<Integer, IntBitmap> startingInside = idsByStart.subMap(from, false, to, true);
+            for (IntBitmap starting : startingInside.values()) {
+                starting.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Every id in the tree, ascending.
+     */
+    public int[] ids() {
+        int[] ids = intervals.keys();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private void forEachContaining(int point, IntConsumer action) {
+        Block points = levels.get(0).get(point);
+        if (points != null) {
+            for (int i = 0; i < points.size; i++) {
+                action.accept((int) points.byStart[i]);
+            }
+        }
+        long unsigned = unsigned(point);
+        for (int level = 1; level < LEVELS; level++) {
+            Block block = levels.get(level).get((int) (unsigned >>> level));
+            if (block == null) {
+                continue;
+            }
+            // Every interval in the block contains its center; compare the point with that
+            long center = (unsigned >>> level << level) | (1L << (level - 1));
+            if (unsigned < center) {
+                for (int i = 0; i < block.size && (int) (block.byStart[i] >> 32) <= point; i++) {
+                    action.accept((int) block.byStart[i]);
+                }
+            } else {
+                for (int i = block.size - 1; i >= 0 && (int) (block.byEnd[i] >> 32) >= point; i--) {
+                    action.accept((int) block.byEnd[i]);
+                }
+            }
+        }
+    }
+
+    private Block block(int start, int end) {
+        int level = level(start, end);
+        return levels.get(level).computeIfAbsent(position(level, start), p -> new Block());
+    }
+
+    // The number of low bits in which start and end may differ inside their common block
+    private static int level(int start, int end) {
+        return 64 - Long.numberOfLeadingZeros(unsigned(start) ^ unsigned(end));
+    }
+
+    private static int position(int level, int start) {
+        return level == 0 ? start : (int) (unsigned(start) >>> level);
+    }
+
+    // Maps the int range onto 0 .. 2^32 - 1 in the same order
+    private static long unsigned(int value) {
+        return (long) value - Integer.MIN_VALUE;
+    }
+
+    private static long key(int value, int id) {
+        return ((long) value << 32) | id;
+    }
+
+    private static void checkInterval(int id, int start, int end) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Interval id must be non-negative: " + id);
+        }
+        if (start > end) {
+            throw new IllegalArgumentException("Interval ends before it starts: [" + start + ", " + end + "]");
+        }
+    }
+}
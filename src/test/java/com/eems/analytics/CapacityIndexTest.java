@@ -0,0 +1,242 @@
+package com.eems.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.eems.domain.Employee;
+import com.eems.domain.Project;
+
+/**
+ * Checks the capacity index against per-day sums of the assignments, through
+ * random changes to employees, project dates and allocations.
+ */
+class CapacityIndexTest {
+
+    private static final int FIRST_DAY = 20_000;
+    private static final int DAYS = 120;
+    private static final int EMPLOYEES = 40;
+    private static final int PROJECTS = 30;
+    private static final int DEPARTMENTS = 3;
+
+    // The rows the index is fed, kept here as well for the brute force
+    private final Map<Integer, Integer> departments = new TreeMap<>();
+    private final Map<Integer, int[]> spans = new TreeMap<>();
+    private final Map<Integer, Map<Integer, Integer>> allocations = new TreeMap<>();
+    private final CapacityIndex index = new CapacityIndex();
+
+    @Test
+    void queriesMatchPerDaySumsThroughRandomChanges() {
+        Random random = new Random(100L);
+        for (int employeeId = 1; employeeId <= EMPLOYEES; employeeId++) {
+            putEmployee(employeeId, 1 + random.nextInt(DEPARTMENTS));
+        }
+        for (int projectId = 1; projectId <= PROJECTS; projectId++) {
+            putProject(random, projectId);
+        }
+        for (int i = 0; i < 150; i++) {
+            putAssignment(random);
+        }
+        assertQueries(random);
+
+        for (int round = 0; round < 40; round++) {
+            for (int change = 0; change < 10; change++) {
+                applyRandomChange(random);
+            }
+            assertQueries(random);
+        }
+    }
+
+    @Test
+    void projectsWithoutDatesOrEndingBeforeTheyStartTakeNoCapacity() {
+        putEmployee(1, 1);
+        index.putProject(project(1, day(10), null));
+        index.putProject(project(2, day(10), day(5)));
+        index.putAssignment(1, 1, 80);
+        index.putAssignment(1, 2, 80);
+
+        assertEquals(List.of(new CapacitySegment(day(0), day(20), 0)), index.segments(1, day(0), day(20)));
+        assertEquals(List.of(), index.aboveAllocation(0));
+        assertNull(index.segments(2, day(0), day(20)));
+    }
+
+    // ============================================
+    // Random changes, applied to the index and the model
+    // ============================================
+
+    private void applyRandomChange(Random random) {
+        switch (random.nextInt(6)) {
+            case 0 -> putAssignment(random);
+            case 1 -> {
+                int employeeId = 1 + random.nextInt(EMPLOYEES);
+                int projectId = 1 + random.nextInt(PROJECTS);
+                index.removeAssignment(employeeId, projectId);
+                allocationsOf(employeeId).remove(projectId);
+            }
+            case 2 -> putProject(random, 1 + random.nextInt(PROJECTS));
+            case 3 -> {
+                int projectId = 1 + random.nextInt(PROJECTS);
+                index.removeProject(projectId);
+                spans.remove(projectId);
+                allocations.values().forEach(assigned -> assigned.remove(projectId));
+            }
+            case 4 -> putEmployee(1 + random.nextInt(EMPLOYEES), 1 + random.nextInt(DEPARTMENTS));
+            default -> {
+                int employeeId = 1 + random.nextInt(EMPLOYEES);
+                index.removeEmployee(employeeId);
+                departments.remove(employeeId);
+                allocations.remove(employeeId);
+            }
+        }
+    }
+
+    private void putEmployee(int employeeId, int departmentId) {
+        index.putEmployee(new Employee(employeeId, "Employee " + employeeId, "Engineer", day(0),
+                new BigDecimal("5000.00"), departmentId));
+        departments.put(employeeId, departmentId);
+    }
+
+    // One project in five has no end date; the rest last from one day to the whole window
+    private void putProject(Random random, int projectId) {
+        int start = random.nextInt(DAYS);
+        int end = Math.min(DAYS - 1, start + random.nextInt(random.nextBoolean() ? 10 : DAYS));
+        if (random.nextInt(5) == 0) {
+            index.putProject(project(projectId, day(start), null));
+            spans.remove(projectId);
+        } else {
+            index.putProject(project(projectId, day(start), day(end)));
+            spans.put(projectId, new int[] {start, end});
+        }
+    }
+
+    private void putAssignment(Random random) {
+        int employeeId = 1 + random.nextInt(EMPLOYEES);
+        int projectId = 1 + random.nextInt(PROJECTS);
+        if (!departments.containsKey(employeeId)) {
+            return;
+        }
+        // Assignments only refer to existing projects, as the foreign keys require
+        if (!spans.containsKey(projectId) && random.nextBoolean()) {
+            putProject(random, projectId);
+        }
+        int percent = random.nextInt(10) == 0 ? 0 : 10 * (1 + random.nextInt(8));
+        index.putAssignment(employeeId, projectId, percent);
+        allocationsOf(employeeId).put(projectId, percent);
+    }
+
+    private Map<Integer, Integer> allocationsOf(int employeeId) {
+        return allocations.computeIfAbsent(employeeId, e -> new TreeMap<>());
+    }
+
+    // ============================================
+    // Brute force
+    // ============================================
+
+    private void assertQueries(Random random) {
+        for (int q = 0; q < 30; q++) {
+            int from = random.nextInt(DAYS + 20) - 10;
+            int to = from + random.nextInt(40);
+            int limit = 10 * random.nextInt(13);
+            for (int departmentId = 0; departmentId <= DEPARTMENTS; departmentId++) {
+                assertArrayEquals(expectedWithin(departmentId, limit, from, to),
+                        index.withinAllocation(departmentId, limit, day(from), day(to)),
+                        "within " + limit + "% in department " + departmentId + " from " + from + " to " + to);
+            }
+            int employeeId = 1 + random.nextInt(EMPLOYEES);
+            assertEquals(expectedSegments(employeeId, from, to), index.segments(employeeId, day(from), day(to)),
+                    "segments of " + employeeId + " from " + from + " to " + to);
+        }
+        for (int limit = 0; limit <= 120; limit += 20) {
+            assertEquals(expectedAbove(limit), index.aboveAllocation(limit), "above " + limit + "%");
+        }
+    }
+
+    private int load(int employeeId, int day) {
+        int load = 0;
+        for (Map.Entry<Integer, Integer> allocation : allocations.getOrDefault(employeeId, Map.of()).entrySet()) {
+            int[] span = spans.get(allocation.getKey());
+            if (span != null && span[0] <= day && day <= span[1]) {
+                load += allocation.getValue();
+            }
+        }
+        return load;
+    }
+
+    private int[] expectedWithin(int departmentId, int limit, int from, int to) {
+        List<Integer> matches = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> employee : departments.entrySet()) {
+            if (departmentId != 0 && employee.getValue() != departmentId) {
+                continue;
+            }
+            int max = 0;
+            for (int day = from; day <= to; day++) {
+                max = Math.max(max, load(employee.getKey(), day));
+            }
+            if (max <= limit) {
+                matches.add(employee.getKey());
+            }
+        }
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private List<CapacitySegment> expectedSegments(int employeeId, int from, int to) {
+        if (!departments.containsKey(employeeId)) {
+            return null;
+        }
+        List<CapacitySegment> segments = new ArrayList<>();
+        int segmentStart = from;
+        for (int day = from + 1; day <= to + 1; day++) {
+            if (day > to || load(employeeId, day) != load(employeeId, segmentStart)) {
+                segments.add(new CapacitySegment(day(segmentStart), day(day - 1), load(employeeId, segmentStart)));
+                segmentStart = day;
+            }
+        }
+        return segments;
+    }
+
+    private List<OverAllocation> expectedAbove(int limit) {
+        List<OverAllocation> runs = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> employee : allocations.entrySet()) {
+            int employeeId = employee.getKey();
+            for (int day = 0; day < DAYS; day++) {
+                if (load(employeeId, day) <= limit) {
+                    continue;
+                }
+                int runStart = day;
+                int peak = 0;
+                while (day < DAYS && load(employeeId, day) > limit) {
+                    peak = Math.max(peak, load(employeeId, day));
+                    day++;
+                }
+                int runEnd = day - 1;
+                List<Integer> projectIds = new ArrayList<>();
+                for (Map.Entry<Integer, Integer> allocation : employee.getValue().entrySet()) {
+                    int[] span = spans.get(allocation.getKey());
+                    if (span != null && allocation.getValue() > 0 && span[0] <= runEnd && span[1] >= runStart) {
+                        projectIds.add(allocation.getKey());
+                    }
+                }
+                runs.add(new OverAllocation(employeeId, day(runStart), day(runEnd), peak, projectIds));
+            }
+        }
+        return runs;
+    }
+
+    private static Project project(int projectId, LocalDate start, LocalDate end) {
+        return new Project(projectId, "Project " + projectId, null, start, end, new BigDecimal("1000.00"), "Active");
+    }
+
+    private static LocalDate day(int offset) {
+        return LocalDate.ofEpochDay(FIRST_DAY + offset);
+    }
+}
@@ -0,0 +1,192 @@
+package com.eems.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.eems.domain.Employee;
+import com.eems.util.Benchmark;
+
+/**
+ * Benchmark: JSON Codec
+ * Timing and allocation of DomainJson over a list of employees against the
+ * naive approach: a StringBuilder of toString() values turned into bytes, and
+ * a String-based tree parse into maps whose values are converted afterwards.
+ * Both sides must round-trip the list exactly. Run with
+ * {@code java -cp target/classes:target/test-classes com.eems.api.JsonCodecBenchmark [employees]}.
+ */
+public class JsonCodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 15;
+    private static final int MEASURED_ROUNDS = 15;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Employee> employees = employees(count);
+
+        byte[] codecBytes = codecWrite(employees);
+        byte[] naiveBytes = naiveWrite(employees);
+        requireSame(employees, codecRead(codecBytes));
+        requireSame(employees, naiveRead(naiveBytes));
+        requireSame(employees, codecRead(naiveBytes));
+
+        Benchmark benchmark = new Benchmark(WARMUP_ROUNDS, MEASURED_ROUNDS);
+        System.out.printf("%,d employees, %,d bytes of JSON%n", count, codecBytes.length);
+        benchmark.measure("write codec", () -> codecWrite(employees).length);
+        benchmark.measure("write naive", () -> naiveWrite(employees).length);
+        benchmark.measure("read codec", () -> codecRead(codecBytes).size());
+        benchmark.measure("read naive", () -> naiveRead(naiveBytes).size());
+    }
+
+    // ============================================
+    // DomainJson
+    // ============================================
+    private static byte[] codecWrite(List<Employee> employees) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128 * employees.size());
+        JsonWriter json = new JsonWriter(buffer, 8192);
+        DomainJson.writeArray(json, employees, DomainJson::writeEmployee);
+        json.flush();
+        return buffer.toByteArray();
+    }
+
+    private static List<Employee> codecRead(byte[] bytes) {
+        JsonReader reader = new JsonReader(bytes);
+        List<Employee> employees = DomainJson.readArray(reader, DomainJson::readEmployee);
+        reader.endDocument();
+        return employees;
+    }
+
+    // ============================================
+    // Naive: Strings all the way
+    // ============================================
+    private static byte[] naiveWrite(List<Employee> employees) {
+        StringBuilder out = new StringBuilder();
+        out.append('[');
+        for (int i = 0; i < employees.size(); i++) {
+            Employee e = employees.get(i);
+            if (i > 0) out.append(',');
+            out.append("{\"employeeId\":").append(e.getEmployeeId())
+                    .append(",\"fullName\":").append(quote(e.getFullName()))
+                    .append(",\"title\":").append(quote(e.getTitle()))
+                    .append(",\"hireDate\":").append(quote(e.getHireDate().toString()))
+                    .append(",\"salary\":").append(e.getSalary().toString())
+                    .append(",\"departmentId\":").append(e.getDepartmentId())
+                    .append('}');
+        }
+        out.append(']');
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static List<Employee> naiveRead(byte[] bytes) {
+        TreeParser parser = new TreeParser(new String(bytes, StandardCharsets.UTF_8));
+        List<Employee> employees = new ArrayList<>();
+        for (Object element : (List<?>) parser.value()) {
+            Map<?, ?> fields = (Map<?, ?>) element;
+            employees.add(new Employee(
+                    Integer.parseInt((String) fields.get("employeeId")),
+                    (String) fields.get("fullName"),
+                    (String) fields.get("title"),
+                    LocalDate.parse((String) fields.get("hireDate")),
+                    new BigDecimal((String) fields.get("salary")),
+                    Integer.parseInt((String) fields.get("departmentId"))));
+        }
+        return employees;
+    }
+
+    /**
+     * Minimal tree parser over a String: objects become maps, arrays lists,
+     * and strings and numbers their text.
+     */
+    private static final class TreeParser {
+        private final String text;
+        private int position;
+
+        TreeParser(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            char c = text.charAt(position);
+            if (c == '{') {
+                Map<String, Object> object = new LinkedHashMap<>();
+                position++;
+                while (text.charAt(position) != '}') {
+                    String name = string();
+                    position++; // ':'
+                    object.put(name, value());
+                    if (text.charAt(position) == ',') position++;
+                }
+                position++;
+                return object;
+            }
+            if (c == '[') {
+                List<Object> array = new ArrayList<>();
+                position++;
+                while (text.charAt(position) != ']') {
+                    array.add(value());
+                    if (text.charAt(position) == ',') position++;
+                }
+                position++;
+                return array;
+            }
+            if (c == '"') {
+                return string();
+            }
+            int start = position;
+            while (position < text.length() && ",}]".indexOf(text.charAt(position)) < 0) position++;
+            return text.substring(start, position);
+        }
+
+        private String string() {
+            StringBuilder value = new StringBuilder();
+            position++;
+            for (char c = text.charAt(position); c != '"'; c = text.charAt(++position)) {
+                if (c == '\\') c = text.charAt(++position);
+                value.append(c);
+            }
+            position++;
+            return value.toString();
+        }
+    }
+
+    // ============================================
+    // Data
+    // ============================================
+    private static List<Employee> employees(int count) {
+        Random random = new Random(42);
+        String[] titles = {"Engineer", "Senior Engineer", "Manager", "Analyst \"Ops\"", "Directeur Général"};
+        List<Employee> employees = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            employees.add(new Employee(id, "Employee " + id, titles[random.nextInt(titles.length)],
+                    LocalDate.ofEpochDay(10_000 + random.nextInt(10_000)),
+                    BigDecimal.valueOf(3_000_000 + random.nextInt(20_000_000), 2), 1 + random.nextInt(50)));
+        }
+        return employees;
+    }
+
+    private static void requireSame(List<Employee> expected, List<Employee> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Round trip lost employees: " + actual.size() + " of " + expected.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Employee a = expected.get(i);
+            Employee b = actual.get(i);
+            if (a.getEmployeeId() != b.getEmployeeId() || !a.getFullName().equals(b.getFullName())
+                    || !a.getTitle().equals(b.getTitle()) || !a.getHireDate().equals(b.getHireDate())
+                    || !a.getSalary().equals(b.getSalary()) || a.getDepartmentId() != b.getDepartmentId()) {
+                throw new IllegalStateException("Round trip changed employee " + a.getEmployeeId());
+            }
+        }
+    }
+}
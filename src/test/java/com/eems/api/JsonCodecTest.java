@@ -0,0 +1,164 @@
+package com.eems.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trips through JsonWriter and JsonReader: decimals keep their scale,
+ * dates and strings come back unchanged, and malformed input is reported
+ * with the byte offset where reading stopped.
+ */
+class JsonCodecTest {
+
+    @Test
+    void decimalsKeepTheirDigitsAndScale() throws IOException {
+        String[] decimals = {
+            "1200.00", "1E+3", "0", "0.00", "-0.005", "12.5", "-1200.10", "1E+10",
+            // 18 digits still fit a long; 19 and more take BigDecimal's own form
+            "999999999999999999", "9223372036854775807", "9223372036854775808",
+            "12345678901234567890.123", "-0.0000000000000000000001", "1.23456789012345678901E+30",
+        };
+        for (String text : decimals) {
+            BigDecimal value = new BigDecimal(text);
+            byte[] json = write(writer -> writer.value(value));
+            BigDecimal read = new JsonReader(json).nextDecimal();
+            // equals, unlike compareTo, also compares the scale
+            assertEquals(value, read, text);
+            assertEquals(value.scale(), read.scale(), text);
+        }
+    }
+
+    @Test
+    void decimalsAreReadInEveryJsonForm() {
+        assertEquals(new BigDecimal("1200.00"), new JsonReader(bytes("1200.00")).nextDecimal());
+        assertEquals(new BigDecimal("1200.00"), new JsonReader(bytes("\"1200.00\"")).nextDecimal());
+        assertEquals(new BigDecimal("1E+3"), new JsonReader(bytes("1e3")).nextDecimal());
+        assertEquals(new BigDecimal("1.5E-7"), new JsonReader(bytes("1.5E-7")).nextDecimal());
+        assertEquals(new BigDecimal("-123456789012345678901234567890"),
+                new JsonReader(bytes("-123456789012345678901234567890")).nextDecimal());
+        assertEquals(null, new JsonReader(bytes("null")).nextDecimal());
+    }
+
+    @Test
+    void datesRoundTrip() throws IOException {
+        LocalDate[] dates = {
+            LocalDate.of(2024, 2, 29), LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31),
+            LocalDate.of(10_000, 1, 1), LocalDate.of(-1, 6, 15), LocalDate.of(1970, 1, 1),
+        };
+        for (LocalDate date : dates) {
+            byte[] json = write(writer -> writer.value(date));
+            assertEquals("\"" + date + "\"", new String(json, StandardCharsets.UTF_8));
+            assertEquals(date, new JsonReader(json).nextDate());
+        }
+    }
+
+    @Test
+    void stringsRoundTripWithEscapesAndSurrogatePairs() throws IOException {
+        String[] strings = {
+            "", "plain", "quote \" and backslash \\", "line\nbreak\ttab\rreturn\b\f",
+            "control \u0000 \u001F", "Zoë Directeur Général", "中文", "emoji 😀 and 𝄞",
+            "lone \uD800 high", "lone \uDC00 low", "slash / stays",
+        };
+        for (String text : strings) {
+            byte[] json = write(writer -> writer.value(text));
+            JsonReader reader = new JsonReader(json);
+            assertEquals(text, reader.nextString(), text);
+            reader.endDocument();
+        }
+    }
+
+    @Test
+    void escapedInputIsDecoded() {
+        assertEquals("😀", new JsonReader(bytes("\"\\uD83D\\uDE00\"")).nextString());
+        assertEquals("a/b", new JsonReader(bytes("\"a\\/b\"")).nextString());
+        assertEquals("é\n\"", new JsonReader(bytes("\"\\u00e9\\n\\\"\"")).nextString());
+    }
+
+    @Test
+    void objectsRoundTripWithEscapedNames() throws IOException {
+        JsonName salary = JsonName.of("salary");
+        byte[] json = write(writer -> writer.beginObject()
+                .name("na\"me").value("Ann")
+                .name(salary).value(new BigDecimal("1200.00"))
+                .name("hired").value(LocalDate.of(2020, 1, 31))
+                .endObject());
+        JsonReader reader = new JsonReader(json);
+        List<Object> values = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.nameIs(salary)) {
+                values.add(reader.nextDecimal());
+            } else if (reader.currentName().equals("hired")) {
+                values.add(reader.nextDate());
+            } else {
+                values.add(reader.currentName() + "=" + reader.nextString());
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+        assertEquals(List.of("na\"me=Ann", new BigDecimal("1200.00"), LocalDate.of(2020, 1, 31)), values);
+    }
+
+    @Test
+    void malformedInputNamesTheOffset() {
+        assertMalformed("[1 2]", 3, reader -> {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.nextDecimal();
+            }
+        });
+        assertMalformed("{\"a\" 1}", 5, reader -> {
+            reader.beginObject();
+            reader.hasNext();
+            reader.nextName();
+        });
+        assertMalformed("\"abc", 4, JsonReader::nextString);
+        assertMalformed("\"a\\x\"", 2, JsonReader::nextString);
+        assertMalformed("\"\\u12G4\"", 1, JsonReader::nextString);
+        assertMalformed("1.e5", 0, JsonReader::nextDecimal);
+        assertMalformed("1e", 0, JsonReader::nextDecimal);
+        assertMalformed("\"12x\"", 1, JsonReader::nextDecimal);
+        assertMalformed("\"2023-02-30\"", 0, JsonReader::nextDate);
+        assertMalformed("\"03/01/2024\"", 0, JsonReader::nextDate);
+        assertMalformed("[1] x", 4, reader -> {
+            reader.skipValue();
+            reader.endDocument();
+        });
+        assertMalformed("tru", 0, JsonReader::skipValue);
+    }
+
+    private static void assertMalformed(String json, int offset, Consumer<JsonReader> read) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> read.accept(new JsonReader(bytes(json))), json);
+        assertEquals("Malformed JSON at offset " + offset, e.getMessage().substring(0, e.getMessage().indexOf(':')),
+                json + ": " + e.getMessage());
+    }
+
+    private interface Writes {
+        void to(JsonWriter writer) throws IOException;
+    }
+
+    private static byte[] write(Writes writes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(buffer, 64);
+        writes.to(writer);
+        writer.flush();
+        return buffer.toByteArray();
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
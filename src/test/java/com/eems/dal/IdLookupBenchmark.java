@@ -0,0 +1,147 @@
+package com.eems.dal;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.eems.dal.memory.InMemoryDataStore;
+import com.eems.domain.Client;
+import com.eems.domain.Department;
+import com.eems.domain.Employee;
+import com.eems.domain.Project;
+import com.eems.util.Benchmark;
+import com.eems.util.IntList;
+
+/**
+ * Benchmark: Id Lookups
+ * Timing and allocation of the repository paths that take and return primitive
+ * ids, against the in-memory store: EmployeeRepository.findByIds(int[]) and the
+ * Project_Client and Project_Department id lookups returning IntList.
+ *
+ * Each is paired with the boxed shape the callers had before: ids boxed into a
+ * List&lt;Integer&gt; for findByIds, and link lookups answered as List&lt;Integer&gt;.
+ * The boxed link rows box the same IntList, so their extra cost is the boxing
+ * alone. Run with
+ * {@code java -cp target/classes:target/test-classes com.eems.dal.IdLookupBenchmark [employees]}.
+ */
+public class IdLookupBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private static final int DEPARTMENTS = 50;
+    private static final int CLIENTS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int employeeCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int projectCount = employeeCount / 10;
+        InMemoryDataStore store = new InMemoryDataStore();
+        populate(store, new Random(42), employeeCount, projectCount);
+
+        // A fifth of the employees, unordered and with repeats, as a project's assignments give them
+        Random random = new Random(7);
+        int[] ids = new int[employeeCount / 5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1 + random.nextInt(employeeCount);
+        }
+
+        Benchmark benchmark = new Benchmark(WARMUP_ROUNDS, MEASURED_ROUNDS);
+        System.out.printf("%,d employees, %,d projects, %,d ids per lookup%n", employeeCount, projectCount, ids.length);
+        benchmark.measure("findByIds int[]", () -> store.employees().findByIds(ids).size());
+        benchmark.measure("findByIds List<Integer>", () -> {
+            List<Integer> boxed = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                boxed.add(id);
+            }
+            return store.employees().findByIds(boxed).size();
+        });
+
+        ProjectClientRepository projectClients = store.projectClients();
+        ProjectDepartmentRepository projectDepartments = store.projectDepartments();
+        benchmark.measure("client ids IntList", () -> {
+            long sum = 0;
+            for (int projectId = 1; projectId <= projectCount; projectId++) {
+                sum += sum(projectClients.getClientIdsByProjectId(projectId));
+            }
+            return sum;
+        });
+        benchmark.measure("client ids boxed", () -> {
+            long sum = 0;
+            for (int projectId = 1; projectId <= projectCount; projectId++) {
+                sum += sum(boxed(projectClients.getClientIdsByProjectId(projectId)));
+            }
+            return sum;
+        });
+        benchmark.measure("project ids IntList", () -> {
+            long sum = 0;
+            for (int departmentId = 1; departmentId <= DEPARTMENTS; departmentId++) {
+                sum += sum(projectDepartments.getProjectIdsByDepartmentId(departmentId));
+            }
+            return sum;
+        });
+        benchmark.measure("project ids boxed", () -> {
+            long sum = 0;
+            for (int departmentId = 1; departmentId <= DEPARTMENTS; departmentId++) {
+                sum += sum(boxed(projectDepartments.getProjectIdsByDepartmentId(departmentId)));
+            }
+            return sum;
+        });
+    }
+
+    private static long sum(IntList ids) {
+        long sum = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            sum += ids.get(i);
+        }
+        return sum;
+    }
+
+    private static long sum(List<Integer> ids) {
+        long sum = 0;
+        for (Integer id : ids) {
+            sum += id;
+        }
+        return sum;
+    }
+
+    private static List<Integer> boxed(IntList ids) {
+        List<Integer> boxed = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            boxed.add(ids.get(i));
+        }
+        return boxed;
+    }
+
+    // ============================================
+    // Data
+    // ============================================
+    private static void populate(InMemoryDataStore store, Random random, int employeeCount, int projectCount)
+            throws Exception {
+        for (int id = 1; id <= DEPARTMENTS; id++) {
+            store.departments().create(new Department(id, "Department " + id, "Oslo", new BigDecimal("1000000.00")));
+        }
+        for (int id = 1; id <= employeeCount; id++) {
+            store.employees().create(new Employee(id, "Employee " + id, "Engineer", LocalDate.of(2020, 1, 1),
+                    BigDecimal.valueOf(5_000_000 + random.nextInt(5_000_000), 2), 1 + random.nextInt(DEPARTMENTS)));
+        }
+        for (int id = 1; id <= CLIENTS; id++) {
+            store.clients().create(new Client(id, "Client " + id, "Finance", "Contact " + id, "555-0100",
+                    "client" + id + "@example.com"));
+        }
+        for (int id = 1; id <= projectCount; id++) {
+            store.projects().create(new Project(id, "Project " + id, null, LocalDate.of(2026, 1, 1),
+                    LocalDate.of(2026, 12, 31), new BigDecimal("100000.00"), "Active"));
+            // Consecutive ids from a random first one, so no link repeats
+            int firstClient = random.nextInt(CLIENTS);
+            for (int link = 1 + random.nextInt(5); link > 0; link--) {
+                store.projectClients().assignClientToProject(id, 1 + (firstClient + link) % CLIENTS);
+            }
+            int firstDepartment = random.nextInt(DEPARTMENTS);
+            for (int link = 1 + random.nextInt(3); link > 0; link--) {
+                store.projectDepartments().assignDepartmentToProject(id, 1 + (firstDepartment + link) % DEPARTMENTS);
+            }
+        }
+    }
+}
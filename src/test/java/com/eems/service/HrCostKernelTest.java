@@ -0,0 +1,208 @@
+package com.eems.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.eems.domain.Employee;
+import com.eems.util.IntIntHashMap;
+import com.eems.util.IntObjectHashMap;
+
+/**
+ * Checks the fixed-point kernel against the BigDecimal computation that
+ * EEMSService.calculateProjectHRCost made before the kernel, kept here as the
+ * reference so the kernel's own BigDecimal fallback is checked as well.
+ */
+class HrCostKernelTest {
+
+    private static final int RANDOM_PROJECTS = 20_000;
+
+    @Test
+    void randomProjectsMatchReference() {
+        Random random = new Random(20_240_601L);
+        for (int i = 0; i < RANDOM_PROJECTS; i++) {
+            long months = random.nextInt(241);
+            Fixture project = randomProject(random, false);
+            assertMatchesReference(months, project);
+        }
+    }
+
+    @Test
+    void negativeSalariesAndDurationsMatchReference() {
+        Random random = new Random(7L);
+        for (int i = 0; i < RANDOM_PROJECTS; i++) {
+            long months = random.nextInt(481) - 240;
+            Fixture project = randomProject(random, true);
+            assertMatchesReference(months, project);
+        }
+    }
+
+    @Test
+    void halfUpBoundaryRoundsAwayFromZero() {
+        // 0.06 × 1 × 100 / 1200 = 0.005 exactly
+        assertEquals(new BigDecimal("0.01"), cost(1, "0.06", 100));
+        assertEquals(new BigDecimal("-0.01"), cost(1, "-0.06", 100));
+        assertEquals(new BigDecimal("0.01"), cost(-1, "-0.06", 100));
+        // 0.18 × 1 × 100 / 1200 = 0.015, 0.30 → 0.025
+        assertEquals(new BigDecimal("0.02"), cost(1, "0.18", 100));
+        assertEquals(new BigDecimal("0.03"), cost(1, "0.30", 100));
+        assertEquals(new BigDecimal("-0.03"), cost(1, "-0.30", 100));
+    }
+
+    @Test
+    void halfUpBoundaryMatchesReference() {
+        long[] salaryCents = {6, 18, 30, 42, 594, 1_194, 119_994, 5, 7, 11, 13};
+        int[] allocations = {1, 3, 7, 50, 99, 100};
+        for (long cents : salaryCents) {
+            for (int allocation : allocations) {
+                for (long months = -24; months <= 24; months++) {
+                    for (long sign : new long[] {1, -1}) {
+                        String salary = BigDecimal.valueOf(sign * cents, 2).toPlainString();
+                        assertEquals(referenceCost(months, salary, allocation), cost(months, salary, allocation),
+                                "salary " + salary + ", months " + months + ", allocation " + allocation);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void roundToCentsMatchesHalfUp() {
+        long[] amounts = {
+            0, 1, 499_999, 500_000, 500_001, 999_999, 1_000_000,
+            1_499_999, 1_500_000, 2_500_000, 123_456_789_500_000L, Long.MAX_VALUE / 2
+        };
+        for (long amount : amounts) {
+            for (long signed : new long[] {amount, -amount}) {
+                long expected = BigDecimal.valueOf(signed, 8).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                assertEquals(expected, HrCostKernel.roundToCents(signed), () -> "amount " + signed);
+            }
+        }
+    }
+
+    @Test
+    void employeeCostMatchesHalfEvenTerm() {
+        Random random = new Random(11L);
+        for (int i = 0; i < RANDOM_PROJECTS; i++) {
+            long cents = random.nextLong(-10_000_000_00L, 10_000_000_00L);
+            long months = random.nextInt(481) - 240;
+            int allocation = random.nextInt(101);
+            BigDecimal expected = BigDecimal.valueOf(cents, 2)
+                    .multiply(BigDecimal.valueOf(months))
+                    .multiply(BigDecimal.valueOf(allocation))
+                    .divide(BigDecimal.valueOf(1200), 8, RoundingMode.HALF_EVEN);
+            assertEquals(expected.unscaledValue().longValueExact(), HrCostKernel.employeeCostE8(cents, months, allocation));
+        }
+    }
+
+    @Test
+    void bulkFormMatchesReference() {
+        Random random = new Random(13L);
+        for (int i = 0; i < 2_000; i++) {
+            long months = random.nextInt(481) - 240;
+            Fixture project = randomProject(random, true);
+            int[] ids = project.allocations.keys();
+            long[] salaryCents = new long[ids.length];
+            int[] allocationPercent = new int[ids.length];
+            int count = 0;
+            for (int id : ids) {
+                Employee employee = project.employees.get(id);
+                if (employee == null) continue;
+                salaryCents[count] = HrCostKernel.toCents(employee.getSalary());
+                allocationPercent[count] = project.allocations.getOrDefault(id, 0);
+                count++;
+            }
+            BigDecimal expected = referenceCost(months, project);
+            assertEquals(expected, BigDecimal.valueOf(
+                    HrCostKernel.projectCostCents(months, salaryCents, allocationPercent, count), 2));
+        }
+    }
+
+    @Test
+    void subCentSalaryFallsBackToReference() {
+        assertEquals(referenceCost(7, "1000.005", 33), cost(7, "1000.005", 33));
+        assertEquals(referenceCost(12, "0.001", 100), cost(12, "0.001", 100));
+    }
+
+    @Test
+    void overflowFallsBackToReference() {
+        String salary = "92233720368547758.07";
+        assertEquals(referenceCost(240, salary, 100), cost(240, salary, 100));
+    }
+
+    private static void assertMatchesReference(long months, Fixture project) {
+        BigDecimal expected = referenceCost(months, project);
+        assertEquals(expected, HrCostKernel.projectCost(months, project.employees, project.allocations),
+                () -> "months " + months + ", " + project.allocations.size() + " employees");
+    }
+
+    private static BigDecimal cost(long months, String salary, int allocation) {
+        Fixture project = singleEmployee(salary, allocation);
+        return HrCostKernel.projectCost(months, project.employees, project.allocations);
+    }
+
+    private static BigDecimal referenceCost(long months, String salary, int allocation) {
+        return referenceCost(months, singleEmployee(salary, allocation));
+    }
+
+    /**
+     * The project cost as EEMSService computed it before the kernel: each
+     * employee's term in BigDecimal at scale 8, the sum rounded to cents.
+     */
+    private static BigDecimal referenceCost(long durationMonths, Fixture project) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int employeeId : project.allocations.keys()) {
+            Employee employee = project.employees.get(employeeId);
+            if (employee == null) continue;
+
+            // CostEmployee = (Salary / 12) × Duration (Months) × (Allocation Percentage / 100)
+            total = total.add(employee.getSalary()
+                .multiply(BigDecimal.valueOf(durationMonths))
+                .multiply(BigDecimal.valueOf(project.allocations.getOrDefault(employeeId, 0)))
+                .divide(BigDecimal.valueOf(1200), 8, RoundingMode.HALF_EVEN));
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Fixture singleEmployee(String salary, int allocation) {
+        Fixture project = new Fixture();
+        project.employees.put(1, employee(1, new BigDecimal(salary)));
+        project.allocations.put(1, allocation);
+        return project;
+    }
+
+    /**
+     * Up to 50 employees with up to three assignments each; some assigned
+     * employees are missing, as when a row was deleted between queries.
+     */
+    private static Fixture randomProject(Random random, boolean negatives) {
+        Fixture project = new Fixture();
+        int employeeCount = 1 + random.nextInt(50);
+        for (int id = 1; id <= employeeCount; id++) {
+            int assignments = 1 + random.nextInt(3);
+            for (int a = 0; a < assignments; a++) {
+                project.allocations.addTo(id, 1 + random.nextInt(100));
+            }
+            if (random.nextInt(20) == 0) continue;
+
+            long cents = random.nextLong(100_000_000_00L);
+            if (negatives && random.nextBoolean()) cents = -cents;
+            project.employees.put(id, employee(id, BigDecimal.valueOf(cents, 2)));
+        }
+        return project;
+    }
+
+    private static Employee employee(int id, BigDecimal salary) {
+        return new Employee(id, "Employee " + id, "Engineer", LocalDate.of(2020, 1, 1), salary, 1);
+    }
+
+    private static final class Fixture {
+        final IntObjectHashMap<Employee> employees = new IntObjectHashMap<>();
+        final IntIntHashMap allocations = new IntIntHashMap();
+    }
+}
@@ -0,0 +1,56 @@
+package com.eems.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Benchmark: Harness
+ * The measuring loop shared by the main()-driven benchmarks under src/test.
+ * Each workload runs its warm-up rounds, and keeps warming up for at least a
+ * second so the JIT has compiled what it calls, then its measured rounds,
+ * which are timed with nanoTime and charged the bytes the thread allocated.
+ * Every round's result is added to a sink field, so the JIT cannot drop the
+ * work. Prints one line per workload: bytes and milliseconds per round.
+ */
+public final class Benchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final long MIN_WARMUP_NANOS = 1_000_000_000L;
+
+    /**
+     * One round of work; returns a value derived from its result, such as a count or checksum.
+     */
+    public interface Workload {
+        long run() throws Exception;
+    }
+
+    private final int warmupRounds;
+    private final int measuredRounds;
+    private long sink;
+
+    public Benchmark(int warmupRounds, int measuredRounds) {
+        if (warmupRounds < 0 || measuredRounds <= 0) {
+            throw new IllegalArgumentException("Rounds must be positive: " + warmupRounds + ", " + measuredRounds);
+        }
+        this.warmupRounds = warmupRounds;
+        this.measuredRounds = measuredRounds;
+    }
+
+    public void measure(String name, Workload workload) throws Exception {
+        long warmupStart = System.nanoTime();
+        for (int i = 0; i < warmupRounds || System.nanoTime() - warmupStart < MIN_WARMUP_NANOS; i++) {
+            sink += workload.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredRounds; i++) {
+            sink += workload.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-24s %,14d bytes/op %10.3f ms/op%n",
+                name, bytes / measuredRounds, elapsed / 1e6 / measuredRounds);
+    }
+}
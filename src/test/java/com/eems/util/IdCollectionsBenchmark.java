@@ -0,0 +1,84 @@
+package com.eems.util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.eems.domain.Employee;
+import com.eems.domain.EmployeeProject;
+
+/**
+ * Benchmark: Id Collections
+ * Allocation and timing comparison of the boxed id handling that
+ * calculateProjectHRCost used to do (groupingBy into Map&lt;Integer, Integer&gt;,
+ * a distinct List&lt;Integer&gt; and a Map&lt;Integer, Employee&gt;) against the
+ * IntIntHashMap / IntObjectHashMap path. Run with
+ * {@code java -cp target/classes:target/test-classes com.eems.util.IdCollectionsBenchmark [assignments]}.
+ */
+public class IdCollectionsBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int assignmentCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int employeeCount = assignmentCount / 2;
+
+        Random random = new Random(42);
+        List<EmployeeProject> assignments = new ArrayList<>(assignmentCount);
+        for (int i = 0; i < assignmentCount; i++) {
+            assignments.add(new EmployeeProject(1 + random.nextInt(employeeCount), 1, 1 + random.nextInt(100)));
+        }
+        List<Employee> employees = new ArrayList<>(employeeCount);
+        for (int id = 1; id <= employeeCount; id++) {
+            employees.add(new Employee(id, "Employee " + id, "Engineer", LocalDate.of(2020, 1, 1),
+                    BigDecimal.valueOf(50_000 + id), 1));
+        }
+
+        Benchmark benchmark = new Benchmark(WARMUP_ROUNDS, MEASURED_ROUNDS);
+        System.out.printf("%,d assignments over %,d employees%n", assignmentCount, employeeCount);
+        benchmark.measure("boxed", () -> boxed(assignments, employees));
+        benchmark.measure("primitive", () -> primitive(assignments, employees));
+    }
+
+    private static long boxed(List<EmployeeProject> assignments, List<Employee> employees) {
+        Map<Integer, Integer> allocationByEmployee = assignments.stream()
+                .collect(Collectors.groupingBy(EmployeeProject::getEmployeeId,
+                        Collectors.summingInt(EmployeeProject::getTimeAllocationPercent)));
+        List<Integer> employeeIds = assignments.stream()
+                .map(EmployeeProject::getEmployeeId)
+                .distinct()
+                .toList();
+        Map<Integer, Employee> employeeById = employees.stream()
+                .collect(Collectors.toMap(Employee::getEmployeeId, e -> e));
+
+        long checksum = employeeIds.size();
+        for (Map.Entry<Integer, Integer> entry : allocationByEmployee.entrySet()) {
+            Employee employee = employeeById.get(entry.getKey());
+            if (employee != null) checksum += entry.getValue();
+        }
+        return checksum;
+    }
+
+    private static long primitive(List<EmployeeProject> assignments, List<Employee> employees) {
+        IntIntHashMap allocationByEmployee = new IntIntHashMap(assignments.size());
+        for (EmployeeProject assignment : assignments) {
+            allocationByEmployee.addTo(assignment.getEmployeeId(), assignment.getTimeAllocationPercent());
+        }
+        int[] employeeIds = allocationByEmployee.keys();
+        IntObjectHashMap<Employee> employeeById = new IntObjectHashMap<>(employeeIds.length);
+        for (Employee employee : employees) {
+            employeeById.put(employee.getEmployeeId(), employee);
+        }
+
+        long checksum = employeeIds.length;
+        for (int employeeId : employeeIds) {
+            if (employeeById.get(employeeId) != null) checksum += allocationByEmployee.getOrDefault(employeeId, 0);
+        }
+        return checksum;
+    }
+}
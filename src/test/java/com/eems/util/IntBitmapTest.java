@@ -0,0 +1,156 @@
+package com.eems.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the bitmap's set operations against java.util.BitSet, with groups
+ * on both sides of the 4096-value switch between array and bitset containers.
+ */
+class IntBitmapTest {
+
+    // Values per 65536-value group: array containers up to 4096, bitsets above
+    private static final int[] GROUP_SIZES = {0, 1, 100, 4095, 4096, 4097, 20_000, 65_536};
+
+    @Test
+    void andOrAndCardinalityMatchBitSetAcrossContainerKinds() {
+        Random random = new Random(4096L);
+        for (int left : GROUP_SIZES) {
+            for (int right : GROUP_SIZES) {
+                BitSet a = new BitSet();
+                BitSet b = new BitSet();
+                // Group 0 shared by both sides, group 1 only on the left, group 3 only on the right
+                fillGroup(random, a, 0, left);
+                fillGroup(random, b, 0, right);
+                fillGroup(random, a, 1, left);
+                fillGroup(random, b, 3, right);
+                assertOperations(a, b);
+            }
+        }
+    }
+
+    @Test
+    void intersectionFallingToTheBoundaryMatchesBitSet() {
+        // Two bitset containers whose intersection holds exactly 4096, 4095 and 4097 values
+        for (int overlap : new int[] {4095, 4096, 4097}) {
+            BitSet a = new BitSet();
+            BitSet b = new BitSet();
+            a.set(0, 10_000);
+            b.set(10_000 - overlap, 20_000);
+            assertOperations(a, b);
+            assertEquals(overlap, IntBitmap.and(bitmap(a), bitmap(b)).cardinality());
+        }
+    }
+
+    @Test
+    void unionCrossingTheBoundaryMatchesBitSet() {
+        // Two array containers whose union needs a bitset
+        BitSet a = new BitSet();
+        BitSet b = new BitSet();
+        for (int i = 0; i < 4096; i++) {
+            a.set(2 * i);
+            b.set(2 * i + 1);
+        }
+        assertOperations(a, b);
+        assertEquals(8192, IntBitmap.or(bitmap(a), bitmap(b)).cardinality());
+    }
+
+    @Test
+    void addAndRemoveAcrossTheBoundaryMatchBitSet() {
+        Random random = new Random(17L);
+        IntBitmap bitmap = new IntBitmap();
+        BitSet expected = new BitSet();
+        // Grow one group past 4096 values, then shrink it back below
+        for (int i = 0; i < 6_000; i++) {
+            int value = random.nextInt(8_000);
+            assertEquals(!expected.get(value), bitmap.add(value));
+            expected.set(value);
+        }
+        assertSame(expected, bitmap);
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(8_000);
+            assertEquals(expected.get(value), bitmap.remove(value));
+            expected.clear(value);
+        }
+        assertSame(expected, bitmap);
+        assertFalse(bitmap.remove(70_000));
+    }
+
+    @Test
+    void ofAndOrAllMatchBitSet() {
+        Random random = new Random(99L);
+        BitSet a = new BitSet();
+        BitSet b = new BitSet();
+        BitSet c = new BitSet();
+        fillGroup(random, a, 0, 4096);
+        fillGroup(random, b, 0, 4097);
+        fillGroup(random, c, 2, 10);
+        BitSet all = new BitSet();
+        all.or(a);
+        all.or(b);
+        all.or(c);
+
+        assertSame(all, IntBitmap.orAll(List.of(bitmap(a), bitmap(b), bitmap(c))));
+        int[] shuffled = all.stream().toArray();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        assertSame(all, IntBitmap.of(shuffled));
+    }
+
+    private static void assertOperations(BitSet a, BitSet b) {
+        IntBitmap left = bitmap(a);
+        IntBitmap right = bitmap(b);
+
+        BitSet and = (BitSet) a.clone();
+        and.and(b);
+        BitSet or = (BitSet) a.clone();
+        or.or(b);
+
+        assertSame(and, IntBitmap.and(left, right));
+        assertSame(and, IntBitmap.and(right, left));
+        assertEquals(and.cardinality(), IntBitmap.andCardinality(left, right));
+        assertEquals(and.cardinality(), IntBitmap.andCardinality(right, left));
+        assertSame(or, IntBitmap.or(left, right));
+        assertSame(or, IntBitmap.or(right, left));
+        // Operands are left unchanged
+        assertSame(a, left);
+        assertSame(b, right);
+    }
+
+    private static void assertSame(BitSet expected, IntBitmap actual) {
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+            assertTrue(actual.contains(value));
+        }
+    }
+
+    private static IntBitmap bitmap(BitSet values) {
+        return IntBitmap.ofSorted(values.stream().toArray());
+    }
+
+    private static void fillGroup(Random random, BitSet values, int group, int count) {
+        int base = group << 16;
+        int added = 0;
+        while (added < count) {
+            int value = base + random.nextInt(65_536);
+            if (!values.get(value)) {
+                values.set(value);
+                added++;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.eems.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks overlap and stabbing queries against a brute-force scan of the
+ * intervals, over the whole int range: negative values, single points, and
+ * level-32 intervals that contain both -1 and 0.
+ */
+class IntervalTreeTest {
+
+    private static final int INTERVALS = 3_000;
+    private static final int QUERIES = 2_000;
+
+    @Test
+    void bulkBuiltTreeMatchesBruteForce() {
+        Random random = new Random(33L);
+        TreeMap<Integer, int[]> expected = randomIntervals(random, INTERVALS);
+        int[] ids = new int[expected.size()];
+        int[] starts = new int[ids.length];
+        int[] ends = new int[ids.length];
+        int i = 0;
+        for (Map.Entry<Integer, int[]> entry : expected.entrySet()) {
+            ids[i] = entry.getKey();
+            starts[i] = entry.getValue()[0];
+            ends[i] = entry.getValue()[1];
+            i++;
+        }
+        IntervalTree tree = IntervalTree.of(ids, starts, ends);
+        assertQueries(random, expected, tree);
+    }
+
+    @Test
+    void incrementallyBuiltTreeMatchesBruteForce() {
+        Random random = new Random(32L);
+        TreeMap<Integer, int[]> expected = randomIntervals(random, INTERVALS);
+        IntervalTree tree = new IntervalTree();
+        expected.forEach((id, interval) -> tree.put(id, interval[0], interval[1]));
+        assertQueries(random, expected, tree);
+
+        // Move a third of the intervals and remove another third
+        for (int id = 0; id < INTERVALS; id++) {
+            if (id % 3 == 0) {
+                int[] moved = randomInterval(random);
+                tree.put(id, moved[0], moved[1]);
+                expected.put(id, moved);
+            } else if (id % 3 == 1) {
+                assertTrue(tree.remove(id));
+                expected.remove(id);
+            }
+        }
+        assertFalse(tree.remove(1));
+        assertEquals(expected.size(), tree.size());
+        assertQueries(random, expected, tree);
+    }
+
+    @Test
+    void levelThirtyTwoIntervalsAreFoundFromBothSides() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, -1, 0);
+        tree.put(2, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        tree.put(3, -5, 5);
+        tree.put(4, 0, 0);
+        tree.put(5, -1, -1);
+
+        assertArrayEquals(new int[] {1, 2, 3, 5}, tree.overlapping(-1, -1));
+        assertArrayEquals(new int[] {1, 2, 3, 4}, tree.overlapping(0, 0));
+        assertArrayEquals(new int[] {2, 3}, tree.overlapping(-5, -5));
+        assertArrayEquals(new int[] {2, 3}, tree.overlapping(5, 5));
+        assertArrayEquals(new int[] {2}, tree.overlapping(Integer.MIN_VALUE, Integer.MIN_VALUE));
+        assertArrayEquals(new int[] {2}, tree.overlapping(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, tree.overlapping(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {}, tree.overlapping(1, 0));
+    }
+
+    private static void assertQueries(Random random, TreeMap<Integer, int[]> expected, IntervalTree tree) {
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).toArray(), tree.ids());
+        for (int q = 0; q < QUERIES; q++) {
+            int[] range = randomInterval(random);
+            assertArrayEquals(bruteForce(expected, range[0], range[1]), tree.overlapping(range[0], range[1]),
+                    "overlapping " + range[0] + ".." + range[1]);
+
+            // Stabbing queries at random points and at the interval ends, where off-by-one errors show
+            int point = q % 2 == 0 ? range[0] : endpoint(random, expected);
+            assertArrayEquals(bruteForce(expected, point, point), tree.overlapping(point, point), "stabbing " + point);
+
+            Set<Integer> visited = new HashSet<>();
+            tree.forEachOverlapping(range[0], range[1], id -> assertTrue(visited.add(id), "visited twice: " + id));
+            assertEquals(bruteForce(expected, range[0], range[1]).length, visited.size());
+        }
+    }
+
+    private static int[] bruteForce(TreeMap<Integer, int[]> intervals, int from, int to) {
+        return intervals.entrySet().stream()
+                .filter(e -> e.getValue()[0] <= to && e.getValue()[1] >= from)
+                .mapToInt(e -> e.getKey())
+                .toArray();
+    }
+
+    private static int endpoint(Random random, TreeMap<Integer, int[]> intervals) {
+        int[] interval = intervals.values().stream().skip(random.nextInt(intervals.size())).findFirst().get();
+        int offset = random.nextInt(3) - 1;
+        long point = (long) interval[random.nextBoolean() ? 0 : 1] + offset;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, point));
+    }
+
+    private static TreeMap<Integer, int[]> randomIntervals(Random random, int count) {
+        TreeMap<Integer, int[]> intervals = new TreeMap<>();
+        for (int id = 0; id < count; id++) {
+            intervals.put(id, randomInterval(random));
+        }
+        return intervals;
+    }
+
+    /**
+     * Mostly short intervals around zero, so they overlap often, plus single points,
+     * intervals straddling -1 and 0, and ones spread over the whole int range.
+     */
+    private static int[] randomInterval(Random random) {
+        int start;
+        int end;
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                start = random.nextInt(20_000) - 10_000;
+                end = start;
+            }
+            case 1 -> {
+                start = -1 - random.nextInt(5_000);
+                end = random.nextInt(5_000);
+            }
+            case 2 -> {
+                start = random.nextInt();
+                end = random.nextInt();
+            }
+            default -> {
+                start = random.nextInt(20_000) - 10_000;
+                end = start + random.nextInt(2_000);
+            }
+        }
+        return new int[] {Math.min(start, end), Math.max(start, end)};
+    }
+}